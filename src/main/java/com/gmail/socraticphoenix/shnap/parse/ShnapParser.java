@@ -31,6 +31,7 @@ import com.gmail.socraticphoenix.shnap.doc.DocTreeBuilder;
 import com.gmail.socraticphoenix.shnap.program.ShnapOperators;
 import com.gmail.socraticphoenix.shnap.program.ShnapParameter;
 import com.gmail.socraticphoenix.shnap.program.context.ShnapContext;
+import com.gmail.socraticphoenix.shnap.program.context.ShnapSymbol;
 import com.gmail.socraticphoenix.shnap.program.context.ShnapExecution.State;
 import com.gmail.socraticphoenix.shnap.program.instructions.ShnapArrayLiteral;
 import com.gmail.socraticphoenix.shnap.program.instructions.ShnapFlag;
@@ -53,6 +54,7 @@ import com.gmail.socraticphoenix.shnap.program.instructions.block.ShnapIfBlock;
 import com.gmail.socraticphoenix.shnap.program.instructions.block.ShnapScopeBlock;
 import com.gmail.socraticphoenix.shnap.program.instructions.block.ShnapTryCatchBlock;
 import com.gmail.socraticphoenix.shnap.program.instructions.block.ShnapWhileBlock;
+import com.gmail.socraticphoenix.shnap.run.compiler.ShnapSlotResolver;
 import com.gmail.socraticphoenix.shnap.type.natives.ShnapStringNative;
 import com.gmail.socraticphoenix.shnap.type.natives.num.ShnapBooleanNative;
 import com.gmail.socraticphoenix.shnap.type.natives.num.ShnapCharNative;
@@ -220,7 +222,7 @@ public class ShnapParser {
             throw err("Expected statement");
         }
 
-        return new ShnapInstructionSequence(loc, instructions);
+        return ShnapSlotResolver.resolve(new ShnapInstructionSequence(loc, instructions));
     }
 
     public void prepareNextStatement() {
@@ -571,7 +573,7 @@ public class ShnapParser {
 
     public boolean isStateChangeNext() {
         for (State state : State.values()) {
-            if (this.tokenIsNext(state.getRep())) {
+            if (state != State.TAIL_CALL && this.tokenIsNext(state.getRep())) {
                 return true;
             }
         }
@@ -582,7 +584,7 @@ public class ShnapParser {
         ShnapLoc loc = this.loc();
         State state = null;
         for (State st : State.values()) {
-            if (stream.isNext(st.getRep())) {
+            if (st != State.TAIL_CALL && stream.isNext(st.getRep())) {
                 stream.next(st.getRep().length());
                 state = st;
                 break;
@@ -1342,7 +1344,7 @@ public class ShnapParser {
             ref.append(stream.next().get());
         }
         ref.append(parseNextIdentifier());
-        return ref.toString();
+        return ShnapSymbol.intern(ref.toString());
     }
 
     public boolean isVarRefNext() {
@@ -1419,7 +1421,7 @@ public class ShnapParser {
         while (stream.isNext(Character::isJavaIdentifierPart)) {
             builder.append(stream.next().get());
         }
-        return builder.toString();
+        return ShnapSymbol.intern(builder.toString());
     }
 
     public boolean isIdentifierNext() {
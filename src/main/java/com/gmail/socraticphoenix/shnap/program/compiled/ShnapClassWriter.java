@@ -0,0 +1,468 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 socraticphoenix@gmail.com
+ * Copyright (c) 2017 contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.gmail.socraticphoenix.shnap.program.compiled;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A minimal class file writer for the compiled tier. It writes version 49 class files, which the JVM checks with the
+ * type-inferencing verifier, so no stack map frames are needed. Only the instructions {@link ShnapTreeCompiler} emits
+ * are supported, and every descriptor is expected to use reference, int or boolean types.
+ */
+public class ShnapClassWriter {
+    public static final int ACC_PUBLIC = 0x0001;
+    public static final int ACC_PRIVATE = 0x0002;
+    public static final int ACC_STATIC = 0x0008;
+    public static final int ACC_FINAL = 0x0010;
+    public static final int ACC_SUPER = 0x0020;
+
+    public static final int ACONST_NULL = 0x01;
+    public static final int ICONST_0 = 0x03;
+    public static final int BIPUSH = 0x10;
+    public static final int SIPUSH = 0x11;
+    public static final int ALOAD = 0x19;
+    public static final int AALOAD = 0x32;
+    public static final int ASTORE = 0x3a;
+    public static final int AASTORE = 0x53;
+    public static final int POP = 0x57;
+    public static final int DUP = 0x59;
+    public static final int IFEQ = 0x99;
+    public static final int IFNE = 0x9a;
+    public static final int GOTO = 0xa7;
+    public static final int ARETURN = 0xb0;
+    public static final int RETURN = 0xb1;
+    public static final int GETFIELD = 0xb4;
+    public static final int PUTFIELD = 0xb5;
+    public static final int INVOKEVIRTUAL = 0xb6;
+    public static final int INVOKESPECIAL = 0xb7;
+    public static final int INVOKESTATIC = 0xb8;
+    public static final int INVOKEINTERFACE = 0xb9;
+    public static final int NEW = 0xbb;
+    public static final int ANEWARRAY = 0xbd;
+    public static final int ATHROW = 0xbf;
+    public static final int CHECKCAST = 0xc0;
+    public static final int INSTANCEOF = 0xc1;
+    public static final int IFNULL = 0xc6;
+    public static final int IFNONNULL = 0xc7;
+
+    private static final int MAX_CODE = Short.MAX_VALUE;
+
+    private String name;
+    private String superName;
+    private String[] interfaces;
+
+    private ByteArrayOutputStream pool = new ByteArrayOutputStream();
+    private DataOutputStream poolOut = new DataOutputStream(this.pool);
+    private Map<String, Integer> entries = new HashMap<>();
+    private int poolSize = 1;
+
+    private List<int[]> fields = new ArrayList<>();
+    private List<Code> methods = new ArrayList<>();
+
+    public ShnapClassWriter(String name, String superName, String... interfaces) {
+        this.name = name;
+        this.superName = superName;
+        this.interfaces = interfaces;
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public void field(int access, String name, String desc) {
+        this.fields.add(new int[]{access, this.utf8(name), this.utf8(desc)});
+    }
+
+    public Code method(int access, String name, String desc) {
+        Code code = new Code(access, name, desc);
+        this.methods.add(code);
+        return code;
+    }
+
+    public byte[] toByteArray() {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            int thisClass = this.classRef(this.name);
+            int superClass = this.classRef(this.superName);
+            int[] interfaces = new int[this.interfaces.length];
+            for (int i = 0; i < interfaces.length; i++) {
+                interfaces[i] = this.classRef(this.interfaces[i]);
+            }
+            int codeName = this.utf8("Code");
+            for (Code method : this.methods) {
+                method.resolve();
+            }
+
+            out.writeInt(0xCAFEBABE);
+            out.writeShort(0);
+            out.writeShort(49);
+            out.writeShort(this.poolSize);
+            this.pool.writeTo(out);
+            out.writeShort(ACC_PUBLIC | ACC_FINAL | ACC_SUPER);
+            out.writeShort(thisClass);
+            out.writeShort(superClass);
+            out.writeShort(interfaces.length);
+            for (int type : interfaces) {
+                out.writeShort(type);
+            }
+
+            out.writeShort(this.fields.size());
+            for (int[] field : this.fields) {
+                out.writeShort(field[0]);
+                out.writeShort(field[1]);
+                out.writeShort(field[2]);
+                out.writeShort(0);
+            }
+
+            out.writeShort(this.methods.size());
+            for (Code method : this.methods) {
+                method.write(out, codeName);
+            }
+            out.writeShort(0);
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new IllegalStateException("ByteArrayOutputStream threw IOException", e);
+        }
+    }
+
+    private int utf8(String value) {
+        Integer index = this.entries.get("U" + value);
+        if (index == null) {
+            index = this.entry("U" + value, 1);
+            this.write(() -> this.poolOut.writeUTF(value));
+        }
+        return index;
+    }
+
+    private int classRef(String type) {
+        Integer index = this.entries.get("C" + type);
+        if (index == null) {
+            int name = this.utf8(type);
+            index = this.entry("C" + type, 7);
+            this.write(() -> this.poolOut.writeShort(name));
+        }
+        return index;
+    }
+
+    private int member(int tag, String owner, String name, String desc) {
+        String key = tag + owner + "." + name + desc;
+        Integer index = this.entries.get(key);
+        if (index == null) {
+            int type = this.classRef(owner);
+            Integer nameAndType = this.entries.get("N" + name + desc);
+            if (nameAndType == null) {
+                int nameIndex = this.utf8(name);
+                int descIndex = this.utf8(desc);
+                nameAndType = this.entry("N" + name + desc, 12);
+                this.write(() -> {
+                    this.poolOut.writeShort(nameIndex);
+                    this.poolOut.writeShort(descIndex);
+                });
+            }
+            int nat = nameAndType;
+            index = this.entry(key, tag);
+            this.write(() -> {
+                this.poolOut.writeShort(type);
+                this.poolOut.writeShort(nat);
+            });
+        }
+        return index;
+    }
+
+    private int entry(String key, int tag) {
+        if (this.poolSize == 0xFFFF) {
+            throw new IllegalStateException("constant pool too large");
+        }
+        int index = this.poolSize++;
+        this.entries.put(key, index);
+        this.write(() -> this.poolOut.writeByte(tag));
+        return index;
+    }
+
+    private void write(PoolWrite write) {
+        try {
+            write.write();
+        } catch (IOException e) {
+            throw new IllegalStateException("ByteArrayOutputStream threw IOException", e);
+        }
+    }
+
+    private interface PoolWrite {
+
+        void write() throws IOException;
+
+    }
+
+    private static int argSlots(String desc) {
+        int slots = 0;
+        int i = 1;
+        while (desc.charAt(i) != ')') {
+            char c = desc.charAt(i);
+            if (c == 'J' || c == 'D') {
+                slots += 2;
+                i++;
+            } else if (c == '[' || c == 'L') {
+                while (desc.charAt(i) == '[') {
+                    i++;
+                }
+                i = desc.charAt(i) == 'L' ? desc.indexOf(';', i) + 1 : i + 1;
+                slots++;
+            } else {
+                slots++;
+                i++;
+            }
+        }
+        return slots;
+    }
+
+    private static int returnSlots(String desc) {
+        char c = desc.charAt(desc.indexOf(')') + 1);
+        return c == 'V' ? 0 : c == 'J' || c == 'D' ? 2 : 1;
+    }
+
+    public static class Label {
+        private int position = -1;
+        private int depth = -1;
+        private List<int[]> references = new ArrayList<>();
+
+    }
+
+    private static class Handler {
+        private Label start;
+        private Label end;
+        private Label handler;
+        private int type;
+
+        private Handler(Label start, Label end, Label handler, int type) {
+            this.start = start;
+            this.end = end;
+            this.handler = handler;
+            this.type = type;
+        }
+
+    }
+
+    public class Code {
+        private int access;
+        private int name;
+        private int desc;
+
+        private byte[] code = new byte[64];
+        private int length;
+        private int stack;
+        private int maxStack;
+        private int locals;
+        private List<Label> labels = new ArrayList<>();
+        private List<Handler> handlers = new ArrayList<>();
+
+        private Code(int access, String name, String desc) {
+            this.access = access;
+            this.name = ShnapClassWriter.this.utf8(name);
+            this.desc = ShnapClassWriter.this.utf8(desc);
+            this.locals = argSlots(desc) + ((access & ACC_STATIC) == 0 ? 1 : 0);
+        }
+
+        public int local() {
+            return this.locals++;
+        }
+
+        public int length() {
+            return this.length;
+        }
+
+        public void op(int opcode) {
+            this.put(opcode);
+            switch (opcode) {
+                case ACONST_NULL:
+                case DUP:
+                    this.adjust(1);
+                    break;
+                case AALOAD:
+                case POP:
+                    this.adjust(-1);
+                    break;
+                case AASTORE:
+                    this.adjust(-3);
+                    break;
+                case ARETURN:
+                case ATHROW:
+                case RETURN:
+                    this.stack = -1;
+                    break;
+                default:
+                    throw new IllegalArgumentException("unsupported opcode: " + opcode);
+            }
+        }
+
+        public void push(int value) {
+            if (value >= -1 && value <= 5) {
+                this.put(ICONST_0 + value);
+            } else if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+                this.put(BIPUSH);
+                this.put(value);
+            } else {
+                this.put(SIPUSH);
+                this.putShort(value);
+            }
+            this.adjust(1);
+        }
+
+        public void var(int opcode, int index) {
+            if (index > 0xFF) {
+                this.put(0xc4);
+                this.put(opcode);
+                this.putShort(index);
+            } else {
+                this.put(opcode);
+                this.put(index);
+            }
+            this.adjust(opcode == ALOAD ? 1 : -1);
+        }
+
+        public void type(int opcode, String type) {
+            this.put(opcode);
+            this.putShort(ShnapClassWriter.this.classRef(type));
+            if (opcode == NEW) {
+                this.adjust(1);
+            }
+        }
+
+        public void field(int opcode, String owner, String name, String desc) {
+            this.put(opcode);
+            this.putShort(ShnapClassWriter.this.member(9, owner, name, desc));
+            this.adjust(opcode == GETFIELD ? 0 : -2);
+        }
+
+        public void invoke(int opcode, String owner, String name, String desc) {
+            int args = argSlots(desc);
+            this.put(opcode);
+            this.putShort(ShnapClassWriter.this.member(opcode == INVOKEINTERFACE ? 11 : 10, owner, name, desc));
+            if (opcode == INVOKEINTERFACE) {
+                this.put(args + 1);
+                this.put(0);
+            }
+            this.adjust(returnSlots(desc) - args - (opcode == INVOKESTATIC ? 0 : 1));
+        }
+
+        public void jump(int opcode, Label label) {
+            this.adjust(opcode == GOTO ? 0 : -1);
+            this.target(label, this.stack);
+            this.labels.add(label);
+            label.references.add(new int[]{this.length, this.length + 1});
+            this.put(opcode);
+            this.putShort(0);
+            if (opcode == GOTO) {
+                this.stack = -1;
+            }
+        }
+
+        public void mark(Label label) {
+            label.position = this.length;
+            if (this.stack == -1) {
+                this.stack = label.depth;
+            } else {
+                this.target(label, this.stack);
+            }
+        }
+
+        public void handler(Label start, Label end, Label handler, String type) {
+            this.target(handler, 1);
+            this.handlers.add(new Handler(start, end, handler, ShnapClassWriter.this.classRef(type)));
+        }
+
+        private void target(Label label, int depth) {
+            if (label.depth != -1 && label.depth != depth) {
+                throw new IllegalStateException("stack depth mismatch at label: " + label.depth + " != " + depth);
+            }
+            label.depth = depth;
+            this.maxStack = Math.max(this.maxStack, depth);
+        }
+
+        private void adjust(int delta) {
+            if (this.stack == -1) {
+                throw new IllegalStateException("unreachable instruction");
+            }
+            this.stack += delta;
+            this.maxStack = Math.max(this.maxStack, this.stack);
+        }
+
+        private void put(int b) {
+            if (this.length == this.code.length) {
+                this.code = Arrays.copyOf(this.code, this.length * 2);
+            }
+            this.code[this.length++] = (byte) b;
+        }
+
+        private void putShort(int s) {
+            this.put(s >> 8);
+            this.put(s);
+        }
+
+        private void resolve() {
+            if (this.length > MAX_CODE) {
+                throw new IllegalStateException("method too large: " + this.length + " bytes");
+            }
+            for (Label label : this.labels) {
+                if (label.position == -1) {
+                    throw new IllegalStateException("unmarked label");
+                }
+                for (int[] reference : label.references) {
+                    int offset = label.position - reference[0];
+                    this.code[reference[1]] = (byte) (offset >> 8);
+                    this.code[reference[1] + 1] = (byte) offset;
+                }
+                label.references.clear();
+            }
+        }
+
+        private void write(DataOutputStream out, int codeName) throws IOException {
+            out.writeShort(this.access);
+            out.writeShort(this.name);
+            out.writeShort(this.desc);
+            out.writeShort(1);
+            out.writeShort(codeName);
+            out.writeInt(12 + this.length + 8 * this.handlers.size());
+            out.writeShort(this.maxStack);
+            out.writeShort(this.locals);
+            out.writeInt(this.length);
+            out.write(this.code, 0, this.length);
+            out.writeShort(this.handlers.size());
+            for (Handler handler : this.handlers) {
+                out.writeShort(handler.start.position);
+                out.writeShort(handler.end.position);
+                out.writeShort(handler.handler.position);
+                out.writeShort(handler.type);
+            }
+            out.writeShort(0);
+        }
+
+    }
+
+}
@@ -0,0 +1,62 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 socraticphoenix@gmail.com
+ * Copyright (c) 2017 contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.gmail.socraticphoenix.shnap.program.compiled;
+
+import com.gmail.socraticphoenix.shnap.program.AbstractShnapLocatable;
+import com.gmail.socraticphoenix.shnap.program.context.ShnapContext;
+import com.gmail.socraticphoenix.shnap.program.context.ShnapExecution;
+import com.gmail.socraticphoenix.shnap.program.instructions.ShnapInstruction;
+import com.gmail.socraticphoenix.shnap.run.env.ShnapEnvironment;
+
+public class ShnapCompiledInstruction extends AbstractShnapLocatable implements ShnapInstruction {
+    private ShnapInstruction source;
+    private ShnapCode code;
+
+    public ShnapCompiledInstruction(ShnapInstruction source, ShnapCode code) {
+        super(source.getLocation());
+        this.source = source;
+        this.code = code;
+    }
+
+    public ShnapInstruction getSource() {
+        return this.source;
+    }
+
+    public ShnapCode getCode() {
+        return this.code;
+    }
+
+    @Override
+    public ShnapExecution exec(ShnapContext context, ShnapEnvironment tracer) {
+        try {
+            return ShnapExecution.normal(this.code.run(context, tracer), tracer, this.getLocation());
+        } catch (ShnapAbnormalExit exit) {
+            return exit.getExecution();
+        }
+    }
+
+    @Override
+    public String decompile(int indent) {
+        return this.source.decompile(indent);
+    }
+
+}
@@ -0,0 +1,162 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 socraticphoenix@gmail.com
+ * Copyright (c) 2017 contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.gmail.socraticphoenix.shnap.program.compiled;
+
+import com.gmail.socraticphoenix.shnap.program.context.ShnapContext;
+import com.gmail.socraticphoenix.shnap.program.context.ShnapExecution;
+import com.gmail.socraticphoenix.shnap.program.context.ShnapExecution.State;
+import com.gmail.socraticphoenix.shnap.program.context.ShnapLocalRef;
+import com.gmail.socraticphoenix.shnap.program.instructions.ShnapGet;
+import com.gmail.socraticphoenix.shnap.program.instructions.ShnapInstruction;
+import com.gmail.socraticphoenix.shnap.program.instructions.ShnapInvoke;
+import com.gmail.socraticphoenix.shnap.program.instructions.ShnapOperate;
+import com.gmail.socraticphoenix.shnap.program.instructions.ShnapSet;
+import com.gmail.socraticphoenix.shnap.program.instructions.ShnapStateChange;
+import com.gmail.socraticphoenix.shnap.program.instructions.block.ShnapForBlock;
+import com.gmail.socraticphoenix.shnap.program.instructions.block.ShnapTryCatchBlock;
+import com.gmail.socraticphoenix.shnap.run.env.ShnapEnvironment;
+import com.gmail.socraticphoenix.shnap.type.natives.ShnapNativeOperators;
+import com.gmail.socraticphoenix.shnap.type.natives.num.ShnapBooleanNative;
+import com.gmail.socraticphoenix.shnap.type.object.ShnapFunction;
+import com.gmail.socraticphoenix.shnap.type.object.ShnapObject;
+import com.gmail.socraticphoenix.shnap.type.object.ShnapResolver;
+
+import java.util.Map;
+
+/**
+ * The operations that classes emitted by {@link ShnapTreeCompiler} call into. Each one returns a plain value, or throws
+ * a {@link ShnapAbnormalExit} when the instruction it stands for would have finished abnormally.
+ */
+public class ShnapCompiledUtil {
+
+    public static ShnapObject value(ShnapExecution execution) {
+        if (execution.isAbnormal()) {
+            throw new ShnapAbnormalExit(execution);
+        }
+        return execution.getValue();
+    }
+
+    public static ShnapObject resolve(ShnapObject object, ShnapEnvironment tracer) {
+        return object instanceof ShnapResolver ? value(object.resolve(tracer)) : object;
+    }
+
+    public static boolean truthy(ShnapObject object, ShnapEnvironment tracer) {
+        return object instanceof ShnapBooleanNative ? ((ShnapBooleanNative) object).getValue() : object.isTruthy(tracer);
+    }
+
+    public static ShnapObject exec(ShnapInstruction instruction, ShnapContext context, ShnapEnvironment tracer) {
+        return value(instruction.exec(context, tracer));
+    }
+
+    public static ShnapObject abnormal(ShnapStateChange change, ShnapObject value, ShnapEnvironment tracer) {
+        throw new ShnapAbnormalExit(new ShnapExecution(value, change.getState(), tracer, change.getLocation()));
+    }
+
+    public static ShnapObject local(ShnapGet get, ShnapLocalRef ref, ShnapContext context, ShnapEnvironment tracer) {
+        ShnapObject obj = ref.get(context);
+        return obj != null ? obj : value(get.loadLocal(context, tracer));
+    }
+
+    public static ShnapObject lookup(ShnapGet get, ShnapContext context, ShnapEnvironment tracer) {
+        return value(get.lookup(context, context, tracer));
+    }
+
+    public static ShnapObject lookupIn(ShnapGet get, ShnapContext context, ShnapObject target, ShnapEnvironment tracer) {
+        return value(get.lookup(context, resolve(target, tracer).getContext(), tracer));
+    }
+
+    public static void checkLocal(ShnapSet set, ShnapContext context, ShnapEnvironment tracer) {
+        ShnapExecution denied = set.checkLocal(context, tracer);
+        if (denied != null) {
+            throw new ShnapAbnormalExit(denied);
+        }
+    }
+
+    public static ShnapObject assign(ShnapLocalRef ref, ShnapContext context, ShnapObject value) {
+        ref.set(context, value);
+        return value;
+    }
+
+    public static ShnapObject assignOp(ShnapSet set, ShnapLocalRef ref, ShnapContext context, ShnapObject value, ShnapEnvironment tracer) {
+        ShnapObject prev = ref.get(context);
+        ShnapObject res = prev == null ? null : ShnapNativeOperators.tryOperate(prev, set.getOp(), value);
+        if (res != null) {
+            ref.set(context, res);
+            return res;
+        }
+        return value(set.operateLocal(context, value, tracer));
+    }
+
+    public static ShnapObject unary(ShnapOperate operate, ShnapObject operand, ShnapEnvironment tracer) {
+        operand = resolve(operand, tracer);
+        ShnapObject res = operate.quickOperate(operand, null);
+        return res != null ? res : value(operand.operate(operate.getOperator(), tracer));
+    }
+
+    public static ShnapObject binary(ShnapOperate operate, ShnapObject left, ShnapObject right, ShnapEnvironment tracer) {
+        ShnapObject res = operate.quickOperate(left, right);
+        return res != null ? res : value(left.operate(right, operate.getOperator(), tracer));
+    }
+
+    public static ShnapObject call(ShnapInvoke invoke, ShnapFunction function, ShnapObject[] values, Map<String, ShnapObject> defValues, ShnapEnvironment tracer) {
+        return value(invoke.call(function, values, defValues, tracer));
+    }
+
+    public static ShnapObject tailCall(ShnapInvoke invoke, ShnapFunction function, ShnapObject[] values, Map<String, ShnapObject> defValues, ShnapEnvironment tracer) {
+        return value(invoke.tailCall(function, values, defValues, tracer));
+    }
+
+    public static ShnapObject forLoop(ShnapForBlock block, ShnapInstruction body, ShnapContext context, ShnapEnvironment tracer) {
+        return value(block.exec(context, tracer, body));
+    }
+
+    public static ShnapObject labelled(ShnapObject label, ShnapAbnormalExit exit, ShnapEnvironment tracer) {
+        ShnapExecution block = exit.getExecution();
+        State state = block.getState();
+        if (!state.isReturning() && state != State.THROWING && label != ShnapObject.getVoid() && label.isEqualTo(block.getValue(), tracer) && state == State.BREAKING) {
+            return block.getValue();
+        }
+        throw exit;
+    }
+
+    public static boolean isCaught(ShnapObject label, ShnapExecution block, ShnapEnvironment tracer) {
+        State state = block.getState();
+        return !state.isReturning() && state != State.THROWING && (block.getValue() == ShnapObject.getVoid() || label.isEqualTo(block.getValue(), tracer));
+    }
+
+    public static boolean isBreak(ShnapObject label, ShnapAbnormalExit exit, ShnapEnvironment tracer) {
+        if (!isCaught(label, exit.getExecution(), tracer)) {
+            throw exit;
+        }
+        return exit.getExecution().getState() == State.BREAKING;
+    }
+
+    public static ShnapContext catchContext(ShnapTryCatchBlock block, ShnapAbnormalExit exit, ShnapContext context) {
+        if (exit.getExecution().getState() != State.THROWING) {
+            throw exit;
+        }
+        ShnapContext throwContext = ShnapContext.childOf(context, block.getCatchFrame());
+        throwContext.set(block.getCatchName(), exit.getExecution().getValue());
+        return throwContext;
+    }
+
+}
@@ -0,0 +1,88 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 socraticphoenix@gmail.com
+ * Copyright (c) 2017 contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.gmail.socraticphoenix.shnap.program.compiled;
+
+import com.gmail.socraticphoenix.shnap.program.AbstractShnapLocatable;
+import com.gmail.socraticphoenix.shnap.program.context.ShnapContext;
+import com.gmail.socraticphoenix.shnap.program.context.ShnapExecution;
+import com.gmail.socraticphoenix.shnap.program.instructions.ShnapInstruction;
+import com.gmail.socraticphoenix.shnap.program.stepper.ShnapStepper;
+import com.gmail.socraticphoenix.shnap.run.env.ShnapEnvironment;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ShnapTieredBody extends AbstractShnapLocatable implements ShnapInstruction {
+    private ShnapInstruction source;
+    private boolean loop;
+    private final AtomicInteger count = new AtomicInteger();
+    private volatile ShnapInstruction compiled;
+
+    public ShnapTieredBody(ShnapInstruction source) {
+        this(source, false);
+    }
+
+    public ShnapTieredBody(ShnapInstruction source, boolean loop) {
+        super(source.getLocation());
+        this.source = source;
+        this.loop = loop;
+    }
+
+    public ShnapInstruction getSource() {
+        return this.source;
+    }
+
+    public boolean isLoop() {
+        return this.loop;
+    }
+
+    public int getCount() {
+        return this.count.get();
+    }
+
+    public boolean isCompiled() {
+        return this.compiled != null;
+    }
+
+    @Override
+    public ShnapExecution exec(ShnapContext context, ShnapEnvironment tracer) {
+        ShnapInstruction compiled = this.compiled;
+        if (compiled == null) {
+            if (!tracer.isOptimizeEnabled() || this.count.incrementAndGet() < (this.loop ? tracer.getLoopThreshold() : tracer.getCompileThreshold())) {
+                return this.source.exec(context, tracer);
+            }
+            compiled = ShnapTreeCompiler.compile(this.source);
+            this.compiled = compiled;
+        }
+        return compiled.exec(context, tracer);
+    }
+
+    @Override
+    public ShnapStepper asStepper(ShnapContext context) {
+        return this.source.asStepper(context);
+    }
+
+    @Override
+    public String decompile(int indent) {
+        return this.source.decompile(indent);
+    }
+
+}
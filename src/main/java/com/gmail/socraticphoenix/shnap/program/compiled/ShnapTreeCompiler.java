@@ -0,0 +1,643 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 socraticphoenix@gmail.com
+ * Copyright (c) 2017 contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.gmail.socraticphoenix.shnap.program.compiled;
+
+import com.gmail.socraticphoenix.shnap.parse.ShnapLoc;
+import com.gmail.socraticphoenix.shnap.program.ShnapOperators;
+import com.gmail.socraticphoenix.shnap.program.compiled.ShnapClassWriter.Code;
+import com.gmail.socraticphoenix.shnap.program.compiled.ShnapClassWriter.Label;
+import com.gmail.socraticphoenix.shnap.program.context.ShnapContext;
+import com.gmail.socraticphoenix.shnap.program.context.ShnapExecution;
+import com.gmail.socraticphoenix.shnap.program.context.ShnapExecution.State;
+import com.gmail.socraticphoenix.shnap.program.context.ShnapFrameDescriptor;
+import com.gmail.socraticphoenix.shnap.program.context.ShnapLocalRef;
+import com.gmail.socraticphoenix.shnap.program.instructions.ShnapGet;
+import com.gmail.socraticphoenix.shnap.program.instructions.ShnapInstruction;
+import com.gmail.socraticphoenix.shnap.program.instructions.ShnapInstructionSequence;
+import com.gmail.socraticphoenix.shnap.program.instructions.ShnapInvoke;
+import com.gmail.socraticphoenix.shnap.program.instructions.ShnapLiteral;
+import com.gmail.socraticphoenix.shnap.program.instructions.ShnapNoOp;
+import com.gmail.socraticphoenix.shnap.program.instructions.ShnapOperate;
+import com.gmail.socraticphoenix.shnap.program.instructions.ShnapSet;
+import com.gmail.socraticphoenix.shnap.program.instructions.ShnapStateChange;
+import com.gmail.socraticphoenix.shnap.program.instructions.block.ShnapDoWhileBlock;
+import com.gmail.socraticphoenix.shnap.program.instructions.block.ShnapForBlock;
+import com.gmail.socraticphoenix.shnap.program.instructions.block.ShnapIfBlock;
+import com.gmail.socraticphoenix.shnap.program.instructions.block.ShnapScopeBlock;
+import com.gmail.socraticphoenix.shnap.program.instructions.block.ShnapTryCatchBlock;
+import com.gmail.socraticphoenix.shnap.program.instructions.block.ShnapWhileBlock;
+import com.gmail.socraticphoenix.shnap.run.env.ShnapEnvironment;
+import com.gmail.socraticphoenix.shnap.type.natives.num.ShnapBooleanNative;
+import com.gmail.socraticphoenix.shnap.type.object.ShnapFunction;
+import com.gmail.socraticphoenix.shnap.type.object.ShnapObject;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static com.gmail.socraticphoenix.shnap.program.compiled.ShnapClassWriter.*;
+
+/**
+ * Compiles instruction trees into JVM classes. Each tree becomes one hidden class implementing {@link ShnapCode},
+ * defined with {@code MethodHandles.Lookup.defineHiddenClass} and written by {@link ShnapClassWriter}. The emitted
+ * code keeps the evaluation order of the interpreter and calls {@link ShnapCompiledUtil} for each operation, so those
+ * calls are direct and the JIT can inline them. Blocks that catch {@link ShnapAbnormalExit} get their own method,
+ * because a handler clears the operand stack, and long sequences are split across methods to stay under the method
+ * size limit. Nodes without a case here fall back to {@link ShnapInstruction#exec}. If a tree still does not fit in a
+ * class, it runs on the interpreter instead.
+ */
+public class ShnapTreeCompiler {
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final int CHUNK = 32;
+
+    private static final String NAME = "com/gmail/socraticphoenix/shnap/program/compiled/ShnapCompiledCode";
+    private static final String UTIL = internal(ShnapCompiledUtil.class);
+    private static final String OBJECT = desc(ShnapObject.class);
+    private static final String RUN = method(ShnapObject.class, ShnapContext.class, ShnapEnvironment.class);
+
+    public static ShnapCompiledInstruction compile(ShnapInstruction instruction) {
+        if (instruction instanceof ShnapCompiledInstruction) {
+            return (ShnapCompiledInstruction) instruction;
+        }
+        return new ShnapCompiledInstruction(instruction, code(instruction));
+    }
+
+    public static ShnapCode code(ShnapInstruction instruction) {
+        if (instruction instanceof ShnapCompiledInstruction) {
+            return ((ShnapCompiledInstruction) instruction).getCode();
+        }
+
+        try {
+            return new Emitter().define(instruction);
+        } catch (IllegalStateException e) {
+            return (c, t) -> ShnapCompiledUtil.exec(instruction, c, t);
+        }
+    }
+
+    public static ShnapLoopCode whileLoop(ShnapWhileBlock block) {
+        return resume(code(block.getVal()), code(block.getInstruction()), block.getFrame(), block.getLocation(), false);
+    }
+
+    public static ShnapLoopCode doWhileLoop(ShnapDoWhileBlock block) {
+        return resume(code(block.getVal()), code(block.getInstruction()), block.getFrame(), block.getLocation(), true);
+    }
+
+    private static ShnapLoopCode resume(ShnapCode val, ShnapCode body, ShnapFrameDescriptor frame, ShnapLoc loc, boolean resolveCondition) {
+        return (c, t, label, last) -> {
+            try {
+                ShnapObject condition = val.run(c, t);
+                boolean abnormal = last.isAbnormal();
+                ShnapObject result = loop(val, body, frame, c, t, label, ShnapCompiledUtil.truthy(resolveCondition ? ShnapCompiledUtil.resolve(condition, t) : condition, t), resolveCondition, abnormal ? ShnapObject.getVoid() : last.getValue(), abnormal ? new ShnapAbnormalExit(last) : null);
+                return ShnapExecution.normal(result, t, loc);
+            } catch (ShnapAbnormalExit exit) {
+                return exit.getExecution();
+            }
+        };
+    }
+
+    private static ShnapObject loop(ShnapCode val, ShnapCode body, ShnapFrameDescriptor frame, ShnapContext c, ShnapEnvironment t, ShnapObject label, boolean condition, boolean resolveCondition, ShnapObject result, ShnapAbnormalExit pending) {
+        while (condition) {
+            try {
+                result = body.run(ShnapContext.childOf(c, frame), t);
+                pending = null;
+            } catch (ShnapAbnormalExit exit) {
+                ShnapExecution res = exit.getExecution();
+                if (!ShnapCompiledUtil.isCaught(label, res, t)) {
+                    throw exit;
+                } else if (res.getState() == State.BREAKING) {
+                    return res.getValue();
+                }
+                pending = exit;
+            }
+            ShnapObject next = val.run(c, t);
+            condition = ShnapCompiledUtil.truthy(resolveCondition ? ShnapCompiledUtil.resolve(next, t) : next, t);
+        }
+
+        if (pending != null) {
+            throw pending;
+        }
+        return result;
+    }
+
+    private static String internal(Class<?> type) {
+        return type.getName().replace('.', '/');
+    }
+
+    private static String desc(Class<?> type) {
+        if (type == boolean.class) {
+            return "Z";
+        } else if (type == void.class) {
+            return "V";
+        } else if (type.isArray()) {
+            return "[" + desc(type.getComponentType());
+        }
+        return "L" + internal(type) + ";";
+    }
+
+    private static String method(Class<?> ret, Class<?>... params) {
+        StringBuilder builder = new StringBuilder("(");
+        for (Class<?> param : params) {
+            builder.append(desc(param));
+        }
+        return builder.append(")").append(desc(ret)).toString();
+    }
+
+    private static class Emitter {
+        private ShnapClassWriter writer = new ShnapClassWriter(NAME, internal(Object.class), internal(ShnapCode.class));
+        private List<Object> constants = new ArrayList<>();
+        private List<Class<?>> types = new ArrayList<>();
+        private Deque<Consumer<Code>> pending = new ArrayDeque<>();
+        private Deque<String> names = new ArrayDeque<>();
+        private int methods;
+
+        private ShnapCode define(ShnapInstruction instruction) {
+            Code run = this.writer.method(ACC_PUBLIC, "run", RUN);
+            this.emit(run, instruction, 1);
+            run.op(ARETURN);
+            while (!this.pending.isEmpty()) {
+                Code code = this.writer.method(ACC_PRIVATE, this.names.poll(), RUN);
+                this.pending.poll().accept(code);
+            }
+
+            Code init = this.writer.method(ACC_PUBLIC, "<init>", method(void.class, Object[].class));
+            init.var(ALOAD, 0);
+            init.invoke(INVOKESPECIAL, internal(Object.class), "<init>", method(void.class));
+            for (int i = 0; i < this.constants.size(); i++) {
+                String desc = desc(this.types.get(i));
+                this.writer.field(ACC_PRIVATE | ACC_FINAL, "k" + i, desc);
+                init.var(ALOAD, 0);
+                init.var(ALOAD, 1);
+                init.push(i);
+                init.op(AALOAD);
+                init.type(CHECKCAST, internal(this.types.get(i)));
+                init.field(PUTFIELD, NAME, "k" + i, desc);
+            }
+            init.op(RETURN);
+
+            try {
+                MethodHandles.Lookup hidden = LOOKUP.defineHiddenClass(this.writer.toByteArray(), true);
+                return (ShnapCode) hidden.findConstructor(hidden.lookupClass(), MethodType.methodType(void.class, Object[].class)).invoke((Object) this.constants.toArray());
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException("could not define compiled code", e);
+            }
+        }
+
+        private void constant(Code code, Object value, Class<?> type) {
+            code.var(ALOAD, 0);
+            code.field(GETFIELD, NAME, "k" + this.constants.size(), desc(type));
+            this.constants.add(value);
+            this.types.add(type);
+        }
+
+        private void util(Code code, String name, Class<?> ret, Class<?>... params) {
+            code.invoke(INVOKESTATIC, UTIL, name, method(ret, params));
+        }
+
+        private void resolve(Code code) {
+            code.var(ALOAD, 2);
+            this.util(code, "resolve", ShnapObject.class, ShnapObject.class, ShnapEnvironment.class);
+        }
+
+        private void truthy(Code code) {
+            code.var(ALOAD, 2);
+            this.util(code, "truthy", boolean.class, ShnapObject.class, ShnapEnvironment.class);
+        }
+
+        private void childOf(Code code, int context, ShnapFrameDescriptor frame) {
+            code.var(ALOAD, context);
+            this.constant(code, frame, ShnapFrameDescriptor.class);
+            code.invoke(INVOKESTATIC, internal(ShnapContext.class), "childOf", method(ShnapContext.class, ShnapContext.class, ShnapFrameDescriptor.class));
+        }
+
+        private void staticObject(Code code, String name) {
+            code.invoke(INVOKESTATIC, internal(ShnapObject.class), name, method(ShnapObject.class));
+        }
+
+        private void outline(Code code, int context, Consumer<Code> body) {
+            String name = "m" + this.methods++;
+            code.var(ALOAD, 0);
+            code.var(ALOAD, context);
+            code.var(ALOAD, 2);
+            code.invoke(INVOKESPECIAL, NAME, name, RUN);
+            this.names.add(name);
+            this.pending.add(body);
+        }
+
+        private void emit(Code code, ShnapInstruction instruction, int context) {
+            if (instruction instanceof ShnapCompiledInstruction) {
+                this.constant(code, ((ShnapCompiledInstruction) instruction).getCode(), ShnapCode.class);
+                code.var(ALOAD, context);
+                code.var(ALOAD, 2);
+                code.invoke(INVOKEINTERFACE, internal(ShnapCode.class), "run", RUN);
+            } else if (instruction instanceof ShnapLiteral) {
+                this.constant(code, ((ShnapLiteral) instruction).getValue(), ShnapObject.class);
+            } else if (instruction instanceof ShnapNoOp) {
+                this.staticObject(code, "getVoid");
+            } else if (instruction instanceof ShnapInstructionSequence) {
+                this.sequence(code, ((ShnapInstructionSequence) instruction).getSequence(), context);
+            } else if (instruction instanceof ShnapStateChange) {
+                this.stateChange(code, (ShnapStateChange) instruction, context);
+            } else if (instruction instanceof ShnapGet) {
+                this.get(code, (ShnapGet) instruction, context);
+            } else if (instruction instanceof ShnapSet) {
+                this.set(code, (ShnapSet) instruction, context);
+            } else if (instruction instanceof ShnapOperate) {
+                this.operate(code, (ShnapOperate) instruction, context);
+            } else if (instruction instanceof ShnapInvoke) {
+                this.invoke(code, (ShnapInvoke) instruction, context, false);
+            } else if (instruction instanceof ShnapIfBlock) {
+                this.outline(code, context, c -> this.ifBlock(c, (ShnapIfBlock) instruction));
+            } else if (instruction instanceof ShnapScopeBlock) {
+                this.outline(code, context, c -> this.scopeBlock(c, (ShnapScopeBlock) instruction));
+            } else if (instruction instanceof ShnapWhileBlock) {
+                ShnapWhileBlock block = (ShnapWhileBlock) instruction;
+                this.outline(code, context, c -> this.loop(c, block.getName(), block.getVal(), block.getInstruction(), block.getFrame(), false));
+            } else if (instruction instanceof ShnapDoWhileBlock) {
+                ShnapDoWhileBlock block = (ShnapDoWhileBlock) instruction;
+                this.outline(code, context, c -> this.loop(c, block.getName(), block.getVal(), block.getInstruction(), block.getFrame(), true));
+            } else if (instruction instanceof ShnapForBlock) {
+                ShnapForBlock block = (ShnapForBlock) instruction;
+                this.constant(code, block, ShnapForBlock.class);
+                this.constant(code, compile(block.getInstruction()), ShnapInstruction.class);
+                code.var(ALOAD, context);
+                code.var(ALOAD, 2);
+                this.util(code, "forLoop", ShnapObject.class, ShnapForBlock.class, ShnapInstruction.class, ShnapContext.class, ShnapEnvironment.class);
+            } else if (instruction instanceof ShnapTryCatchBlock) {
+                this.outline(code, context, c -> this.tryCatchBlock(c, (ShnapTryCatchBlock) instruction));
+            } else {
+                this.constant(code, instruction, ShnapInstruction.class);
+                code.var(ALOAD, context);
+                code.var(ALOAD, 2);
+                this.util(code, "exec", ShnapObject.class, ShnapInstruction.class, ShnapContext.class, ShnapEnvironment.class);
+            }
+        }
+
+        private void sequence(Code code, List<ShnapInstruction> sequence, int context) {
+            if (sequence.isEmpty()) {
+                this.staticObject(code, "getNull");
+            } else if (sequence.size() > CHUNK) {
+                for (int i = 0; i < sequence.size(); i += CHUNK) {
+                    if (i > 0) {
+                        code.op(POP);
+                    }
+                    List<ShnapInstruction> chunk = sequence.subList(i, Math.min(i + CHUNK, sequence.size()));
+                    this.outline(code, context, c -> {
+                        this.sequence(c, chunk, 1);
+                        c.op(ARETURN);
+                    });
+                }
+            } else {
+                for (int i = 0; i < sequence.size(); i++) {
+                    if (i > 0) {
+                        code.op(POP);
+                    }
+                    this.emit(code, sequence.get(i), context);
+                }
+            }
+        }
+
+        private void stateChange(Code code, ShnapStateChange change, int context) {
+            if (!change.getState().isAbnormal()) {
+                this.constant(code, change, ShnapInstruction.class);
+                code.var(ALOAD, context);
+                code.var(ALOAD, 2);
+                this.util(code, "exec", ShnapObject.class, ShnapInstruction.class, ShnapContext.class, ShnapEnvironment.class);
+                return;
+            }
+
+            this.constant(code, change, ShnapStateChange.class);
+            if (change.getValue() == null) {
+                this.staticObject(code, "getVoid");
+            } else if (change.isTail()) {
+                this.invoke(code, (ShnapInvoke) change.getValue(), context, true);
+            } else {
+                this.emit(code, change.getValue(), context);
+            }
+            code.var(ALOAD, 2);
+            this.util(code, "abnormal", ShnapObject.class, ShnapStateChange.class, ShnapObject.class, ShnapEnvironment.class);
+        }
+
+        private void get(Code code, ShnapGet get, int context) {
+            ShnapLocalRef ref = get.getRef();
+            this.constant(code, get, ShnapGet.class);
+            if (ref != null) {
+                this.constant(code, ref, ShnapLocalRef.class);
+                code.var(ALOAD, context);
+                code.var(ALOAD, 2);
+                this.util(code, "local", ShnapObject.class, ShnapGet.class, ShnapLocalRef.class, ShnapContext.class, ShnapEnvironment.class);
+            } else if (get.getTarget() == null) {
+                code.var(ALOAD, context);
+                code.var(ALOAD, 2);
+                this.util(code, "lookup", ShnapObject.class, ShnapGet.class, ShnapContext.class, ShnapEnvironment.class);
+            } else {
+                code.var(ALOAD, context);
+                this.emit(code, get.getTarget(), context);
+                code.var(ALOAD, 2);
+                this.util(code, "lookupIn", ShnapObject.class, ShnapGet.class, ShnapContext.class, ShnapObject.class, ShnapEnvironment.class);
+            }
+        }
+
+        private void set(Code code, ShnapSet set, int context) {
+            ShnapLocalRef ref = set.getRef();
+            if (ref == null) {
+                this.constant(code, set, ShnapInstruction.class);
+                code.var(ALOAD, context);
+                code.var(ALOAD, 2);
+                this.util(code, "exec", ShnapObject.class, ShnapInstruction.class, ShnapContext.class, ShnapEnvironment.class);
+                return;
+            }
+
+            this.constant(code, set, ShnapSet.class);
+            code.var(ALOAD, context);
+            code.var(ALOAD, 2);
+            this.util(code, "checkLocal", void.class, ShnapSet.class, ShnapContext.class, ShnapEnvironment.class);
+            if (set.getOp() == null) {
+                this.constant(code, ref, ShnapLocalRef.class);
+                code.var(ALOAD, context);
+                this.emit(code, set.getVal(), context);
+                this.util(code, "assign", ShnapObject.class, ShnapLocalRef.class, ShnapContext.class, ShnapObject.class);
+            } else {
+                this.constant(code, set, ShnapSet.class);
+                this.constant(code, ref, ShnapLocalRef.class);
+                code.var(ALOAD, context);
+                this.emit(code, set.getVal(), context);
+                code.var(ALOAD, 2);
+                this.util(code, "assignOp", ShnapObject.class, ShnapSet.class, ShnapLocalRef.class, ShnapContext.class, ShnapObject.class, ShnapEnvironment.class);
+            }
+        }
+
+        private void operate(Code code, ShnapOperate operate, int context) {
+            ShnapOperators operator = operate.getOperator();
+            if (operate.getRight() == null || operator.getArity() != 2) {
+                this.constant(code, operate, ShnapOperate.class);
+                this.emit(code, operate.getLeft(), context);
+                code.var(ALOAD, 2);
+                this.util(code, "unary", ShnapObject.class, ShnapOperate.class, ShnapObject.class, ShnapEnvironment.class);
+                return;
+            }
+
+            if (operator == ShnapOperators.LOGICAL_AND || operator == ShnapOperators.LOGICAL_OR) {
+                boolean shortCircuit = operator == ShnapOperators.LOGICAL_OR;
+                int left = code.local();
+                Label full = new Label();
+                Label end = new Label();
+                this.emit(code, operate.getLeft(), context);
+                this.resolve(code);
+                code.var(ASTORE, left);
+                code.var(ALOAD, left);
+                this.truthy(code);
+                code.jump(shortCircuit ? IFEQ : IFNE, full);
+                this.constant(code, ShnapBooleanNative.of(shortCircuit), ShnapObject.class);
+                code.jump(GOTO, end);
+                code.mark(full);
+                this.constant(code, operate, ShnapOperate.class);
+                code.var(ALOAD, left);
+                this.emit(code, operate.getRight(), context);
+                this.resolve(code);
+                code.var(ALOAD, 2);
+                this.util(code, "binary", ShnapObject.class, ShnapOperate.class, ShnapObject.class, ShnapObject.class, ShnapEnvironment.class);
+                code.mark(end);
+                return;
+            }
+
+            this.constant(code, operate, ShnapOperate.class);
+            this.emit(code, operate.getLeft(), context);
+            this.resolve(code);
+            this.emit(code, operate.getRight(), context);
+            this.resolve(code);
+            code.var(ALOAD, 2);
+            this.util(code, "binary", ShnapObject.class, ShnapOperate.class, ShnapObject.class, ShnapObject.class, ShnapEnvironment.class);
+        }
+
+        private void invoke(Code code, ShnapInvoke invoke, int context, boolean tail) {
+            int function = code.local();
+            Label call = new Label();
+            Label end = new Label();
+            this.emit(code, invoke.getTarget(), context);
+            this.resolve(code);
+            code.var(ASTORE, function);
+            code.var(ALOAD, function);
+            code.type(INSTANCEOF, internal(ShnapFunction.class));
+            code.jump(IFNE, call);
+            this.staticObject(code, "getVoid");
+            code.jump(GOTO, end);
+
+            code.mark(call);
+            this.constant(code, invoke, ShnapInvoke.class);
+            code.var(ALOAD, function);
+            code.type(CHECKCAST, internal(ShnapFunction.class));
+            List<ShnapInstruction> args = invoke.getArgs();
+            code.push(args.size());
+            code.type(ANEWARRAY, internal(ShnapObject.class));
+            for (int i = 0; i < args.size(); i++) {
+                code.op(DUP);
+                code.push(i);
+                this.emit(code, args.get(i), context);
+                this.resolve(code);
+                code.op(AASTORE);
+            }
+
+            Map<String, ShnapInstruction> defArgs = invoke.getDefArgs();
+            if (defArgs.isEmpty()) {
+                code.invoke(INVOKESTATIC, internal(Collections.class), "emptyMap", method(Map.class));
+            } else {
+                code.type(NEW, internal(LinkedHashMap.class));
+                code.op(DUP);
+                code.invoke(INVOKESPECIAL, internal(LinkedHashMap.class), "<init>", method(void.class));
+                for (Map.Entry<String, ShnapInstruction> defArg : defArgs.entrySet()) {
+                    code.op(DUP);
+                    this.constant(code, defArg.getKey(), String.class);
+                    this.emit(code, defArg.getValue(), context);
+                    this.resolve(code);
+                    code.invoke(INVOKEINTERFACE, internal(Map.class), "put", method(Object.class, Object.class, Object.class));
+                    code.op(POP);
+                }
+            }
+            code.var(ALOAD, 2);
+            this.util(code, tail ? "tailCall" : "call", ShnapObject.class, ShnapInvoke.class, ShnapFunction.class, ShnapObject[].class, Map.class, ShnapEnvironment.class);
+            code.mark(end);
+        }
+
+        private void ifBlock(Code code, ShnapIfBlock block) {
+            int label = code.local();
+            Label orElse = new Label();
+            this.emit(code, block.getName(), 1);
+            code.var(ASTORE, label);
+            if (block.getVal() == null) {
+                this.labelled(code, label, block.getInstruction(), block.getFrame());
+                return;
+            }
+
+            this.emit(code, block.getVal(), 1);
+            this.resolve(code);
+            this.truthy(code);
+            code.jump(IFEQ, orElse);
+            this.labelled(code, label, block.getInstruction(), block.getFrame());
+
+            code.mark(orElse);
+            if (block.getElif() != null) {
+                this.emit(code, block.getElif(), 1);
+            } else {
+                this.staticObject(code, "getVoid");
+            }
+            code.op(ARETURN);
+        }
+
+        private void scopeBlock(Code code, ShnapScopeBlock block) {
+            int label = code.local();
+            this.emit(code, block.getName(), 1);
+            code.var(ASTORE, label);
+            this.labelled(code, label, block.getInstruction(), block.getFrame());
+        }
+
+        private void labelled(Code code, int label, ShnapInstruction body, ShnapFrameDescriptor frame) {
+            int child = code.local();
+            Label start = new Label();
+            Label end = new Label();
+            Label handler = new Label();
+            code.handler(start, end, handler, internal(ShnapAbnormalExit.class));
+            code.mark(start);
+            this.childOf(code, 1, frame);
+            code.var(ASTORE, child);
+            this.emit(code, body, child);
+            code.op(ARETURN);
+            code.mark(end);
+
+            code.mark(handler);
+            int exit = code.local();
+            code.var(ASTORE, exit);
+            code.var(ALOAD, label);
+            code.var(ALOAD, exit);
+            code.var(ALOAD, 2);
+            this.util(code, "labelled", ShnapObject.class, ShnapObject.class, ShnapAbnormalExit.class, ShnapEnvironment.class);
+            code.op(ARETURN);
+        }
+
+        private void loop(Code code, ShnapInstruction name, ShnapInstruction val, ShnapInstruction body, ShnapFrameDescriptor frame, boolean resolveCondition) {
+            int label = code.local();
+            int result = code.local();
+            int pending = code.local();
+            int child = code.local();
+            int exit = code.local();
+            Label head = new Label();
+            Label end = new Label();
+            Label handler = new Label();
+            Label next = new Label();
+            Label carry = new Label();
+            Label done = new Label();
+            Label normal = new Label();
+
+            this.emit(code, name, 1);
+            code.var(ASTORE, label);
+            this.staticObject(code, "getVoid");
+            code.var(ASTORE, result);
+            code.op(ACONST_NULL);
+            code.var(ASTORE, pending);
+            if (!resolveCondition) {
+                this.emit(code, val, 1);
+                this.resolve(code);
+                this.truthy(code);
+                code.jump(IFEQ, done);
+            }
+
+            code.handler(head, end, handler, internal(ShnapAbnormalExit.class));
+            code.mark(head);
+            this.childOf(code, 1, frame);
+            code.var(ASTORE, child);
+            this.emit(code, body, child);
+            code.var(ASTORE, result);
+            code.op(ACONST_NULL);
+            code.var(ASTORE, pending);
+            code.mark(end);
+            code.jump(GOTO, next);
+
+            code.mark(handler);
+            code.var(ASTORE, exit);
+            code.var(ALOAD, label);
+            code.var(ALOAD, exit);
+            code.var(ALOAD, 2);
+            this.util(code, "isBreak", boolean.class, ShnapObject.class, ShnapAbnormalExit.class, ShnapEnvironment.class);
+            code.jump(IFEQ, carry);
+            code.var(ALOAD, exit);
+            code.invoke(INVOKEVIRTUAL, internal(ShnapAbnormalExit.class), "getExecution", method(ShnapExecution.class));
+            code.invoke(INVOKEVIRTUAL, internal(ShnapExecution.class), "getValue", method(ShnapObject.class));
+            code.op(ARETURN);
+            code.mark(carry);
+            code.var(ALOAD, exit);
+            code.var(ASTORE, pending);
+
+            code.mark(next);
+            this.emit(code, val, 1);
+            if (resolveCondition) {
+                this.resolve(code);
+            }
+            this.truthy(code);
+            code.jump(IFNE, head);
+
+            code.mark(done);
+            code.var(ALOAD, pending);
+            code.jump(IFNULL, normal);
+            code.var(ALOAD, pending);
+            code.op(ATHROW);
+            code.mark(normal);
+            code.var(ALOAD, result);
+            code.op(ARETURN);
+        }
+
+        private void tryCatchBlock(Code code, ShnapTryCatchBlock block) {
+            int child = code.local();
+            Label start = new Label();
+            Label end = new Label();
+            Label handler = new Label();
+            code.handler(start, end, handler, internal(ShnapAbnormalExit.class));
+            code.mark(start);
+            this.childOf(code, 1, block.getTryFrame());
+            code.var(ASTORE, child);
+            this.emit(code, block.getTryBlock(), child);
+            code.op(ARETURN);
+            code.mark(end);
+
+            code.mark(handler);
+            int exit = code.local();
+            int catchContext = code.local();
+            code.var(ASTORE, exit);
+            this.constant(code, block, ShnapTryCatchBlock.class);
+            code.var(ALOAD, exit);
+            code.var(ALOAD, 1);
+            this.util(code, "catchContext", ShnapContext.class, ShnapTryCatchBlock.class, ShnapAbnormalExit.class, ShnapContext.class);
+            code.var(ASTORE, catchContext);
+            this.emit(code, block.getCatchBlock(), catchContext);
+            code.op(ARETURN);
+        }
+
+    }
+
+}
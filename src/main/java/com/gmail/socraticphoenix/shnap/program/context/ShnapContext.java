@@ -21,27 +21,41 @@
  */
 package com.gmail.socraticphoenix.shnap.program.context;
 
-import com.gmail.socraticphoenix.parse.Strings;
 import com.gmail.socraticphoenix.shnap.parse.ShnapLoc;
 import com.gmail.socraticphoenix.shnap.run.env.ShnapEnvironment;
 import com.gmail.socraticphoenix.shnap.type.object.ShnapObject;
 import com.gmail.socraticphoenix.shnap.type.object.ShnapResolver;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class ShnapContext {
+    private static final ShnapFrameDescriptor RECEIVER = new ShnapFrameDescriptor(Collections.singletonList("this"));
+    private static final AtomicInteger PRIVATE_EPOCH = new AtomicInteger();
+
     private ShnapContext parent;
     private Map<String, ShnapObject> variables;
-    private Map<String, List<Flag>> flags;
+    private Map<String, Integer> flags;
     private boolean ceiling;
 
+    private ShnapFrameDescriptor frame;
+    private ShnapObject[] slots;
+    private int[] slotFlags;
+    private int highestSlot = -1;
+    private String[] order;
+    private int orderSize;
+    private ShnapPrototype prototype;
+
+    private ShnapShape shape;
+    private ShnapObject[] fields;
+
     public ShnapContext() {
-        this.variables = new LinkedHashMap<>();
-        this.flags = new LinkedHashMap<>();
         this.ceiling = false;
     }
 
@@ -50,6 +64,19 @@ public class ShnapContext {
         this.parent = parent;
     }
 
+    public ShnapContext(ShnapContext parent, ShnapFrameDescriptor frame) {
+        this(parent);
+        if (frame != null) {
+            this.frame = frame;
+            this.slots = new ShnapObject[frame.size()];
+        }
+    }
+
+    public ShnapContext(ShnapPrototype prototype) {
+        this(null, RECEIVER);
+        this.prototype = prototype;
+    }
+
     public boolean isCeiling() {
         return this.ceiling;
     }
@@ -58,169 +85,450 @@ public class ShnapContext {
         this.ceiling = ceiling;
     }
 
+    public static int getPrivateEpoch() {
+        return PRIVATE_EPOCH.get();
+    }
+
+    public ShnapContext getParent() {
+        return this.parent;
+    }
+
+    public ShnapFrameDescriptor getFrame() {
+        return this.frame;
+    }
+
+    public ShnapPrototype getPrototype() {
+        return this.prototype;
+    }
+
+    public ShnapShape getShape() {
+        return this.shape;
+    }
+
+    public ShnapObject getField(int slot) {
+        return this.fields[slot];
+    }
+
     public Map<String, ShnapObject> getVariables() {
+        if (this.variables == null) {
+            this.variables = new LinkedHashMap<>();
+        }
         return this.variables;
     }
 
     public boolean hasFlag(String name, Flag flag) {
-        List<Flag> flags = this.getFlags(name);
-        return flags != null && flags.contains(flag);
+        return this.hasFlag(ShnapSymbol.find(name), flag);
+    }
+
+    public boolean hasFlag(ShnapSymbol symbol, Flag flag) {
+        return (this.getFlags(symbol) & flag.mask()) != 0;
     }
 
     public void setLocally(String name, ShnapObject object) {
-        this.variables.remove(name);
-        this.flags.remove(name);
-        if (name.startsWith("^")) {
-            this.getParentSafely().setLocally(Strings.cutFirst(name), object);
-            return;
-        }
+        ShnapSymbol symbol = ShnapSymbol.find(name);
+        ShnapContext target = this.hop(symbol, true);
+        target.remove(symbol.getName());
+        target.store(symbol.getName(), object);
+    }
 
-        this.variables.put(name, object);
+    public void bind(int slot, String name, ShnapObject object) {
+        this.store(slot, name, object);
     }
 
     public boolean containsScopeWise(String name) {
-        if (name.startsWith("^")) {
-            if (this.parent == null) {
-                return false;
-            } else {
-                return this.parent.containsScopeWise(name);
-            }
-        } else if (name.startsWith(":")) {
-            return this.variables.containsKey(Strings.cutFirst(name));
+        return this.lookup(name).isPresent();
+    }
+
+    public ShnapObject getExactly(String name) {
+        ShnapObject obj = this.lookup(name).getValue();
+        return obj == null ? ShnapObject.getVoid() : obj;
+    }
+
+    public void set(String name, ShnapObject object) {
+        this.set(ShnapSymbol.find(name), object);
+    }
+
+    public void set(ShnapSymbol symbol, ShnapObject object) {
+        ShnapContext target = this.hop(symbol, true);
+        if (symbol.isLocal()) {
+            target.store(symbol.getName(), object);
+        } else {
+            target.lookup(symbol.getName(), true).set(object);
+        }
+    }
+
+    public void del(String name) {
+        ShnapSymbol symbol = ShnapSymbol.find(name);
+        ShnapContext target = this.hop(symbol, true);
+        if (!symbol.isLocal()) {
+            target = target.lookup(symbol.getName(), true).getContext();
         }
+        target.remove(symbol.getName());
+    }
+
+    public void setFlag(String name, Flag flag) {
+        this.setFlag(ShnapSymbol.find(name), flag);
+    }
 
-        boolean flag = this.variables.containsKey(name);
-        if (!flag) {
-            if (this.parent != null) {
-                return this.parent.containsScopeWise(name);
+    public void setFlag(ShnapSymbol symbol, Flag flag) {
+        ShnapContext target = this.hop(symbol, true);
+        if (!symbol.isLocal()) {
+            target = target.lookup(symbol.getName(), true).getContext();
+        }
+        if (target.directlyContains(symbol.getName())) {
+            target.addFlag(symbol.getName(), flag);
+        }
+    }
+
+    public ShnapLookup lookup(String name) {
+        return this.lookup(ShnapSymbol.find(name));
+    }
+
+    public ShnapLookup lookup(ShnapSymbol symbol) {
+        ShnapContext target = this.hop(symbol, false);
+        String name = symbol.getName();
+        if (target == null) {
+            return new ShnapLookup(name, null, null, 0);
+        } else if (symbol.isLocal()) {
+            ShnapObject obj = target.load(name);
+            return new ShnapLookup(name, obj == null ? null : target, obj, target.localFlags(target.slotOf(name), name));
+        }
+
+        return target.lookup(name, false);
+    }
+
+    public ShnapLookup lookupCeilingWise(String name) {
+        return this.lookupCeilingWise(ShnapSymbol.find(name));
+    }
+
+    public ShnapLookup lookupCeilingWise(ShnapSymbol symbol) {
+        ShnapContext target = this.hop(symbol, true);
+        String name = symbol.getName();
+        if (symbol.isLocal()) {
+            return new ShnapLookup(name, target, target.load(name), target.localFlags(target.slotOf(name), name));
+        }
+
+        return target.lookup(name, true);
+    }
+
+    private ShnapLookup lookup(String name, boolean ceilingWise) {
+        ShnapContext owner = null;
+        ShnapObject value = null;
+        int flags = 0;
+
+        ShnapContext target = this;
+        ShnapContext candidate = this;
+        boolean climbing = ceilingWise && !this.ceiling;
+        boolean targeted = !climbing;
+
+        ShnapContext current = this;
+        while (current != null && (value == null || flags == 0 || !targeted)) {
+            ShnapObject obj = value == null || !targeted ? current.load(name) : null;
+            if (value == null && obj != null) {
+                value = obj;
+                owner = current;
             }
-            return false;
+            if (flags == 0) {
+                flags = current.flagsAt(current.slotOf(name), name);
+            }
+            if (!targeted && current != this) {
+                if (!climbing) {
+                    if (obj != null) {
+                        target = candidate;
+                        targeted = true;
+                    }
+                } else if (obj != null) {
+                    target = candidate = current;
+                    climbing = !current.ceiling;
+                } else if (current.ceiling) {
+                    climbing = false;
+                } else {
+                    candidate = current;
+                }
+                targeted = targeted || (!climbing && candidate == target);
+            }
+            current = current.parent;
+        }
+
+        return new ShnapLookup(name, ceilingWise ? target : owner, value, flags);
+    }
+
+    public ShnapExecution get(String name, ShnapEnvironment environment) {
+        ShnapObject obj = this.lookup(name).getValue();
+        if (obj == null) {
+            return ShnapExecution.normal(ShnapObject.getVoid(), environment, ShnapLoc.BUILTIN);
+        } else if (obj instanceof ShnapResolver) {
+            return obj.resolve(environment);
         } else {
-            return true;
+            return ShnapExecution.normal(obj, environment, ShnapLoc.BUILTIN);
         }
     }
 
-    public ShnapObject getExactly(String name) {
-        if (name.startsWith("^")) {
-            if (this.parent == null) {
-                return ShnapObject.getVoid();
-            } else {
-                return this.parent.getExactly(Strings.cutFirst(name));
+    private ShnapContext hop(ShnapSymbol symbol, boolean create) {
+        ShnapContext context = this;
+        for (int i = 0; i < symbol.getHops() && context != null; i++) {
+            context = create ? context.getParentSafely() : context.parent;
+        }
+        return context;
+    }
+
+    private int getFlags(ShnapSymbol symbol) {
+        ShnapContext target = this.hop(symbol, false);
+        String name = symbol.getName();
+        if (target == null) {
+            return 0;
+        } else if (symbol.isLocal()) {
+            return target.localFlags(target.slotOf(name), name);
+        }
+
+        ShnapContext current = target;
+        while (current != null) {
+            int flags = current.flagsAt(current.slotOf(name), name);
+            if (flags != 0) {
+                return flags;
             }
-        } else if (name.startsWith(":")) {
-            ShnapObject theObj = this.variables.get(Strings.cutFirst(name));
-            return theObj == null ? ShnapObject.getVoid() : theObj;
+            current = current.parent;
         }
+        return 0;
+    }
 
-        ShnapObject obj = this.variables.get(name);
-        if (obj == null) {
-            if (this.parent != null) {
-                return this.parent.getExactly(name);
+    int flagsAt(int slot, String name) {
+        int flags = this.localFlags(slot, name);
+        if (flags == 0 && this.prototype != null) {
+            flags = this.prototype.flags(name);
+        }
+        return flags;
+    }
+
+    private int localFlags(int slot, String name) {
+        if (slot != -1) {
+            return this.slotFlags == null ? 0 : this.slotFlags[slot];
+        }
+        if (this.flags != null) {
+            Integer flags = this.flags.get(name);
+            if (flags != null) {
+                return flags;
             }
-            return ShnapObject.getVoid();
-        } else {
-            return obj;
         }
+        if (this.shape != null) {
+            int field = this.shape.slotOf(name);
+            if (field != -1) {
+                return this.shape.flags(field);
+            }
+        }
+        return 0;
     }
 
-    public void set(String name, ShnapObject object) {
-        if (name.startsWith("^")) {
-            this.getParentSafely().set(Strings.cutFirst(name), object);
+    private void addFlag(String name, Flag flag) {
+        if (flag == Flag.PRIVATE) {
+            PRIVATE_EPOCH.incrementAndGet();
+        }
+        int slot = this.slotOf(name);
+        if (slot != -1) {
+            if (this.slotFlags == null) {
+                this.slotFlags = new int[this.slots.length];
+            }
+            this.slotFlags[slot] |= flag.mask();
             return;
-        } else if (name.startsWith(":")) {
-            this.variables.put(Strings.cutFirst(name), object);
+        }
+        if (this.shape != null && this.shape.slotOf(name) != -1) {
+            this.shape = this.shape.withFlag(name, flag);
             return;
         }
-
-        if (this.parent != null && !this.ceiling && this.parent.containsCeilingWise(name)) {
-            this.parent.set(name, object);
-        } else {
-            this.variables.put(name, object);
+        if (this.flags == null) {
+            this.flags = new LinkedHashMap<>();
         }
+        this.flags.merge(name, flag.mask(), (a, b) -> a | b);
     }
 
-    public void del(String name) {
-        if (name.startsWith("^")) {
-            this.getParentSafely().del(Strings.cutFirst(name));
-        } else if (name.startsWith(":")) {
-            name = Strings.cutFirst(name);
-            this.variables.remove(name);
-            this.flags.remove(name);
-        } else {
-            if (this.parent != null && !this.ceiling && this.parent.containsCeilingWise(name)) {
-                this.parent.del(name);
-            } else {
-                this.variables.remove(name);
-                this.flags.remove(name);
+    int slotOf(String name) {
+        return this.frame == null ? -1 : this.frame.slotOf(name);
+    }
+
+    ShnapObject load(String name) {
+        if (this.frame != null) {
+            int slot = this.frame.slotOf(name);
+            if (slot != -1) {
+                return this.load(slot, name);
             }
         }
+        return this.loadUndeclared(name);
     }
 
-    public void setFlag(String name, Flag flag) {
-        if (name.startsWith("^")) {
-            this.getParentSafely().setFlag(Strings.cutFirst(name), flag);
-            return;
-        } else if (name.startsWith(":")) {
-            name = Strings.cutFirst(name);
-            if (this.variables.containsKey(name)) {
-                this.flags.computeIfAbsent(name, k -> new ArrayList<>()).add(flag);
+    private ShnapObject loadUndeclared(String name) {
+        ShnapObject obj = null;
+        if (this.shape != null) {
+            int slot = this.shape.slotOf(name);
+            if (slot != -1) {
+                obj = this.fields[slot];
             }
-            return;
         }
+        if (obj == null && this.variables != null) {
+            obj = this.variables.get(name);
+        }
+        if (obj == null && this.prototype != null) {
+            obj = this.prototype.bind(name, this);
+        }
+        return obj;
+    }
 
-        if (this.parent != null && !this.ceiling && this.parent.containsCeilingWise(name)) {
-            this.parent.setFlag(name, flag);
-        } else if (this.variables.containsKey(name)) {
-            this.flags.computeIfAbsent(name, k -> new ArrayList<>()).add(flag);
+    ShnapObject load(int slot, String name) {
+        if (slot == -1) {
+            return this.loadUndeclared(name);
+        }
+        ShnapObject obj = this.slots[slot];
+        if (obj == null && this.prototype != null) {
+            obj = this.prototype.bind(name, this);
+        }
+        return obj;
+    }
 
+    public ShnapObject loadFromPrototype(ShnapPrototype prototype, String name) {
+        if (this.prototype != prototype || this.parent != null || this.localFlags(this.slotOf(name), name) != 0 || !this.inheritsFromPrototype(name)) {
+            return null;
         }
+        return prototype.bind(name, this);
     }
 
-    public ShnapExecution get(String name, ShnapEnvironment environment) {
-        if (name.startsWith("^")) {
-            if (this.parent == null) {
-                return ShnapExecution.normal(ShnapObject.getVoid(), environment, ShnapLoc.BUILTIN);
-            } else {
-                return this.parent.get(Strings.cutFirst(name), environment);
+    public boolean inheritsFromPrototype(String name) {
+        if (this.prototype == null) {
+            return false;
+        } else if (this.frame != null) {
+            int slot = this.frame.slotOf(name);
+            if (slot != -1 && this.slots[slot] != null) {
+                return false;
             }
-        } else if (name.startsWith(":")) {
-            name = Strings.cutFirst(":");
-            ShnapObject obj = this.variables.get(name);
-            return obj == null ? ShnapExecution.normal(ShnapObject.getVoid(), environment, ShnapLoc.BUILTIN) : ShnapExecution.normal(obj, environment, ShnapLoc.BUILTIN);
         }
+        return (this.variables == null || this.variables.get(name) == null);
+    }
 
-        ShnapObject obj = this.variables.get(name);
-        if (obj == null) {
-            if (this.parent != null) {
-                return this.parent.get(name, environment);
+    boolean has(String name) {
+        if (this.frame != null) {
+            int slot = this.frame.slotOf(name);
+            if (slot != -1 && this.slots[slot] != null) {
+                return true;
+            }
+        }
+        if (this.shape != null) {
+            int slot = this.shape.slotOf(name);
+            if (slot != -1 && this.fields[slot] != null) {
+                return true;
             }
-            return ShnapExecution.normal(ShnapObject.getVoid(), environment, ShnapLoc.BUILTIN);
-        } else if (obj instanceof ShnapResolver) {
-            return obj.resolve(environment);
-        } else {
-            return ShnapExecution.normal(obj, environment, ShnapLoc.BUILTIN);
         }
+        return (this.variables != null && this.variables.get(name) != null) ||
+                (this.prototype != null && this.prototype.has(name));
     }
 
-    private List<Flag> getFlags(String name) {
-        if (name.startsWith("^")) {
-            if (this.parent == null) {
-                return null;
-            } else {
-                return this.parent.getFlags(Strings.cutFirst(name));
+    void store(String name, ShnapObject object) {
+        this.store(this.slotOf(name), name, object);
+    }
+
+    void store(int slot, String name, ShnapObject object) {
+        if (slot != -1) {
+            if (this.slots[slot] == null && object != null) {
+                this.track(slot, name);
             }
-        } else if (name.startsWith(":")) {
-            return this.flags.get(Strings.cutFirst(name));
+            this.slots[slot] = object;
+        } else if (this.shape != null) {
+            this.storeField(name, object);
+        } else if (this.getVariables().put(name, object) == null && this.frame != null) {
+            this.track(slot, name);
         }
+    }
 
-        List<Flag> flag = this.flags.get(name);
-        if (flag == null) {
-            if (this.parent != null) {
-                return this.parent.getFlags(name);
+    private void track(int slot, String name) {
+        if (this.order == null) {
+            if (slot > this.highestSlot && (this.variables == null || this.variables.isEmpty())) {
+                this.highestSlot = slot;
+                return;
+            }
+
+            this.order = new String[this.slots.length + 4];
+            for (int i = 0; i < this.slots.length; i++) {
+                if (this.slots[i] != null) {
+                    this.order[this.orderSize++] = this.frame.nameOf(i);
+                }
+            }
+            if (this.variables != null) {
+                for (String key : this.variables.keySet()) {
+                    if (!key.equals(name)) {
+                        this.appendOrder(key);
+                    }
+                }
             }
-            return null;
         } else {
-            return flag;
+            this.removeOrder(name);
+        }
+        this.appendOrder(name);
+    }
+
+    private void appendOrder(String name) {
+        if (this.orderSize == this.order.length) {
+            this.order = Arrays.copyOf(this.order, this.order.length * 2);
+        }
+        this.order[this.orderSize++] = name;
+    }
+
+    private void removeOrder(String name) {
+        for (int i = 0; i < this.orderSize; i++) {
+            if (this.order[i].equals(name)) {
+                System.arraycopy(this.order, i + 1, this.order, i, this.orderSize - i - 1);
+                this.order[--this.orderSize] = null;
+                return;
+            }
+        }
+    }
+
+    private void storeField(String name, ShnapObject object) {
+        int slot = this.shape.slotOf(name);
+        if (slot == -1) {
+            this.shape = this.shape.withField(name);
+            slot = this.shape.size() - 1;
+            if (slot >= this.fields.length) {
+                this.fields = Arrays.copyOf(this.fields, Math.max(4, this.fields.length * 2));
+            }
+        }
+        this.fields[slot] = object;
+    }
+
+    private void removeField(String name) {
+        if (this.shape.slotOf(name) == -1) {
+            return;
+        }
+
+        ShnapShape old = this.shape;
+        ShnapObject[] oldFields = this.fields;
+        this.shape = old.withoutField(name);
+        this.fields = new ShnapObject[Math.max(4, this.shape.size())];
+        for (int i = 0; i < old.size(); i++) {
+            int slot = this.shape.slotOf(old.nameOf(i));
+            if (slot != -1) {
+                this.fields[slot] = oldFields[i];
+            }
+        }
+    }
+
+    private void remove(String name) {
+        if (this.frame != null) {
+            int slot = this.frame.slotOf(name);
+            if (slot != -1) {
+                this.slots[slot] = null;
+                if (this.slotFlags != null) {
+                    this.slotFlags[slot] = 0;
+                }
+            }
+        }
+        if (this.shape != null) {
+            this.removeField(name);
+        }
+        if (this.variables != null) {
+            this.variables.remove(name);
+        }
+        if (this.flags != null) {
+            this.flags.remove(name);
+        }
+        if (this.order != null) {
+            this.removeOrder(name);
         }
     }
 
@@ -233,29 +541,89 @@ public class ShnapContext {
     }
 
     public boolean directlyContains(String name) {
-        return this.variables.containsKey(name);
+        return this.has(name);
     }
 
     public boolean contains(String name) {
-        return this.variables.containsKey(name) || (this.parent != null && this.parent.contains(name));
+        return this.directlyContains(name) || (this.parent != null && this.parent.contains(name));
     }
 
     public boolean containsCeilingWise(String name) {
-        return this.variables.containsKey(name) || (!this.ceiling && this.parent != null && this.parent.contains(name));
+        return this.directlyContains(name) || (!this.ceiling && this.parent != null && this.parent.contains(name));
     }
 
     public Collection<String> names() {
-        return this.variables.keySet();
+        if (this.frame == null && this.prototype == null && this.shape == null) {
+            return this.variables == null ? Collections.emptyList() : this.variables.keySet();
+        }
+
+        List<String> names = new ArrayList<>();
+        if (this.order != null) {
+            for (int i = 0; i < this.orderSize; i++) {
+                this.addName(names, this.order[i]);
+            }
+        } else {
+            if (this.frame != null) {
+                for (int i = 0; i < this.slots.length; i++) {
+                    if (this.slots[i] != null) {
+                        this.addName(names, this.frame.nameOf(i));
+                    }
+                }
+            }
+            if (this.variables != null) {
+                for (String name : this.variables.keySet()) {
+                    this.addName(names, name);
+                }
+            }
+        }
+        if (this.shape != null) {
+            for (int i = 0; i < this.shape.size(); i++) {
+                if (this.fields[i] != null) {
+                    names.add(this.shape.nameOf(i));
+                }
+            }
+        }
+        if (this.prototype != null) {
+            for (String name : this.prototype.names()) {
+                this.addName(names, name);
+            }
+        }
+        return names;
+    }
+
+    private void addName(List<String> names, String name) {
+        if (!names.contains(name)) {
+            names.add(name);
+        }
     }
 
     public static ShnapContext childOf(ShnapContext other) {
         return new ShnapContext(other);
     }
 
+    public static ShnapContext childOf(ShnapContext other, ShnapFrameDescriptor frame) {
+        return new ShnapContext(other, frame);
+    }
+
+    public static ShnapContext objectOf(ShnapContext parent) {
+        ShnapContext context = new ShnapContext(parent);
+        context.shape = ShnapShape.EMPTY;
+        context.fields = new ShnapObject[4];
+        return context;
+    }
+
+    public static ShnapContext activationOf(ShnapContext function, ShnapFrameDescriptor frame) {
+        ShnapContext context = new ShnapContext(function.parent, frame);
+        for (String name : function.names()) {
+            context.store(name, function.load(name));
+        }
+        return context;
+    }
+
     public ShnapContext copy() {
         ShnapContext other = new ShnapContext(this.parent);
         for (String name : this.names()) {
-            other.set(name, this.variables.get(name));
+            other.store(name, this.load(name));
         }
         return other;
     }
@@ -279,6 +647,10 @@ public class ShnapContext {
             return rep;
         }
 
+        public int mask() {
+            return 1 << this.ordinal();
+        }
+
         public static Flag getByRep(String rep) {
             for (Flag flag : values()) {
                 if (flag.rep.equals(rep)) {
@@ -30,13 +30,13 @@ import java.util.function.Consumer;
 import java.util.function.Function;
 
 public class ShnapExecution {
-    private ShnapObject value;
-    private State state;
+    private final ShnapObject value;
+    private final State state;
 
     public ShnapExecution(ShnapObject value, State state, ShnapEnvironment trc, ShnapLoc loc) {
         this.value = value;
         this.state = state;
-        if(state.isAbnormal()) {
+        if(state.isAbnormal() && trc.isMetaEnabled()) {
             trc.pushTraceback(ShnapTraceback.meta(loc, "abnormal state: " + state));
         }
     }
@@ -45,16 +45,6 @@ public class ShnapExecution {
         return this.isAbnormal() ? this : this.value.resolve(trc);
     }
 
-    public ShnapExecution setValue(ShnapObject value) {
-        this.value = value;
-        return this;
-    }
-
-    public ShnapExecution setState(State state) {
-        this.state = state;
-        return this;
-    }
-
     public ShnapExecution ifAbnormal(Consumer<ShnapExecution> action) {
         if(this.isAbnormal()) {
             action.accept(this);
@@ -88,7 +78,7 @@ public class ShnapExecution {
     }
 
     public static ShnapExecution normal(ShnapObject object, ShnapEnvironment trc, ShnapLoc loc) {
-        return new ShnapExecution(object, State.NORMAL, trc, loc);
+        return object == null ? new ShnapExecution(null, State.NORMAL, trc, loc) : object.normalExecution();
     }
 
     public static ShnapExecution breaking(ShnapObject object, ShnapEnvironment trc, ShnapLoc loc) {
@@ -119,12 +109,20 @@ public class ShnapExecution {
         return getState().isAbnormal();
     }
 
+    public ShnapExecution requireSettled() {
+        if (this.state == State.TAIL_CALL) {
+            throw new IllegalStateException("Unevaluated tail call escaped its function");
+        }
+        return this;
+    }
+
     public enum State {
         NORMAL("normal"),
         BREAKING("break"),
         CONTINUING("continue"),
         RETURNING("return"),
-        THROWING("throw");
+        THROWING("throw"),
+        TAIL_CALL("tail call");
 
         String rep;
 
@@ -136,6 +134,10 @@ public class ShnapExecution {
             return this != NORMAL;
         }
 
+        public boolean isReturning() {
+            return this == RETURNING || this == TAIL_CALL;
+        }
+
         public String getRep() {
             return this.rep;
         }
@@ -0,0 +1,71 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 socraticphoenix@gmail.com
+ * Copyright (c) 2017 contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.gmail.socraticphoenix.shnap.program.context;
+
+import java.util.Collection;
+
+public class ShnapFrameDescriptor {
+    private String[] names;
+    private String[] keys;
+    private int[] slots;
+    private int mask;
+
+    public ShnapFrameDescriptor(Collection<String> names) {
+        this.names = names.toArray(new String[names.size()]);
+        int capacity = 2;
+        while (capacity < this.names.length * 2) {
+            capacity <<= 1;
+        }
+        this.keys = new String[capacity];
+        this.slots = new int[capacity];
+        this.mask = capacity - 1;
+        for (int i = 0; i < this.names.length; i++) {
+            int index = this.names[i].hashCode() & this.mask;
+            while (this.keys[index] != null) {
+                index = (index + 1) & this.mask;
+            }
+            this.keys[index] = this.names[i];
+            this.slots[index] = i;
+        }
+    }
+
+    public int slotOf(String name) {
+        int index = name.hashCode() & this.mask;
+        String key;
+        while ((key = this.keys[index]) != null) {
+            if (key == name || key.equals(name)) {
+                return this.slots[index];
+            }
+            index = (index + 1) & this.mask;
+        }
+        return -1;
+    }
+
+    public String nameOf(int slot) {
+        return this.names[slot];
+    }
+
+    public int size() {
+        return this.names.length;
+    }
+
+}
@@ -0,0 +1,111 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 socraticphoenix@gmail.com
+ * Copyright (c) 2017 contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.gmail.socraticphoenix.shnap.program.context;
+
+import com.gmail.socraticphoenix.shnap.type.object.ShnapObject;
+
+public class ShnapLocalRef {
+    private String name;
+    private ShnapFrameDescriptor[] frames;
+    private int[] slots;
+
+    public ShnapLocalRef(String name, ShnapFrameDescriptor[] frames) {
+        this.name = name;
+        this.frames = frames;
+        this.slots = new int[frames.length];
+        for (int i = 0; i < frames.length; i++) {
+            this.slots[i] = frames[i].slotOf(name);
+        }
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public ShnapObject get(ShnapContext context) {
+        ShnapContext current = context;
+        int hop = 0;
+        while (current != null) {
+            ShnapObject obj = this.load(current, hop);
+            if (obj != null) {
+                return obj;
+            }
+            current = current.getParent();
+            hop++;
+        }
+        return null;
+    }
+
+    public boolean hasFlag(ShnapContext context, ShnapContext.Flag flag) {
+        ShnapContext current = context;
+        int hop = 0;
+        while (current != null) {
+            int flags = current.flagsAt(this.isTracked(current, hop) ? this.slots[hop] : current.slotOf(this.name), this.name);
+            if (flags != 0) {
+                return (flags & flag.mask()) != 0;
+            }
+            current = current.getParent();
+            hop++;
+        }
+        return false;
+    }
+
+    public void set(ShnapContext context, ShnapObject value) {
+        ShnapContext target = context;
+        int hop = 0;
+        while (target.getParent() != null && !target.isCeiling() && this.containsCeilingWise(target.getParent(), hop + 1)) {
+            target = target.getParent();
+            hop++;
+        }
+
+        if (this.isTracked(target, hop)) {
+            target.store(this.slots[hop], this.name, value);
+        } else {
+            target.store(this.name, value);
+        }
+    }
+
+    private boolean containsCeilingWise(ShnapContext context, int hop) {
+        return this.load(context, hop) != null || (!context.isCeiling() && context.getParent() != null && this.contains(context.getParent(), hop + 1));
+    }
+
+    private boolean contains(ShnapContext context, int hop) {
+        ShnapContext current = context;
+        while (current != null) {
+            if (this.load(current, hop) != null) {
+                return true;
+            }
+            current = current.getParent();
+            hop++;
+        }
+        return false;
+    }
+
+    private ShnapObject load(ShnapContext context, int hop) {
+        return this.isTracked(context, hop) ? context.load(this.slots[hop], this.name) : context.load(this.name);
+    }
+
+    private boolean isTracked(ShnapContext context, int hop) {
+        return hop < this.frames.length && context.getFrame() == this.frames[hop];
+    }
+
+}
@@ -0,0 +1,67 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 socraticphoenix@gmail.com
+ * Copyright (c) 2017 contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.gmail.socraticphoenix.shnap.program.context;
+
+import com.gmail.socraticphoenix.shnap.type.object.ShnapObject;
+
+public class ShnapLookup {
+    private String name;
+    private ShnapContext context;
+    private ShnapObject value;
+    private int flags;
+
+    ShnapLookup(String name, ShnapContext context, ShnapObject value, int flags) {
+        this.name = name;
+        this.context = context;
+        this.value = value;
+        this.flags = flags;
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public ShnapContext getContext() {
+        return this.context;
+    }
+
+    public ShnapObject getValue() {
+        return this.value;
+    }
+
+    public int getFlags() {
+        return this.flags;
+    }
+
+    public boolean isPresent() {
+        return this.value != null;
+    }
+
+    public boolean hasFlag(ShnapContext.Flag flag) {
+        return (this.flags & flag.mask()) != 0;
+    }
+
+    public void set(ShnapObject value) {
+        this.context.store(this.name, value);
+    }
+
+}
@@ -0,0 +1,104 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 socraticphoenix@gmail.com
+ * Copyright (c) 2017 contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.gmail.socraticphoenix.shnap.program.context;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class ShnapShape {
+    public static final ShnapShape EMPTY = new ShnapShape(new String[0], new int[0]);
+
+    private String[] names;
+    private int[] flags;
+    private Map<String, Integer> slots;
+
+    private Map<String, ShnapShape> additions = new ConcurrentHashMap<>();
+    private Map<String, ShnapShape> removals = new ConcurrentHashMap<>();
+    private Map<String, ShnapShape> flagged = new ConcurrentHashMap<>();
+
+    private ShnapShape(String[] names, int[] flags) {
+        this.names = names;
+        this.flags = flags;
+        this.slots = new HashMap<>();
+        for (int i = 0; i < names.length; i++) {
+            this.slots.put(names[i], i);
+        }
+    }
+
+    public int slotOf(String name) {
+        Integer slot = this.slots.get(name);
+        return slot == null ? -1 : slot;
+    }
+
+    public String nameOf(int slot) {
+        return this.names[slot];
+    }
+
+    public int flags(int slot) {
+        return this.flags[slot];
+    }
+
+    public int size() {
+        return this.names.length;
+    }
+
+    public ShnapShape withField(String name) {
+        return this.additions.computeIfAbsent(name, k -> {
+            String[] names = Arrays.copyOf(this.names, this.names.length + 1);
+            names[this.names.length] = k;
+            return new ShnapShape(names, Arrays.copyOf(this.flags, this.flags.length + 1));
+        });
+    }
+
+    public ShnapShape withFlag(String name, ShnapContext.Flag flag) {
+        int slot = this.slotOf(name);
+        if ((this.flags[slot] & flag.mask()) != 0) {
+            return this;
+        }
+
+        return this.flagged.computeIfAbsent(name + ":" + flag.name(), k -> {
+            int[] flags = this.flags.clone();
+            flags[slot] |= flag.mask();
+            return new ShnapShape(this.names, flags);
+        });
+    }
+
+    public ShnapShape withoutField(String name) {
+        return this.removals.computeIfAbsent(name, k -> {
+            ShnapShape shape = EMPTY;
+            for (int i = 0; i < this.names.length; i++) {
+                if (!this.names[i].equals(k)) {
+                    shape = shape.withField(this.names[i]);
+                    for (ShnapContext.Flag flag : ShnapContext.Flag.values()) {
+                        if ((this.flags[i] & flag.mask()) != 0) {
+                            shape = shape.withFlag(this.names[i], flag);
+                        }
+                    }
+                }
+            }
+            return shape;
+        });
+    }
+
+}
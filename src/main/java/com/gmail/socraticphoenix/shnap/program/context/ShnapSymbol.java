@@ -0,0 +1,91 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 socraticphoenix@gmail.com
+ * Copyright (c) 2017 contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.gmail.socraticphoenix.shnap.program.context;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public final class ShnapSymbol {
+    private static final Map<String, ShnapSymbol> TABLE = new ConcurrentHashMap<>();
+
+    private final String raw;
+    private final String name;
+    private final int hops;
+    private final boolean local;
+
+    private ShnapSymbol(String raw, boolean intern) {
+        int hops = 0;
+        while (hops < raw.length() && raw.charAt(hops) == '^') {
+            hops++;
+        }
+        boolean local = hops < raw.length() && raw.charAt(hops) == ':';
+        String name = hops == 0 && !local ? raw : raw.substring(local ? hops + 1 : hops);
+
+        this.raw = raw;
+        this.name = intern ? name.intern() : name;
+        this.hops = hops;
+        this.local = local;
+    }
+
+    public static ShnapSymbol of(String raw) {
+        ShnapSymbol symbol = TABLE.get(raw);
+        if (symbol == null) {
+            symbol = TABLE.computeIfAbsent(raw.intern(), r -> new ShnapSymbol(r, true));
+        }
+        return symbol;
+    }
+
+    public static ShnapSymbol find(String raw) {
+        ShnapSymbol symbol = TABLE.get(raw);
+        return symbol == null ? new ShnapSymbol(raw, false) : symbol;
+    }
+
+    public static String intern(String raw) {
+        return of(raw).raw;
+    }
+
+    public String getRaw() {
+        return this.raw;
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public int getHops() {
+        return this.hops;
+    }
+
+    public boolean isLocal() {
+        return this.local;
+    }
+
+    public boolean isPlain() {
+        return this.hops == 0 && !this.local;
+    }
+
+    @Override
+    public String toString() {
+        return this.raw;
+    }
+
+}
@@ -0,0 +1,57 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 socraticphoenix@gmail.com
+ * Copyright (c) 2017 contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.gmail.socraticphoenix.shnap.program.context;
+
+import com.gmail.socraticphoenix.shnap.program.instructions.ShnapInvoke;
+import com.gmail.socraticphoenix.shnap.run.env.ShnapEnvironment;
+import com.gmail.socraticphoenix.shnap.type.object.ShnapFunction;
+import com.gmail.socraticphoenix.shnap.type.object.ShnapObject;
+
+import java.util.Map;
+
+public class ShnapTailCall extends ShnapExecution {
+    private ShnapInvoke site;
+    private ShnapFunction function;
+    private ShnapObject[] values;
+    private Map<String, ShnapObject> defValues;
+
+    public ShnapTailCall(ShnapInvoke site, ShnapFunction function, ShnapObject[] values, Map<String, ShnapObject> defValues, ShnapEnvironment trc) {
+        super(ShnapObject.getVoid(), State.TAIL_CALL, trc, site.getLocation());
+        this.site = site;
+        this.function = function;
+        this.values = values;
+        this.defValues = defValues;
+    }
+
+    public ShnapInvoke getSite() {
+        return this.site;
+    }
+
+    public ShnapFunction getFunction() {
+        return this.function;
+    }
+
+    public ShnapExecution enter(ShnapEnvironment tracer) {
+        return this.site.enter(this.function, this.values, this.defValues, tracer);
+    }
+
+}
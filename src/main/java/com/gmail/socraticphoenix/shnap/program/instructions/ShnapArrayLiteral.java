@@ -28,6 +28,8 @@ import com.gmail.socraticphoenix.shnap.type.object.ShnapObject;
 import com.gmail.socraticphoenix.shnap.program.context.ShnapContext;
 import com.gmail.socraticphoenix.shnap.program.context.ShnapExecution;
 import com.gmail.socraticphoenix.shnap.type.natives.ShnapArrayNative;
+import com.gmail.socraticphoenix.shnap.program.stepper.ShnapCollectStepper;
+import com.gmail.socraticphoenix.shnap.program.stepper.ShnapStepper;
 
 import java.util.List;
 
@@ -57,6 +59,11 @@ public class ShnapArrayLiteral extends AbstractShnapLocatable implements ShnapIn
         return ShnapExecution.normal(new ShnapArrayNative(this.getLocation(), arr), tracer, this.getLocation());
     }
 
+    @Override
+    public ShnapStepper asStepper(ShnapContext context) {
+        return new ShnapCollectStepper(this, context, this.values, (arr, t) -> ShnapExecution.normal(new ShnapArrayNative(this.getLocation(), arr), t, this.getLocation()));
+    }
+
     @Override
     public String decompile(int indent) {
         StringBuilder builder = new StringBuilder();
@@ -28,16 +28,22 @@ import com.gmail.socraticphoenix.shnap.parse.ShnapLoc;
 import com.gmail.socraticphoenix.shnap.type.object.ShnapObject;
 import com.gmail.socraticphoenix.shnap.program.context.ShnapContext;
 import com.gmail.socraticphoenix.shnap.program.context.ShnapExecution;
+import com.gmail.socraticphoenix.shnap.program.context.ShnapSymbol;
+import com.gmail.socraticphoenix.shnap.program.stepper.ShnapABStepper;
+import com.gmail.socraticphoenix.shnap.program.stepper.ShnapOneStepStepper;
+import com.gmail.socraticphoenix.shnap.program.stepper.ShnapStepper;
 
 public class ShnapFlag extends AbstractShnapLocatable implements ShnapInstruction {
     private ShnapInstruction target;
     private String name;
+    private ShnapSymbol symbol;
     private ShnapContext.Flag flag;
 
     public ShnapFlag(ShnapLoc loc, ShnapInstruction target, String name, ShnapContext.Flag flag) {
         super(loc);
         this.target = target;
         this.name = name;
+        this.symbol = ShnapSymbol.of(name);
         this.flag = flag;
     }
 
@@ -66,11 +72,22 @@ public class ShnapFlag extends AbstractShnapLocatable implements ShnapInstructio
             }
         }
 
-        targetContext.setFlag(this.name, this.flag);
+        targetContext.setFlag(this.symbol, this.flag);
 
         return ShnapExecution.normal(ShnapObject.getVoid(), tracer, this.getLocation());
     }
 
+    @Override
+    public ShnapStepper asStepper(ShnapContext context) {
+        if (this.target == null) {
+            return new ShnapOneStepStepper(this, context);
+        }
+        return new ShnapABStepper(this.target, (e, c, t) -> {
+            e.getValue().getContext().setFlag(this.symbol, this.flag);
+            return ShnapExecution.normal(ShnapObject.getVoid(), t, this.getLocation());
+        }, null, this, context);
+    }
+
     @Override
     public String decompile(int indent) {
         return this.flag.getRep() + " " + (this.target == null ? "" : this.target.decompile(indent) + ".") + this.name;
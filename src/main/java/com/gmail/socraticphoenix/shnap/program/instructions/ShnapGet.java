@@ -28,19 +28,37 @@ import com.gmail.socraticphoenix.shnap.parse.ShnapLoc;
 import com.gmail.socraticphoenix.shnap.type.object.ShnapObject;
 import com.gmail.socraticphoenix.shnap.program.context.ShnapContext;
 import com.gmail.socraticphoenix.shnap.program.context.ShnapExecution;
+import com.gmail.socraticphoenix.shnap.program.context.ShnapLocalRef;
+import com.gmail.socraticphoenix.shnap.program.context.ShnapLookup;
+import com.gmail.socraticphoenix.shnap.program.context.ShnapPrototype;
+import com.gmail.socraticphoenix.shnap.program.context.ShnapShape;
+import com.gmail.socraticphoenix.shnap.program.context.ShnapSymbol;
+import com.gmail.socraticphoenix.shnap.program.stepper.ShnapABStepper;
+import com.gmail.socraticphoenix.shnap.program.stepper.ShnapOneStepStepper;
+import com.gmail.socraticphoenix.shnap.program.stepper.ShnapStepper;
 
 public class ShnapGet extends AbstractShnapLocatable implements ShnapInstruction {
     private ShnapInstruction target;
     private String name;
+    private ShnapSymbol symbol;
+    private ShnapLocalRef ref;
+
+    private volatile Entry cache;
 
     public ShnapGet(ShnapLoc loc, ShnapInstruction target, String name) {
         super(loc);
         this.name = name;
+        this.symbol = ShnapSymbol.of(name);
         this.target = target;
+        this.cache = target == null || !this.symbol.isPlain() ? Entry.GENERIC : Entry.UNINITIALIZED;
     }
 
     @Override
     public ShnapExecution exec(ShnapContext context, ShnapEnvironment tracer) {
+        if (this.ref != null) {
+            return this.loadLocal(context, tracer);
+        }
+
         ShnapContext targetContext = context;
         if(this.target != null) {
             ShnapExecution e = this.target.exec(context, tracer).resolve(tracer);
@@ -52,13 +70,73 @@ public class ShnapGet extends AbstractShnapLocatable implements ShnapInstruction
             }
         }
 
-        if (!context.isChildOf(targetContext) && targetContext.hasFlag(this.name, ShnapContext.Flag.PRIVATE)) {
+        return this.lookup(context, targetContext, tracer);
+    }
+
+    public ShnapExecution loadLocal(ShnapContext context, ShnapEnvironment tracer) {
+        ShnapObject obj = this.ref.get(context);
+        if (obj == null) {
+            return ShnapExecution.throwing(ShnapFactory.makeExceptionObj("shnap.AbsentFieldError", "absent field: " + this.name, null), tracer, this.getLocation());
+        }
+        return ShnapExecution.normal(obj, tracer, this.getLocation());
+    }
+
+    public ShnapExecution lookup(ShnapContext context, ShnapContext targetContext, ShnapEnvironment tracer) {
+        Entry cache = this.cache;
+        if (cache.state == ShnapInlineCache.State.MONOMORPHIC) {
+            ShnapObject obj = cache.shape != null ? (targetContext.getShape() == cache.shape && cache.privateEpoch == ShnapContext.getPrivateEpoch() ? targetContext.getField(cache.slot) : null) : targetContext.loadFromPrototype(cache.prototype, this.name);
+            if (obj != null) {
+                return ShnapExecution.normal(obj, tracer, this.getLocation());
+            } else if (cache.shape == null || targetContext.getShape() != cache.shape) {
+                this.generalize(cache);
+            } else {
+                this.specialize(targetContext, false);
+            }
+        } else if (cache.state == ShnapInlineCache.State.UNINITIALIZED) {
+            this.specialize(targetContext, true);
+        }
+
+        ShnapLookup lookup = targetContext.lookup(this.symbol);
+        if (lookup.hasFlag(ShnapContext.Flag.PRIVATE) && !context.isChildOf(targetContext)) {
             return ShnapExecution.throwing(ShnapFactory.makeExceptionObj("shnap.AccessError", "field " + name + " is flagged with PRIVATE", null), tracer, this.getLocation());
-        } else if (!targetContext.containsScopeWise(this.name)) {
+        } else if (!lookup.isPresent()) {
             return ShnapExecution.throwing(ShnapFactory.makeExceptionObj("shnap.AbsentFieldError", "absent field: " + this.name, null), tracer, this.getLocation());
         }
 
-        return ShnapExecution.normal(targetContext.getExactly(this.name), tracer, this.getLocation());
+        return ShnapExecution.normal(lookup.getValue(), tracer, this.getLocation());
+    }
+
+    private void specialize(ShnapContext targetContext, boolean count) {
+        int epoch = ShnapContext.getPrivateEpoch();
+        ShnapShape shape = targetContext.getShape();
+        ShnapPrototype prototype = targetContext.getPrototype();
+        int slot = shape == null ? -1 : shape.slotOf(this.name);
+        if (slot != -1 && targetContext.getField(slot) != null && !targetContext.hasFlag(this.symbol, ShnapContext.Flag.PRIVATE)) {
+            this.cache = new Entry(ShnapInlineCache.State.MONOMORPHIC, shape, slot, null, epoch);
+            if (count) {
+                ShnapInlineCache.specialized(ShnapInlineCache.Site.GET);
+            }
+        } else if (prototype != null && !targetContext.hasFlag(this.symbol, ShnapContext.Flag.PRIVATE) && targetContext.loadFromPrototype(prototype, this.name) != null) {
+            this.cache = new Entry(ShnapInlineCache.State.MONOMORPHIC, null, -1, prototype, epoch);
+            if (count) {
+                ShnapInlineCache.specialized(ShnapInlineCache.Site.GET);
+            }
+        } else {
+            this.generalize(count ? Entry.UNINITIALIZED : this.cache);
+        }
+    }
+
+    private void generalize(Entry from) {
+        ShnapInlineCache.generalized(ShnapInlineCache.Site.GET, from.state);
+        this.cache = Entry.GENERIC;
+    }
+
+    @Override
+    public ShnapStepper asStepper(ShnapContext context) {
+        if (this.ref != null || this.target == null) {
+            return new ShnapOneStepStepper(this, context);
+        }
+        return new ShnapABStepper(this.target, (e, c, t) -> e.resolve(t).mapIfNormal(r -> this.lookup(c, r.getValue().getContext(), t)), null, this, context);
     }
 
     @Override
@@ -74,4 +152,32 @@ public class ShnapGet extends AbstractShnapLocatable implements ShnapInstruction
         return this.name;
     }
 
+    public ShnapLocalRef getRef() {
+        return this.ref;
+    }
+
+    public void setRef(ShnapLocalRef ref) {
+        this.ref = ref;
+    }
+
+    private static final class Entry {
+        private static final Entry UNINITIALIZED = new Entry(ShnapInlineCache.State.UNINITIALIZED, null, -1, null, 0);
+        private static final Entry GENERIC = new Entry(ShnapInlineCache.State.GENERIC, null, -1, null, 0);
+
+        private final ShnapInlineCache.State state;
+        private final ShnapShape shape;
+        private final int slot;
+        private final ShnapPrototype prototype;
+        private final int privateEpoch;
+
+        private Entry(ShnapInlineCache.State state, ShnapShape shape, int slot, ShnapPrototype prototype, int privateEpoch) {
+            this.state = state;
+            this.shape = shape;
+            this.slot = slot;
+            this.prototype = prototype;
+            this.privateEpoch = privateEpoch;
+        }
+
+    }
+
 }
@@ -0,0 +1,75 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 socraticphoenix@gmail.com
+ * Copyright (c) 2017 contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.gmail.socraticphoenix.shnap.program.instructions;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+public final class ShnapInlineCache {
+    private static final AtomicIntegerArray MONOMORPHIC_SITES = new AtomicIntegerArray(Site.values().length);
+    private static final AtomicIntegerArray GENERIC_SITES = new AtomicIntegerArray(Site.values().length);
+
+    private ShnapInlineCache() {
+
+    }
+
+    public static void specialized(Site site) {
+        MONOMORPHIC_SITES.incrementAndGet(site.ordinal());
+    }
+
+    public static void generalized(Site site, State from) {
+        if (from == State.MONOMORPHIC) {
+            MONOMORPHIC_SITES.decrementAndGet(site.ordinal());
+        }
+        GENERIC_SITES.incrementAndGet(site.ordinal());
+    }
+
+    public static int getMonomorphic(Site site) {
+        return MONOMORPHIC_SITES.get(site.ordinal());
+    }
+
+    public static int getGeneric(Site site) {
+        return GENERIC_SITES.get(site.ordinal());
+    }
+
+    public static String report() {
+        StringBuilder builder = new StringBuilder("Inline caches:");
+        for (Site site : Site.values()) {
+            builder.append(System.lineSeparator()).append("    ").append(site.name().toLowerCase()).append(": ")
+                    .append(getMonomorphic(site)).append(" monomorphic, ")
+                    .append(getGeneric(site)).append(" generic");
+        }
+        return builder.toString();
+    }
+
+    public enum State {
+        UNINITIALIZED,
+        MONOMORPHIC,
+        GENERIC
+    }
+
+    public enum Site {
+        GET,
+        INVOKE,
+        OPERATE
+    }
+
+}
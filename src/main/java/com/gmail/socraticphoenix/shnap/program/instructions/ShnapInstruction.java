@@ -46,6 +46,8 @@ package com.gmail.socraticphoenix.shnap.program.instructions;
 import com.gmail.socraticphoenix.shnap.parse.ShnapLocatable;
 import com.gmail.socraticphoenix.shnap.program.context.ShnapContext;
 import com.gmail.socraticphoenix.shnap.program.context.ShnapExecution;
+import com.gmail.socraticphoenix.shnap.program.stepper.ShnapOneStepStepper;
+import com.gmail.socraticphoenix.shnap.program.stepper.ShnapStepper;
 import com.gmail.socraticphoenix.shnap.run.env.ShnapEnvironment;
 
 public interface ShnapInstruction extends ShnapLocatable {
@@ -54,6 +56,8 @@ public interface ShnapInstruction extends ShnapLocatable {
 
     String decompile(int indent);
 
-    //ShnapStepper asStepper();
+    default ShnapStepper asStepper(ShnapContext context) {
+        return new ShnapOneStepStepper(this, context);
+    }
 
 }
@@ -28,6 +28,8 @@ import com.gmail.socraticphoenix.shnap.type.object.ShnapObject;
 import com.gmail.socraticphoenix.shnap.program.context.ShnapContext;
 import com.gmail.socraticphoenix.shnap.program.context.ShnapExecution;
 import com.gmail.socraticphoenix.shnap.run.env.ShnapEnvironment;
+import com.gmail.socraticphoenix.shnap.program.stepper.ShnapMultiStepStepper;
+import com.gmail.socraticphoenix.shnap.program.stepper.ShnapStepper;
 
 import java.util.List;
 
@@ -57,6 +59,11 @@ public class ShnapInstructionSequence extends AbstractShnapLocatable implements
         return ShnapExecution.normal(ShnapObject.getNull(), tracer, this.getLocation());
     }
 
+    @Override
+    public ShnapStepper asStepper(ShnapContext context) {
+        return new ShnapMultiStepStepper(this, context, this.sequence);
+    }
+
     @Override
     public String decompile(int indent) {
         StringBuilder seq = new StringBuilder().append("{").append(System.lineSeparator());
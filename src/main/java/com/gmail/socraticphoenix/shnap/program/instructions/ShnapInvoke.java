@@ -24,13 +24,18 @@ package com.gmail.socraticphoenix.shnap.program.instructions;
 import com.gmail.socraticphoenix.shnap.run.env.ShnapEnvironment;
 import com.gmail.socraticphoenix.shnap.run.env.ShnapTraceback;
 import com.gmail.socraticphoenix.shnap.program.AbstractShnapLocatable;
+import com.gmail.socraticphoenix.shnap.program.ShnapParameter;
 import com.gmail.socraticphoenix.shnap.type.object.ShnapFunction;
 import com.gmail.socraticphoenix.shnap.parse.ShnapLoc;
 import com.gmail.socraticphoenix.shnap.type.object.ShnapObject;
 import com.gmail.socraticphoenix.shnap.program.context.ShnapContext;
 import com.gmail.socraticphoenix.shnap.program.context.ShnapExecution;
+import com.gmail.socraticphoenix.shnap.program.context.ShnapTailCall;
+import com.gmail.socraticphoenix.shnap.program.stepper.ShnapInvokeStepper;
+import com.gmail.socraticphoenix.shnap.program.stepper.ShnapStepper;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -41,12 +46,15 @@ public class ShnapInvoke extends AbstractShnapLocatable implements ShnapInstruct
     private Map<String, ShnapInstruction> defArgs;
     private List<ShnapInstruction> defArgsAsList;
 
+    private volatile Entry cache;
+
     public ShnapInvoke(ShnapLoc loc, ShnapInstruction target, List<ShnapInstruction> args, Map<String, ShnapInstruction> defArgs) {
         super(loc);
         this.target = target;
         this.args = args;
         this.defArgs = defArgs;
         this.defArgsAsList = new ArrayList<>(defArgs.values());
+        this.cache = defArgs.isEmpty() ? Entry.UNINITIALIZED : Entry.GENERIC;
     }
 
     public ShnapInstruction getTarget() {
@@ -67,6 +75,14 @@ public class ShnapInvoke extends AbstractShnapLocatable implements ShnapInstruct
 
     @Override
     public ShnapExecution exec(ShnapContext context, ShnapEnvironment tracer) {
+        return this.exec(context, tracer, false);
+    }
+
+    public ShnapExecution execTail(ShnapContext context, ShnapEnvironment tracer) {
+        return this.exec(context, tracer, true);
+    }
+
+    private ShnapExecution exec(ShnapContext context, ShnapEnvironment tracer, boolean tail) {
         ShnapExecution execution = this.target.exec(context, tracer);
         if(execution.getState().isAbnormal()) {
             return execution;
@@ -75,16 +91,16 @@ public class ShnapInvoke extends AbstractShnapLocatable implements ShnapInstruct
             ShnapObject object = e.getValue();
             if(object instanceof ShnapFunction) {
                 ShnapFunction function = (ShnapFunction) object;
-                List<ShnapObject> values = new ArrayList<>();
-                for(ShnapInstruction arg : this.args) {
-                    ShnapExecution argExec = arg.exec(context, tracer).mapIfNormal(exe -> exe.getValue().resolve(tracer));
+                ShnapObject[] values = new ShnapObject[this.args.size()];
+                for(int i = 0; i < values.length; i++) {
+                    ShnapExecution argExec = this.args.get(i).exec(context, tracer).mapIfNormal(exe -> exe.getValue().resolve(tracer));
                     if(argExec.isAbnormal()) {
                         return argExec;
                     } else {
-                        values.add(argExec.getValue());
+                        values[i] = argExec.getValue();
                     }
                 }
-                Map<String, ShnapObject> defValues = new LinkedHashMap<>();
+                Map<String, ShnapObject> defValues = this.defArgs.isEmpty() ? Collections.emptyMap() : new LinkedHashMap<>();
                 for(Map.Entry<String, ShnapInstruction> defArg : this.defArgs.entrySet()) {
                     ShnapExecution argExec = defArg.getValue().exec(context, tracer).mapIfNormal(exe -> exe.getValue().resolve(tracer));
                     if(argExec.isAbnormal()) {
@@ -93,20 +109,58 @@ public class ShnapInvoke extends AbstractShnapLocatable implements ShnapInstruct
                         defValues.put(defArg.getKey(), argExec.getValue());
                     }
                 }
-                tracer.pushTraceback(ShnapTraceback.frame(this.getLocation(), "Invoke function"));
-                ShnapExecution res = function.invokeWithoutTrace(values, defValues, tracer);
-
-                if(res.isAbnormal()) {
-                    return res;
-                }
-
-                return res;
+                return tail ? this.tailCall(function, values, defValues, tracer) : this.call(function, values, defValues, tracer);
             } else {
                 return ShnapExecution.normal(ShnapObject.getVoid(), tracer, this.getLocation());
             }
         });
     }
 
+    public ShnapExecution call(ShnapFunction function, ShnapObject[] values, Map<String, ShnapObject> defValues, ShnapEnvironment tracer) {
+        tracer.pushTraceback(ShnapTraceback.frame(this.getLocation(), "Invoke function"));
+        return this.dispatch(function, values, defValues, tracer, false);
+    }
+
+    public ShnapExecution tailCall(ShnapFunction function, ShnapObject[] values, Map<String, ShnapObject> defValues, ShnapEnvironment tracer) {
+        if (function.getClass() == ShnapFunction.class) {
+            return new ShnapTailCall(this, function, values, defValues, tracer);
+        }
+        return this.call(function, values, defValues, tracer);
+    }
+
+    public ShnapExecution enter(ShnapFunction function, ShnapObject[] values, Map<String, ShnapObject> defValues, ShnapEnvironment tracer) {
+        tracer.pushTraceback(ShnapTraceback.frame(this.getLocation(), "Invoke function"));
+        return this.dispatch(function, values, defValues, tracer, true);
+    }
+
+    private ShnapExecution dispatch(ShnapFunction function, ShnapObject[] values, Map<String, ShnapObject> defValues, ShnapEnvironment tracer, boolean raw) {
+        Entry cache = this.cache;
+        if (cache.state == ShnapInlineCache.State.MONOMORPHIC) {
+            if (function.getParams() == cache.params) {
+                return raw ? function.enterExact(values, tracer) : function.invokeExact(values, tracer);
+            }
+            this.generalize(cache);
+        } else if (cache.state == ShnapInlineCache.State.UNINITIALIZED) {
+            if (function.acceptsExactly(values.length)) {
+                this.cache = new Entry(ShnapInlineCache.State.MONOMORPHIC, function.getParams());
+                ShnapInlineCache.specialized(ShnapInlineCache.Site.INVOKE);
+                return raw ? function.enterExact(values, tracer) : function.invokeExact(values, tracer);
+            }
+            this.generalize(cache);
+        }
+        return raw ? function.enter(values, defValues, tracer) : function.invokeWithoutTrace(values, defValues, tracer);
+    }
+
+    private void generalize(Entry from) {
+        ShnapInlineCache.generalized(ShnapInlineCache.Site.INVOKE, from.state);
+        this.cache = Entry.GENERIC;
+    }
+
+    @Override
+    public ShnapStepper asStepper(ShnapContext context) {
+        return new ShnapInvokeStepper(this, context);
+    }
+
     @Override
     public String decompile(int indent) {
         return this.target.decompile(indent) + this.decArgs(indent);
@@ -133,4 +187,18 @@ public class ShnapInvoke extends AbstractShnapLocatable implements ShnapInstruct
         return args.append(")").toString();
     }
 
+    private static final class Entry {
+        private static final Entry UNINITIALIZED = new Entry(ShnapInlineCache.State.UNINITIALIZED, null);
+        private static final Entry GENERIC = new Entry(ShnapInlineCache.State.GENERIC, null);
+
+        private final ShnapInlineCache.State state;
+        private final List<ShnapParameter> params;
+
+        private Entry(ShnapInlineCache.State state, List<ShnapParameter> params) {
+            this.state = state;
+            this.params = params;
+        }
+
+    }
+
 }
@@ -23,10 +23,13 @@ package com.gmail.socraticphoenix.shnap.program.instructions;
 
 import com.gmail.socraticphoenix.parse.Strings;
 import com.gmail.socraticphoenix.shnap.program.AbstractShnapLocatable;
+import com.gmail.socraticphoenix.shnap.type.object.ShnapBindingPlan;
 import com.gmail.socraticphoenix.shnap.type.object.ShnapFunction;
 import com.gmail.socraticphoenix.shnap.parse.ShnapLoc;
 import com.gmail.socraticphoenix.shnap.program.ShnapParameter;
+import com.gmail.socraticphoenix.shnap.program.compiled.ShnapTieredBody;
 import com.gmail.socraticphoenix.shnap.program.context.ShnapContext;
+import com.gmail.socraticphoenix.shnap.program.context.ShnapFrameDescriptor;
 import com.gmail.socraticphoenix.shnap.program.context.ShnapExecution;
 import com.gmail.socraticphoenix.shnap.run.env.ShnapEnvironment;
 
@@ -36,6 +39,9 @@ public class ShnapMakeFunc extends AbstractShnapLocatable implements ShnapInstru
     private List<ShnapParameter> parameters;
     private List<ShnapInstruction> objInstructions;
     private ShnapInstruction body;
+    private ShnapFrameDescriptor frame;
+    private ShnapTieredBody tier;
+    private ShnapBindingPlan plan;
 
     public ShnapMakeFunc(ShnapLoc loc, List<ShnapParameter> parameters, List<ShnapInstruction> objInstructions, ShnapInstruction body) {
         super(loc);
@@ -56,9 +62,23 @@ public class ShnapMakeFunc extends AbstractShnapLocatable implements ShnapInstru
         return this.body;
     }
 
+    public ShnapFrameDescriptor getFrame() {
+        return this.frame;
+    }
+
+    public void setFrame(ShnapFrameDescriptor frame) {
+        this.frame = frame;
+    }
+
     @Override
     public ShnapExecution exec(ShnapContext context, ShnapEnvironment tracer) {
-        ShnapFunction function = new ShnapFunction(this.getLocation(), this.parameters, this.body);
+        if (this.tier == null) {
+            this.tier = new ShnapTieredBody(this.body);
+        }
+        if (this.plan == null) {
+            this.plan = new ShnapBindingPlan(this.parameters, this.frame);
+        }
+        ShnapFunction function = new ShnapFunction(this.getLocation(), this.body, this.frame, this.tier, this.plan);
         function.init(context);
         for(ShnapInstruction obj : this.objInstructions) {
             obj.exec(function.getContext(), tracer);
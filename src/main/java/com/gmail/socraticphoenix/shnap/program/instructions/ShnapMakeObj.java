@@ -27,6 +27,8 @@ import com.gmail.socraticphoenix.shnap.type.object.ShnapObject;
 import com.gmail.socraticphoenix.shnap.program.context.ShnapContext;
 import com.gmail.socraticphoenix.shnap.program.context.ShnapExecution;
 import com.gmail.socraticphoenix.shnap.run.env.ShnapEnvironment;
+import com.gmail.socraticphoenix.shnap.program.stepper.ShnapABStepper;
+import com.gmail.socraticphoenix.shnap.program.stepper.ShnapStepper;
 
 public class ShnapMakeObj extends AbstractShnapLocatable implements ShnapInstruction {
     private ShnapInstruction instruction;
@@ -48,10 +50,7 @@ public class ShnapMakeObj extends AbstractShnapLocatable implements ShnapInstruc
 
     @Override
     public ShnapExecution exec(ShnapContext context, ShnapEnvironment tracer) {
-        ShnapObject object = new ShnapObject(this.getLocation(), this.type);
-        object.init(context);
-        object.getContext().setCeiling(true);
-
+        ShnapObject object = this.create(context);
         ShnapExecution exe = this.instruction.exec(object.getContext(), tracer);
         if(exe.isAbnormal()) {
             return exe;
@@ -60,6 +59,19 @@ public class ShnapMakeObj extends AbstractShnapLocatable implements ShnapInstruc
         return ShnapExecution.normal(object, tracer, this.getLocation());
     }
 
+    private ShnapObject create(ShnapContext context) {
+        ShnapObject object = new ShnapObject(this.getLocation(), this.type);
+        object.init(context);
+        object.getContext().setCeiling(true);
+        return object;
+    }
+
+    @Override
+    public ShnapStepper asStepper(ShnapContext context) {
+        ShnapObject object = this.create(context);
+        return new ShnapABStepper(this.instruction.asStepper(object.getContext()), (e, c, t) -> ShnapExecution.normal(object, t, this.getLocation()), null, this, context);
+    }
+
     @Override
     public String decompile(int indent) {
         return "#" + this.instruction.decompile(indent);
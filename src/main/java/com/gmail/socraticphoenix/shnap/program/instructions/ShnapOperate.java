@@ -26,19 +26,26 @@ import com.gmail.socraticphoenix.shnap.parse.ShnapLoc;
 import com.gmail.socraticphoenix.shnap.program.ShnapOperators;
 import com.gmail.socraticphoenix.shnap.program.context.ShnapContext;
 import com.gmail.socraticphoenix.shnap.program.context.ShnapExecution;
+import com.gmail.socraticphoenix.shnap.program.stepper.ShnapOperateStepper;
+import com.gmail.socraticphoenix.shnap.program.stepper.ShnapStepper;
 import com.gmail.socraticphoenix.shnap.run.env.ShnapEnvironment;
+import com.gmail.socraticphoenix.shnap.type.natives.ShnapNativeOperators;
 import com.gmail.socraticphoenix.shnap.type.natives.num.ShnapBooleanNative;
+import com.gmail.socraticphoenix.shnap.type.object.ShnapObject;
 
 public class ShnapOperate extends AbstractShnapLocatable implements ShnapInstruction {
     private ShnapInstruction left;
     private ShnapOperators operator;
     private ShnapInstruction right;
 
+    private volatile Entry cache;
+
     public ShnapOperate(ShnapLoc loc, ShnapInstruction left, ShnapOperators operator, ShnapInstruction right) {
         super(loc);
         this.left = left;
         this.operator = operator;
         this.right = right;
+        this.cache = Entry.UNINITIALIZED;
     }
 
     public ShnapInstruction getLeft() {
@@ -59,25 +66,71 @@ public class ShnapOperate extends AbstractShnapLocatable implements ShnapInstruc
         if (left.isAbnormal()) {
             return left;
         }
-        if (this.right != null && this.operator.getArity() == 2) {
-            if (this.operator.isBool()) {
-                boolean leftVal = left.getValue().isTruthy(tracer);
-                if (this.operator == ShnapOperators.LOGICAL_AND && !leftVal) {
-                    return ShnapExecution.normal(ShnapBooleanNative.FALSE, tracer, this.getLocation());
-                } else if (this.operator == ShnapOperators.LOGICAL_OR && leftVal) {
-                    return ShnapExecution.normal(ShnapBooleanNative.TRUE, tracer, this.getLocation());
-                }
+        if (this.isBinary()) {
+            ShnapExecution shortCircuit = this.shortCircuit(left.getValue(), tracer);
+            if (shortCircuit != null) {
+                return shortCircuit;
             }
 
             ShnapExecution right = this.right.exec(context, tracer).resolve(tracer);
             if (right.isAbnormal()) {
                 return right;
             }
-            return left.getValue().operate(right.getValue(), this.operator, tracer);
+            return this.apply(left.getValue(), right.getValue(), tracer);
+        }
+
+        return this.apply(left.getValue(), null, tracer);
+    }
+
+    public boolean isBinary() {
+        return this.right != null && this.operator.getArity() == 2;
+    }
+
+    public ShnapExecution shortCircuit(ShnapObject left, ShnapEnvironment tracer) {
+        if (this.operator.isBool()) {
+            boolean leftVal = left.isTruthy(tracer);
+            if (this.operator == ShnapOperators.LOGICAL_AND && !leftVal) {
+                return ShnapExecution.normal(ShnapBooleanNative.FALSE, tracer, this.getLocation());
+            } else if (this.operator == ShnapOperators.LOGICAL_OR && leftVal) {
+                return ShnapExecution.normal(ShnapBooleanNative.TRUE, tracer, this.getLocation());
+            }
+        }
+        return null;
+    }
+
+    public ShnapExecution apply(ShnapObject left, ShnapObject right, ShnapEnvironment tracer) {
+        ShnapObject result = this.quickOperate(left, right);
+        if (result != null) {
+            return ShnapExecution.normal(result, tracer, left.getLocation());
+        }
+        return right == null ? left.operate(this.operator, tracer) : left.operate(right, this.operator, tracer);
+    }
+
+    @Override
+    public ShnapStepper asStepper(ShnapContext context) {
+        return new ShnapOperateStepper(this, context);
+    }
+
+    public ShnapObject quickOperate(ShnapObject left, ShnapObject right) {
+        Entry cache = this.cache;
+        if (cache.state == ShnapInlineCache.State.MONOMORPHIC) {
+            if (left.getClass() == cache.left && (right == null ? null : right.getClass()) == cache.right) {
+                return cache.isNative ? this.tryOperate(left, right) : null;
+            }
+            ShnapInlineCache.generalized(ShnapInlineCache.Site.OPERATE, cache.state);
+            this.cache = Entry.GENERIC;
+        }
 
+        ShnapObject result = this.tryOperate(left, right);
+        if (cache.state == ShnapInlineCache.State.UNINITIALIZED) {
+            this.cache = new Entry(ShnapInlineCache.State.MONOMORPHIC, left.getClass(), right == null ? null : right.getClass(), result != null);
+            ShnapInlineCache.specialized(ShnapInlineCache.Site.OPERATE);
         }
+        return result;
+    }
 
-        return left.getValue().operate(this.operator, tracer);
+    private ShnapObject tryOperate(ShnapObject left, ShnapObject right) {
+        return right == null ? ShnapNativeOperators.tryOperate(left, this.operator) : ShnapNativeOperators.tryOperate(left, this.operator, right);
     }
 
     @Override
@@ -85,4 +138,22 @@ public class ShnapOperate extends AbstractShnapLocatable implements ShnapInstruc
         return "(" + (this.operator.getArity() == 1 ? (this.operator.getRep() + "(" + this.left.decompile(indent) + ")") : ("(" + this.left.decompile(indent) + ") " + this.operator.getRep() + " (" + this.right.decompile(indent) + ")")) + ")";
     }
 
+    private static final class Entry {
+        private static final Entry UNINITIALIZED = new Entry(ShnapInlineCache.State.UNINITIALIZED, null, null, false);
+        private static final Entry GENERIC = new Entry(ShnapInlineCache.State.GENERIC, null, null, false);
+
+        private final ShnapInlineCache.State state;
+        private final Class<?> left;
+        private final Class<?> right;
+        private final boolean isNative;
+
+        private Entry(ShnapInlineCache.State state, Class<?> left, Class<?> right, boolean isNative) {
+            this.state = state;
+            this.left = left;
+            this.right = right;
+            this.isNative = isNative;
+        }
+
+    }
+
 }
@@ -29,17 +29,27 @@ import com.gmail.socraticphoenix.shnap.type.object.ShnapObject;
 import com.gmail.socraticphoenix.shnap.program.ShnapOperators;
 import com.gmail.socraticphoenix.shnap.program.context.ShnapContext;
 import com.gmail.socraticphoenix.shnap.program.context.ShnapExecution;
+import com.gmail.socraticphoenix.shnap.program.context.ShnapLocalRef;
+import com.gmail.socraticphoenix.shnap.program.context.ShnapLookup;
+import com.gmail.socraticphoenix.shnap.program.context.ShnapSymbol;
+import com.gmail.socraticphoenix.shnap.type.object.ShnapResolver;
+import com.gmail.socraticphoenix.shnap.type.natives.ShnapNativeOperators;
+import com.gmail.socraticphoenix.shnap.program.stepper.ShnapSetStepper;
+import com.gmail.socraticphoenix.shnap.program.stepper.ShnapStepper;
 
 public class ShnapSet extends AbstractShnapLocatable implements ShnapInstruction {
     private ShnapInstruction target;
     private String name;
+    private ShnapSymbol symbol;
     private ShnapInstruction val;
     private ShnapOperators op;
+    private ShnapLocalRef ref;
 
     public ShnapSet(ShnapLoc loc, ShnapInstruction target, String name, ShnapInstruction val, ShnapOperators op) {
         super(loc);
         this.target = target;
         this.name = name;
+        this.symbol = ShnapSymbol.of(name);
         this.val = val;
         this.op = op;
     }
@@ -64,8 +74,20 @@ public class ShnapSet extends AbstractShnapLocatable implements ShnapInstruction
         this.target = target;
     }
 
+    public ShnapLocalRef getRef() {
+        return this.ref;
+    }
+
+    public void setRef(ShnapLocalRef ref) {
+        this.ref = ref;
+    }
+
     @Override
     public ShnapExecution exec(ShnapContext context, ShnapEnvironment tracer) {
+        if (this.ref != null) {
+            return this.execLocal(context, tracer);
+        }
+
         ShnapContext targetContext = context;
         if(this.target != null) {
             ShnapExecution e = this.target.exec(context, tracer).resolve(tracer);
@@ -77,10 +99,9 @@ public class ShnapSet extends AbstractShnapLocatable implements ShnapInstruction
             }
         }
 
-        if(targetContext.hasFlag(this.name, ShnapContext.Flag.FINALIZED)) {
-            return ShnapExecution.throwing(ShnapFactory.makeExceptionObj("shnap.AccessError", "field " + name + " is flagged with FINALIZED", null), tracer, this.getLocation());
-        } else if (!context.isChildOf(targetContext) && targetContext.hasFlag(this.name, ShnapContext.Flag.PRIVATE)) {
-            return ShnapExecution.throwing(ShnapFactory.makeExceptionObj("shnap.AccessError", "field " + name + " is flagged with PRIVATE", null), tracer, this.getLocation());
+        ShnapExecution denied = this.check(context, targetContext, tracer);
+        if (denied != null) {
+            return denied;
         }
 
         ShnapExecution execution = this.val.exec(context, tracer);
@@ -88,23 +109,93 @@ public class ShnapSet extends AbstractShnapLocatable implements ShnapInstruction
             return execution;
         }
 
+        return this.assign(targetContext, execution.getValue(), tracer);
+    }
+
+    public ShnapExecution check(ShnapContext context, ShnapContext targetContext, ShnapEnvironment tracer) {
+        ShnapLookup lookup = targetContext.lookup(this.symbol);
+        if(lookup.hasFlag(ShnapContext.Flag.FINALIZED)) {
+            return ShnapExecution.throwing(ShnapFactory.makeExceptionObj("shnap.AccessError", "field " + name + " is flagged with FINALIZED", null), tracer, this.getLocation());
+        } else if (lookup.hasFlag(ShnapContext.Flag.PRIVATE) && !context.isChildOf(targetContext)) {
+            return ShnapExecution.throwing(ShnapFactory.makeExceptionObj("shnap.AccessError", "field " + name + " is flagged with PRIVATE", null), tracer, this.getLocation());
+        }
+        return null;
+    }
+
+    public ShnapExecution assign(ShnapContext targetContext, ShnapObject value, ShnapEnvironment tracer) {
         if(this.op == null) {
-            targetContext.set(this.name, execution.getValue());
-            return execution;
+            targetContext.set(this.symbol, value);
+            return ShnapExecution.normal(value, tracer, this.getLocation());
         } else {
-            ShnapContext finalTargetContext = targetContext;
-            return targetContext.get(this.name, tracer).mapIfNormal(e -> {
-                ShnapObject prev = e.getValue();
-                ShnapExecution op = prev.operate(execution.getValue(), this.op, tracer).resolve(tracer);
+            ShnapLookup target = targetContext.lookupCeilingWise(this.symbol);
+            ShnapObject prev = target.getValue();
+            ShnapExecution prevExec = prev == null ? ShnapExecution.normal(ShnapObject.getVoid(), tracer, ShnapLoc.BUILTIN) : prev instanceof ShnapResolver ? prev.resolve(tracer) : ShnapExecution.normal(prev, tracer, ShnapLoc.BUILTIN);
+            return prevExec.mapIfNormal(e -> {
+                ShnapExecution op = ShnapNativeOperators.operate(e.getValue(), this.op, value, tracer).resolve(tracer);
                 if(op.isAbnormal()) {
                     return op;
                 }
-                finalTargetContext.set(this.name, op.getValue());
+                target.set(op.getValue());
                 return op;
             });
         }
     }
 
+    private ShnapExecution execLocal(ShnapContext context, ShnapEnvironment tracer) {
+        ShnapExecution denied = this.checkLocal(context, tracer);
+        if (denied != null) {
+            return denied;
+        }
+
+        ShnapExecution execution = this.val.exec(context, tracer);
+        if (execution.isAbnormal()) {
+            return execution;
+        }
+
+        return this.assignLocal(context, execution.getValue(), tracer);
+    }
+
+    public ShnapExecution assignLocal(ShnapContext context, ShnapObject value, ShnapEnvironment tracer) {
+        if (this.op == null) {
+            this.ref.set(context, value);
+            return ShnapExecution.normal(value, tracer, this.getLocation());
+        } else {
+            return this.operateLocal(context, value, tracer);
+        }
+    }
+
+    public ShnapExecution checkLocal(ShnapContext context, ShnapEnvironment tracer) {
+        if (this.ref.hasFlag(context, ShnapContext.Flag.FINALIZED)) {
+            return ShnapExecution.throwing(ShnapFactory.makeExceptionObj("shnap.AccessError", "field " + name + " is flagged with FINALIZED", null), tracer, this.getLocation());
+        }
+        return null;
+    }
+
+    public ShnapExecution operateLocal(ShnapContext context, ShnapObject value, ShnapEnvironment tracer) {
+        ShnapObject prev = this.ref.get(context);
+        ShnapExecution prevExec;
+        if (prev == null) {
+            prevExec = ShnapExecution.normal(ShnapObject.getVoid(), tracer, ShnapLoc.BUILTIN);
+        } else if (prev instanceof ShnapResolver) {
+            prevExec = prev.resolve(tracer);
+        } else {
+            prevExec = ShnapExecution.normal(prev, tracer, ShnapLoc.BUILTIN);
+        }
+
+        return prevExec.mapIfNormal(e -> {
+            ShnapExecution op = ShnapNativeOperators.operate(e.getValue(), this.op, value, tracer).resolve(tracer);
+            if (op.isAbnormal()) {
+                return op;
+            }
+            this.ref.set(context, op.getValue());
+            return op;
+        });
+    }
+
+    @Override
+    public ShnapStepper asStepper(ShnapContext context) {
+        return new ShnapSetStepper(this, context);
+    }
 
     @Override
     public String decompile(int indent) {
@@ -26,12 +26,15 @@ import com.gmail.socraticphoenix.shnap.program.AbstractShnapLocatable;
 import com.gmail.socraticphoenix.shnap.program.context.ShnapContext;
 import com.gmail.socraticphoenix.shnap.program.context.ShnapExecution;
 import com.gmail.socraticphoenix.shnap.program.context.ShnapExecution.State;
+import com.gmail.socraticphoenix.shnap.program.stepper.ShnapABStepper;
+import com.gmail.socraticphoenix.shnap.program.stepper.ShnapStepper;
 import com.gmail.socraticphoenix.shnap.run.env.ShnapEnvironment;
 import com.gmail.socraticphoenix.shnap.type.object.ShnapObject;
 
 public class ShnapStateChange extends AbstractShnapLocatable implements ShnapInstruction {
     private State state;
     private ShnapInstruction value;
+    private boolean tail;
 
     public ShnapStateChange(ShnapLoc loc, State state, ShnapInstruction value) {
         super(loc);
@@ -47,13 +50,21 @@ public class ShnapStateChange extends AbstractShnapLocatable implements ShnapIns
         return this.value;
     }
 
+    public boolean isTail() {
+        return this.tail;
+    }
+
+    public void setTail(boolean tail) {
+        this.tail = tail;
+    }
+
     @Override
     public ShnapExecution exec(ShnapContext context, ShnapEnvironment tracer) {
         ShnapExecution e;
         if (this.value == null) {
             e = new ShnapExecution(ShnapObject.getVoid(), this.state, tracer, this.getLocation());
         } else {
-            ShnapExecution val = this.value.exec(context, tracer);
+            ShnapExecution val = this.tail ? ((ShnapInvoke) this.value).execTail(context, tracer) : this.value.exec(context, tracer);
             if (val.isAbnormal()) {
                 return val;
             }
@@ -67,9 +78,9 @@ public class ShnapStateChange extends AbstractShnapLocatable implements ShnapIns
         return this.value == null ? this.state.getRep() : this.state.getRep() + ": " + this.value.decompile(indent);
     }
 
-    /*@Override
-    public ShnapStepper asStepper() {
-        return new ShnapABStepper(this.value, (e, c, t) -> new ShnapExecution(e.getValue(), this.state, t, this.getLocation()), (c, t) -> new ShnapExecution(ShnapObject.getVoid(), this.state, t, this.getLocation()), this);
-    }*/
+    @Override
+    public ShnapStepper asStepper(ShnapContext context) {
+        return new ShnapABStepper(this.value, (e, c, t) -> new ShnapExecution(e.getValue(), this.state, t, this.getLocation()), (c, t) -> new ShnapExecution(ShnapObject.getVoid(), this.state, t, this.getLocation()), this, context);
+    }
 
 }
@@ -23,19 +23,27 @@ package com.gmail.socraticphoenix.shnap.program.instructions.block;
 
 import com.gmail.socraticphoenix.parse.Strings;
 import com.gmail.socraticphoenix.shnap.program.AbstractShnapLocatable;
+import com.gmail.socraticphoenix.shnap.program.compiled.ShnapLoopCode;
+import com.gmail.socraticphoenix.shnap.program.compiled.ShnapTreeCompiler;
 import com.gmail.socraticphoenix.shnap.program.instructions.ShnapInstruction;
 import com.gmail.socraticphoenix.shnap.parse.ShnapLoc;
 import com.gmail.socraticphoenix.shnap.type.object.ShnapObject;
 import com.gmail.socraticphoenix.shnap.program.context.ShnapContext;
+import com.gmail.socraticphoenix.shnap.program.context.ShnapFrameDescriptor;
 import com.gmail.socraticphoenix.shnap.program.context.ShnapExecution;
 import com.gmail.socraticphoenix.shnap.program.context.ShnapExecution.State;
 import com.gmail.socraticphoenix.shnap.run.env.ShnapEnvironment;
 import com.gmail.socraticphoenix.shnap.program.instructions.ShnapLiteral;
+import com.gmail.socraticphoenix.shnap.program.stepper.ShnapLoopStepper;
+import com.gmail.socraticphoenix.shnap.program.stepper.ShnapStepper;
 
 public class ShnapDoWhileBlock extends AbstractShnapLocatable implements ShnapInstruction {
     private ShnapInstruction name;
     private ShnapInstruction val;
     private ShnapInstruction instruction;
+    private ShnapFrameDescriptor frame;
+
+    private volatile ShnapLoopCode compiled;
 
     public ShnapDoWhileBlock(ShnapLoc loc, ShnapInstruction name, ShnapInstruction val, ShnapInstruction instruction) {
         super(loc);
@@ -56,6 +64,14 @@ public class ShnapDoWhileBlock extends AbstractShnapLocatable implements ShnapIn
         return this.instruction;
     }
 
+    public ShnapFrameDescriptor getFrame() {
+        return this.frame;
+    }
+
+    public void setFrame(ShnapFrameDescriptor frame) {
+        this.frame = frame;
+    }
+
     @Override
     public ShnapExecution exec(ShnapContext context, ShnapEnvironment tracer) {
         ShnapExecution e = this.name.exec(context, tracer);
@@ -67,11 +83,12 @@ public class ShnapDoWhileBlock extends AbstractShnapLocatable implements ShnapIn
 
         boolean condition;
         ShnapExecution ret;
+        int backEdges = 0;
         do {
-            ShnapExecution block = this.instruction.exec(ShnapContext.childOf(context), tracer);
+            ShnapExecution block = this.instruction.exec(ShnapContext.childOf(context, this.frame), tracer);
             ret = block;
 
-            if (block.getState() == State.RETURNING || block.getState() == State.THROWING) {
+            if (block.getState().isReturning() || block.getState() == State.THROWING) {
                 return block;
             } else if (block.getValue() == ShnapObject.getVoid() || name.isEqualTo(block.getValue(), tracer)) {
                 if (block.getState() == State.BREAKING) {
@@ -81,6 +98,10 @@ public class ShnapDoWhileBlock extends AbstractShnapLocatable implements ShnapIn
                 return block;
             }
 
+            if (tracer.isOptimizeEnabled() && (this.compiled != null || ++backEdges >= tracer.getLoopThreshold())) {
+                return this.compiled().resume(context, tracer, name, ret);
+            }
+
             ShnapExecution e2 = this.val.exec(context, tracer).mapIfNormal(exn -> exn.getValue().resolve(tracer));
             if (e2.isAbnormal()) {
                 return e2;
@@ -92,6 +113,20 @@ public class ShnapDoWhileBlock extends AbstractShnapLocatable implements ShnapIn
     }
 
 
+    private ShnapLoopCode compiled() {
+        ShnapLoopCode compiled = this.compiled;
+        if (compiled == null) {
+            compiled = ShnapTreeCompiler.doWhileLoop(this);
+            this.compiled = compiled;
+        }
+        return compiled;
+    }
+
+    @Override
+    public ShnapStepper asStepper(ShnapContext context) {
+        return new ShnapLoopStepper(this, context, this.name, this.val, this.instruction, this.frame, true);
+    }
+
     @Override
     public String decompile(int indent) {
         StringBuilder block = new StringBuilder();
@@ -23,16 +23,20 @@ package com.gmail.socraticphoenix.shnap.program.instructions.block;
 
 import com.gmail.socraticphoenix.parse.Strings;
 import com.gmail.socraticphoenix.shnap.program.AbstractShnapLocatable;
+import com.gmail.socraticphoenix.shnap.program.compiled.ShnapTieredBody;
 import com.gmail.socraticphoenix.shnap.program.instructions.ShnapInstruction;
 import com.gmail.socraticphoenix.shnap.parse.ShnapLoc;
 import com.gmail.socraticphoenix.shnap.type.object.ShnapFunction;
 import com.gmail.socraticphoenix.shnap.type.object.ShnapObject;
 import com.gmail.socraticphoenix.shnap.program.context.ShnapContext;
+import com.gmail.socraticphoenix.shnap.program.context.ShnapFrameDescriptor;
 import com.gmail.socraticphoenix.shnap.program.context.ShnapExecution;
 import com.gmail.socraticphoenix.shnap.program.context.ShnapExecution.State;
 import com.gmail.socraticphoenix.shnap.run.env.ShnapEnvironment;
 import com.gmail.socraticphoenix.shnap.program.instructions.ShnapLiteral;
 import com.gmail.socraticphoenix.shnap.util.ShnapFactory;
+import com.gmail.socraticphoenix.shnap.program.stepper.ShnapForStepper;
+import com.gmail.socraticphoenix.shnap.program.stepper.ShnapStepper;
 
 import java.math.BigDecimal;
 
@@ -41,12 +45,15 @@ public class ShnapForBlock extends AbstractShnapLocatable implements ShnapInstru
     private String varName;
     private ShnapInstruction val;
     private ShnapInstruction instruction;
+    private ShnapTieredBody body;
+    private ShnapFrameDescriptor frame;
 
     public ShnapForBlock(ShnapLoc loc, ShnapInstruction name, String varName, ShnapInstruction val, ShnapInstruction instruction) {
         super(loc);
         this.name = name == null ? new ShnapLiteral(loc, ShnapObject.getVoid()) : name;
         this.val = val;
         this.instruction = instruction;
+        this.body = new ShnapTieredBody(instruction, true);
         this.varName = varName;
     }
 
@@ -66,8 +73,20 @@ public class ShnapForBlock extends AbstractShnapLocatable implements ShnapInstru
         return this.instruction;
     }
 
+    public ShnapFrameDescriptor getFrame() {
+        return this.frame;
+    }
+
+    public void setFrame(ShnapFrameDescriptor frame) {
+        this.frame = frame;
+    }
+
     @Override
     public ShnapExecution exec(ShnapContext context, ShnapEnvironment tracer) {
+        return this.exec(context, tracer, this.body);
+    }
+
+    public ShnapExecution exec(ShnapContext context, ShnapEnvironment tracer, ShnapInstruction instruction) {
         ShnapExecution e = this.name.exec(context, tracer);
         if (e.isAbnormal()) {
             return e;
@@ -131,13 +150,13 @@ public class ShnapForBlock extends AbstractShnapLocatable implements ShnapInstru
                 }
 
                 ShnapObject iterElem = nextExe.getValue();
-                ShnapContext sub = ShnapContext.childOf(context);
+                ShnapContext sub = ShnapContext.childOf(context, this.frame);
                 sub.setLocally(this.varName, iterElem);
                 sub.setLocally("_" + this.varName, iterator);
-                ShnapExecution block = this.instruction.exec(sub, tracer);
+                ShnapExecution block = instruction.exec(sub, tracer);
                 ret = block;
 
-                if (block.getState() == State.RETURNING || block.getState() == State.THROWING) {
+                if (block.getState().isReturning() || block.getState() == State.THROWING) {
                     return block;
                 } else if (block.getValue() == ShnapObject.getVoid() || name.isEqualTo(block.getValue(), tracer)) {
                     if (block.getState() == State.BREAKING) {
@@ -171,6 +190,11 @@ public class ShnapForBlock extends AbstractShnapLocatable implements ShnapInstru
         }
     }
 
+    @Override
+    public ShnapStepper asStepper(ShnapContext context) {
+        return new ShnapForStepper(this, context);
+    }
+
     @Override
     public String decompile(int indent) {
         StringBuilder block = new StringBuilder();
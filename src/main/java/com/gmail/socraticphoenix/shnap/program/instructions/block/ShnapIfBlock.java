@@ -27,16 +27,20 @@ import com.gmail.socraticphoenix.shnap.program.instructions.ShnapInstruction;
 import com.gmail.socraticphoenix.shnap.parse.ShnapLoc;
 import com.gmail.socraticphoenix.shnap.type.object.ShnapObject;
 import com.gmail.socraticphoenix.shnap.program.context.ShnapContext;
+import com.gmail.socraticphoenix.shnap.program.context.ShnapFrameDescriptor;
 import com.gmail.socraticphoenix.shnap.program.context.ShnapExecution;
 import com.gmail.socraticphoenix.shnap.program.context.ShnapExecution.State;
 import com.gmail.socraticphoenix.shnap.run.env.ShnapEnvironment;
 import com.gmail.socraticphoenix.shnap.program.instructions.ShnapLiteral;
+import com.gmail.socraticphoenix.shnap.program.stepper.ShnapBranchStepper;
+import com.gmail.socraticphoenix.shnap.program.stepper.ShnapStepper;
 
 public class ShnapIfBlock extends AbstractShnapLocatable implements ShnapInstruction {
     private ShnapInstruction name;
     private ShnapInstruction val;
     private ShnapInstruction instruction;
     private ShnapInstruction elif;
+    private ShnapFrameDescriptor frame;
 
     public ShnapIfBlock(ShnapLoc loc, ShnapInstruction name, ShnapInstruction val, ShnapInstruction instruction, ShnapInstruction elif) {
         super(loc);
@@ -66,6 +70,14 @@ public class ShnapIfBlock extends AbstractShnapLocatable implements ShnapInstruc
         this.elif = block;
     }
 
+    public ShnapFrameDescriptor getFrame() {
+        return this.frame;
+    }
+
+    public void setFrame(ShnapFrameDescriptor frame) {
+        this.frame = frame;
+    }
+
     @Override
     public ShnapExecution exec(ShnapContext context, ShnapEnvironment tracer) {
         ShnapExecution e = this.name.exec(context, tracer);
@@ -84,9 +96,9 @@ public class ShnapIfBlock extends AbstractShnapLocatable implements ShnapInstruc
             condition = e2.getValue().isTruthy(tracer);
         }
         if(condition) {
-            ShnapExecution block = this.instruction.exec(ShnapContext.childOf(context), tracer);
+            ShnapExecution block = this.instruction.exec(ShnapContext.childOf(context, this.frame), tracer);
 
-            if (block.getState() == State.RETURNING || block.getState() == State.THROWING) {
+            if (block.getState().isReturning() || block.getState() == State.THROWING) {
                 return block;
             } else if (name != ShnapObject.getVoid() && name.isEqualTo(block.getValue(), tracer)) {
                 if (block.getState() == State.BREAKING) {
@@ -104,6 +116,11 @@ public class ShnapIfBlock extends AbstractShnapLocatable implements ShnapInstruc
         return ShnapExecution.normal(ShnapObject.getVoid(), tracer, this.getLocation());
     }
 
+    @Override
+    public ShnapStepper asStepper(ShnapContext context) {
+        return new ShnapBranchStepper(this, context, this.name, this.val, this.instruction, this.frame, this.elif);
+    }
+
     @Override
     public String decompile(int indent) {
         StringBuilder block = new StringBuilder();
@@ -27,14 +27,18 @@ import com.gmail.socraticphoenix.shnap.program.instructions.ShnapInstruction;
 import com.gmail.socraticphoenix.shnap.parse.ShnapLoc;
 import com.gmail.socraticphoenix.shnap.type.object.ShnapObject;
 import com.gmail.socraticphoenix.shnap.program.context.ShnapContext;
+import com.gmail.socraticphoenix.shnap.program.context.ShnapFrameDescriptor;
 import com.gmail.socraticphoenix.shnap.program.context.ShnapExecution;
 import com.gmail.socraticphoenix.shnap.program.context.ShnapExecution.State;
 import com.gmail.socraticphoenix.shnap.run.env.ShnapEnvironment;
 import com.gmail.socraticphoenix.shnap.program.instructions.ShnapLiteral;
+import com.gmail.socraticphoenix.shnap.program.stepper.ShnapBranchStepper;
+import com.gmail.socraticphoenix.shnap.program.stepper.ShnapStepper;
 
 public class ShnapScopeBlock extends AbstractShnapLocatable implements ShnapInstruction {
     private ShnapInstruction name;
     private ShnapInstruction instruction;
+    private ShnapFrameDescriptor frame;
 
     public ShnapScopeBlock(ShnapLoc loc, ShnapInstruction name, ShnapInstruction instruction) {
         super(loc);
@@ -50,6 +54,14 @@ public class ShnapScopeBlock extends AbstractShnapLocatable implements ShnapInst
         return this.instruction;
     }
 
+    public ShnapFrameDescriptor getFrame() {
+        return this.frame;
+    }
+
+    public void setFrame(ShnapFrameDescriptor frame) {
+        this.frame = frame;
+    }
+
     @Override
     public ShnapExecution exec(ShnapContext context, ShnapEnvironment tracer) {
         ShnapExecution e = this.name.exec(context, tracer);
@@ -58,9 +70,9 @@ public class ShnapScopeBlock extends AbstractShnapLocatable implements ShnapInst
         }
 
         ShnapObject name = e.getValue();
-        ShnapExecution block = this.instruction.exec(ShnapContext.childOf(context), tracer);
+        ShnapExecution block = this.instruction.exec(ShnapContext.childOf(context, this.frame), tracer);
 
-        if (block.getState() == State.RETURNING || block.getState() == State.THROWING) {
+        if (block.getState().isReturning() || block.getState() == State.THROWING) {
             return block;
         } else if (name != ShnapObject.getVoid() && name.isEqualTo(block.getValue(), tracer)) {
             if (block.getState() == State.BREAKING) {
@@ -73,6 +85,11 @@ public class ShnapScopeBlock extends AbstractShnapLocatable implements ShnapInst
         return block;
     }
 
+    @Override
+    public ShnapStepper asStepper(ShnapContext context) {
+        return new ShnapBranchStepper(this, context, this.name, null, this.instruction, this.frame, null);
+    }
+
     @Override
     public String decompile(int indent) {
         StringBuilder block = new StringBuilder();
@@ -25,15 +25,20 @@ import com.gmail.socraticphoenix.shnap.program.AbstractShnapLocatable;
 import com.gmail.socraticphoenix.shnap.program.instructions.ShnapInstruction;
 import com.gmail.socraticphoenix.shnap.parse.ShnapLoc;
 import com.gmail.socraticphoenix.shnap.program.context.ShnapContext;
+import com.gmail.socraticphoenix.shnap.program.context.ShnapFrameDescriptor;
 import com.gmail.socraticphoenix.shnap.program.context.ShnapExecution;
 import com.gmail.socraticphoenix.shnap.program.context.ShnapExecution.State;
 import com.gmail.socraticphoenix.shnap.run.env.ShnapEnvironment;
 import com.gmail.socraticphoenix.shnap.program.instructions.ShnapNoOp;
+import com.gmail.socraticphoenix.shnap.program.stepper.ShnapStepper;
+import com.gmail.socraticphoenix.shnap.program.stepper.ShnapTryCatchStepper;
 
 public class ShnapTryCatchBlock extends AbstractShnapLocatable implements ShnapInstruction {
     private ShnapInstruction tryBlock;
     private ShnapInstruction catchBlock;
     private String catchName;
+    private ShnapFrameDescriptor tryFrame;
+    private ShnapFrameDescriptor catchFrame;
 
     public ShnapTryCatchBlock(ShnapLoc loc, ShnapInstruction tryBlock, ShnapInstruction catchBlock, String catchName) {
         super(loc);
@@ -54,11 +59,27 @@ public class ShnapTryCatchBlock extends AbstractShnapLocatable implements ShnapI
         return this.catchName;
     }
 
+    public ShnapFrameDescriptor getTryFrame() {
+        return this.tryFrame;
+    }
+
+    public void setTryFrame(ShnapFrameDescriptor tryFrame) {
+        this.tryFrame = tryFrame;
+    }
+
+    public ShnapFrameDescriptor getCatchFrame() {
+        return this.catchFrame;
+    }
+
+    public void setCatchFrame(ShnapFrameDescriptor catchFrame) {
+        this.catchFrame = catchFrame;
+    }
+
     @Override
     public ShnapExecution exec(ShnapContext context, ShnapEnvironment tracer) {
-        ShnapExecution ex = this.tryBlock.exec(ShnapContext.childOf(context), tracer);
+        ShnapExecution ex = this.tryBlock.exec(ShnapContext.childOf(context, this.tryFrame), tracer);
         if(ex.getState() == State.THROWING) {
-            ShnapContext throwContext = ShnapContext.childOf(context);
+            ShnapContext throwContext = ShnapContext.childOf(context, this.catchFrame);
             throwContext.set(this.catchName, ex.getValue());
             return this.catchBlock.exec(throwContext, tracer);
         } else {
@@ -66,6 +87,11 @@ public class ShnapTryCatchBlock extends AbstractShnapLocatable implements ShnapI
         }
     }
 
+    @Override
+    public ShnapStepper asStepper(ShnapContext context) {
+        return new ShnapTryCatchStepper(this, context);
+    }
+
     @Override
     public String decompile(int indent) {
         StringBuilder builder = new StringBuilder().append("try ").append(this.tryBlock.decompile(indent));
@@ -23,19 +23,27 @@ package com.gmail.socraticphoenix.shnap.program.instructions.block;
 
 import com.gmail.socraticphoenix.parse.Strings;
 import com.gmail.socraticphoenix.shnap.program.AbstractShnapLocatable;
+import com.gmail.socraticphoenix.shnap.program.compiled.ShnapLoopCode;
+import com.gmail.socraticphoenix.shnap.program.compiled.ShnapTreeCompiler;
 import com.gmail.socraticphoenix.shnap.program.instructions.ShnapInstruction;
 import com.gmail.socraticphoenix.shnap.parse.ShnapLoc;
 import com.gmail.socraticphoenix.shnap.type.object.ShnapObject;
 import com.gmail.socraticphoenix.shnap.program.context.ShnapContext;
+import com.gmail.socraticphoenix.shnap.program.context.ShnapFrameDescriptor;
 import com.gmail.socraticphoenix.shnap.program.context.ShnapExecution;
 import com.gmail.socraticphoenix.shnap.program.context.ShnapExecution.State;
 import com.gmail.socraticphoenix.shnap.run.env.ShnapEnvironment;
 import com.gmail.socraticphoenix.shnap.program.instructions.ShnapLiteral;
+import com.gmail.socraticphoenix.shnap.program.stepper.ShnapLoopStepper;
+import com.gmail.socraticphoenix.shnap.program.stepper.ShnapStepper;
 
 public class ShnapWhileBlock extends AbstractShnapLocatable implements ShnapInstruction {
     private ShnapInstruction name;
     private ShnapInstruction val;
     private ShnapInstruction instruction;
+    private ShnapFrameDescriptor frame;
+
+    private volatile ShnapLoopCode compiled;
 
     public ShnapWhileBlock(ShnapLoc loc, ShnapInstruction name, ShnapInstruction val, ShnapInstruction instruction) {
         super(loc);
@@ -56,6 +64,14 @@ public class ShnapWhileBlock extends AbstractShnapLocatable implements ShnapInst
         return this.instruction;
     }
 
+    public ShnapFrameDescriptor getFrame() {
+        return this.frame;
+    }
+
+    public void setFrame(ShnapFrameDescriptor frame) {
+        this.frame = frame;
+    }
+
     @Override
     public ShnapExecution exec(ShnapContext context, ShnapEnvironment tracer) {
         ShnapExecution e = this.name.exec(context, tracer);
@@ -71,12 +87,13 @@ public class ShnapWhileBlock extends AbstractShnapLocatable implements ShnapInst
 
         boolean condition = e2.getValue().isTruthy(tracer);
         ShnapExecution ret = ShnapExecution.normal(ShnapObject.getVoid(), tracer, this.getLocation());
+        int backEdges = 0;
         while (condition) {
-            ShnapContext childCtx = ShnapContext.childOf(context);
+            ShnapContext childCtx = ShnapContext.childOf(context, this.frame);
             ShnapExecution block = this.instruction.exec(childCtx, tracer);
             ret = block;
 
-            if (block.getState() == State.RETURNING || block.getState() == State.THROWING) {
+            if (block.getState().isReturning() || block.getState() == State.THROWING) {
                 return block;
             } else if (block.getValue() == ShnapObject.getVoid() || name.isEqualTo(block.getValue(), tracer)) {
                 if (block.getState() == State.BREAKING) {
@@ -86,6 +103,10 @@ public class ShnapWhileBlock extends AbstractShnapLocatable implements ShnapInst
                 return block;
             }
 
+            if (tracer.isOptimizeEnabled() && (this.compiled != null || ++backEdges >= tracer.getLoopThreshold())) {
+                return this.compiled().resume(context, tracer, name, ret);
+            }
+
             e2 = this.val.exec(context, tracer);
             if (e2.isAbnormal()) {
                 return e2;
@@ -96,6 +117,20 @@ public class ShnapWhileBlock extends AbstractShnapLocatable implements ShnapInst
         return ret;
     }
 
+    private ShnapLoopCode compiled() {
+        ShnapLoopCode compiled = this.compiled;
+        if (compiled == null) {
+            compiled = ShnapTreeCompiler.whileLoop(this);
+            this.compiled = compiled;
+        }
+        return compiled;
+    }
+
+    @Override
+    public ShnapStepper asStepper(ShnapContext context) {
+        return new ShnapLoopStepper(this, context, this.name, this.val, this.instruction, this.frame, false);
+    }
+
     @Override
     public String decompile(int indent) {
         StringBuilder block = new StringBuilder();
@@ -22,7 +22,6 @@
 
 package com.gmail.socraticphoenix.shnap.program.stepper;
 
-import com.gmail.socraticphoenix.shnap.parse.ShnapLoc;
 import com.gmail.socraticphoenix.shnap.program.context.ShnapContext;
 import com.gmail.socraticphoenix.shnap.program.context.ShnapExecution;
 import com.gmail.socraticphoenix.shnap.program.instructions.ShnapInstruction;
@@ -36,33 +35,34 @@ public class ShnapABStepper implements ShnapStepper {
     private TriFunction<ShnapExecution, ShnapContext, ShnapEnvironment, ShnapExecution> transformer;
     private BiFunction<ShnapContext, ShnapEnvironment, ShnapExecution> def;
     private ShnapInstruction instruction;
+    private ShnapContext context;
+    private boolean started;
 
-    public ShnapABStepper(ShnapInstruction stepper, TriFunction<ShnapExecution, ShnapContext, ShnapEnvironment, ShnapExecution> transformer, BiFunction<ShnapContext, ShnapEnvironment, ShnapExecution> def, ShnapInstruction instruction) {
-        //this(stepper == null ? null : stepper.asStepper(), transformer, def, instruction);
+    public ShnapABStepper(ShnapInstruction stepper, TriFunction<ShnapExecution, ShnapContext, ShnapEnvironment, ShnapExecution> transformer, BiFunction<ShnapContext, ShnapEnvironment, ShnapExecution> def, ShnapInstruction instruction, ShnapContext context) {
+        this(stepper == null ? null : stepper.asStepper(context), transformer, def, instruction, context);
     }
 
-    public ShnapABStepper(ShnapStepper stepper, TriFunction<ShnapExecution, ShnapContext, ShnapEnvironment, ShnapExecution> transformer, BiFunction<ShnapContext, ShnapEnvironment, ShnapExecution> def, ShnapInstruction instruction) {
+    public ShnapABStepper(ShnapStepper stepper, TriFunction<ShnapExecution, ShnapContext, ShnapEnvironment, ShnapExecution> transformer, BiFunction<ShnapContext, ShnapEnvironment, ShnapExecution> def, ShnapInstruction instruction, ShnapContext context) {
         this.stepper = stepper;
         this.transformer = transformer;
         this.def = def;
         this.instruction = instruction;
+        this.context = context;
     }
 
-
-    private Optional<ShnapExecution> working = Optional.empty();
-
     @Override
-    public Optional<ShnapExecution> step(ShnapContext context, ShnapEnvironment tracer) {
+    public Optional<ShnapExecution> step(ShnapExecution last, ShnapStepMachine machine, ShnapEnvironment tracer) {
         if (this.stepper == null) {
-            return Optional.of(this.def.apply(context, tracer));
+            return Optional.of(this.def.apply(this.context, tracer));
         }
 
-        if (this.working.isPresent()) {
-            return Optional.of(this.working.get().mapIfNormal(e -> this.transformer.apply(e, context, tracer)));
+        if (!this.started) {
+            this.started = true;
+            machine.push(this.stepper);
+            return Optional.empty();
         }
 
-        this.working = this.stepper.step(context, tracer);
-        return Optional.empty();
+        return Optional.of(last.mapIfNormal(e -> this.transformer.apply(e, this.context, tracer)));
     }
 
     @Override
@@ -70,9 +70,4 @@ public class ShnapABStepper implements ShnapStepper {
         return this.instruction;
     }
 
-    @Override
-    public ShnapLoc getLocation() {
-        return this.instruction.getLocation();
-    }
-
 }
@@ -0,0 +1,113 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 socraticphoenix@gmail.com
+ * Copyright (c) 2017 contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.gmail.socraticphoenix.shnap.program.stepper;
+
+import com.gmail.socraticphoenix.shnap.program.context.ShnapContext;
+import com.gmail.socraticphoenix.shnap.program.context.ShnapExecution;
+import com.gmail.socraticphoenix.shnap.program.context.ShnapExecution.State;
+import com.gmail.socraticphoenix.shnap.program.context.ShnapFrameDescriptor;
+import com.gmail.socraticphoenix.shnap.program.instructions.ShnapInstruction;
+import com.gmail.socraticphoenix.shnap.run.env.ShnapEnvironment;
+import com.gmail.socraticphoenix.shnap.type.object.ShnapObject;
+
+import java.util.Optional;
+
+public class ShnapBranchStepper implements ShnapStepper {
+    private static final int NAME = 0;
+    private static final int CONDITION = 1;
+    private static final int BODY = 2;
+    private static final int ELIF = 3;
+
+    private ShnapInstruction instruction;
+    private ShnapContext context;
+    private ShnapInstruction name;
+    private ShnapInstruction val;
+    private ShnapInstruction body;
+    private ShnapFrameDescriptor frame;
+    private ShnapInstruction elif;
+
+    private int phase = NAME;
+    private ShnapObject label;
+
+    public ShnapBranchStepper(ShnapInstruction instruction, ShnapContext context, ShnapInstruction name, ShnapInstruction val, ShnapInstruction body, ShnapFrameDescriptor frame, ShnapInstruction elif) {
+        this.instruction = instruction;
+        this.context = context;
+        this.name = name;
+        this.val = val;
+        this.body = body;
+        this.frame = frame;
+        this.elif = elif;
+    }
+
+    @Override
+    public Optional<ShnapExecution> step(ShnapExecution last, ShnapStepMachine machine, ShnapEnvironment tracer) {
+        if (last == null) {
+            machine.push(this.name.asStepper(this.context));
+            return Optional.empty();
+        }
+
+        switch (this.phase) {
+            case NAME:
+                if (last.isAbnormal()) {
+                    return Optional.of(last);
+                }
+                this.label = last.getValue();
+                if (this.val == null) {
+                    return this.enter(machine);
+                }
+                this.phase = CONDITION;
+                machine.push(this.val.asStepper(this.context));
+                return Optional.empty();
+            case CONDITION:
+                ShnapExecution condition = last.resolve(tracer);
+                if (condition.isAbnormal()) {
+                    return Optional.of(condition);
+                } else if (condition.getValue().isTruthy(tracer)) {
+                    return this.enter(machine);
+                } else if (this.elif != null) {
+                    this.phase = ELIF;
+                    machine.push(this.elif.asStepper(this.context));
+                    return Optional.empty();
+                }
+                return Optional.of(ShnapExecution.normal(ShnapObject.getVoid(), tracer, this.getLocation()));
+            case BODY:
+                if (!last.getState().isReturning() && last.getState() != State.THROWING && this.label != ShnapObject.getVoid() && this.label.isEqualTo(last.getValue(), tracer) && last.getState() == State.BREAKING) {
+                    return Optional.of(ShnapExecution.normal(last.getValue(), tracer, this.getLocation()));
+                }
+                return Optional.of(last);
+            default:
+                return Optional.of(last);
+        }
+    }
+
+    private Optional<ShnapExecution> enter(ShnapStepMachine machine) {
+        this.phase = BODY;
+        machine.push(this.body.asStepper(ShnapContext.childOf(this.context, this.frame)));
+        return Optional.empty();
+    }
+
+    @Override
+    public ShnapInstruction instruction() {
+        return this.instruction;
+    }
+
+}
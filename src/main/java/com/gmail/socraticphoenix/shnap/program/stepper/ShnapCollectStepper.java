@@ -0,0 +1,72 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 socraticphoenix@gmail.com
+ * Copyright (c) 2017 contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.gmail.socraticphoenix.shnap.program.stepper;
+
+import com.gmail.socraticphoenix.shnap.program.context.ShnapContext;
+import com.gmail.socraticphoenix.shnap.program.context.ShnapExecution;
+import com.gmail.socraticphoenix.shnap.program.instructions.ShnapInstruction;
+import com.gmail.socraticphoenix.shnap.run.env.ShnapEnvironment;
+import com.gmail.socraticphoenix.shnap.type.object.ShnapObject;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.BiFunction;
+
+public class ShnapCollectStepper implements ShnapStepper {
+    private ShnapInstruction instruction;
+    private ShnapContext context;
+    private List<ShnapInstruction> values;
+    private BiFunction<ShnapObject[], ShnapEnvironment, ShnapExecution> finisher;
+    private ShnapObject[] collected;
+    private int current;
+
+    public ShnapCollectStepper(ShnapInstruction instruction, ShnapContext context, List<ShnapInstruction> values, BiFunction<ShnapObject[], ShnapEnvironment, ShnapExecution> finisher) {
+        this.instruction = instruction;
+        this.context = context;
+        this.values = values;
+        this.finisher = finisher;
+        this.collected = new ShnapObject[values.size()];
+    }
+
+    @Override
+    public Optional<ShnapExecution> step(ShnapExecution last, ShnapStepMachine machine, ShnapEnvironment tracer) {
+        if (last != null) {
+            if (last.isAbnormal()) {
+                return Optional.of(last);
+            }
+            this.collected[this.current - 1] = last.getValue();
+        }
+
+        if (this.current == this.values.size()) {
+            return Optional.of(this.finisher.apply(this.collected, tracer));
+        }
+
+        machine.push(this.values.get(this.current++).asStepper(this.context));
+        return Optional.empty();
+    }
+
+    @Override
+    public ShnapInstruction instruction() {
+        return this.instruction;
+    }
+
+}
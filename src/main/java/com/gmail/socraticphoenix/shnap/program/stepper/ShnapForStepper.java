@@ -0,0 +1,146 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 socraticphoenix@gmail.com
+ * Copyright (c) 2017 contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.gmail.socraticphoenix.shnap.program.stepper;
+
+import com.gmail.socraticphoenix.shnap.program.context.ShnapContext;
+import com.gmail.socraticphoenix.shnap.program.context.ShnapExecution;
+import com.gmail.socraticphoenix.shnap.program.context.ShnapExecution.State;
+import com.gmail.socraticphoenix.shnap.program.instructions.ShnapInstruction;
+import com.gmail.socraticphoenix.shnap.program.instructions.block.ShnapForBlock;
+import com.gmail.socraticphoenix.shnap.run.env.ShnapEnvironment;
+import com.gmail.socraticphoenix.shnap.type.object.ShnapFunction;
+import com.gmail.socraticphoenix.shnap.type.object.ShnapObject;
+import com.gmail.socraticphoenix.shnap.util.ShnapFactory;
+
+import java.util.Optional;
+
+public class ShnapForStepper implements ShnapStepper {
+    private static final int NAME = 0;
+    private static final int ITERABLE = 1;
+    private static final int BODY = 2;
+
+    private ShnapForBlock block;
+    private ShnapContext context;
+
+    private int phase = NAME;
+    private ShnapObject label;
+    private ShnapObject iterator;
+    private ShnapFunction nextFunc;
+    private ShnapFunction hasNextFunc;
+    private ShnapExecution ret;
+
+    public ShnapForStepper(ShnapForBlock block, ShnapContext context) {
+        this.block = block;
+        this.context = context;
+    }
+
+    @Override
+    public Optional<ShnapExecution> step(ShnapExecution last, ShnapStepMachine machine, ShnapEnvironment tracer) {
+        if (last == null) {
+            machine.push(this.block.getName().asStepper(this.context));
+            return Optional.empty();
+        }
+
+        switch (this.phase) {
+            case NAME:
+                if (last.isAbnormal()) {
+                    return Optional.of(last);
+                }
+                this.label = last.getValue();
+                this.phase = ITERABLE;
+                machine.push(this.block.getVal().asStepper(this.context));
+                return Optional.empty();
+            case ITERABLE:
+                ShnapExecution iterable = last.resolve(tracer);
+                if (iterable.isAbnormal()) {
+                    return Optional.of(iterable);
+                }
+                this.iterator = iterable.getValue();
+
+                ShnapExecution iteratorE = this.iterator.get("iterator", tracer);
+                if (!iteratorE.isAbnormal() && iteratorE.getValue() instanceof ShnapFunction) {
+                    ShnapFunction iterfunc = (ShnapFunction) iteratorE.getValue();
+                    if (iterfunc.paramSizeId() == 0) {
+                        ShnapExecution exe = iterfunc.invoke(tracer);
+                        if (exe.isAbnormal()) {
+                            return Optional.of(exe);
+                        }
+                        this.iterator = exe.getValue();
+                    }
+                }
+
+                this.ret = ShnapExecution.normal(ShnapObject.getVoid(), tracer, this.getLocation());
+                return this.fetch(true, machine, tracer);
+            default:
+                this.ret = last;
+                ShnapExecution exit = ShnapLoopStepper.exit(this.label, last, tracer, this.getLocation());
+                return exit != null ? Optional.of(exit) : this.fetch(false, machine, tracer);
+        }
+    }
+
+    private Optional<ShnapExecution> fetch(boolean first, ShnapStepMachine machine, ShnapEnvironment tracer) {
+        ShnapExecution nextE = this.iterator.get("next", tracer);
+        ShnapExecution hasNextE = this.iterator.get("hasNext", tracer);
+
+        if (nextE.getState() == State.THROWING) {
+            return Optional.of(nextE);
+        } else if (hasNextE.getState() == State.THROWING) {
+            return Optional.of(hasNextE);
+        }
+
+        boolean flag = false;
+        if (!nextE.isAbnormal() && !hasNextE.isAbnormal() && nextE.getValue() instanceof ShnapFunction && hasNextE.getValue() instanceof ShnapFunction) {
+            this.nextFunc = (ShnapFunction) nextE.getValue();
+            this.hasNextFunc = (ShnapFunction) hasNextE.getValue();
+            flag = this.nextFunc.paramSizeId() == 0 && this.hasNextFunc.paramSizeId() == 0;
+        }
+
+        if (!flag) {
+            return Optional.of(first ? ShnapExecution.throwing(ShnapFactory.makeExceptionObj("shnap.IterationError", this.iterator.safeAsString(tracer) + " is not iterable", null), tracer, this.getLocation()) : this.ret);
+        }
+
+        ShnapExecution cond = this.hasNextFunc.invoke(tracer).resolve(tracer);
+        if (cond.isAbnormal()) {
+            return Optional.of(cond);
+        } else if (!cond.getValue().isTruthy(tracer)) {
+            return Optional.of(this.ret);
+        }
+
+        ShnapExecution nextExe = this.nextFunc.invoke(tracer);
+        if (nextExe.isAbnormal()) {
+            return Optional.of(nextExe);
+        }
+
+        ShnapContext sub = ShnapContext.childOf(this.context, this.block.getFrame());
+        sub.setLocally(this.block.getVarName(), nextExe.getValue());
+        sub.setLocally("_" + this.block.getVarName(), this.iterator);
+        this.phase = BODY;
+        machine.push(this.block.getInstruction().asStepper(sub));
+        return Optional.empty();
+    }
+
+    @Override
+    public ShnapInstruction instruction() {
+        return this.block;
+    }
+
+}
@@ -0,0 +1,107 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 socraticphoenix@gmail.com
+ * Copyright (c) 2017 contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.gmail.socraticphoenix.shnap.program.stepper;
+
+import com.gmail.socraticphoenix.shnap.program.context.ShnapContext;
+import com.gmail.socraticphoenix.shnap.program.context.ShnapExecution;
+import com.gmail.socraticphoenix.shnap.program.instructions.ShnapInstruction;
+import com.gmail.socraticphoenix.shnap.program.instructions.ShnapInvoke;
+import com.gmail.socraticphoenix.shnap.run.env.ShnapEnvironment;
+import com.gmail.socraticphoenix.shnap.run.env.ShnapTraceback;
+import com.gmail.socraticphoenix.shnap.type.object.ShnapFunction;
+import com.gmail.socraticphoenix.shnap.type.object.ShnapObject;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+public class ShnapInvokeStepper implements ShnapStepper {
+    private ShnapInvoke invoke;
+    private ShnapContext context;
+    private List<String> defNames;
+
+    private ShnapFunction function;
+    private ShnapObject[] values;
+    private Map<String, ShnapObject> defValues;
+    private int current = -1;
+    private boolean calling;
+
+    public ShnapInvokeStepper(ShnapInvoke invoke, ShnapContext context) {
+        this.invoke = invoke;
+        this.context = context;
+        this.defNames = new ArrayList<>(invoke.getDefArgs().keySet());
+    }
+
+    @Override
+    public Optional<ShnapExecution> step(ShnapExecution last, ShnapStepMachine machine, ShnapEnvironment tracer) {
+        if (this.calling) {
+            return Optional.of(last);
+        } else if (last == null) {
+            machine.push(this.invoke.getTarget().asStepper(this.context));
+            return Optional.empty();
+        }
+
+        ShnapExecution value = last.resolve(tracer);
+        if (value.isAbnormal()) {
+            return Optional.of(value);
+        }
+
+        if (this.current == -1) {
+            if (!(value.getValue() instanceof ShnapFunction)) {
+                return Optional.of(ShnapExecution.normal(ShnapObject.getVoid(), tracer, this.getLocation()));
+            }
+            this.function = (ShnapFunction) value.getValue();
+            this.values = new ShnapObject[this.invoke.getArgs().size()];
+            this.defValues = this.defNames.isEmpty() ? Collections.emptyMap() : new LinkedHashMap<>();
+        } else if (this.current < this.values.length) {
+            this.values[this.current] = value.getValue();
+        } else {
+            this.defValues.put(this.defNames.get(this.current - this.values.length), value.getValue());
+        }
+        this.current++;
+
+        if (this.current < this.values.length) {
+            machine.push(this.invoke.getArgs().get(this.current).asStepper(this.context));
+            return Optional.empty();
+        } else if (this.current < this.values.length + this.defNames.size()) {
+            machine.push(this.invoke.getDefArgsAsList().get(this.current - this.values.length).asStepper(this.context));
+            return Optional.empty();
+        }
+
+        if (this.function.getClass() == ShnapFunction.class) {
+            tracer.pushTraceback(ShnapTraceback.frame(this.getLocation(), "Invoke function"));
+            this.calling = true;
+            machine.push(this.function.asStepper(this.values, this.defValues, tracer));
+            return Optional.empty();
+        }
+        return Optional.of(this.invoke.call(this.function, this.values, this.defValues, tracer));
+    }
+
+    @Override
+    public ShnapInstruction instruction() {
+        return this.invoke;
+    }
+
+}
@@ -22,41 +22,36 @@
 
 package com.gmail.socraticphoenix.shnap.program.stepper;
 
-import com.gmail.socraticphoenix.shnap.parse.ShnapLoc;
 import com.gmail.socraticphoenix.shnap.program.context.ShnapContext;
 import com.gmail.socraticphoenix.shnap.program.context.ShnapExecution;
 import com.gmail.socraticphoenix.shnap.program.instructions.ShnapInstruction;
 import com.gmail.socraticphoenix.shnap.run.env.ShnapEnvironment;
+import com.gmail.socraticphoenix.shnap.type.object.ShnapObject;
 
 import java.util.List;
 import java.util.Optional;
 
 public class ShnapMultiStepStepper implements ShnapStepper {
     private ShnapInstruction instruction;
-    private ShnapStepper[] steppers;
+    private ShnapContext context;
+    private List<ShnapInstruction> steps;
     private int current;
 
-    public ShnapMultiStepStepper(ShnapInstruction instruction, List<ShnapStepper> steppers) {
-        this(instruction, steppers.toArray(new ShnapStepper[steppers.size()]));
-    }
-
-    public ShnapMultiStepStepper(ShnapInstruction instruction, ShnapStepper... steppers) {
+    public ShnapMultiStepStepper(ShnapInstruction instruction, ShnapContext context, List<ShnapInstruction> steps) {
         this.instruction = instruction;
-        this.steppers = steppers;
+        this.context = context;
+        this.steps = steps;
     }
 
     @Override
-    public Optional<ShnapExecution> step(ShnapContext context, ShnapEnvironment tracer) {
-        ShnapStepper stepper = this.steppers[this.current];
-
-        Optional<ShnapExecution> exec = stepper.step(context, tracer);
-        if(exec.isPresent()) {
-            this.current++;
-            if (this.current == this.steppers.length) {
-                return exec;
-            }
+    public Optional<ShnapExecution> step(ShnapExecution last, ShnapStepMachine machine, ShnapEnvironment tracer) {
+        if (last != null && (last.isAbnormal() || this.current == this.steps.size())) {
+            return Optional.of(last);
+        } else if (this.steps.isEmpty()) {
+            return Optional.of(ShnapExecution.normal(ShnapObject.getNull(), tracer, this.getLocation()));
         }
 
+        machine.push(this.steps.get(this.current++).asStepper(this.context));
         return Optional.empty();
     }
 
@@ -65,9 +60,4 @@ public class ShnapMultiStepStepper implements ShnapStepper {
         return this.instruction;
     }
 
-    @Override
-    public ShnapLoc getLocation() {
-        return this.instruction.getLocation();
-    }
-
 }
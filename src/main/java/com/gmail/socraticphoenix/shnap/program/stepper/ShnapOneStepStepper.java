@@ -22,7 +22,6 @@
 
 package com.gmail.socraticphoenix.shnap.program.stepper;
 
-import com.gmail.socraticphoenix.shnap.parse.ShnapLoc;
 import com.gmail.socraticphoenix.shnap.program.context.ShnapContext;
 import com.gmail.socraticphoenix.shnap.program.context.ShnapExecution;
 import com.gmail.socraticphoenix.shnap.program.instructions.ShnapInstruction;
@@ -32,20 +31,21 @@ import java.util.Optional;
 
 public class ShnapOneStepStepper implements ShnapStepper {
     private ShnapInstruction instruction;
+    private ShnapContext context;
 
-    @Override
-    public Optional<ShnapExecution> step(ShnapContext context, ShnapEnvironment tracer) {
-        return Optional.of(this.instruction.exec(context, tracer));
+    public ShnapOneStepStepper(ShnapInstruction instruction, ShnapContext context) {
+        this.instruction = instruction;
+        this.context = context;
     }
 
     @Override
-    public ShnapInstruction instruction() {
-        return this.instruction;
+    public Optional<ShnapExecution> step(ShnapExecution last, ShnapStepMachine machine, ShnapEnvironment tracer) {
+        return Optional.of(this.instruction.exec(this.context, tracer));
     }
 
     @Override
-    public ShnapLoc getLocation() {
-        return this.instruction.getLocation();
+    public ShnapInstruction instruction() {
+        return this.instruction;
     }
 
 }
@@ -0,0 +1,78 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 socraticphoenix@gmail.com
+ * Copyright (c) 2017 contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.gmail.socraticphoenix.shnap.program.stepper;
+
+import com.gmail.socraticphoenix.shnap.program.context.ShnapContext;
+import com.gmail.socraticphoenix.shnap.program.context.ShnapExecution;
+import com.gmail.socraticphoenix.shnap.program.instructions.ShnapInstruction;
+import com.gmail.socraticphoenix.shnap.program.instructions.ShnapOperate;
+import com.gmail.socraticphoenix.shnap.run.env.ShnapEnvironment;
+import com.gmail.socraticphoenix.shnap.type.object.ShnapObject;
+
+import java.util.Optional;
+
+public class ShnapOperateStepper implements ShnapStepper {
+    private ShnapOperate operate;
+    private ShnapContext context;
+    private ShnapObject left;
+    private boolean evaluatedLeft;
+
+    public ShnapOperateStepper(ShnapOperate operate, ShnapContext context) {
+        this.operate = operate;
+        this.context = context;
+    }
+
+    @Override
+    public Optional<ShnapExecution> step(ShnapExecution last, ShnapStepMachine machine, ShnapEnvironment tracer) {
+        if (last == null) {
+            machine.push(this.operate.getLeft().asStepper(this.context));
+            return Optional.empty();
+        }
+
+        ShnapExecution value = last.resolve(tracer);
+        if (value.isAbnormal()) {
+            return Optional.of(value);
+        }
+
+        if (!this.evaluatedLeft) {
+            this.evaluatedLeft = true;
+            this.left = value.getValue();
+            if (this.operate.isBinary()) {
+                ShnapExecution shortCircuit = this.operate.shortCircuit(this.left, tracer);
+                if (shortCircuit != null) {
+                    return Optional.of(shortCircuit);
+                }
+                machine.push(this.operate.getRight().asStepper(this.context));
+                return Optional.empty();
+            }
+            return Optional.of(this.operate.apply(this.left, null, tracer));
+        }
+
+        return Optional.of(this.operate.apply(this.left, value.getValue(), tracer));
+    }
+
+    @Override
+    public ShnapInstruction instruction() {
+        return this.operate;
+    }
+
+}
@@ -0,0 +1,92 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 socraticphoenix@gmail.com
+ * Copyright (c) 2017 contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.gmail.socraticphoenix.shnap.program.stepper;
+
+import com.gmail.socraticphoenix.shnap.program.context.ShnapExecution;
+import com.gmail.socraticphoenix.shnap.program.instructions.ShnapInstruction;
+import com.gmail.socraticphoenix.shnap.run.env.ShnapEnvironment;
+import com.gmail.socraticphoenix.shnap.type.object.ShnapFunction;
+import com.gmail.socraticphoenix.shnap.type.object.ShnapObject;
+import com.gmail.socraticphoenix.shnap.type.object.ShnapScript;
+
+import java.util.Collections;
+import java.util.Optional;
+
+public class ShnapScriptStepper implements ShnapStepper {
+    private static final ShnapObject[] NO_ARGS = new ShnapObject[0];
+
+    private ShnapScript script;
+    private boolean initializing;
+    private boolean calling;
+
+    public ShnapScriptStepper(ShnapScript script) {
+        this.script = script;
+    }
+
+    @Override
+    public Optional<ShnapExecution> step(ShnapExecution last, ShnapStepMachine machine, ShnapEnvironment tracer) {
+        if (this.calling) {
+            return Optional.of(last);
+        } else if (this.initializing) {
+            this.initializing = false;
+            ShnapExecution init = this.script.finishInit(last, tracer);
+            if (init.isAbnormal()) {
+                return Optional.of(init);
+            }
+        } else if (!this.script.isInitialized()) {
+            if (this.script.beginInit(tracer)) {
+                this.initializing = true;
+                machine.push(this.script.getVal().asStepper(this.script.getContext()));
+                return Optional.empty();
+            } else if (this.script.isInitializingElsewhere(tracer) && tracer.suspend(1)) {
+                return Optional.empty();
+            }
+            ShnapExecution init = this.script.awaitInit(tracer);
+            if (init.isAbnormal()) {
+                return Optional.of(init);
+            }
+        } else if (this.script.getInitExec() != null && this.script.getInitExec().isAbnormal()) {
+            return Optional.of(this.script.getInitExec());
+        }
+
+        ShnapExecution main = this.script.get("main", tracer);
+        if (main.isAbnormal()) {
+            return Optional.of(main);
+        } else if (main.getValue() instanceof ShnapFunction && ((ShnapFunction) main.getValue()).paramSizeId() == 0) {
+            ShnapFunction function = (ShnapFunction) main.getValue();
+            if (function.getClass() == ShnapFunction.class) {
+                function.trace(tracer);
+                this.calling = true;
+                machine.push(function.asStepper(NO_ARGS, Collections.emptyMap(), tracer));
+                return Optional.empty();
+            }
+            return Optional.of(function.invoke(tracer));
+        }
+        return Optional.of(ShnapExecution.normal(ShnapObject.getVoid(), tracer, this.script.getLocation()));
+    }
+
+    @Override
+    public ShnapInstruction instruction() {
+        return this.script.getVal();
+    }
+
+}
@@ -0,0 +1,80 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 socraticphoenix@gmail.com
+ * Copyright (c) 2017 contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.gmail.socraticphoenix.shnap.program.stepper;
+
+import com.gmail.socraticphoenix.shnap.program.context.ShnapContext;
+import com.gmail.socraticphoenix.shnap.program.context.ShnapExecution;
+import com.gmail.socraticphoenix.shnap.program.instructions.ShnapInstruction;
+import com.gmail.socraticphoenix.shnap.program.instructions.ShnapSet;
+import com.gmail.socraticphoenix.shnap.run.env.ShnapEnvironment;
+
+import java.util.Optional;
+
+public class ShnapSetStepper implements ShnapStepper {
+    private ShnapSet set;
+    private ShnapContext context;
+    private ShnapContext targetContext;
+
+    public ShnapSetStepper(ShnapSet set, ShnapContext context) {
+        this.set = set;
+        this.context = context;
+    }
+
+    @Override
+    public Optional<ShnapExecution> step(ShnapExecution last, ShnapStepMachine machine, ShnapEnvironment tracer) {
+        if (last == null) {
+            if (this.set.getRef() != null) {
+                return this.evaluate(this.set.checkLocal(this.context, tracer), machine);
+            } else if (this.set.getTarget() != null) {
+                machine.push(this.set.getTarget().asStepper(this.context));
+                return Optional.empty();
+            }
+            this.targetContext = this.context;
+            return this.evaluate(this.set.check(this.context, this.targetContext, tracer), machine);
+        } else if (this.set.getRef() == null && this.targetContext == null) {
+            ShnapExecution target = last.resolve(tracer);
+            if (target.isAbnormal()) {
+                return Optional.of(target);
+            }
+            this.targetContext = target.getValue().getContext();
+            return this.evaluate(this.set.check(this.context, this.targetContext, tracer), machine);
+        } else if (last.isAbnormal()) {
+            return Optional.of(last);
+        }
+
+        return Optional.of(this.set.getRef() != null ? this.set.assignLocal(this.context, last.getValue(), tracer) : this.set.assign(this.targetContext, last.getValue(), tracer));
+    }
+
+    private Optional<ShnapExecution> evaluate(ShnapExecution denied, ShnapStepMachine machine) {
+        if (denied != null) {
+            return Optional.of(denied);
+        }
+        machine.push(this.set.getVal().asStepper(this.context));
+        return Optional.empty();
+    }
+
+    @Override
+    public ShnapInstruction instruction() {
+        return this.set;
+    }
+
+}
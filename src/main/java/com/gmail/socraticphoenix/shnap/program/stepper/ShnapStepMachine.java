@@ -0,0 +1,92 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 socraticphoenix@gmail.com
+ * Copyright (c) 2017 contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.gmail.socraticphoenix.shnap.program.stepper;
+
+import com.gmail.socraticphoenix.shnap.program.context.ShnapExecution;
+import com.gmail.socraticphoenix.shnap.run.env.ShnapEnvironment;
+import com.gmail.socraticphoenix.shnap.util.ShnapFactory;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Optional;
+
+public class ShnapStepMachine {
+    private Deque<ShnapStepper> stack;
+    private ShnapExecution last;
+    private long steps;
+
+    public ShnapStepMachine(ShnapStepper root) {
+        this.stack = new ArrayDeque<>();
+        this.stack.push(root);
+    }
+
+    public void push(ShnapStepper stepper) {
+        this.stack.push(stepper);
+    }
+
+    public int depth() {
+        return this.stack.size();
+    }
+
+    public long getSteps() {
+        return this.steps;
+    }
+
+    public boolean isDone() {
+        return this.stack.isEmpty();
+    }
+
+    public ShnapExecution getResult() {
+        return this.isDone() ? this.last : null;
+    }
+
+    public boolean step(ShnapEnvironment tracer) {
+        ShnapStepper stepper = this.stack.peek();
+        ShnapExecution last = this.last;
+        this.last = null;
+        this.steps++;
+
+        Optional<ShnapExecution> result;
+        try {
+            result = stepper.step(last, this, tracer);
+        } catch (Throwable other) {
+            while (this.stack.peek() != stepper) {
+                this.stack.pop();
+            }
+            result = Optional.of(ShnapExecution.throwing(ShnapFactory.mimicJavaException(other), tracer, stepper.getLocation()));
+        }
+
+        if (result.isPresent()) {
+            this.stack.pop();
+            this.last = result.get();
+        }
+        return this.isDone();
+    }
+
+    public ShnapExecution run(ShnapEnvironment tracer) {
+        while (!this.isDone()) {
+            this.step(tracer);
+        }
+        return this.last;
+    }
+
+}
@@ -66,8 +66,8 @@
 
 package com.gmail.socraticphoenix.shnap.program.stepper;
 
+import com.gmail.socraticphoenix.shnap.parse.ShnapLoc;
 import com.gmail.socraticphoenix.shnap.parse.ShnapLocatable;
-import com.gmail.socraticphoenix.shnap.program.context.ShnapContext;
 import com.gmail.socraticphoenix.shnap.program.context.ShnapExecution;
 import com.gmail.socraticphoenix.shnap.program.instructions.ShnapInstruction;
 import com.gmail.socraticphoenix.shnap.run.env.ShnapEnvironment;
@@ -76,8 +76,18 @@ import java.util.Optional;
 
 public interface ShnapStepper extends ShnapLocatable {
 
-    Optional<ShnapExecution> step(ShnapContext context, ShnapEnvironment tracer);
+    /**
+     * Performs one step. A stepper either finishes with a result, or pushes exactly one child onto the machine and
+     * returns empty; the child's result is then passed as {@code last} to the next step. {@code last} is null on the
+     * first step.
+     */
+    Optional<ShnapExecution> step(ShnapExecution last, ShnapStepMachine machine, ShnapEnvironment tracer);
 
     ShnapInstruction instruction();
 
+    @Override
+    default ShnapLoc getLocation() {
+        return this.instruction().getLocation();
+    }
+
 }
@@ -0,0 +1,64 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 socraticphoenix@gmail.com
+ * Copyright (c) 2017 contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.gmail.socraticphoenix.shnap.program.stepper;
+
+import com.gmail.socraticphoenix.shnap.program.context.ShnapContext;
+import com.gmail.socraticphoenix.shnap.program.context.ShnapExecution;
+import com.gmail.socraticphoenix.shnap.program.context.ShnapExecution.State;
+import com.gmail.socraticphoenix.shnap.program.instructions.ShnapInstruction;
+import com.gmail.socraticphoenix.shnap.program.instructions.block.ShnapTryCatchBlock;
+import com.gmail.socraticphoenix.shnap.run.env.ShnapEnvironment;
+
+import java.util.Optional;
+
+public class ShnapTryCatchStepper implements ShnapStepper {
+    private ShnapTryCatchBlock block;
+    private ShnapContext context;
+    private boolean catching;
+
+    public ShnapTryCatchStepper(ShnapTryCatchBlock block, ShnapContext context) {
+        this.block = block;
+        this.context = context;
+    }
+
+    @Override
+    public Optional<ShnapExecution> step(ShnapExecution last, ShnapStepMachine machine, ShnapEnvironment tracer) {
+        if (last == null) {
+            machine.push(this.block.getTryBlock().asStepper(ShnapContext.childOf(this.context, this.block.getTryFrame())));
+            return Optional.empty();
+        } else if (this.catching || last.getState() != State.THROWING) {
+            return Optional.of(last);
+        }
+
+        ShnapContext throwContext = ShnapContext.childOf(this.context, this.block.getCatchFrame());
+        throwContext.set(this.block.getCatchName(), last.getValue());
+        this.catching = true;
+        machine.push(this.block.getCatchBlock().asStepper(throwContext));
+        return Optional.empty();
+    }
+
+    @Override
+    public ShnapInstruction instruction() {
+        return this.block;
+    }
+
+}
@@ -26,6 +26,7 @@ import com.gmail.socraticphoenix.parse.Strings;
 import com.gmail.socraticphoenix.shnap.parse.ShnapParseError;
 import com.gmail.socraticphoenix.shnap.plugin.ShnapPluginLoader;
 import com.gmail.socraticphoenix.shnap.program.context.ShnapExecution;
+import com.gmail.socraticphoenix.shnap.program.instructions.ShnapInlineCache;
 import com.gmail.socraticphoenix.shnap.run.compiler.ShnapCompiler;
 import com.gmail.socraticphoenix.shnap.run.compiler.ShnapCompilerSettings;
 import com.gmail.socraticphoenix.shnap.run.compiler.ShnapDefaultHandlers;
@@ -107,6 +108,17 @@ public class ShnapMain {
             }
         };
 
+        Function<String, String> validThreshold = s -> {
+            try {
+                if (Integer.parseInt(s) < 0) {
+                    return "Invalid threshold: " + s;
+                }
+                return null;
+            } catch (NumberFormatException e) {
+                return "Invalid threshold: " + s;
+            }
+        };
+
         ArgumentParser parser = new ArgumentParser()
                 .flag("arg", "The file(s)/script(s) to execute/compile", s -> {
                     String vs = validScript.apply(s);
@@ -125,8 +137,19 @@ public class ShnapMain {
                 .flag("compile", "The directory to compile", validPath)
                 .flag("keepScripts", "If present, scripts and .sar files will be compiled", s -> null)
                 .flag("archive", "The name of the archive", s -> null)
+                .flag("zipArchive", "If present, the archive will be written in the legacy zip format", s -> null)
+                .flag("compressArchive", "If present, archive entries will be deflated when that makes them smaller (they can then no longer be read in place)", s -> null)
                 .flag("exec", "A name of a script to execute", validScript)
                 .flag("reloadHome", "If present, update the standard libraries", s -> null)
+                .flag("noSnapshot", "If present, the startup snapshot in the home directory will neither be read nor written", s -> null)
+                .flag("optimize", "If present, hot functions and loops will be compiled to the optimized tier", s -> null)
+                .flag("step", "If present, scripts run on a heap-allocated stack instead of the Java call stack, so recursion depth is bounded by memory", s -> null)
+                .flag("carriers", "The number of carrier threads; if present, scripts run as time-sliced tasks and sleeping scripts do not hold a thread", validThreshold)
+                .flag("instances", "The number of concurrent invocations of the executed script (requires carriers)", validThreshold)
+                .flag("compileThreshold", "The number of invocations after which a function is compiled to the optimized tier", validThreshold)
+                .flag("loopThreshold", "The number of iterations after which a loop body is compiled to the optimized tier", validThreshold)
+                .flag("loadTimings", "If present, the parse and init time of each library module will be printed after loading", s -> null)
+                .flag("cacheStats", "If present, the number of monomorphic and generic inline cache sites will be printed after execution", s -> null)
                 .flag("noSource", "If present, tracebacks will not display source code (only line & column numbers)", s -> null)
                 .flag("shell", "If present, arg, exec and compile flags will be ignored and the Shnap shell will start", s -> null)
                 .flag("install", "If present, installs the standard libraries", s -> null);
@@ -151,7 +174,21 @@ public class ShnapMain {
                     .setEnvironmentSettings(environmentSettings)
                     .addDefaultPaths()
                     .setDebug(!args.hasFlag("noSource"))
+                    .setOptimize(args.hasFlag("optimize"))
+                    .setStepping(args.hasFlag("step"))
                     .setReloadHome(args.hasFlag("reloadHome"));
+            if (!args.hasFlag("noSnapshot")) {
+                settings.setSnapshot(environmentSettings.getHome().resolve("startup.snapshot"));
+            }
+            if (args.hasFlag("compileThreshold")) {
+                settings.setCompileThreshold(Integer.parseInt(args.getFlag("compileThreshold")));
+            }
+            if (args.hasFlag("loopThreshold")) {
+                settings.setLoopThreshold(Integer.parseInt(args.getFlag("loopThreshold")));
+            }
+            if (args.hasFlag("carriers")) {
+                settings.setCarriers(Integer.parseInt(args.getFlag("carriers")));
+            }
             settings.getNatives().addAll(natives);
             settings.getPrelib().addAll(prelib);
             settings.getBuiltin().addAll(builtin);
@@ -201,7 +238,7 @@ public class ShnapMain {
                                 shell.store(Strings.cutLast(line));
                             } else {
                                 try {
-                                    ShnapExecution execution = shell.execute(line);
+                                    ShnapExecution execution = shell.execute(line).requireSettled();
                                     if (execution.getState() == ShnapExecution.State.RETURNING) {
                                         return;
                                     } else if (execution.getState().isAbnormal()) {
@@ -267,10 +304,16 @@ public class ShnapMain {
                                 System.exit(1);
                                 return;
                             }
-                            ShnapExecution execution = executor.execute(scriptName);
+                            if (args.hasFlag("loadTimings")) {
+                                executor.getEnvironment().getModuleTimings().forEach(System.err::println);
+                            }
+                            ShnapExecution execution = executor.execute(scriptName, Integer.parseInt(args.getFlag("instances", "1")));
                             if(execution.isAbnormal()) {
                                 executor.getEnvironment().notifyAbnormalState(System.err::print, execution);
                             }
+                            if (args.hasFlag("cacheStats")) {
+                                System.err.println(ShnapInlineCache.report());
+                            }
                         } catch (IOException | ShnapScriptLoadingFailedException | ShnapScriptAbsentException | ShnapScriptCircularInitException e) {
                             System.err.println("Failed to load scripts");
                             e.printStackTrace(System.err);
@@ -289,6 +332,8 @@ public class ShnapMain {
                         .setKeepScripts(args.hasFlag("keepScripts"))
                         .setReloadHome(args.hasFlag("reloadHome"))
                         .setArchiveName(args.getFlag("archive", "archive"))
+                        .setZipArchive(args.hasFlag("zipArchive"))
+                        .setCompressArchive(args.hasFlag("compressArchive"))
                         .setOutputDir(Paths.get(args.getFlag("arg")))
                         .addCompileDir(Paths.get(args.getFlag("compile")));
 
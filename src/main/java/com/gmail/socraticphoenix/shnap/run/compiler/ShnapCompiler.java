@@ -22,6 +22,7 @@
 
 package com.gmail.socraticphoenix.shnap.run.compiler;
 
+import com.gmail.socraticphoenix.shnap.run.env.ShnapArchive;
 import com.gmail.socraticphoenix.shnap.run.env.ShnapEnvironment;
 import com.gmail.socraticphoenix.shnap.run.env.ShnapScriptInvalidSyntaxException;
 import com.gmail.socraticphoenix.shnap.type.object.ShnapScript;
@@ -91,7 +92,11 @@ public class ShnapCompiler {
         Path archive = dest.resolve(this.settings.getArchiveName() + ".sar");
         Files.deleteIfExists(archive);
         Path tempArchive = tempA.resolve("archive.sar");
-        ShnapCompilerUtil.zipFile(temp.toFile(), tempArchive.toFile());
+        if (this.settings.isZipArchive()) {
+            ShnapCompilerUtil.zipFile(temp.toFile(), tempArchive.toFile());
+        } else {
+            ShnapArchive.write(temp, tempArchive, this.settings.isCompressArchive());
+        }
         Files.copy(tempArchive, archive, StandardCopyOption.REPLACE_EXISTING);
         if(this.settings.isKeepScripts()) {
             for(Path script : created) {
@@ -35,9 +35,29 @@ public class ShnapCompilerSettings {
     private String archiveName;
     private boolean keepScripts;
     private boolean reloadHome;
+    private boolean zipArchive;
+    private boolean compressArchive;
 
     private ShnapEnvironmentSettings environmentSettings;
 
+    public boolean isZipArchive() {
+        return this.zipArchive;
+    }
+
+    public ShnapCompilerSettings setZipArchive(boolean zipArchive) {
+        this.zipArchive = zipArchive;
+        return this;
+    }
+
+    public boolean isCompressArchive() {
+        return this.compressArchive;
+    }
+
+    public ShnapCompilerSettings setCompressArchive(boolean compressArchive) {
+        this.compressArchive = compressArchive;
+        return this;
+    }
+
     public boolean isReloadHome() {
         return this.reloadHome;
     }
@@ -28,6 +28,7 @@ import com.gmail.socraticphoenix.shnap.program.instructions.ShnapInstruction;
 import com.gmail.socraticphoenix.shnap.parse.ShnapLoc;
 import com.gmail.socraticphoenix.shnap.type.object.ShnapObject;
 import com.gmail.socraticphoenix.shnap.program.ShnapParameter;
+import com.gmail.socraticphoenix.shnap.program.context.ShnapSymbol;
 import com.gmail.socraticphoenix.shnap.type.object.ShnapScript;
 import com.gmail.socraticphoenix.shnap.type.natives.ShnapAbsentNative;
 import com.gmail.socraticphoenix.shnap.type.natives.ShnapStringNative;
@@ -114,6 +115,10 @@ public class ShnapCompilerUtil {
         return new ShnapLoc(stream.getInt(), stream.getInt(), building);
     }
 
+    public static String readName(ByteStream stream) throws IOException {
+        return ShnapSymbol.intern(Bytes.readString(stream));
+    }
+
     public static void writeEnum(ByteStream stream, Enum enu) throws IOException {
         byte ord = (byte) (enu == null ? -1 : enu.ordinal());
         stream.put(ord);
@@ -137,7 +142,7 @@ public class ShnapCompilerUtil {
 
     public static ShnapParameter readParam(ByteStream stream, ShnapScript building) throws IOException {
         ShnapLoc loc = readLoc(stream, building);
-        String name = Bytes.readString(stream);
+        String name = readName(stream);
         boolean var = stream.get() == 1;
         return new ShnapParameter(loc, name, read(stream, building), var);
     }
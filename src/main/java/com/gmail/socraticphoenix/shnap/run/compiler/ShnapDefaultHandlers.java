@@ -57,6 +57,7 @@ import java.util.Map;
 import static com.gmail.socraticphoenix.shnap.run.compiler.ShnapCompilerUtil.read;
 import static com.gmail.socraticphoenix.shnap.run.compiler.ShnapCompilerUtil.readEnum;
 import static com.gmail.socraticphoenix.shnap.run.compiler.ShnapCompilerUtil.readLoc;
+import static com.gmail.socraticphoenix.shnap.run.compiler.ShnapCompilerUtil.readName;
 import static com.gmail.socraticphoenix.shnap.run.compiler.ShnapCompilerUtil.readNativeVal;
 import static com.gmail.socraticphoenix.shnap.run.compiler.ShnapCompilerUtil.readParam;
 import static com.gmail.socraticphoenix.shnap.run.compiler.ShnapCompilerUtil.register;
@@ -76,7 +77,7 @@ public class ShnapDefaultHandlers {
                     write(stream, node.getTarget());
                 }, (stream, building) -> {
                     ShnapLoc loc = readLoc(stream, building);
-                    String name = Bytes.readString(stream);
+                    String name = readName(stream);
                     ShnapInstruction target = read(stream, building);
                     return new ShnapGet(loc, target, name);
                 }),
@@ -88,7 +89,7 @@ public class ShnapDefaultHandlers {
                     write(stream, node.getVal());
                 }, (stream, building) -> {
                     ShnapLoc loc = readLoc(stream, building);
-                    String name = Bytes.readString(stream);
+                    String name = readName(stream);
                     ShnapOperators op = readEnum(stream, ShnapOperators.class);
                     ShnapInstruction target = read(stream, building);
                     ShnapInstruction val = read(stream, building);
@@ -141,7 +142,7 @@ public class ShnapDefaultHandlers {
                         args.add(read(stream, building));
                     }
                     for (int i = 0; i < defArgsSize; i++) {
-                        defArgs.put(Bytes.readString(stream), read(stream, building));
+                        defArgs.put(readName(stream), read(stream, building));
                     }
                     ShnapInstruction target = read(stream, building);
                     return new ShnapInvoke(loc, target, args, defArgs);
@@ -229,7 +230,7 @@ public class ShnapDefaultHandlers {
                     write(stream, node.getInstruction());
                 }, (stream, building) -> {
                     ShnapLoc loc = readLoc(stream, building);
-                    return new ShnapForBlock(loc, read(stream, building), Bytes.readString(stream), read(stream, building), read(stream, building));
+                    return new ShnapForBlock(loc, read(stream, building), readName(stream), read(stream, building), read(stream, building));
                 }),
                 new SimpleNodeHandler<>(ShnapScopeBlock.class, (stream, node) -> {
                     writeLoc(stream, node.getLocation());
@@ -246,7 +247,7 @@ public class ShnapDefaultHandlers {
                     Bytes.writeString(stream, node.getCatchName());
                 }, (stream, building) -> {
                     ShnapLoc loc = readLoc(stream, building);
-                    return new ShnapTryCatchBlock(loc, read(stream, building), read(stream, building), Bytes.readString(stream));
+                    return new ShnapTryCatchBlock(loc, read(stream, building), read(stream, building), readName(stream));
                 }),
                 new SimpleNodeHandler<>(ShnapIfBlock.class, (stream, node) -> {
                     writeLoc(stream, node.getLocation());
@@ -287,7 +288,7 @@ public class ShnapDefaultHandlers {
                     writeEnum(stream, node.getFlag());
                 }, (stream, building) -> {
                     ShnapLoc loc = readLoc(stream, building);
-                    String name = Bytes.readString(stream);
+                    String name = readName(stream);
                     ShnapInstruction target = read(stream, building);
                     ShnapContext.Flag flag = readEnum(stream, ShnapContext.Flag.class);
                     return new ShnapFlag(loc, target, name, flag);
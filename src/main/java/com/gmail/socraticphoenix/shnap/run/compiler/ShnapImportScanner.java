@@ -0,0 +1,196 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 socraticphoenix@gmail.com
+ * Copyright (c) 2017 contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.gmail.socraticphoenix.shnap.run.compiler;
+
+import com.gmail.socraticphoenix.shnap.program.ShnapParameter;
+import com.gmail.socraticphoenix.shnap.program.instructions.ShnapArrayLiteral;
+import com.gmail.socraticphoenix.shnap.program.instructions.ShnapFlag;
+import com.gmail.socraticphoenix.shnap.program.instructions.ShnapGet;
+import com.gmail.socraticphoenix.shnap.program.instructions.ShnapGetNative;
+import com.gmail.socraticphoenix.shnap.program.instructions.ShnapInstruction;
+import com.gmail.socraticphoenix.shnap.program.instructions.ShnapInstructionSequence;
+import com.gmail.socraticphoenix.shnap.program.instructions.ShnapInvoke;
+import com.gmail.socraticphoenix.shnap.program.instructions.ShnapLiteral;
+import com.gmail.socraticphoenix.shnap.program.instructions.ShnapMakeFunc;
+import com.gmail.socraticphoenix.shnap.program.instructions.ShnapMakeObj;
+import com.gmail.socraticphoenix.shnap.program.instructions.ShnapMakeResolver;
+import com.gmail.socraticphoenix.shnap.program.instructions.ShnapNativeInstruction;
+import com.gmail.socraticphoenix.shnap.program.instructions.ShnapOperate;
+import com.gmail.socraticphoenix.shnap.program.instructions.ShnapSet;
+import com.gmail.socraticphoenix.shnap.program.instructions.ShnapStateChange;
+import com.gmail.socraticphoenix.shnap.program.instructions.block.ShnapDoWhileBlock;
+import com.gmail.socraticphoenix.shnap.program.instructions.block.ShnapForBlock;
+import com.gmail.socraticphoenix.shnap.program.instructions.block.ShnapIfBlock;
+import com.gmail.socraticphoenix.shnap.program.instructions.block.ShnapScopeBlock;
+import com.gmail.socraticphoenix.shnap.program.instructions.block.ShnapTryCatchBlock;
+import com.gmail.socraticphoenix.shnap.program.instructions.block.ShnapWhileBlock;
+import com.gmail.socraticphoenix.shnap.type.natives.ShnapStringNative;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Collects the modules a parsed script imports by name. Calls to {@code import}, {@code importFrom},
+ * {@code importTo} and {@code native::sys.import} with a string literal as their first argument, and
+ * calls to {@code importSys}/{@code importSysTo}, are recorded as edges. Any other use of an import or
+ * eval function makes the script's imports unknowable, in which case {@link #scan} returns null.
+ */
+public class ShnapImportScanner {
+    private static final String SYS = "shnap.sys";
+    private static final Set<String> IMPORTS = new HashSet<>(Arrays.asList("import", "importFrom", "importTo", "sys.import"));
+    private static final Set<String> SYS_IMPORTS = new HashSet<>(Arrays.asList("importSys", "importSysTo"));
+    private static final Set<String> EVALS = new HashSet<>(Arrays.asList("eval", "evalIn", "sys.eval", "sys.evalIn"));
+
+    private Set<String> found = new LinkedHashSet<>();
+    private boolean dynamic;
+
+    public static Set<String> scan(ShnapInstruction instruction) {
+        ShnapImportScanner scanner = new ShnapImportScanner();
+        scanner.visit(instruction);
+        return scanner.dynamic ? null : scanner.found;
+    }
+
+    private void visitAll(List<? extends ShnapInstruction> instructions) {
+        for (ShnapInstruction instruction : instructions) {
+            this.visit(instruction);
+        }
+    }
+
+    private void visit(ShnapInstruction instruction) {
+        if (instruction == null || this.dynamic) {
+            return;
+        }
+
+        if (instruction instanceof ShnapInvoke) {
+            ShnapInvoke invoke = (ShnapInvoke) instruction;
+            String name = callee(invoke.getTarget());
+            if (name != null && SYS_IMPORTS.contains(name)) {
+                this.found.add(SYS);
+            } else if (name != null && IMPORTS.contains(name)) {
+                String module = literal(invoke.getArgs().isEmpty() ? null : invoke.getArgs().get(0));
+                if (module == null) {
+                    this.dynamic = true;
+                    return;
+                }
+                this.found.add(module);
+            } else {
+                this.visit(invoke.getTarget());
+            }
+            this.visitAll(invoke.getArgs());
+            this.visitAll(new ArrayList<>(invoke.getDefArgs().values()));
+        } else if (instruction instanceof ShnapGet) {
+            ShnapGet get = (ShnapGet) instruction;
+            if (isImportOrEval(get.getName())) {
+                this.dynamic = true;
+            } else {
+                this.visit(get.getTarget());
+            }
+        } else if (instruction instanceof ShnapGetNative) {
+            if (isImportOrEval(((ShnapGetNative) instruction).getName())) {
+                this.dynamic = true;
+            }
+        } else if (instruction instanceof ShnapNativeInstruction) {
+            this.dynamic = true;
+        } else if (instruction instanceof ShnapSet) {
+            ShnapSet set = (ShnapSet) instruction;
+            this.visit(set.getTarget());
+            this.visit(set.getVal());
+        } else if (instruction instanceof ShnapFlag) {
+            this.visit(((ShnapFlag) instruction).getTarget());
+        } else if (instruction instanceof ShnapOperate) {
+            ShnapOperate operate = (ShnapOperate) instruction;
+            this.visit(operate.getLeft());
+            this.visit(operate.getRight());
+        } else if (instruction instanceof ShnapStateChange) {
+            this.visit(((ShnapStateChange) instruction).getValue());
+        } else if (instruction instanceof ShnapInstructionSequence) {
+            this.visitAll(((ShnapInstructionSequence) instruction).getSequence());
+        } else if (instruction instanceof ShnapArrayLiteral) {
+            this.visitAll(((ShnapArrayLiteral) instruction).getValues());
+        } else if (instruction instanceof ShnapMakeResolver) {
+            this.visit(((ShnapMakeResolver) instruction).getInstruction());
+        } else if (instruction instanceof ShnapMakeObj) {
+            this.visit(((ShnapMakeObj) instruction).getInstruction());
+        } else if (instruction instanceof ShnapMakeFunc) {
+            ShnapMakeFunc func = (ShnapMakeFunc) instruction;
+            for (ShnapParameter parameter : func.getParameters()) {
+                this.visit(parameter.getValue());
+            }
+            this.visitAll(func.getObjInstructions());
+            this.visit(func.getBody());
+        } else if (instruction instanceof ShnapIfBlock) {
+            ShnapIfBlock block = (ShnapIfBlock) instruction;
+            this.visit(block.getName());
+            this.visit(block.getVal());
+            this.visit(block.getInstruction());
+            this.visit(block.getElif());
+        } else if (instruction instanceof ShnapWhileBlock) {
+            ShnapWhileBlock block = (ShnapWhileBlock) instruction;
+            this.visit(block.getName());
+            this.visit(block.getVal());
+            this.visit(block.getInstruction());
+        } else if (instruction instanceof ShnapDoWhileBlock) {
+            ShnapDoWhileBlock block = (ShnapDoWhileBlock) instruction;
+            this.visit(block.getName());
+            this.visit(block.getVal());
+            this.visit(block.getInstruction());
+        } else if (instruction instanceof ShnapForBlock) {
+            ShnapForBlock block = (ShnapForBlock) instruction;
+            this.visit(block.getName());
+            this.visit(block.getVal());
+            this.visit(block.getInstruction());
+        } else if (instruction instanceof ShnapScopeBlock) {
+            ShnapScopeBlock block = (ShnapScopeBlock) instruction;
+            this.visit(block.getName());
+            this.visit(block.getInstruction());
+        } else if (instruction instanceof ShnapTryCatchBlock) {
+            ShnapTryCatchBlock block = (ShnapTryCatchBlock) instruction;
+            this.visit(block.getTryBlock());
+            this.visit(block.getCatchBlock());
+        }
+    }
+
+    private static String callee(ShnapInstruction target) {
+        if (target instanceof ShnapGet && ((ShnapGet) target).getTarget() == null) {
+            return ((ShnapGet) target).getName();
+        } else if (target instanceof ShnapGetNative) {
+            return ((ShnapGetNative) target).getName();
+        }
+        return null;
+    }
+
+    private static String literal(ShnapInstruction instruction) {
+        if (instruction instanceof ShnapLiteral && ((ShnapLiteral) instruction).getValue() instanceof ShnapStringNative) {
+            return ((ShnapStringNative) ((ShnapLiteral) instruction).getValue()).getValue();
+        }
+        return null;
+    }
+
+    private static boolean isImportOrEval(String name) {
+        return IMPORTS.contains(name) || SYS_IMPORTS.contains(name) || EVALS.contains(name);
+    }
+
+}
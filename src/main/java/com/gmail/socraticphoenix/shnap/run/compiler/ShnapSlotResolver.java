@@ -0,0 +1,227 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 socraticphoenix@gmail.com
+ * Copyright (c) 2017 contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.gmail.socraticphoenix.shnap.run.compiler;
+
+import com.gmail.socraticphoenix.collect.coupling.Pair;
+import com.gmail.socraticphoenix.shnap.program.ShnapParameter;
+import com.gmail.socraticphoenix.shnap.program.context.ShnapExecution.State;
+import com.gmail.socraticphoenix.shnap.program.context.ShnapFrameDescriptor;
+import com.gmail.socraticphoenix.shnap.program.context.ShnapLocalRef;
+import com.gmail.socraticphoenix.shnap.program.instructions.ShnapArrayLiteral;
+import com.gmail.socraticphoenix.shnap.program.instructions.ShnapFlag;
+import com.gmail.socraticphoenix.shnap.program.instructions.ShnapGet;
+import com.gmail.socraticphoenix.shnap.program.instructions.ShnapInstruction;
+import com.gmail.socraticphoenix.shnap.program.instructions.ShnapInstructionSequence;
+import com.gmail.socraticphoenix.shnap.program.instructions.ShnapInvoke;
+import com.gmail.socraticphoenix.shnap.program.instructions.ShnapMakeFunc;
+import com.gmail.socraticphoenix.shnap.program.instructions.ShnapMakeObj;
+import com.gmail.socraticphoenix.shnap.program.instructions.ShnapMakeResolver;
+import com.gmail.socraticphoenix.shnap.program.instructions.ShnapOperate;
+import com.gmail.socraticphoenix.shnap.program.instructions.ShnapSet;
+import com.gmail.socraticphoenix.shnap.program.instructions.ShnapStateChange;
+import com.gmail.socraticphoenix.shnap.program.instructions.block.ShnapDoWhileBlock;
+import com.gmail.socraticphoenix.shnap.program.instructions.block.ShnapForBlock;
+import com.gmail.socraticphoenix.shnap.program.instructions.block.ShnapIfBlock;
+import com.gmail.socraticphoenix.shnap.program.instructions.block.ShnapScopeBlock;
+import com.gmail.socraticphoenix.shnap.program.instructions.block.ShnapTryCatchBlock;
+import com.gmail.socraticphoenix.shnap.program.instructions.block.ShnapWhileBlock;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+public class ShnapSlotResolver {
+    private List<Scope> scopes = new ArrayList<>();
+    private List<Pair<ShnapGet, Scope>> gets = new ArrayList<>();
+    private List<Pair<ShnapSet, Scope>> sets = new ArrayList<>();
+    private int tailBarriers;
+
+    public static <T extends ShnapInstruction> T resolve(T instruction) {
+        ShnapSlotResolver resolver = new ShnapSlotResolver();
+        resolver.visit(instruction, null);
+        resolver.finish();
+        return instruction;
+    }
+
+    private void finish() {
+        for (Scope scope : this.scopes) {
+            scope.frame = new ShnapFrameDescriptor(scope.names);
+            scope.sink.accept(scope.frame);
+        }
+
+        for (Pair<ShnapGet, Scope> get : this.gets) {
+            get.getA().setRef(this.ref(get.getA().getName(), get.getB()));
+        }
+
+        for (Pair<ShnapSet, Scope> set : this.sets) {
+            set.getA().setRef(this.ref(set.getA().getName(), set.getB()));
+        }
+    }
+
+    private ShnapLocalRef ref(String name, Scope scope) {
+        List<ShnapFrameDescriptor> frames = new ArrayList<>();
+        while (scope != null) {
+            frames.add(scope.frame);
+            scope = scope.parent;
+        }
+        return new ShnapLocalRef(name, frames.toArray(new ShnapFrameDescriptor[frames.size()]));
+    }
+
+    private Scope scope(Scope parent, Consumer<ShnapFrameDescriptor> sink) {
+        Scope scope = new Scope(parent, sink);
+        scope.tail = parent != null && parent.tail;
+        this.scopes.add(scope);
+        return scope;
+    }
+
+    private void visitAll(List<? extends ShnapInstruction> instructions, Scope scope) {
+        for (ShnapInstruction instruction : instructions) {
+            this.visit(instruction, scope);
+        }
+    }
+
+    private void visit(ShnapInstruction instruction, Scope scope) {
+        if (instruction instanceof ShnapGet) {
+            ShnapGet get = (ShnapGet) instruction;
+            if (get.getTarget() != null) {
+                this.visit(get.getTarget(), scope);
+            } else if (scope != null && isPlain(get.getName())) {
+                this.gets.add(Pair.of(get, scope));
+            }
+        } else if (instruction instanceof ShnapSet) {
+            ShnapSet set = (ShnapSet) instruction;
+            this.visit(set.getTarget(), scope);
+            this.visit(set.getVal(), scope);
+            if (set.getTarget() == null && scope != null) {
+                if (isPlain(set.getName())) {
+                    scope.declare(set.getName());
+                    this.sets.add(Pair.of(set, scope));
+                } else if (set.getName().startsWith(":")) {
+                    scope.declare(set.getName().substring(1));
+                }
+            }
+        } else if (instruction instanceof ShnapFlag) {
+            this.visit(((ShnapFlag) instruction).getTarget(), scope);
+        } else if (instruction instanceof ShnapInvoke) {
+            ShnapInvoke invoke = (ShnapInvoke) instruction;
+            this.visit(invoke.getTarget(), scope);
+            this.visitAll(invoke.getArgs(), scope);
+            this.visitAll(new ArrayList<>(invoke.getDefArgs().values()), scope);
+        } else if (instruction instanceof ShnapOperate) {
+            ShnapOperate operate = (ShnapOperate) instruction;
+            this.visit(operate.getLeft(), scope);
+            this.visit(operate.getRight(), scope);
+        } else if (instruction instanceof ShnapStateChange) {
+            ShnapStateChange change = (ShnapStateChange) instruction;
+            if (change.getState() == State.RETURNING && change.getValue() instanceof ShnapInvoke && scope != null && scope.tail && this.tailBarriers == 0) {
+                change.setTail(true);
+            }
+            this.visit(change.getValue(), scope);
+        } else if (instruction instanceof ShnapInstructionSequence) {
+            this.visitAll(((ShnapInstructionSequence) instruction).getSequence(), scope);
+        } else if (instruction instanceof ShnapArrayLiteral) {
+            this.visitAll(((ShnapArrayLiteral) instruction).getValues(), scope);
+        } else if (instruction instanceof ShnapMakeResolver) {
+            this.tailBarriers++;
+            this.visit(((ShnapMakeResolver) instruction).getInstruction(), scope);
+            this.tailBarriers--;
+        } else if (instruction instanceof ShnapMakeObj) {
+            this.visit(((ShnapMakeObj) instruction).getInstruction(), null);
+        } else if (instruction instanceof ShnapMakeFunc) {
+            ShnapMakeFunc func = (ShnapMakeFunc) instruction;
+            Scope body = this.scope(null, func::setFrame);
+            body.tail = true;
+            body.declare("thisFunc");
+            for (ShnapParameter parameter : func.getParameters()) {
+                body.declare(parameter.getName());
+                this.visit(parameter.getValue(), null);
+            }
+            this.visitAll(func.getObjInstructions(), null);
+            int barriers = this.tailBarriers;
+            this.tailBarriers = 0;
+            this.visit(func.getBody(), body);
+            this.tailBarriers = barriers;
+        } else if (instruction instanceof ShnapIfBlock) {
+            ShnapIfBlock block = (ShnapIfBlock) instruction;
+            this.visit(block.getName(), scope);
+            this.visit(block.getVal(), scope);
+            this.visit(block.getInstruction(), this.scope(scope, block::setFrame));
+            this.visit(block.getElif(), scope);
+        } else if (instruction instanceof ShnapWhileBlock) {
+            ShnapWhileBlock block = (ShnapWhileBlock) instruction;
+            this.visit(block.getName(), scope);
+            this.visit(block.getVal(), scope);
+            this.visit(block.getInstruction(), this.scope(scope, block::setFrame));
+        } else if (instruction instanceof ShnapDoWhileBlock) {
+            ShnapDoWhileBlock block = (ShnapDoWhileBlock) instruction;
+            this.visit(block.getName(), scope);
+            this.visit(block.getVal(), scope);
+            this.visit(block.getInstruction(), this.scope(scope, block::setFrame));
+        } else if (instruction instanceof ShnapForBlock) {
+            ShnapForBlock block = (ShnapForBlock) instruction;
+            this.visit(block.getName(), scope);
+            this.visit(block.getVal(), scope);
+            Scope body = this.scope(scope, block::setFrame);
+            body.declare(block.getVarName());
+            body.declare("_" + block.getVarName());
+            this.visit(block.getInstruction(), body);
+        } else if (instruction instanceof ShnapScopeBlock) {
+            ShnapScopeBlock block = (ShnapScopeBlock) instruction;
+            this.visit(block.getName(), scope);
+            this.visit(block.getInstruction(), this.scope(scope, block::setFrame));
+        } else if (instruction instanceof ShnapTryCatchBlock) {
+            ShnapTryCatchBlock block = (ShnapTryCatchBlock) instruction;
+            this.tailBarriers++;
+            this.visit(block.getTryBlock(), this.scope(scope, block::setTryFrame));
+            this.tailBarriers--;
+            Scope catchScope = this.scope(scope, block::setCatchFrame);
+            catchScope.declare(block.getCatchName());
+            this.visit(block.getCatchBlock(), catchScope);
+        }
+    }
+
+    private static boolean isPlain(String name) {
+        return !name.startsWith("^") && !name.startsWith(":");
+    }
+
+    private static class Scope {
+        private Scope parent;
+        private Set<String> names;
+        private Consumer<ShnapFrameDescriptor> sink;
+        private ShnapFrameDescriptor frame;
+        private boolean tail;
+
+        public Scope(Scope parent, Consumer<ShnapFrameDescriptor> sink) {
+            this.parent = parent;
+            this.sink = sink;
+            this.names = new LinkedHashSet<>();
+        }
+
+        public void declare(String name) {
+            this.names.add(name);
+        }
+
+    }
+
+}
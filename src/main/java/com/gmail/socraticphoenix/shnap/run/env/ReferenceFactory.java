@@ -22,126 +22,237 @@
 package com.gmail.socraticphoenix.shnap.run.env;
 
 import com.gmail.socraticphoenix.collect.coupling.Pair;
-import com.gmail.socraticphoenix.shnap.run.compiler.DangerousSupplier;
 import com.gmail.socraticphoenix.shnap.parse.ShnapParseError;
 import com.gmail.socraticphoenix.shnap.type.object.ShnapScript;
 
+import java.io.ByteArrayInputStream;
+import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Enumeration;
-import java.util.LinkedHashMap;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Stack;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 
 public class ReferenceFactory {
-    private ShnapEnvironment environment;
-    private Map<String, ShnapScript> scripts = new LinkedHashMap<>();
-    private Stack<String> initTrace = new Stack<>();
-    private List<Path> indexedArchives;
+    private ShnapRuntime runtime;
+    private Map<String, ShnapScript> scripts = new ConcurrentHashMap<>();
+    private Map<String, ShnapScript> parsed = new ConcurrentHashMap<>();
+    private Map<String, ReentrantLock> initLocks = new ConcurrentHashMap<>();
+    private Map<String, Thread> initOwners = new HashMap<>();
+    private Map<Thread, String> initWaits = new HashMap<>();
+    private Map<String, ShnapModuleSource> restored = new ConcurrentHashMap<>();
+    private Map<List<Path>, ShnapModuleIndex> indexes = new ConcurrentHashMap<>();
+    private Map<Path, Mapping> mappings = new ConcurrentHashMap<>();
+    private volatile ShnapModuleIndex index = new ShnapModuleIndex();
 
 
-    public ReferenceFactory(ShnapEnvironment environment) {
-        this.environment = environment;
+    public ReferenceFactory(ShnapRuntime runtime) {
+        this.runtime = runtime;
     }
 
     public void indexArchives() throws IOException {
-        this.indexedArchives = new ArrayList<>();
-        for (Path path : environment.getWorkingSearchLocs()) {
-            Files.walk(path).forEach(p -> {
-                String fmt = format(p);
-                if (fmt.equalsIgnoreCase("sar")) {
-                    this.indexedArchives.add(p);
+        List<Path> locs = new ArrayList<>(this.runtime.getWorkingSearchLocs());
+        ShnapModuleIndex index = this.indexes.get(locs);
+        if (index == null || index.isStale()) {
+            this.indexes.values().removeIf(ShnapModuleIndex::isStale);
+            index = this.buildIndex(locs);
+            this.indexes.put(locs, index);
+        }
+        this.index = index;
+    }
+
+    private ShnapModuleIndex buildIndex(List<Path> locs) throws IOException {
+        ShnapModuleIndex index = new ShnapModuleIndex();
+        List<Path> archives = new ArrayList<>();
+        for (Path path : locs) {
+            List<Path> files;
+            try (Stream<Path> walk = Files.walk(path)) {
+                files = walk.collect(Collectors.toList());
+            }
+            for (Path file : files) {
+                if (Files.isDirectory(file)) {
+                    index.stamp(file);
+                } else {
+                    Pair<String, String> nameAndFormat = this.nameAndFormat(path.relativize(file));
+                    String fmt = nameAndFormat.getB();
+                    if (fmt.equalsIgnoreCase("shnap") || fmt.equalsIgnoreCase("cshnap")) {
+                        Path absolute = file.toAbsolutePath();
+                        index.stamp(file);
+                        index.put(new ShnapModuleSource(nameAndFormat.getA(), absolute.toString(), fmt, () -> Files.newInputStream(absolute)));
+                    } else if (fmt.equalsIgnoreCase("sar")) {
+                        archives.add(file);
+                    }
+                }
+            }
+        }
+
+        for (Path archive : archives) {
+            index.stamp(archive);
+            if (ShnapArchive.isArchive(archive)) {
+                ShnapArchive mapped = this.map(archive);
+                for (ShnapArchive.Entry entry : mapped.getEntries()) {
+                    Pair<String, String> nameAndFormat = this.nameAndFormat(entry.getName());
+                    String fmt = nameAndFormat.getB();
+                    if (fmt.equalsIgnoreCase("shnap") || fmt.equalsIgnoreCase("cshnap")) {
+                        index.put(ShnapModuleSource.buffered(nameAndFormat.getA(), archive.toString() + "::" + entry.getName(), fmt, () -> mapped.read(entry)));
+                    }
                 }
-            });
+            } else {
+                try (ZipFile zip = new ZipFile(archive.toFile())) {
+                    Enumeration<? extends ZipEntry> entries = zip.entries();
+                    while (entries.hasMoreElements()) {
+                        String name = entries.nextElement().getName();
+                        Pair<String, String> nameAndFormat = this.nameAndFormat(name);
+                        String fmt = nameAndFormat.getB();
+                        if (fmt.equalsIgnoreCase("shnap") || fmt.equalsIgnoreCase("cshnap")) {
+                            index.put(new ShnapModuleSource(nameAndFormat.getA(), archive.toString() + "::" + name, fmt, () -> readZipEntry(archive, name)));
+                        }
+                    }
+                }
+            }
         }
+        return index;
     }
 
-    public ShnapScript getModule(ShnapEnvironment tracer, String name) {
-        if (this.scripts.containsKey(name)) {
-            return this.scripts.get(name);
-        } else {
-            return this.loadAndInit(tracer, name);
+    private ShnapArchive map(Path archive) throws IOException {
+        Path key = archive.toAbsolutePath();
+        Mapping mapping = this.mappings.get(key);
+        if (mapping == null || !mapping.stamp.isCurrent()) {
+            mapping = new Mapping(ShnapModuleIndex.Stamp.of(key), ShnapArchive.open(key));
+            this.mappings.put(key, mapping);
         }
+        return mapping.archive;
     }
 
-    private Path workingApplicablePath = null;
-    private Pair<String, String> workingNameAndFormat = null;
+    private static InputStream readZipEntry(Path archive, String name) throws IOException {
+        try (ZipFile zip = new ZipFile(archive.toFile())) {
+            ZipEntry entry = zip.getEntry(name);
+            if (entry == null) {
+                throw new FileNotFoundException(archive + "::" + name);
+            }
+            try (InputStream content = zip.getInputStream(entry)) {
+                return new ByteArrayInputStream(content.readAllBytes());
+            }
+        }
+    }
 
-    public ShnapScript load(ShnapEnvironment environment, String name) {
-        workingApplicablePath = null;
-        workingNameAndFormat = null;
+    public ShnapScript getModule(ShnapEnvironment tracer, String name) {
+        ShnapScript script = this.scripts.get(name);
+        if (script != null && script.isInitialized()) {
+            return script;
+        }
 
+        ReentrantLock initLock = this.lockInit(name);
         try {
-            for (Path path : environment.getWorkingSearchLocs()) {
-                Files.walk(path).forEach(p -> {
-                    p = path.relativize(p);
-                    if (this.workingApplicablePath == null) {
-                        Pair<String, String> nameAndFormat = this.nameAndFormat(p);
-                        if (name.equals(nameAndFormat.getA())) {
-                            String fmt = nameAndFormat.getB();
-                            if (fmt.equalsIgnoreCase("shnap") || fmt.equalsIgnoreCase("cshnap")) {
-                                this.workingApplicablePath = path.resolve(p).toAbsolutePath();
-                                this.workingNameAndFormat = nameAndFormat;
-                            }
-                        }
-                    }
-                });
+            script = this.scripts.get(name);
+            if (script == null) {
+                return this.loadAndInit(tracer, name);
+            } else if (!script.isInitialized()) {
+                script.initScript(tracer);
             }
+            return script;
+        } finally {
+            this.unlockInit(name, initLock);
+        }
+    }
+
+    public ShnapScript getUninitializedModule(ShnapEnvironment tracer, String name) {
+        ShnapScript script = this.scripts.get(name);
+        if (script != null) {
+            return script;
+        }
 
-            DangerousSupplier<InputStream> stream = null;
-            String fileName = null;
-            String format = null;
-            if (this.workingApplicablePath != null) {
-                Path path = this.workingApplicablePath;
-                stream = () -> Files.newInputStream(path);
-                fileName = this.workingApplicablePath.toString();
-                format = this.workingNameAndFormat.getB();
+        ReentrantLock initLock = this.lockInit(name);
+        try {
+            script = this.scripts.get(name);
+            if (script != null) {
+                return script;
             } else {
-                archiveSearch:
-                for (Path archive : this.indexedArchives) {
-                    ZipFile zip = null;
-                    try {
-                        zip = new ZipFile(archive.toFile());
-                        Enumeration<ZipEntry> entries = (Enumeration<ZipEntry>) zip.entries();
-                        while (entries.hasMoreElements()) {
-                            ZipEntry entry = entries.nextElement();
-                            Pair<String, String> nameAndFormat = this.nameAndFormat(entry.getName());
-                            if (name.equals(nameAndFormat.getA())) {
-                                String fmt = nameAndFormat.getB();
-                                if (fmt.equalsIgnoreCase("shnap") || fmt.equalsIgnoreCase("cshnap")) {
-                                    String entryName = entry.getName();
-                                    stream = () -> {
-                                        ZipFile theFile = new ZipFile(archive.toFile());
-                                        ZipEntry theFileEntry = theFile.getEntry(entryName);
-                                        return new DelegateZipClosingStream(theFile.getInputStream(theFileEntry), theFile);
-                                    };
-                                    fileName = archive.toString() + "::" + entry.getName();
-                                    format = fmt;
-                                    break archiveSearch;
-                                }
-                            }
-                        }
-                    } finally {
-                        if(zip != null) {
-                            zip.close();
-                        }
-                    }
+                return this.load(tracer, name);
+            }
+        } finally {
+            this.unlockInit(name, initLock);
+        }
+    }
+
+    private ReentrantLock lockInit(String name) {
+        ReentrantLock initLock = this.initLocks.computeIfAbsent(name, k -> new ReentrantLock());
+        Thread current = Thread.currentThread();
+        synchronized (this.initOwners) {
+            if (initLock.tryLock()) {
+                this.initOwners.put(name, current);
+                return initLock;
+            }
+
+            List<String> cycle = new ArrayList<>();
+            String waiting = name;
+            Thread owner = this.initOwners.get(waiting);
+            while (owner != null) {
+                cycle.add(waiting);
+                if (owner == current) {
+                    cycle.add(name);
+                    throw new ShnapScriptCircularInitException(String.join("->", cycle));
                 }
+                waiting = this.initWaits.get(owner);
+                owner = waiting == null ? null : this.initOwners.get(waiting);
             }
+            this.initWaits.put(current, name);
+        }
 
-            if (stream == null) {
-                throw new ShnapScriptAbsentException(name);
-            } else {
-                ShnapScript script = ShnapScript.read(stream, name, fileName, format);
-                scripts.put(name, script);
-                return script;
+        try {
+            initLock.lock();
+        } finally {
+            synchronized (this.initOwners) {
+                this.initWaits.remove(current);
+                if (initLock.isHeldByCurrentThread()) {
+                    this.initOwners.put(name, current);
+                }
             }
+        }
+        return initLock;
+    }
+
+    private void unlockInit(String name, ReentrantLock initLock) {
+        synchronized (this.initOwners) {
+            if (initLock.getHoldCount() == 1) {
+                this.initOwners.remove(name);
+            }
+            initLock.unlock();
+        }
+    }
+
+    public ShnapScript load(ShnapEnvironment environment, String name) {
+        ShnapScript script = this.parsed.remove(name);
+        if (script == null) {
+            script = this.read(environment, name);
+        }
+        this.scripts.put(name, script);
+        return script;
+    }
+
+    public boolean isLoaded(String name) {
+        return this.scripts.containsKey(name);
+    }
+
+    public void preload(String name, ShnapScript script) {
+        this.parsed.putIfAbsent(name, script);
+    }
+
+    public ShnapScript read(ShnapEnvironment environment, String name) {
+        try {
+            return this.locate(name).read();
         } catch (IOException e) {
             throw new ShnapScriptLoadingFailedException(e);
         } catch (ShnapParseError e) {
@@ -149,56 +260,57 @@ public class ReferenceFactory {
         }
     }
 
-    public ShnapScript loadAndInit(ShnapEnvironment tracer, String name) {
-        if (this.initTrace.contains(name)) {
-            throw circularError();
-        } else {
-            this.initTrace.push(name);
-            ShnapScript loaded = this.load(tracer, name);
-            loaded.initScript(tracer);
-            this.initTrace.pop();
-            return loaded;
+    public void restore(Collection<ShnapModuleSource> sources) {
+        for (ShnapModuleSource source : sources) {
+            this.restored.put(source.getName(), source);
         }
     }
 
-    public List<String> findAllModules() {
-        List<String> res = new ArrayList<>();
-        try {
-            for (Path path : environment.getWorkingSearchLocs()) {
-                Files.walk(path).forEach(p -> {
-                    p = path.relativize(p);
-                    if (this.workingApplicablePath == null) {
-                        Pair<String, String> nameAndFormat = this.nameAndFormat(p);
-                        String fmt = nameAndFormat.getB();
-                        if (fmt.equalsIgnoreCase("shnap") || fmt.equalsIgnoreCase("cshnap")) {
-                            res.add(nameAndFormat.getA());
-                        }
-                    }
-                });
+    public ShnapModuleSource locate(String name) {
+        ShnapModuleSource source = this.restored.get(name);
+        if (source == null) {
+            source = this.index.get(name);
+        }
+        if (source == null && this.index.isStale()) {
+            try {
+                this.indexArchives();
+            } catch (IOException e) {
+                throw new ShnapScriptLoadingFailedException(e);
             }
-            for (Path archive : this.indexedArchives) {
-                ZipFile zip = new ZipFile(archive.toFile());
-                Enumeration<ZipEntry> entries = (Enumeration<ZipEntry>) zip.entries();
-                while (entries.hasMoreElements()) {
-                    ZipEntry entry = entries.nextElement();
-                    Pair<String, String> nameAndFormat = this.nameAndFormat(entry.getName());
-                    String fmt = nameAndFormat.getB();
-                    if (fmt.equalsIgnoreCase("shnap") || fmt.equalsIgnoreCase("cshnap")) {
-                        res.add(nameAndFormat.getA());
-                    }
-                }
+            source = this.index.get(name);
+        }
+        if (source == null) {
+            throw new ShnapScriptAbsentException(name);
+        }
+        return source;
+    }
+
+    public ShnapScript loadAndInit(ShnapEnvironment tracer, String name) {
+        Stack<String> initTrace = tracer.getInitTrace();
+        if (initTrace.contains(name)) {
+            throw circularError(initTrace);
+        } else {
+            initTrace.push(name);
+            try {
+                ShnapScript loaded = this.load(tracer, name);
+                loaded.initScript(tracer);
+                return loaded;
+            } finally {
+                initTrace.pop();
             }
-        } catch (IOException e) {
-            throw new ShnapScriptLoadingFailedException(e);
-        } catch (ShnapParseError e) {
-            throw new ShnapScriptInvalidSyntaxException(e);
         }
+    }
+
+    public Collection<ShnapModuleIndex.Stamp> getStamps() {
+        return this.index.getStamps();
+    }
 
-        return res;
+    public List<String> findAllModules() {
+        return this.index.modules();
     }
 
-    private ShnapScriptCircularInitException circularError() {
-        return new ShnapScriptCircularInitException(String.join("->", this.initTrace.toArray(new CharSequence[0])));
+    private ShnapScriptCircularInitException circularError(Stack<String> initTrace) {
+        return new ShnapScriptCircularInitException(String.join("->", initTrace.toArray(new CharSequence[0])));
     }
 
     public String format(Path path) {
@@ -238,4 +350,14 @@ public class ReferenceFactory {
         }
     }
 
+    private static final class Mapping {
+        private final ShnapModuleIndex.Stamp stamp;
+        private final ShnapArchive archive;
+
+        private Mapping(ShnapModuleIndex.Stamp stamp, ShnapArchive archive) {
+            this.stamp = stamp;
+            this.archive = archive;
+        }
+    }
+
 }
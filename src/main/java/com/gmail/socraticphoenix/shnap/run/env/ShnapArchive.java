@@ -0,0 +1,299 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 socraticphoenix@gmail.com
+ * Copyright (c) 2017 contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.gmail.socraticphoenix.shnap.run.env;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+public class ShnapArchive {
+    public static final int MAGIC = 0x53484152;
+    public static final int VERSION = 1;
+    public static final byte STORED = 0;
+    public static final byte DEFLATED = 1;
+    private static final int HEADER_SIZE = 12;
+    private static final int ENTRY_SIZE = 2 + 8 + 4 + 4 + 1 + 4;
+
+    private Path file;
+    private ByteBuffer mapped;
+    private List<Entry> entries;
+
+    private ShnapArchive(Path file, ByteBuffer mapped, List<Entry> entries) {
+        this.file = file;
+        this.mapped = mapped;
+        this.entries = entries;
+    }
+
+    public static boolean isArchive(Path file) throws IOException {
+        try (InputStream stream = Files.newInputStream(file)) {
+            byte[] magic = new byte[4];
+            return stream.read(magic) == 4 && ByteBuffer.wrap(magic).getInt() == MAGIC;
+        }
+    }
+
+    public static ShnapArchive open(Path file) throws IOException {
+        ByteBuffer mapped;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        ByteBuffer header = mapped.duplicate();
+        if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC) {
+            throw new IOException("Not a shnap archive: " + file);
+        }
+        int version = header.getInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported shnap archive version " + version + ": " + file);
+        }
+        int count = header.getInt();
+        if (count < 0 || (long) count * ENTRY_SIZE > header.remaining()) {
+            throw new IOException("Corrupt shnap archive directory (" + count + " entries): " + file);
+        }
+        List<Entry> entries = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            if (header.remaining() < ENTRY_SIZE) {
+                throw new IOException("Truncated shnap archive directory: " + file);
+            }
+            byte[] name = new byte[header.getShort() & 0xFFFF];
+            if (header.remaining() < name.length + ENTRY_SIZE - 2) {
+                throw new IOException("Truncated shnap archive directory: " + file);
+            }
+            header.get(name);
+            Entry entry = new Entry(new String(name, StandardCharsets.UTF_8), header.getLong(), header.getInt(), header.getInt(), header.get(), header.getInt());
+            if (!entry.fits(mapped.limit())) {
+                throw new IOException("Corrupt shnap archive entry " + i + ": " + file);
+            } else if (!entries.isEmpty() && entries.get(entries.size() - 1).getName().compareTo(entry.getName()) >= 0) {
+                throw new IOException("Unsorted shnap archive entry " + i + ": " + file);
+            }
+            entries.add(entry);
+        }
+        return new ShnapArchive(file, mapped, Collections.unmodifiableList(entries));
+    }
+
+    public static void write(Path source, Path target, boolean compress) throws IOException {
+        TreeMap<String, byte[]> contents = new TreeMap<>();
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(source)) {
+            files = walk.filter(Files::isRegularFile).collect(Collectors.toList());
+        }
+        for (Path file : files) {
+            List<String> names = new ArrayList<>();
+            source.relativize(file).forEach(p -> names.add(p.toString()));
+            contents.put(String.join("/", names), Files.readAllBytes(file));
+        }
+
+        ByteArrayOutputStream directory = new ByteArrayOutputStream();
+        List<byte[]> bodies = new ArrayList<>();
+        long offset = 12;
+        for (String name : contents.keySet()) {
+            offset += 2 + name.getBytes(StandardCharsets.UTF_8).length + 8 + 4 + 4 + 1 + 4;
+        }
+        DataOutputStream entries = new DataOutputStream(directory);
+        for (String key : contents.keySet()) {
+            byte[] content = contents.get(key);
+            byte[] body = content;
+            byte method = STORED;
+            if (compress) {
+                byte[] deflated = deflate(body);
+                if (deflated.length < body.length) {
+                    body = deflated;
+                    method = DEFLATED;
+                }
+            }
+            CRC32 crc = new CRC32();
+            crc.update(content);
+
+            byte[] name = key.getBytes(StandardCharsets.UTF_8);
+            entries.writeShort(name.length);
+            entries.write(name);
+            entries.writeLong(offset);
+            entries.writeInt(body.length);
+            entries.writeInt(content.length);
+            entries.writeByte(method);
+            entries.writeInt((int) crc.getValue());
+            bodies.add(body);
+            offset += body.length;
+        }
+
+        Files.createDirectories(target.toAbsolutePath().getParent());
+        try (DataOutputStream stream = new DataOutputStream(Files.newOutputStream(target))) {
+            stream.writeInt(MAGIC);
+            stream.writeInt(VERSION);
+            stream.writeInt(contents.size());
+            directory.writeTo(stream);
+            for (byte[] body : bodies) {
+                stream.write(body);
+            }
+        }
+    }
+
+    private static byte[] deflate(byte[] content) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        deflater.setInput(content);
+        deflater.finish();
+        ByteArrayOutputStream res = new ByteArrayOutputStream();
+        byte[] buff = new byte[1024];
+        while (!deflater.finished()) {
+            int len = deflater.deflate(buff);
+            res.write(buff, 0, len);
+        }
+        deflater.end();
+        return res.toByteArray();
+    }
+
+    public Path getFile() {
+        return this.file;
+    }
+
+    public List<Entry> getEntries() {
+        return this.entries;
+    }
+
+    public Entry find(String name) {
+        int low = 0;
+        int high = this.entries.size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = this.entries.get(mid).getName().compareTo(name);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return this.entries.get(mid);
+            }
+        }
+        return null;
+    }
+
+    public ByteBuffer read(Entry entry) throws IOException {
+        ByteBuffer body = this.mapped.duplicate();
+        body.position((int) entry.getOffset());
+        body.limit((int) entry.getOffset() + entry.getStoredLength());
+        body = body.slice();
+        if (entry.getMethod() == STORED) {
+            if (!entry.verified) {
+                this.verify(entry, body);
+                entry.verified = true;
+            }
+            return body.asReadOnlyBuffer();
+        }
+
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(body);
+            ByteBuffer inflated = ByteBuffer.allocate(entry.getLength());
+            while (inflated.hasRemaining() && !inflater.finished()) {
+                if (inflater.inflate(inflated) == 0 && inflater.needsInput()) {
+                    break;
+                }
+            }
+            if (inflated.hasRemaining()) {
+                throw new IOException("Truncated entry " + entry.getName() + " in " + this.file);
+            }
+            inflated.flip();
+            this.verify(entry, inflated);
+            return inflated.asReadOnlyBuffer();
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt entry " + entry.getName() + " in " + this.file, e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private void verify(Entry entry, ByteBuffer content) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(content.duplicate());
+        if ((int) crc.getValue() != entry.getHash()) {
+            throw new IOException("Checksum mismatch for entry " + entry.getName() + " in " + this.file);
+        }
+    }
+
+    public static class Entry {
+        private String name;
+        private long offset;
+        private int storedLength;
+        private int length;
+        private byte method;
+        private int hash;
+        private volatile boolean verified;
+
+        public Entry(String name, long offset, int storedLength, int length, byte method, int hash) {
+            this.name = name;
+            this.offset = offset;
+            this.storedLength = storedLength;
+            this.length = length;
+            this.method = method;
+            this.hash = hash;
+        }
+
+        public String getName() {
+            return this.name;
+        }
+
+        public long getOffset() {
+            return this.offset;
+        }
+
+        public int getStoredLength() {
+            return this.storedLength;
+        }
+
+        public int getLength() {
+            return this.length;
+        }
+
+        public byte getMethod() {
+            return this.method;
+        }
+
+        public int getHash() {
+            return this.hash;
+        }
+
+        private boolean fits(int limit) {
+            if (this.offset < HEADER_SIZE || this.storedLength < 0 || this.length < 0 || this.offset + this.storedLength > limit) {
+                return false;
+            }
+            return this.method == DEFLATED || (this.method == STORED && this.storedLength == this.length);
+        }
+
+    }
+
+}
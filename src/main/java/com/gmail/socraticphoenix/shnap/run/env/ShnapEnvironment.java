@@ -41,6 +41,7 @@ import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Stack;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
@@ -48,28 +49,63 @@ import static com.gmail.socraticphoenix.shnap.util.ShnapFactory.literalObj;
 import static com.gmail.socraticphoenix.shnap.util.ShnapFactory.makeExceptionObj;
 
 public class ShnapEnvironment {
-    private List<Path> nativeSearchLocs = new ArrayList<>();
-    private List<Pair<Path, Boolean>> preNormalSearchLocs = new ArrayList<>();
-    private List<Path> normalSearchLocs = new ArrayList<>();
+    public static final int DEFAULT_COMPILE_THRESHOLD = 1000;
+    public static final int DEFAULT_LOOP_THRESHOLD = 10000;
 
-    private List<ShnapScript> nativeScripts = new ArrayList<>();
-    private List<ShnapScript> builtinScripts = new ArrayList<>();
+    private ShnapRuntime runtime;
+    private List<Path> nativeSearchLocs;
+    private List<Pair<Path, Boolean>> preNormalSearchLocs;
+    private List<Path> normalSearchLocs;
+
+    private List<ShnapScript> nativeScripts;
+    private List<ShnapScript> builtinScripts;
 
     private Stack<ShnapTraceback> tracebackStack = new Stack<>();
-    private List<Path> workingSearchLocs;
+    private Stack<String> initTrace = new Stack<>();
     private ReferenceFactory referenceFactory;
-    private State state;
 
     private ShnapObject arguments;
 
     private boolean metaEnabled;
+    private boolean optimizeEnabled;
+    private boolean steppingEnabled;
+    private int compileThreshold = DEFAULT_COMPILE_THRESHOLD;
+    private int loopThreshold = DEFAULT_LOOP_THRESHOLD;
+
+    private int suspendDepth = -1;
+    private boolean suspended;
+    private long wakeTime;
 
     public ShnapEnvironment() {
-        this.referenceFactory = new ReferenceFactory(this);
-        this.state = State.NATIVES;
+        this(new ShnapRuntime());
         this.arguments = new ShnapArrayNative(ShnapLoc.BUILTIN, 0);
     }
 
+    private ShnapEnvironment(ShnapRuntime runtime) {
+        this.runtime = runtime;
+        this.nativeSearchLocs = runtime.getNativeSearchLocs();
+        this.preNormalSearchLocs = runtime.getPreNormalSearchLocs();
+        this.normalSearchLocs = runtime.getNormalSearchLocs();
+        this.nativeScripts = runtime.getNativeScripts();
+        this.builtinScripts = runtime.getBuiltinScripts();
+        this.referenceFactory = runtime.getReferenceFactory();
+    }
+
+    public ShnapEnvironment fork() {
+        ShnapEnvironment fork = new ShnapEnvironment(this.runtime);
+        fork.arguments = this.arguments;
+        fork.metaEnabled = this.metaEnabled;
+        fork.optimizeEnabled = this.optimizeEnabled;
+        fork.steppingEnabled = this.steppingEnabled;
+        fork.compileThreshold = this.compileThreshold;
+        fork.loopThreshold = this.loopThreshold;
+        return fork;
+    }
+
+    public ShnapRuntime getRuntime() {
+        return this.runtime;
+    }
+
     public boolean isMetaEnabled() {
         return metaEnabled;
     }
@@ -78,6 +114,38 @@ public class ShnapEnvironment {
         this.metaEnabled = metaEnabled;
     }
 
+    public boolean isOptimizeEnabled() {
+        return optimizeEnabled;
+    }
+
+    public void setOptimizeEnabled(boolean optimizeEnabled) {
+        this.optimizeEnabled = optimizeEnabled;
+    }
+
+    public boolean isSteppingEnabled() {
+        return steppingEnabled;
+    }
+
+    public void setSteppingEnabled(boolean steppingEnabled) {
+        this.steppingEnabled = steppingEnabled;
+    }
+
+    public int getCompileThreshold() {
+        return compileThreshold;
+    }
+
+    public void setCompileThreshold(int compileThreshold) {
+        this.compileThreshold = compileThreshold;
+    }
+
+    public int getLoopThreshold() {
+        return loopThreshold;
+    }
+
+    public void setLoopThreshold(int loopThreshold) {
+        this.loopThreshold = loopThreshold;
+    }
+
     public ShnapObject getArguments() {
         return arguments;
     }
@@ -110,54 +178,118 @@ public class ShnapEnvironment {
     }
 
     public ShnapExecution loadNatives() throws IOException {
-        this.checkState(State.NATIVES);
-        this.workingSearchLocs = this.nativeSearchLocs;
-        this.referenceFactory.indexArchives();
-        for (String module : this.referenceFactory.findAllModules()) {
-            ShnapExecution exec = this.getModuleExecution(module);
+        this.runtime.checkState(ShnapRuntime.State.NATIVES);
+        this.runtime.setWorkingSearchLocs(this.nativeSearchLocs);
+        List<String> nativeModules = this.runtime.getNativeModules();
+        if (this.runtime.getSnapshot() != null) {
+            nativeModules.addAll(this.runtime.getSnapshot().getNatives());
+        } else {
+            this.referenceFactory.indexArchives();
+            nativeModules.addAll(this.referenceFactory.findAllModules());
+        }
+        for (ShnapExecution exec : new ShnapModuleLoader(this, nativeModules).load()) {
             if (exec.isAbnormal()) {
                 return exec;
             }
             this.nativeScripts.add((ShnapScript) exec.getValue());
         }
-        this.transitionState(State.NATIVES, State.BUILTINS);
+        this.runtime.transitionState(ShnapRuntime.State.NATIVES, ShnapRuntime.State.BUILTINS);
         return ShnapExecution.normal(ShnapObject.getVoid(), this, ShnapLoc.BUILTIN);
     }
 
     public ShnapExecution loadBuiltins() throws IOException {
-        this.checkState(State.BUILTINS);
-        List<Pair<String, Boolean>> preNormalModules = new ArrayList<>();
+        this.runtime.checkState(ShnapRuntime.State.BUILTINS);
+        List<Pair<String, Boolean>> preNormalModules = this.runtime.getPreNormalModules();
         List<Path> builtins = this.preNormalSearchLocs.stream().filter(Pair::getB).map(Pair::getA).collect(Collectors.toList());
         List<Path> preLibs = this.preNormalSearchLocs.stream().filter(p -> !p.getB()).map(Pair::getA).collect(Collectors.toList());
-        this.workingSearchLocs = builtins;
-        this.referenceFactory.indexArchives();
-        preNormalModules.addAll(this.referenceFactory.findAllModules().stream().map(s -> Pair.of(s, true)).collect(Collectors.toList()));
-        this.workingSearchLocs = preLibs;
-        this.referenceFactory.indexArchives();
-        preNormalModules.addAll(this.referenceFactory.findAllModules().stream().map(s -> Pair.of(s, false)).collect(Collectors.toList()));
-        this.workingSearchLocs = new ArrayList<>();
-        this.workingSearchLocs.addAll(builtins);
-        this.workingSearchLocs.addAll(preLibs);
-        this.referenceFactory.indexArchives();
-        for (Pair<String, Boolean> module : preNormalModules) {
-            ShnapExecution exec = this.getModuleExecution(module.getA());
+        List<Path> workingSearchLocs = new ArrayList<>();
+        workingSearchLocs.addAll(builtins);
+        workingSearchLocs.addAll(preLibs);
+        if (this.runtime.getSnapshot() != null) {
+            preNormalModules.addAll(this.runtime.getSnapshot().getPreNormal());
+            this.runtime.setWorkingSearchLocs(workingSearchLocs);
+        } else {
+            this.runtime.setWorkingSearchLocs(builtins);
+            this.referenceFactory.indexArchives();
+            preNormalModules.addAll(this.referenceFactory.findAllModules().stream().map(s -> Pair.of(s, true)).collect(Collectors.toList()));
+            this.runtime.setWorkingSearchLocs(preLibs);
+            this.referenceFactory.indexArchives();
+            preNormalModules.addAll(this.referenceFactory.findAllModules().stream().map(s -> Pair.of(s, false)).collect(Collectors.toList()));
+            this.runtime.setWorkingSearchLocs(workingSearchLocs);
+            this.referenceFactory.indexArchives();
+        }
+        List<ShnapExecution> execs = new ShnapModuleLoader(this, preNormalModules.stream().map(Pair::getA).collect(Collectors.toList())).load();
+        for (int i = 0; i < execs.size(); i++) {
+            ShnapExecution exec = execs.get(i);
             if (exec.isAbnormal()) {
                 return exec;
             }
             ShnapScript script = (ShnapScript) exec.getValue();
-            if (module.getB()) {
+            if (preNormalModules.get(i).getB()) {
                 this.builtinScripts.add(script);
             }
         }
-        this.transitionState(State.BUILTINS, State.PRE_NORMAL);
+        this.runtime.transitionState(ShnapRuntime.State.BUILTINS, ShnapRuntime.State.PRE_NORMAL);
         return ShnapExecution.normal(ShnapObject.getVoid(), this, ShnapLoc.BUILTIN);
     }
 
+    public boolean restoreSnapshot(Path file) {
+        this.runtime.checkState(ShnapRuntime.State.NATIVES);
+        if (!Files.exists(file)) {
+            return false;
+        }
+        try {
+            ShnapSnapshot snapshot = ShnapSnapshot.read(file);
+            if (!snapshot.isCurrent(this.startupSearchLocs())) {
+                return false;
+            }
+            this.referenceFactory.restore(snapshot.getSources().values());
+            this.runtime.setSnapshot(snapshot);
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    public boolean saveSnapshot(Path file) {
+        this.runtime.checkState(ShnapRuntime.State.PRE_NORMAL);
+        if (this.runtime.getSnapshot() != null) {
+            return false;
+        }
+        try {
+            ShnapSnapshot snapshot = new ShnapSnapshot(this.startupSearchLocs());
+            snapshot.getNatives().addAll(this.runtime.getNativeModules());
+            snapshot.getPreNormal().addAll(this.runtime.getPreNormalModules());
+            this.runtime.setWorkingSearchLocs(this.nativeSearchLocs);
+            this.referenceFactory.indexArchives();
+            snapshot.stamp(this.referenceFactory.getStamps());
+            for (String module : snapshot.getNatives()) {
+                snapshot.getSources().put(module, this.referenceFactory.locate(module));
+            }
+            this.runtime.setWorkingSearchLocs(this.preNormalSearchLocs.stream().map(Pair::getA).collect(Collectors.toList()));
+            this.referenceFactory.indexArchives();
+            snapshot.stamp(this.referenceFactory.getStamps());
+            for (Pair<String, Boolean> module : snapshot.getPreNormal()) {
+                snapshot.getSources().put(module.getA(), this.referenceFactory.locate(module.getA()));
+            }
+            snapshot.write(file);
+            return true;
+        } catch (IOException | ShnapScriptAbsentException | ShnapScriptLoadingFailedException e) {
+            return false;
+        }
+    }
+
+    private List<Path> startupSearchLocs() {
+        List<Path> locs = new ArrayList<>(this.nativeSearchLocs);
+        this.preNormalSearchLocs.forEach(p -> locs.add(p.getA()));
+        return locs;
+    }
+
     public void loadNormal() throws IOException {
-        this.checkState(State.PRE_NORMAL);
-        this.workingSearchLocs = this.normalSearchLocs;
+        this.runtime.checkState(ShnapRuntime.State.PRE_NORMAL);
+        this.runtime.setWorkingSearchLocs(this.normalSearchLocs);
         this.referenceFactory.indexArchives();
-        this.transitionState(State.PRE_NORMAL, State.NORMAL);
+        this.runtime.transitionState(ShnapRuntime.State.PRE_NORMAL, ShnapRuntime.State.NORMAL);
     }
 
     public ShnapExecution getModuleExecution(String name) {
@@ -179,12 +311,12 @@ public class ShnapEnvironment {
     }
 
     public void transitionImmediatelyToNormal() {
-        this.transitionState(State.NATIVES, State.NORMAL);
+        this.runtime.transitionState(ShnapRuntime.State.NATIVES, ShnapRuntime.State.NORMAL);
     }
 
     public List<ShnapScript> parseAll() throws IOException {
         try {
-            this.workingSearchLocs = this.normalSearchLocs;
+            this.runtime.setWorkingSearchLocs(this.normalSearchLocs);
             this.referenceFactory.indexArchives();
             List<ShnapScript> scripts = new ArrayList<>();
             for (String module : this.referenceFactory.findAllModules()) {
@@ -200,8 +332,12 @@ public class ShnapEnvironment {
         return this.referenceFactory.getModule(this, name);
     }
 
+    public ShnapScript getUninitializedModule(String name) {
+        return this.referenceFactory.getUninitializedModule(this, name);
+    }
+
     public void applyDefaults(ShnapContext target) {
-        switch (this.state) {
+        switch (this.runtime.getState()) {
             case BUILTINS:
                 for (ShnapScript nativeScript : this.nativeScripts) {
                     nativeScript.importBuiltinsTo(target);
@@ -242,8 +378,12 @@ public class ShnapEnvironment {
         return this.builtinScripts;
     }
 
+    public List<ShnapModuleTiming> getModuleTimings() {
+        return this.runtime.getModuleTimings();
+    }
+
     public List<Path> getWorkingSearchLocs() {
-        return this.workingSearchLocs;
+        return this.runtime.getWorkingSearchLocs();
     }
 
     public void pushTraceback(ShnapTraceback traceback) {
@@ -298,19 +438,35 @@ public class ShnapEnvironment {
         return builder.toString();
     }
 
-    public void checkState(State state) {
-        if (this.state != state) {
-            throw new IllegalStateException(state.name());
+    public Stack<ShnapTraceback> getTracebackStack() {
+        return tracebackStack;
+    }
+
+    public void allowSuspend(boolean allow) {
+        this.suspendDepth = allow ? this.tracebackStack.size() : -1;
+    }
+
+    public boolean suspend(long millis) {
+        if (this.suspendDepth == this.tracebackStack.size()) {
+            this.suspendDepth = -1;
+            this.suspended = true;
+            this.wakeTime = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+            return true;
         }
+        return false;
     }
 
-    public void transitionState(State from, State to) {
-        checkState(from);
-        this.state = to;
+    public boolean isSuspended() {
+        return this.suspended;
     }
 
-    public Stack<ShnapTraceback> getTracebackStack() {
-        return tracebackStack;
+    public long resume() {
+        this.suspended = false;
+        return this.wakeTime;
+    }
+
+    public Stack<String> getInitTrace() {
+        return this.initTrace;
     }
 
     public void notifyAbnormalState(Consumer<String> log, ShnapExecution ex) {
@@ -328,11 +484,4 @@ public class ShnapEnvironment {
         }
     }
 
-    private enum State {
-        NATIVES,
-        BUILTINS,
-        PRE_NORMAL,
-        NORMAL
-    }
-
 }
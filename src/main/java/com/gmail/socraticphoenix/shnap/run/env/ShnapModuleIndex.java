@@ -0,0 +1,106 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 socraticphoenix@gmail.com
+ * Copyright (c) 2017 contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.gmail.socraticphoenix.shnap.run.env;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class ShnapModuleIndex {
+    private Map<String, ShnapModuleSource> sources = new LinkedHashMap<>();
+    private Map<Path, Stamp> stamps = new LinkedHashMap<>();
+
+    public ShnapModuleSource get(String name) {
+        return this.sources.get(name);
+    }
+
+    public List<String> modules() {
+        return new ArrayList<>(this.sources.keySet());
+    }
+
+    public void put(ShnapModuleSource source) {
+        this.sources.putIfAbsent(source.getName(), source);
+    }
+
+    public void stamp(Path path) throws IOException {
+        this.stamps.put(path, Stamp.of(path));
+    }
+
+    public Collection<Stamp> getStamps() {
+        return this.stamps.values();
+    }
+
+    public boolean isStale() {
+        for (Stamp stamp : this.stamps.values()) {
+            if (!stamp.isCurrent()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static final class Stamp {
+        private final Path path;
+        private final long size;
+        private final long modified;
+
+        public Stamp(Path path, long size, long modified) {
+            this.path = path;
+            this.size = size;
+            this.modified = modified;
+        }
+
+        public static Stamp of(Path path) throws IOException {
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            return new Stamp(path.toAbsolutePath(), attributes.size(), attributes.lastModifiedTime().toMillis());
+        }
+
+        public boolean isCurrent() {
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(this.path, BasicFileAttributes.class);
+                return attributes.size() == this.size && attributes.lastModifiedTime().toMillis() == this.modified;
+            } catch (IOException e) {
+                return false;
+            }
+        }
+
+        public Path getPath() {
+            return this.path;
+        }
+
+        public long getSize() {
+            return this.size;
+        }
+
+        public long getModified() {
+            return this.modified;
+        }
+
+    }
+
+}
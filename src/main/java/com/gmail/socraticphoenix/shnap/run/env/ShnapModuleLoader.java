@@ -0,0 +1,156 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 socraticphoenix@gmail.com
+ * Copyright (c) 2017 contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.gmail.socraticphoenix.shnap.run.env;
+
+import com.gmail.socraticphoenix.shnap.program.context.ShnapExecution;
+import com.gmail.socraticphoenix.shnap.run.compiler.ShnapImportScanner;
+import com.gmail.socraticphoenix.shnap.type.object.ShnapScript;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+public class ShnapModuleLoader {
+    private ShnapEnvironment environment;
+    private List<String> modules;
+
+    private Map<String, Set<String>> dependencies = new ConcurrentHashMap<>();
+    private Map<String, Long> parseNanos = new ConcurrentHashMap<>();
+    private Map<String, Long> initNanos = new ConcurrentHashMap<>();
+    private Map<String, ShnapExecution> executions = new ConcurrentHashMap<>();
+    private Map<String, ShnapEnvironment> failures = new ConcurrentHashMap<>();
+    private volatile boolean failed;
+
+    public ShnapModuleLoader(ShnapEnvironment environment, List<String> modules) {
+        this.environment = environment;
+        this.modules = modules;
+    }
+
+    public List<ShnapExecution> load() {
+        if (Workers.POOL != null) {
+            Workers.POOL.submit(() -> this.modules.parallelStream().forEach(m -> this.parse(m, true))).join();
+        }
+
+        for (String module : this.modules) {
+            if (Workers.POOL == null) {
+                this.parse(module, false);
+            }
+            this.initialize(module);
+            if (this.failed) {
+                break;
+            }
+        }
+        return this.results();
+    }
+
+    private List<ShnapExecution> results() {
+        String failure = null;
+        for (String module : this.modules) {
+            ShnapExecution execution = this.executions.get(module);
+            if (execution != null && execution.isAbnormal()) {
+                failure = module;
+                break;
+            }
+        }
+
+        List<ShnapExecution> results = new ArrayList<>();
+        for (String module : this.modules) {
+            ShnapExecution execution = this.executions.get(module);
+            if (execution == null || execution.isAbnormal()) {
+                break;
+            }
+            this.record(module);
+            results.add(execution);
+        }
+        if (failure != null) {
+            this.environment.getTracebackStack().addAll(this.failures.get(failure).getTracebacks());
+            this.record(failure);
+            results.add(this.executions.get(failure));
+        }
+        return results;
+    }
+
+    private void record(String module) {
+        this.environment.getRuntime().getModuleTimings().add(new ShnapModuleTiming(module, this.dependencies.get(module), this.parseNanos.get(module), this.initNanos.get(module)));
+    }
+
+    private void parse(String module, boolean scan) {
+        long start = System.nanoTime();
+        ReferenceFactory factory = this.environment.getReferenceFactory();
+        Set<String> found = Collections.emptySet();
+        try {
+            if (!factory.isLoaded(module)) {
+                ShnapScript script = factory.read(this.environment, module);
+                factory.preload(module, script);
+                if (scan) {
+                    found = this.scan(module, script);
+                }
+            }
+        } catch (ShnapScriptAbsentException | ShnapScriptInvalidSyntaxException | ShnapScriptLoadingFailedException e) {
+            found = Collections.emptySet();
+        }
+        if (found == null) {
+            found = Collections.emptySet();
+        }
+        this.dependencies.put(module, found);
+        this.parseNanos.put(module, System.nanoTime() - start);
+    }
+
+    private Set<String> scan(String module, ShnapScript script) {
+        Set<String> imports = ShnapImportScanner.scan(script.getVal());
+        if (imports == null) {
+            return null;
+        }
+        Set<String> found = new LinkedHashSet<>();
+        for (String name : imports) {
+            if (!name.equals(module) && this.modules.contains(name)) {
+                found.add(name);
+            }
+        }
+        return found;
+    }
+
+    private void initialize(String module) {
+        if (this.failed) {
+            return;
+        }
+        ShnapEnvironment fork = this.environment.fork();
+        long start = System.nanoTime();
+        ShnapExecution execution = fork.getModuleExecution(module);
+        this.initNanos.put(module, System.nanoTime() - start);
+        if (execution.isAbnormal()) {
+            this.failures.put(module, fork);
+            this.failed = true;
+        }
+        this.executions.put(module, execution);
+    }
+
+    private static final class Workers {
+        private static final ForkJoinPool POOL = Runtime.getRuntime().availableProcessors() < 2 ? null : new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    }
+
+}
@@ -0,0 +1,94 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 socraticphoenix@gmail.com
+ * Copyright (c) 2017 contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.gmail.socraticphoenix.shnap.run.env;
+
+import com.gmail.socraticphoenix.shnap.run.compiler.DangerousSupplier;
+import com.gmail.socraticphoenix.shnap.type.object.ShnapScript;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+public class ShnapModuleSource {
+    private String name;
+    private String fileName;
+    private String format;
+    private DangerousSupplier<InputStream> stream;
+    private DangerousSupplier<ByteBuffer> buffer;
+
+    public ShnapModuleSource(String name, String fileName, String format, DangerousSupplier<InputStream> stream) {
+        this.name = name;
+        this.fileName = fileName;
+        this.format = format;
+        this.stream = stream;
+    }
+
+    public static ShnapModuleSource buffered(String name, String fileName, String format, DangerousSupplier<ByteBuffer> buffer) {
+        ShnapModuleSource source = new ShnapModuleSource(name, fileName, format, null);
+        source.buffer = buffer;
+        source.stream = () -> new ByteArrayInputStream(source.readBytes());
+        return source;
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public String getFileName() {
+        return this.fileName;
+    }
+
+    public String getFormat() {
+        return this.format;
+    }
+
+    public DangerousSupplier<InputStream> getStream() {
+        return this.stream;
+    }
+
+    public ShnapScript read() throws IOException {
+        if (this.buffer != null) {
+            return ShnapScript.read(this.buffer.get(), this.name, this.fileName, this.format);
+        }
+        return ShnapScript.read(this.stream, this.name, this.fileName, this.format);
+    }
+
+    public byte[] readBytes() throws IOException {
+        if (this.buffer != null) {
+            ByteBuffer buffer = this.buffer.get().duplicate();
+            byte[] res = new byte[buffer.remaining()];
+            buffer.get(res);
+            return res;
+        }
+        try (InputStream content = this.stream.get(); ByteArrayOutputStream res = new ByteArrayOutputStream()) {
+            byte[] buff = new byte[1024];
+            int len;
+            while ((len = content.read(buff)) != -1) {
+                res.write(buff, 0, len);
+            }
+            return res.toByteArray();
+        }
+    }
+
+}
@@ -0,0 +1,60 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 socraticphoenix@gmail.com
+ * Copyright (c) 2017 contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.gmail.socraticphoenix.shnap.run.env;
+
+import java.util.Set;
+
+public class ShnapModuleTiming {
+    private String module;
+    private Set<String> dependencies;
+    private long parseNanos;
+    private long initNanos;
+
+    public ShnapModuleTiming(String module, Set<String> dependencies, long parseNanos, long initNanos) {
+        this.module = module;
+        this.dependencies = dependencies;
+        this.parseNanos = parseNanos;
+        this.initNanos = initNanos;
+    }
+
+    public String getModule() {
+        return this.module;
+    }
+
+    public Set<String> getDependencies() {
+        return this.dependencies;
+    }
+
+    public long getParseNanos() {
+        return this.parseNanos;
+    }
+
+    public long getInitNanos() {
+        return this.initNanos;
+    }
+
+    @Override
+    public String toString() {
+        return this.module + ": parse " + this.parseNanos / 1000000.0 + "ms, init " + this.initNanos / 1000000.0 + "ms" + (this.dependencies.isEmpty() ? "" : ", after " + this.dependencies);
+    }
+
+}
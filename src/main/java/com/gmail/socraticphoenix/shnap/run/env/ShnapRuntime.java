@@ -0,0 +1,127 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 socraticphoenix@gmail.com
+ * Copyright (c) 2017 contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.gmail.socraticphoenix.shnap.run.env;
+
+import com.gmail.socraticphoenix.collect.coupling.Pair;
+import com.gmail.socraticphoenix.shnap.type.object.ShnapScript;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+public class ShnapRuntime {
+    private List<Path> nativeSearchLocs = new CopyOnWriteArrayList<>();
+    private List<Pair<Path, Boolean>> preNormalSearchLocs = new CopyOnWriteArrayList<>();
+    private List<Path> normalSearchLocs = new CopyOnWriteArrayList<>();
+
+    private List<ShnapScript> nativeScripts = new CopyOnWriteArrayList<>();
+    private List<ShnapScript> builtinScripts = new CopyOnWriteArrayList<>();
+    private List<ShnapModuleTiming> moduleTimings = new CopyOnWriteArrayList<>();
+    private List<String> nativeModules = new CopyOnWriteArrayList<>();
+    private List<Pair<String, Boolean>> preNormalModules = new CopyOnWriteArrayList<>();
+
+    private ShnapSnapshot snapshot;
+
+    private volatile List<Path> workingSearchLocs;
+    private volatile State state;
+    private ReferenceFactory referenceFactory;
+
+    public ShnapRuntime() {
+        this.referenceFactory = new ReferenceFactory(this);
+        this.state = State.NATIVES;
+    }
+
+    public List<Path> getNativeSearchLocs() {
+        return this.nativeSearchLocs;
+    }
+
+    public List<Pair<Path, Boolean>> getPreNormalSearchLocs() {
+        return this.preNormalSearchLocs;
+    }
+
+    public List<Path> getNormalSearchLocs() {
+        return this.normalSearchLocs;
+    }
+
+    public List<ShnapScript> getNativeScripts() {
+        return this.nativeScripts;
+    }
+
+    public List<ShnapScript> getBuiltinScripts() {
+        return this.builtinScripts;
+    }
+
+    public List<ShnapModuleTiming> getModuleTimings() {
+        return this.moduleTimings;
+    }
+
+    public List<String> getNativeModules() {
+        return this.nativeModules;
+    }
+
+    public List<Pair<String, Boolean>> getPreNormalModules() {
+        return this.preNormalModules;
+    }
+
+    public ShnapSnapshot getSnapshot() {
+        return this.snapshot;
+    }
+
+    public void setSnapshot(ShnapSnapshot snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    public List<Path> getWorkingSearchLocs() {
+        return this.workingSearchLocs;
+    }
+
+    public void setWorkingSearchLocs(List<Path> workingSearchLocs) {
+        this.workingSearchLocs = workingSearchLocs;
+    }
+
+    public ReferenceFactory getReferenceFactory() {
+        return this.referenceFactory;
+    }
+
+    State getState() {
+        return this.state;
+    }
+
+    void checkState(State state) {
+        if (this.state != state) {
+            throw new IllegalStateException(state.name());
+        }
+    }
+
+    void transitionState(State from, State to) {
+        checkState(from);
+        this.state = to;
+    }
+
+    enum State {
+        NATIVES,
+        BUILTINS,
+        PRE_NORMAL,
+        NORMAL
+    }
+
+}
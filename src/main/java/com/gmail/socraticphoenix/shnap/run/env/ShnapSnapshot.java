@@ -0,0 +1,167 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 socraticphoenix@gmail.com
+ * Copyright (c) 2017 contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.gmail.socraticphoenix.shnap.run.env;
+
+import com.gmail.socraticphoenix.collect.coupling.Pair;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class ShnapSnapshot {
+    private static final int MAGIC = 0x53484e53;
+    private static final int VERSION = 2;
+
+    private List<String> locs = new ArrayList<>();
+    private Map<Path, ShnapModuleIndex.Stamp> stamps = new LinkedHashMap<>();
+    private List<String> natives = new ArrayList<>();
+    private List<Pair<String, Boolean>> preNormal = new ArrayList<>();
+    private Map<String, ShnapModuleSource> sources = new LinkedHashMap<>();
+
+    public ShnapSnapshot(List<Path> locs) {
+        locs.forEach(p -> this.locs.add(p.toAbsolutePath().toString()));
+    }
+
+    private ShnapSnapshot() {
+    }
+
+    public void stamp(Collection<ShnapModuleIndex.Stamp> stamps) {
+        stamps.forEach(s -> this.stamps.put(s.getPath(), s));
+    }
+
+    public boolean isCurrent(List<Path> locs) {
+        if (locs.size() != this.locs.size()) {
+            return false;
+        }
+        for (int i = 0; i < locs.size(); i++) {
+            if (!locs.get(i).toAbsolutePath().toString().equals(this.locs.get(i))) {
+                return false;
+            }
+        }
+        for (ShnapModuleIndex.Stamp stamp : this.stamps.values()) {
+            if (!stamp.isCurrent()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static ShnapSnapshot read(Path file) throws IOException {
+        try (DataInputStream stream = new DataInputStream(Files.newInputStream(file))) {
+            if (stream.readInt() != MAGIC || stream.readInt() != VERSION) {
+                throw new IOException("Not a snapshot: " + file);
+            }
+            ShnapSnapshot snapshot = new ShnapSnapshot();
+            int locs = stream.readInt();
+            for (int i = 0; i < locs; i++) {
+                snapshot.locs.add(stream.readUTF());
+            }
+            int stamps = stream.readInt();
+            for (int i = 0; i < stamps; i++) {
+                Path path = Paths.get(stream.readUTF());
+                snapshot.stamps.put(path, new ShnapModuleIndex.Stamp(path, stream.readLong(), stream.readLong()));
+            }
+            int natives = stream.readInt();
+            for (int i = 0; i < natives; i++) {
+                snapshot.natives.add(stream.readUTF());
+            }
+            int preNormal = stream.readInt();
+            for (int i = 0; i < preNormal; i++) {
+                snapshot.preNormal.add(Pair.of(stream.readUTF(), stream.readBoolean()));
+            }
+            int sources = stream.readInt();
+            for (int i = 0; i < sources; i++) {
+                String name = stream.readUTF();
+                String fileName = stream.readUTF();
+                String format = stream.readUTF();
+                byte[] content = new byte[stream.readInt()];
+                stream.readFully(content);
+                snapshot.sources.put(name, new ShnapModuleSource(name, fileName, format, () -> new ByteArrayInputStream(content)));
+            }
+            return snapshot;
+        }
+    }
+
+    public void write(Path file) throws IOException {
+        Path temp = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream stream = new DataOutputStream(Files.newOutputStream(temp))) {
+                stream.writeInt(MAGIC);
+                stream.writeInt(VERSION);
+                stream.writeInt(this.locs.size());
+                for (String loc : this.locs) {
+                    stream.writeUTF(loc);
+                }
+                stream.writeInt(this.stamps.size());
+                for (ShnapModuleIndex.Stamp stamp : this.stamps.values()) {
+                    stream.writeUTF(stamp.getPath().toString());
+                    stream.writeLong(stamp.getSize());
+                    stream.writeLong(stamp.getModified());
+                }
+                stream.writeInt(this.natives.size());
+                for (String name : this.natives) {
+                    stream.writeUTF(name);
+                }
+                stream.writeInt(this.preNormal.size());
+                for (Pair<String, Boolean> module : this.preNormal) {
+                    stream.writeUTF(module.getA());
+                    stream.writeBoolean(module.getB());
+                }
+                stream.writeInt(this.sources.size());
+                for (ShnapModuleSource source : this.sources.values()) {
+                    byte[] content = source.readBytes();
+                    stream.writeUTF(source.getName());
+                    stream.writeUTF(source.getFileName());
+                    stream.writeUTF(source.getFormat());
+                    stream.writeInt(content.length);
+                    stream.write(content);
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    public List<String> getNatives() {
+        return this.natives;
+    }
+
+    public List<Pair<String, Boolean>> getPreNormal() {
+        return this.preNormal;
+    }
+
+    public Map<String, ShnapModuleSource> getSources() {
+        return this.sources;
+    }
+
+}
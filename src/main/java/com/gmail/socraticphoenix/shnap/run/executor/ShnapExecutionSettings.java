@@ -49,6 +49,12 @@ ShnapExecutionSettings {
 
     private boolean reloadHome;
     private boolean debug;
+    private boolean optimize;
+    private boolean stepping;
+    private int compileThreshold = ShnapEnvironment.DEFAULT_COMPILE_THRESHOLD;
+    private int loopThreshold = ShnapEnvironment.DEFAULT_LOOP_THRESHOLD;
+    private int carriers;
+    private Path snapshot;
 
     private ShnapEnvironmentSettings environmentSettings;
 
@@ -72,6 +78,10 @@ ShnapExecutionSettings {
         environment.getPreNormalSearchLocs().addAll(this.builtin.stream().map(p -> Pair.of(p, true)).collect(Collectors.toList()));
         environment.getPreNormalSearchLocs().addAll(this.prelib.stream().map(p -> Pair.of(p, false)).collect(Collectors.toList()));
         environment.setMetaEnabled(this.debug);
+        environment.setOptimizeEnabled(this.optimize);
+        environment.setSteppingEnabled(this.stepping);
+        environment.setCompileThreshold(this.compileThreshold);
+        environment.setLoopThreshold(this.loopThreshold);
         environment.setArguments(this.buildArguments());
         return environment;
     }
@@ -83,6 +93,9 @@ ShnapExecutionSettings {
         if(this.reloadHome || !Files.exists(this.environmentSettings.getHome()) || others.stream().anyMatch(f -> !Files.exists(f)) || this.normal.stream().anyMatch(f -> !Files.exists(f)) || this.prelib.stream().anyMatch(f -> !Files.exists(f)) || this.builtin.stream().anyMatch(f -> !Files.exists(f)) || this.natives.stream().anyMatch(f -> !Files.exists(f))) {
             environment.reloadHome(this.environmentSettings.getHome());
         }
+        if (this.snapshot != null) {
+            environment.restoreSnapshot(this.snapshot);
+        }
     }
 
     public ShnapExecutionSettings addArgument(ShnapObject object) {
@@ -156,6 +169,60 @@ ShnapExecutionSettings {
         return this;
     }
 
+    public boolean isOptimize() {
+        return this.optimize;
+    }
+
+    public ShnapExecutionSettings setOptimize(boolean optimize) {
+        this.optimize = optimize;
+        return this;
+    }
+
+    public boolean isStepping() {
+        return this.stepping;
+    }
+
+    public ShnapExecutionSettings setStepping(boolean stepping) {
+        this.stepping = stepping;
+        return this;
+    }
+
+    public int getCompileThreshold() {
+        return this.compileThreshold;
+    }
+
+    public ShnapExecutionSettings setCompileThreshold(int compileThreshold) {
+        this.compileThreshold = compileThreshold;
+        return this;
+    }
+
+    public int getLoopThreshold() {
+        return this.loopThreshold;
+    }
+
+    public ShnapExecutionSettings setLoopThreshold(int loopThreshold) {
+        this.loopThreshold = loopThreshold;
+        return this;
+    }
+
+    public int getCarriers() {
+        return this.carriers;
+    }
+
+    public ShnapExecutionSettings setCarriers(int carriers) {
+        this.carriers = carriers;
+        return this;
+    }
+
+    public Path getSnapshot() {
+        return this.snapshot;
+    }
+
+    public ShnapExecutionSettings setSnapshot(Path snapshot) {
+        this.snapshot = snapshot;
+        return this;
+    }
+
     public ShnapEnvironmentSettings getEnvironmentSettings() {
         return this.environmentSettings;
     }
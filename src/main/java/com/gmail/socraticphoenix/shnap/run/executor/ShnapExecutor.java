@@ -31,15 +31,18 @@ import com.gmail.socraticphoenix.shnap.run.env.ShnapScriptInvalidSyntaxException
 import com.gmail.socraticphoenix.shnap.run.env.ShnapScriptLoadingFailedException;
 import com.gmail.socraticphoenix.shnap.type.object.ShnapObject;
 import com.gmail.socraticphoenix.shnap.type.object.ShnapScript;
+import com.gmail.socraticphoenix.shnap.util.ShnapFactory;
 
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Consumer;
 
 public class ShnapExecutor {
     private ShnapExecutionSettings settings;
     private ShnapEnvironment environment;
+    private ShnapScheduler scheduler;
 
     public ShnapExecutor(ShnapExecutionSettings settings) {
         this.settings = settings;
@@ -55,6 +58,9 @@ public class ShnapExecutor {
 
     public void performPreLoading(List<Path> other) throws IOException {
         this.environment = this.settings.buildEnvironment();
+        if (this.settings.getCarriers() > 0 && this.scheduler == null) {
+            this.scheduler = new ShnapScheduler(this.settings.getCarriers());
+        }
         this.settings.applyHomeSettings(this.environment, other);
     }
 
@@ -78,6 +84,9 @@ public class ShnapExecutor {
         if (log) {
             theLog.accept("Loaded builtins." + System.lineSeparator());
         }
+        if (this.settings.getSnapshot() != null) {
+            this.environment.saveSnapshot(this.settings.getSnapshot());
+        }
         this.environment.loadNormal();
 
         return ShnapExecution.normal(ShnapObject.getVoid(), this.environment, ShnapLoc.BUILTIN);
@@ -85,9 +94,53 @@ public class ShnapExecutor {
 
     public ShnapExecution execute(String scriptName) throws ShnapScriptAbsentException, ShnapScriptCircularInitException, ShnapScriptInvalidSyntaxException, ShnapScriptLoadingFailedException {
         ShnapScript script = this.environment.getModule(scriptName);
+        if (this.scheduler != null) {
+            return this.await(this.scheduler.submit(this.environment, script));
+        }
         return script.runMain(this.environment);
     }
 
+    public ShnapExecution execute(String scriptName, int instances) throws ShnapScriptAbsentException, ShnapScriptCircularInitException, ShnapScriptInvalidSyntaxException, ShnapScriptLoadingFailedException {
+        if (this.scheduler == null || instances <= 1) {
+            return this.execute(scriptName);
+        }
+
+        ShnapScript script = this.environment.getModule(scriptName);
+        List<ShnapScheduledTask> tasks = new ArrayList<>();
+        for (int i = 0; i < instances; i++) {
+            tasks.add(this.scheduler.submit(this.environment, script));
+        }
+
+        ShnapExecution result = null;
+        for (ShnapScheduledTask task : tasks) {
+            ShnapExecution execution = this.await(task);
+            if (result == null || !result.isAbnormal()) {
+                result = execution;
+            }
+        }
+        return result;
+    }
+
+    private ShnapExecution await(ShnapScheduledTask task) {
+        try {
+            ShnapExecution execution = task.await();
+            if (execution.isAbnormal() && this.environment.getTracebackStack().isEmpty()) {
+                this.environment.getTracebackStack().addAll(task.getTracebacks());
+            }
+            return execution;
+        } catch (InterruptedException e) {
+            return ShnapExecution.throwing(ShnapFactory.mimicJavaException("shnap.InterruptedError", "execution was interrupted", e), this.environment, ShnapLoc.BUILTIN);
+        }
+    }
+
+    public ShnapScheduledTask submit(ShnapScheduler scheduler, String scriptName) throws ShnapScriptAbsentException, ShnapScriptCircularInitException, ShnapScriptInvalidSyntaxException, ShnapScriptLoadingFailedException {
+        return scheduler.submit(this.environment, this.environment.getUninitializedModule(scriptName));
+    }
+
+    public ShnapScheduler getScheduler() {
+        return this.scheduler;
+    }
+
     public ShnapEnvironment getEnvironment() {
         return this.environment;
     }
@@ -0,0 +1,189 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 socraticphoenix@gmail.com
+ * Copyright (c) 2017 contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.gmail.socraticphoenix.shnap.run.executor;
+
+import com.gmail.socraticphoenix.shnap.program.context.ShnapExecution;
+import com.gmail.socraticphoenix.shnap.program.stepper.ShnapStepMachine;
+import com.gmail.socraticphoenix.shnap.run.env.ShnapEnvironment;
+import com.gmail.socraticphoenix.shnap.run.env.ShnapTraceback;
+import com.gmail.socraticphoenix.shnap.type.object.ShnapScript;
+import com.gmail.socraticphoenix.shnap.util.ShnapFactory;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class ShnapScheduledTask {
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private long id;
+    private ShnapEnvironment environment;
+    private ShnapScript script;
+    private int priority;
+    private int budget;
+    private long limit;
+
+    private ShnapStepMachine machine;
+    private CountDownLatch done;
+    private volatile ShnapExecution result;
+
+    private long vruntime;
+    private long wakeTime;
+    private boolean sleeping;
+    private volatile long steps;
+    private volatile long slices;
+    private volatile long cpuNanos;
+
+    ShnapScheduledTask(long id, ShnapEnvironment environment, ShnapScript script, int priority, int budget, long limit) {
+        this.id = id;
+        this.environment = environment.fork();
+        this.script = script;
+        this.priority = priority;
+        this.budget = budget;
+        this.limit = limit;
+        this.machine = new ShnapStepMachine(script.asStepper());
+        this.done = new CountDownLatch(1);
+    }
+
+    void runSlice() {
+        boolean cpuTime = THREADS.isCurrentThreadCpuTimeSupported();
+        long start = cpuTime ? THREADS.getCurrentThreadCpuTime() : System.nanoTime();
+        long before = this.machine.getSteps();
+        int budget = this.limit > 0 ? (int) Math.min(this.budget, this.limit - before) : this.budget;
+
+        try {
+            for (int i = 0; i < budget && !this.machine.isDone(); i++) {
+                this.environment.allowSuspend(true);
+                this.machine.step(this.environment);
+                if (this.environment.isSuspended()) {
+                    this.wakeTime = this.environment.resume();
+                    this.sleeping = true;
+                    break;
+                }
+            }
+        } finally {
+            this.environment.allowSuspend(false);
+        }
+
+        long ran = this.machine.getSteps() - before;
+        this.cpuNanos += (cpuTime ? THREADS.getCurrentThreadCpuTime() : System.nanoTime()) - start;
+        this.steps += ran;
+        this.slices++;
+        this.vruntime += ran * ShnapScheduler.DEFAULT_PRIORITY / this.priority;
+
+        if (this.machine.isDone()) {
+            this.complete(this.machine.getResult());
+        } else if (this.limit > 0 && this.machine.getSteps() >= this.limit) {
+            this.complete(ShnapExecution.throwing(ShnapFactory.makeExceptionObj("shnap.BudgetExceededError", "script exceeded its budget of " + this.limit + " steps", null), this.environment, this.script.getLocation()));
+        }
+    }
+
+    void fail(Throwable error) {
+        this.sleeping = false;
+        this.complete(ShnapExecution.throwing(ShnapFactory.mimicJavaException(error), this.environment, this.script.getLocation()));
+    }
+
+    private void complete(ShnapExecution result) {
+        this.result = result;
+        this.done.countDown();
+    }
+
+    public ShnapExecution await() throws InterruptedException {
+        this.done.await();
+        return this.result;
+    }
+
+    public ShnapExecution await(long timeout, TimeUnit unit) throws InterruptedException {
+        this.done.await(timeout, unit);
+        return this.result;
+    }
+
+    public boolean isDone() {
+        return this.result != null;
+    }
+
+    public ShnapExecution getResult() {
+        return this.result;
+    }
+
+    public long getId() {
+        return this.id;
+    }
+
+    public ShnapEnvironment getEnvironment() {
+        return this.environment;
+    }
+
+    public ShnapScript getScript() {
+        return this.script;
+    }
+
+    public List<ShnapTraceback> getTracebacks() {
+        return this.environment.getTracebacks();
+    }
+
+    public int getPriority() {
+        return this.priority;
+    }
+
+    public int getBudget() {
+        return this.budget;
+    }
+
+    public long getLimit() {
+        return this.limit;
+    }
+
+    public long getSteps() {
+        return this.steps;
+    }
+
+    public long getSlices() {
+        return this.slices;
+    }
+
+    public long getCpuNanos() {
+        return this.cpuNanos;
+    }
+
+    boolean takeSleep() {
+        boolean sleeping = this.sleeping;
+        this.sleeping = false;
+        return sleeping;
+    }
+
+    long getWakeTime() {
+        return this.wakeTime;
+    }
+
+    long getVruntime() {
+        return this.vruntime;
+    }
+
+    void setVruntime(long vruntime) {
+        this.vruntime = vruntime;
+    }
+
+}
@@ -0,0 +1,168 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 socraticphoenix@gmail.com
+ * Copyright (c) 2017 contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.gmail.socraticphoenix.shnap.run.executor;
+
+import com.gmail.socraticphoenix.shnap.run.env.ShnapEnvironment;
+import com.gmail.socraticphoenix.shnap.run.env.ShnapRuntime;
+import com.gmail.socraticphoenix.shnap.type.object.ShnapScript;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class ShnapScheduler {
+    public static final int DEFAULT_PRIORITY = 10;
+    public static final int DEFAULT_BUDGET = 10000;
+
+    private PriorityBlockingQueue<ShnapScheduledTask> ready;
+    private Map<Long, ShnapScheduledTask> active;
+    private Map<ShnapRuntime, ReentrantLock> locks;
+    private List<Thread> carriers;
+    private ScheduledExecutorService timer;
+
+    private AtomicLong ids;
+    private AtomicLong clock;
+    private AtomicInteger running;
+    private AtomicInteger sleeping;
+    private volatile boolean shutdown;
+
+    public ShnapScheduler(int carriers) {
+        this.ready = new PriorityBlockingQueue<>(64, Comparator.comparingLong(ShnapScheduledTask::getVruntime).thenComparingLong(ShnapScheduledTask::getId));
+        this.active = new ConcurrentHashMap<>();
+        this.locks = new ConcurrentHashMap<>();
+        this.carriers = new ArrayList<>();
+        this.ids = new AtomicLong();
+        this.clock = new AtomicLong();
+        this.running = new AtomicInteger();
+        this.sleeping = new AtomicInteger();
+        this.timer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "shnap-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        for (int i = 0; i < carriers; i++) {
+            Thread carrier = new Thread(this::carry, "shnap-carrier-" + i);
+            carrier.setDaemon(true);
+            this.carriers.add(carrier);
+            carrier.start();
+        }
+    }
+
+    public ShnapScheduledTask submit(ShnapEnvironment environment, ShnapScript script) {
+        return this.submit(environment, script, DEFAULT_PRIORITY, DEFAULT_BUDGET, 0);
+    }
+
+    public ShnapScheduledTask submit(ShnapEnvironment environment, ShnapScript script, int priority, int budget, long limit) {
+        if (this.shutdown) {
+            throw new IllegalStateException("scheduler is shut down");
+        } else if (priority <= 0 || budget <= 0) {
+            throw new IllegalArgumentException("priority and budget must be positive");
+        }
+
+        ShnapScheduledTask task = new ShnapScheduledTask(this.ids.getAndIncrement(), environment, script, priority, budget, limit);
+        task.setVruntime(this.clock.get());
+        this.active.put(task.getId(), task);
+        this.ready.add(task);
+        return task;
+    }
+
+    private void carry() {
+        while (!this.shutdown) {
+            ShnapScheduledTask task;
+            try {
+                task = this.ready.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+
+            this.clock.accumulateAndGet(task.getVruntime(), Math::max);
+            ReentrantLock lock = this.locks.computeIfAbsent(task.getEnvironment().getRuntime(), k -> new ReentrantLock());
+            lock.lock();
+            this.running.incrementAndGet();
+            try {
+                task.runSlice();
+            } catch (RuntimeException e) {
+                task.fail(e);
+            } finally {
+                this.running.decrementAndGet();
+                lock.unlock();
+            }
+
+            if (task.isDone()) {
+                this.active.remove(task.getId());
+            } else if (task.takeSleep()) {
+                this.sleeping.incrementAndGet();
+                this.timer.schedule(() -> this.wake(task), task.getWakeTime() - System.nanoTime(), TimeUnit.NANOSECONDS);
+            } else {
+                this.ready.add(task);
+            }
+        }
+    }
+
+    private void wake(ShnapScheduledTask task) {
+        this.sleeping.decrementAndGet();
+        task.setVruntime(Math.max(task.getVruntime(), this.clock.get()));
+        this.ready.add(task);
+    }
+
+    public int getQueueDepth() {
+        return this.ready.size();
+    }
+
+    public int getRunning() {
+        return this.running.get();
+    }
+
+    public int getSleeping() {
+        return this.sleeping.get();
+    }
+
+    public List<ShnapScheduledTask> getActiveTasks() {
+        return new ArrayList<>(this.active.values());
+    }
+
+    public int getCarriers() {
+        return this.carriers.size();
+    }
+
+    public boolean isShutdown() {
+        return this.shutdown;
+    }
+
+    public void shutdown() {
+        this.shutdown = true;
+        this.carriers.forEach(Thread::interrupt);
+        this.timer.shutdownNow();
+    }
+
+}
@@ -82,6 +82,9 @@ public class ShnapShell {
         if (log) {
             theLog.accept("Loaded builtins." + System.lineSeparator());
         }
+        if (this.settings.getSnapshot() != null) {
+            this.environment.saveSnapshot(this.settings.getSnapshot());
+        }
         this.environment.loadNormal();
 
         return ShnapExecution.normal(ShnapObject.getVoid(), this.environment, ShnapLoc.BUILTIN);
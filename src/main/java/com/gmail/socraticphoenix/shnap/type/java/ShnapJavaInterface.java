@@ -33,13 +33,13 @@ import com.gmail.socraticphoenix.shnap.type.object.ShnapObject;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
-import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
 public class ShnapJavaInterface {
-    private static Function<Class, ShnapJavaClassProvider> defaultProvider = ShnapReflectiveJavaClassProvider::new;
-    private static Map<Class, ShnapJavaClassProvider> providers = new LinkedHashMap<>();
+    private static volatile Function<Class, ShnapJavaClassProvider> defaultProvider = ShnapReflectiveJavaClassProvider::new;
+    private static Map<Class, ShnapJavaClassProvider> providers = new ConcurrentHashMap<>();
 
     public static Function<Class, ShnapJavaClassProvider> getDefaultProvider() {
         return defaultProvider;
@@ -75,11 +75,7 @@ public class ShnapJavaInterface {
             return ShnapObject.getNull();
         } else {
             Class target = java;
-            ShnapJavaClassProvider provider = providers.get(target);
-            if(provider == null) {
-                provider = defaultProvider.apply(target);
-                providers.put(target, provider);
-            }
+            ShnapJavaClassProvider provider = providerFor(target);
 
             return provider.createClassObject();
         }
@@ -90,16 +86,24 @@ public class ShnapJavaInterface {
             return ShnapObject.getNull();
         } else {
             Class target = java.getClass();
-            ShnapJavaClassProvider provider = providers.get(target);
-            if(provider == null) {
-                provider = defaultProvider.apply(target);
-                providers.put(target, provider);
-            }
+            ShnapJavaClassProvider provider = providerFor(target);
 
             return provider.createObject(java);
         }
     }
 
+    private static ShnapJavaClassProvider providerFor(Class target) {
+        ShnapJavaClassProvider provider = providers.get(target);
+        if(provider == null) {
+            provider = defaultProvider.apply(target);
+            ShnapJavaClassProvider existing = providers.putIfAbsent(target, provider);
+            if(existing != null) {
+                provider = existing;
+            }
+        }
+        return provider;
+    }
+
     public static ShnapLoc createJavaLoc(Class owner, Method method) {
         return ShnapLoc.BUILTIN;
     }
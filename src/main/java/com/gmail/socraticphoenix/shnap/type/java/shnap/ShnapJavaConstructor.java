@@ -53,7 +53,7 @@ import com.gmail.socraticphoenix.shnap.type.object.ShnapObject;
 import com.gmail.socraticphoenix.shnap.program.context.ShnapExecution;
 
 import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 import java.util.Map;
 
 public class ShnapJavaConstructor extends ShnapFunction {
@@ -65,8 +65,8 @@ public class ShnapJavaConstructor extends ShnapFunction {
     }
 
     @Override
-    protected ShnapExecution invokePrivate(List<ShnapObject> values, Map<String, ShnapObject> defValues, ShnapEnvironment tracer) {
-        ShnapExecution e = this.constructor.execute(values, tracer);
+    protected ShnapExecution invokePrivate(ShnapObject[] values, Map<String, ShnapObject> defValues, ShnapEnvironment tracer) {
+        ShnapExecution e = this.constructor.execute(Arrays.asList(values), tracer);
 
         if(e.getState() == ShnapExecution.State.THROWING) {
             return e;
@@ -54,6 +54,7 @@ import com.gmail.socraticphoenix.shnap.program.context.ShnapExecution;
 import com.gmail.socraticphoenix.shnap.type.natives.ShnapJavaBackedNative;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
@@ -88,8 +89,8 @@ public class ShnapJavaMethod extends ShnapFunction {
     }
 
     @Override
-    protected ShnapExecution invokePrivate(List<ShnapObject> values, Map<String, ShnapObject> defValues, ShnapEnvironment tracer) {
-        ShnapExecution e = this.method.execute(owner, values, tracer);
+    protected ShnapExecution invokePrivate(ShnapObject[] values, Map<String, ShnapObject> defValues, ShnapEnvironment tracer) {
+        ShnapExecution e = this.method.execute(owner, Arrays.asList(values), tracer);
 
         if(e.getState() == ShnapExecution.State.THROWING) {
             return e;
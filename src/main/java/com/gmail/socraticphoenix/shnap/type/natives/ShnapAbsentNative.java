@@ -24,6 +24,7 @@ package com.gmail.socraticphoenix.shnap.type.natives;
 import com.gmail.socraticphoenix.collect.Items;
 import com.gmail.socraticphoenix.shnap.parse.ShnapLoc;
 import com.gmail.socraticphoenix.shnap.program.context.ShnapExecution;
+import com.gmail.socraticphoenix.shnap.program.context.ShnapPrototype;
 import com.gmail.socraticphoenix.shnap.type.natives.num.ShnapBooleanNative;
 import com.gmail.socraticphoenix.shnap.type.natives.num.ShnapNumberNative;
 import com.gmail.socraticphoenix.shnap.type.object.ShnapObject;
@@ -32,29 +33,35 @@ import com.gmail.socraticphoenix.shnap.util.ShnapFactory;
 import static com.gmail.socraticphoenix.shnap.util.ShnapFactory.*;
 
 public class ShnapAbsentNative extends ShnapObject implements ShnapJavaBackedNative, ShnapNativeType {
-    private String name;
+    static {
+        ShnapNativeTypeDescriptor descriptor = ShnapNativeTypeRegistry.Descriptor.ABSENT;
 
-    public ShnapAbsentNative(ShnapLoc loc, String name) {
-        super(loc, "absent");
-        this.name = name;
-        this.set(ShnapObject.AS_BOOLEAN, noArg(instSimple(() -> ShnapBooleanNative.of(false))));
-        this.set("equals", ShnapFactory.func(
+        descriptor.define(ShnapObject.AS_BOOLEAN, noArg(instSimple(() -> ShnapBooleanNative.of(false))));
+        descriptor.define("equals", ShnapFactory.func(
                 Items.buildList(param("arg"), param("order", ShnapNumberNative.ONE)),
                 inst((ctx, trc) -> {
+                    ShnapAbsentNative self = (ShnapAbsentNative) ShnapPrototype.receiver(ctx);
                     return ctx.get("arg", trc).mapIfNormal(e -> {
                        ShnapObject obj = e.getValue();
 
                        boolean res;
                        if (obj instanceof ShnapAbsentNative) {
-                           res = ((ShnapAbsentNative) obj).name.equals(this.name);
+                           res = ((ShnapAbsentNative) obj).name.equals(self.name);
                        } else {
                            res = false;
                        }
 
-                       return ShnapExecution.normal(ShnapBooleanNative.of(res), trc, this.getLocation());
+                       return ShnapExecution.normal(ShnapBooleanNative.of(res), trc, self.getLocation());
                     });
                 })
-        ));        this.descriptor().applyTo(this);
+        ));
+    }
+
+    private String name;
+
+    public ShnapAbsentNative(ShnapLoc loc, String name) {
+        super(loc, "absent", ShnapNativeTypeRegistry.Descriptor.ABSENT);
+        this.name = name;
     }
 
     @Override
@@ -26,7 +26,9 @@ import com.gmail.socraticphoenix.shnap.util.ShnapFactory;
 import com.gmail.socraticphoenix.shnap.parse.ShnapLoc;
 import com.gmail.socraticphoenix.shnap.type.object.ShnapObject;
 import com.gmail.socraticphoenix.shnap.program.ShnapOperators;
+import com.gmail.socraticphoenix.shnap.program.context.ShnapContext;
 import com.gmail.socraticphoenix.shnap.program.context.ShnapExecution;
+import com.gmail.socraticphoenix.shnap.program.context.ShnapPrototype;
 import com.gmail.socraticphoenix.shnap.type.natives.num.ShnapBooleanNative;
 import com.gmail.socraticphoenix.shnap.type.natives.num.ShnapNumberNative;
 
@@ -37,7 +39,6 @@ import static com.gmail.socraticphoenix.shnap.util.ShnapFactory.func;
 import static com.gmail.socraticphoenix.shnap.util.ShnapFactory.funcExactly;
 import static com.gmail.socraticphoenix.shnap.util.ShnapFactory.ifTrue;
 import static com.gmail.socraticphoenix.shnap.util.ShnapFactory.inst;
-import static com.gmail.socraticphoenix.shnap.util.ShnapFactory.instSimple;
 import static com.gmail.socraticphoenix.shnap.util.ShnapFactory.literal;
 import static com.gmail.socraticphoenix.shnap.util.ShnapFactory.noArg;
 import static com.gmail.socraticphoenix.shnap.util.ShnapFactory.oneArg;
@@ -46,35 +47,14 @@ import static com.gmail.socraticphoenix.shnap.util.ShnapFactory.returning;
 import static com.gmail.socraticphoenix.shnap.util.ShnapFactory.sequence;
 
 public class ShnapArrayNative extends ShnapObject implements ShnapNativeType {
-    private ShnapObject[] value;
+    static {
+        ShnapNativeTypeDescriptor descriptor = ShnapNativeTypeRegistry.Descriptor.ARRAY;
 
-    public ShnapArrayNative(ShnapLoc loc, ShnapObject... value) {
-        super(loc, "array");
-        this.value = value;
-        this.applyFunctions();
-    }
-
-    public ShnapArrayNative(ShnapLoc loc, int size) {
-        super(loc, "array");
-        this.value = new ShnapObject[size];
-        Arrays.fill(this.value, ShnapObject.getNull());
-        this.applyFunctions();
-    }
-
-    @Override
-    public String defaultToString() {
-        return "arr[" + this.value.length + "]::" + this.identityStr();
-    }
-
-    public ShnapObject[] getValue() {
-        return this.value;
-    }
-
-    private void applyFunctions() {
-        this.set(ShnapObject.AS_BOOLEAN, noArg(instSimple(() -> ShnapBooleanNative.of(this.value.length != 0))));
+        descriptor.define(ShnapObject.AS_BOOLEAN, noArg(inst((ctx, trc) -> ShnapExecution.normal(ShnapBooleanNative.of(receiver(ctx).value.length != 0), trc, ShnapLoc.BUILTIN))));
 
         //Other functions
-        this.set("remove", oneArg(inst((ctx, trc) -> {
+        descriptor.define("remove", oneArg(inst((ctx, trc) -> {
+            ShnapArrayNative self = receiver(ctx);
             int order = -1;
             ShnapExecution num = ctx.get("arg", trc).mapIfNormal(e -> e.getValue().asNum(trc));
             if (num.isAbnormal()) {
@@ -83,19 +63,20 @@ public class ShnapArrayNative extends ShnapObject implements ShnapNativeType {
                 order = ((ShnapNumberNative) num.getValue()).getNumber().intValue();
             }
 
-            if (order < 0 || order >= this.value.length) {
-                return ShnapExecution.throwing(ShnapFactory.makeExceptionObj("shnap.IndexError", "Index out of bounds: " + order, null), trc, this.getLocation());
+            if (order < 0 || order >= self.value.length) {
+                return ShnapExecution.throwing(ShnapFactory.makeExceptionObj("shnap.IndexError", "Index out of bounds: " + order, null), trc, self.getLocation());
             } else {
-                ShnapExecution toGive = ShnapExecution.normal(this.value[order], trc, this.getLocation());
-                ShnapObject[] value = this.value;
-                this.value = new ShnapObject[value.length - 1];
-                System.arraycopy(value, 0, this.value, 0, order);
-                System.arraycopy(value, order + 1, this.value, order, value.length - order - 1);
+                ShnapExecution toGive = ShnapExecution.normal(self.value[order], trc, self.getLocation());
+                ShnapObject[] value = self.value;
+                self.value = new ShnapObject[value.length - 1];
+                System.arraycopy(value, 0, self.value, 0, order);
+                System.arraycopy(value, order + 1, self.value, order, value.length - order - 1);
                 return toGive;
             }
         })));
 
-        this.set("insert", func(Items.buildList(param("index"), param("val")), inst((ctx, trc) -> {
+        descriptor.define("insert", func(Items.buildList(param("index"), param("val")), inst((ctx, trc) -> {
+            ShnapArrayNative self = receiver(ctx);
             int order = -1;
             ShnapExecution num = ctx.get("index", trc).mapIfNormal(e -> e.getValue().asNum(trc));
             if (num.isAbnormal()) {
@@ -104,25 +85,26 @@ public class ShnapArrayNative extends ShnapObject implements ShnapNativeType {
                 order = ((ShnapNumberNative) num.getValue()).getNumber().intValue();
             }
 
-            if (order < 0 || order > this.value.length) {
-                return ShnapExecution.throwing(ShnapFactory.makeExceptionObj("shnap.IndexError", "Index out of bounds: " + order, null), trc, this.getLocation());
+            if (order < 0 || order > self.value.length) {
+                return ShnapExecution.throwing(ShnapFactory.makeExceptionObj("shnap.IndexError", "Index out of bounds: " + order, null), trc, self.getLocation());
             } else {
                 int finalOrder = order;
                 return ctx.get("val", trc).mapIfNormal(e -> {
                     ShnapObject insert = e.getValue();
-                    ShnapExecution toGive = ShnapExecution.normal(finalOrder == this.value.length ? ShnapObject.getVoid() : this.value[finalOrder], trc, this.getLocation());
-                    ShnapObject[] value = this.value;
-                    this.value = new ShnapObject[value.length + 1];
-                    System.arraycopy(value, 0, this.value, 0, finalOrder);
-                    System.arraycopy(value, finalOrder, this.value, finalOrder + 1, value.length - finalOrder);
-                    this.value[finalOrder] = insert;
+                    ShnapExecution toGive = ShnapExecution.normal(finalOrder == self.value.length ? ShnapObject.getVoid() : self.value[finalOrder], trc, self.getLocation());
+                    ShnapObject[] value = self.value;
+                    self.value = new ShnapObject[value.length + 1];
+                    System.arraycopy(value, 0, self.value, 0, finalOrder);
+                    System.arraycopy(value, finalOrder, self.value, finalOrder + 1, value.length - finalOrder);
+                    self.value[finalOrder] = insert;
 
                     return toGive;
                 });
             }
         })));
 
-        this.set("get", oneArg(inst((ctx, trc) -> {
+        descriptor.define("get", oneArg(inst((ctx, trc) -> {
+            ShnapArrayNative self = receiver(ctx);
             int order = -1;
             ShnapExecution num = ctx.get("arg", trc).mapIfNormal(e -> e.getValue().asNum(trc));
             if (num.isAbnormal()) {
@@ -131,14 +113,15 @@ public class ShnapArrayNative extends ShnapObject implements ShnapNativeType {
                 order = ((ShnapNumberNative) num.getValue()).getNumber().intValue();
             }
 
-            if (order < 0 || order >= this.value.length) {
-                return ShnapExecution.throwing(ShnapFactory.makeExceptionObj("shnap.IndexError", "Index out of bounds: " + order, null), trc, this.getLocation());
+            if (order < 0 || order >= self.value.length) {
+                return ShnapExecution.throwing(ShnapFactory.makeExceptionObj("shnap.IndexError", "Index out of bounds: " + order, null), trc, self.getLocation());
             } else {
-                return ShnapExecution.normal(this.value[order], trc, this.getLocation());
+                return ShnapExecution.normal(self.value[order], trc, self.getLocation());
             }
         })));
 
-        this.set("set", func(Items.buildList(param("val"), param("index")), inst((ctx, trc) -> {
+        descriptor.define("set", func(Items.buildList(param("val"), param("index")), inst((ctx, trc) -> {
+            ShnapArrayNative self = receiver(ctx);
             int order = -1;
             ShnapExecution num = ctx.get("index", trc).mapIfNormal(e -> e.getValue().asNum(trc));
             if (num.isAbnormal()) {
@@ -147,29 +130,31 @@ public class ShnapArrayNative extends ShnapObject implements ShnapNativeType {
                 order = ((ShnapNumberNative) num.getValue()).getNumber().intValue();
             }
 
-            if (order < 0 || order >= this.value.length) {
-                return ShnapExecution.throwing(ShnapFactory.makeExceptionObj("shnap.IndexError", "Index out of bounds: " + order, null), trc, this.getLocation());
+            if (order < 0 || order >= self.value.length) {
+                return ShnapExecution.throwing(ShnapFactory.makeExceptionObj("shnap.IndexError", "Index out of bounds: " + order, null), trc, self.getLocation());
             } else {
-                ShnapExecution toGive = ShnapExecution.normal(this.value[order], trc, this.getLocation());
+                ShnapExecution toGive = ShnapExecution.normal(self.value[order], trc, self.getLocation());
                 int finalOrder = order;
                 return ctx.get("val", trc).mapIfNormal(e -> {
-                    this.value[finalOrder] = e.getValue();
+                    self.value[finalOrder] = e.getValue();
                     return toGive;
                 });
             }
         })));
 
-        this.set("append", oneArg(inst((ctx, trc) -> {
-            ShnapObject[] value = this.value;
-            this.value = new ShnapObject[value.length + 1];
-            System.arraycopy(value, 0, this.value, 0, value.length);
+        descriptor.define("append", oneArg(inst((ctx, trc) -> {
+            ShnapArrayNative self = receiver(ctx);
+            ShnapObject[] value = self.value;
+            self.value = new ShnapObject[value.length + 1];
+            System.arraycopy(value, 0, self.value, 0, value.length);
             return ctx.get("arg", trc).mapIfNormal(e -> {
-                this.value[this.value.length - 1] = e.getValue();
-                return ShnapExecution.normal(this, trc, this.getLocation());
+                self.value[self.value.length - 1] = e.getValue();
+                return ShnapExecution.normal(self, trc, self.getLocation());
             });
         })));
 
-        this.set("resize", oneArg(inst((ctx, trc) -> {
+        descriptor.define("resize", oneArg(inst((ctx, trc) -> {
+            ShnapArrayNative self = receiver(ctx);
             int order = -1;
             ShnapExecution num = ctx.get("arg", trc).mapIfNormal(e -> e.getValue().asNum(trc));
             if (num.isAbnormal()) {
@@ -179,33 +164,35 @@ public class ShnapArrayNative extends ShnapObject implements ShnapNativeType {
             }
 
             if (order < 0) {
-                return ShnapExecution.throwing(ShnapFactory.makeExceptionObj("shnap.IndexError", "Index out of bounds: " + order, null), trc, this.getLocation());
+                return ShnapExecution.throwing(ShnapFactory.makeExceptionObj("shnap.IndexError", "Index out of bounds: " + order, null), trc, self.getLocation());
             }
 
             ShnapObject[] newArray = new ShnapObject[order];
-            if (order > this.value.length) {
-                System.arraycopy(this.value, 0, newArray, 0, this.value.length);
-                for (int i = this.value.length; i < newArray.length; i++) {
+            if (order > self.value.length) {
+                System.arraycopy(self.value, 0, newArray, 0, self.value.length);
+                for (int i = self.value.length; i < newArray.length; i++) {
                     newArray[i] = ShnapObject.getNull();
                 }
             } else if (order > 0) {
-                System.arraycopy(this.value, 0, newArray, 0, newArray.length);
+                System.arraycopy(self.value, 0, newArray, 0, newArray.length);
             }
 
-            this.value = newArray;
+            self.value = newArray;
 
-            return ShnapExecution.normal(this, trc, this.getLocation());
+            return ShnapExecution.normal(self, trc, self.getLocation());
         })));
 
-        this.set("copy", noArg(instSimple(() -> {
-            ShnapObject[] dst = new ShnapObject[this.value.length];
-            System.arraycopy(this.value, 0, dst, 0, this.value.length);
-            return new ShnapArrayNative(this.getLocation(), dst);
+        descriptor.define("copy", noArg(inst((ctx, trc) -> {
+            ShnapArrayNative self = receiver(ctx);
+            ShnapObject[] dst = new ShnapObject[self.value.length];
+            System.arraycopy(self.value, 0, dst, 0, self.value.length);
+            return ShnapExecution.normal(new ShnapArrayNative(self.getLocation(), dst), trc, ShnapLoc.BUILTIN);
         })));
 
-        this.set("copy", func(
+        descriptor.define("copy", func(
                 Items.buildList(param("start", ShnapObject.getVoid()), param("end", ShnapObject.getVoid())),
                 inst((ctx, trc) -> {
+                    ShnapArrayNative self = receiver(ctx);
                     return ctx.get("start", trc).mapIfNormal(startE -> ctx.get("end", trc).mapIfNormal(endE -> {
                         int start = 0;
                         int end = 0;
@@ -221,7 +208,7 @@ public class ShnapArrayNative extends ShnapObject implements ShnapNativeType {
                         }
 
                         if (endE.getValue() == ShnapObject.getVoid()) {
-                            end = this.value.length;
+                            end = self.value.length;
                         } else {
                             ShnapExecution en = endE.getValue().asNum(trc);
                             if (en.isAbnormal()) {
@@ -231,18 +218,18 @@ public class ShnapArrayNative extends ShnapObject implements ShnapNativeType {
                             }
                         }
 
-                        if (start < 0 || start > this.value.length) {
-                            return ShnapExecution.throwing(ShnapFactory.makeExceptionObj("shnap.IndexError", "Index out of bounds: " + start, null), trc, this.getLocation());
-                        } else if (end < 0 || end > this.value.length) {
-                            return ShnapExecution.throwing(ShnapFactory.makeExceptionObj("shnap.IndexError", "Index out of bounds: " + end, null), trc, this.getLocation());
+                        if (start < 0 || start > self.value.length) {
+                            return ShnapExecution.throwing(ShnapFactory.makeExceptionObj("shnap.IndexError", "Index out of bounds: " + start, null), trc, self.getLocation());
+                        } else if (end < 0 || end > self.value.length) {
+                            return ShnapExecution.throwing(ShnapFactory.makeExceptionObj("shnap.IndexError", "Index out of bounds: " + end, null), trc, self.getLocation());
                         } else if (end < start) {
-                            return ShnapExecution.throwing(ShnapFactory.makeExceptionObj("shnap.RangeError", start + ".." + end, null), trc, this.getLocation());
+                            return ShnapExecution.throwing(ShnapFactory.makeExceptionObj("shnap.RangeError", start + ".." + end, null), trc, self.getLocation());
                         }
 
                         ShnapObject[] res = new ShnapObject[end - start];
                         int n = 0;
                         for (int i = start; i < end; i++) {
-                            res[n++] = this.value[i];
+                            res[n++] = self.value[i];
                         }
 
                         return ShnapExecution.normal(new ShnapArrayNative(ShnapLoc.BUILTIN, res), trc, ShnapLoc.BUILTIN);
@@ -250,7 +237,7 @@ public class ShnapArrayNative extends ShnapObject implements ShnapNativeType {
                 })
         ));
 
-        this.set("contains", funcExactly(Items.buildList(), sequence(
+        descriptor.define("contains", funcExactly(Items.buildList(), sequence(
                 forBlock("it", ShnapFactory.get("this"), ifTrue(
                         ShnapFactory.operate(ShnapFactory.get("it"), ShnapOperators.EQUAL, ShnapFactory.get("arg")),
                         returning(literal(true))
@@ -258,10 +245,11 @@ public class ShnapArrayNative extends ShnapObject implements ShnapNativeType {
                 returning(literal(false))
         )));
 
-        this.set("len", noArg(instSimple(() -> ShnapNumberNative.valueOf(this.value.length))));
+        descriptor.define("len", noArg(inst((ctx, trc) -> ShnapExecution.normal(ShnapNumberNative.valueOf(receiver(ctx).value.length), trc, ShnapLoc.BUILTIN))));
 
-        this.set("iterator", noArg(inst((ctx, trc) -> {
-            ShnapObject iterator = new ShnapObject(this.getLocation(), "iterator");
+        descriptor.define("iterator", noArg(inst((ctx, trc) -> {
+            ShnapArrayNative self = receiver(ctx);
+            ShnapObject iterator = new ShnapObject(self.getLocation(), "iterator");
             iterator.init(ctx);
             iterator.set("index", ShnapNumberNative.valueOf(0));
             iterator.set("hasNext", noArg(inst((con, tra) -> {
@@ -271,7 +259,7 @@ public class ShnapArrayNative extends ShnapObject implements ShnapNativeType {
                 }
 
                 int index = ((ShnapNumberNative) num.getValue()).getNumber().intValue();
-                return ShnapExecution.normal(ShnapBooleanNative.of(index < this.value.length), tra, this.getLocation());
+                return ShnapExecution.normal(ShnapBooleanNative.of(index < self.value.length), tra, self.getLocation());
             })));
             iterator.set("next", noArg(inst((con, tra) -> {
                 ShnapExecution num = iterator.get("index", trc).mapIfNormal(e -> e.getValue().asNum(trc));
@@ -280,16 +268,41 @@ public class ShnapArrayNative extends ShnapObject implements ShnapNativeType {
                 }
 
                 int index = ((ShnapNumberNative) num.getValue()).getNumber().intValue();
-                if (index < 0 || index >= this.value.length) {
-                    return ShnapExecution.normal(ShnapObject.getVoid(), tra, this.getLocation());
+                if (index < 0 || index >= self.value.length) {
+                    return ShnapExecution.normal(ShnapObject.getVoid(), tra, self.getLocation());
                 }
                 iterator.set("index", ShnapNumberNative.valueOf(index + 1));
-                return ShnapExecution.normal(this.value[index], tra, this.getLocation());
+                return ShnapExecution.normal(self.value[index], tra, self.getLocation());
             })));
-            return ShnapExecution.normal(iterator, trc, this.getLocation());
+            return ShnapExecution.normal(iterator, trc, self.getLocation());
         })));
 
-        this.descriptor().applyTo(this);
+    }
+
+    private ShnapObject[] value;
+
+    public ShnapArrayNative(ShnapLoc loc, ShnapObject... value) {
+        super(loc, "array", ShnapNativeTypeRegistry.Descriptor.ARRAY);
+        this.value = value;
+    }
+
+    public ShnapArrayNative(ShnapLoc loc, int size) {
+        super(loc, "array", ShnapNativeTypeRegistry.Descriptor.ARRAY);
+        this.value = new ShnapObject[size];
+        Arrays.fill(this.value, ShnapObject.getNull());
+    }
+
+    @Override
+    public String defaultToString() {
+        return "arr[" + this.value.length + "]::" + this.identityStr();
+    }
+
+    public ShnapObject[] getValue() {
+        return this.value;
+    }
+
+    private static ShnapArrayNative receiver(ShnapContext context) {
+        return (ShnapArrayNative) ShnapPrototype.receiver(context);
     }
 
     @Override
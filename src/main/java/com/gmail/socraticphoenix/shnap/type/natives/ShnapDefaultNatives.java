@@ -169,7 +169,7 @@ public class ShnapDefaultNatives {
             } else {
                 order = ((ShnapNumberNative) num.getValue()).getNumber().longValue();
             }
-            if (order != -2) {
+            if (order != -2 && !trc.suspend(order)) {
                 try {
                     Thread.sleep(order);
                 } catch (InterruptedException e) {
@@ -179,6 +179,7 @@ public class ShnapDefaultNatives {
             return ShnapExecution.normal(ShnapObject.getVoid(), trc, ShnapLoc.BUILTIN);
         })));
         ShnapNativeFuncRegistry.register("sys.args", noArg(inst((ctx, trc) -> ShnapExecution.normal(trc.getArguments(), trc, ShnapLoc.BUILTIN))));
+        ShnapNativeFuncRegistry.register("sys.nanoTime", noArg(inst((ctx, trc) -> ShnapExecution.normal(new ShnapLongNative(ShnapLoc.BUILTIN, System.nanoTime()), trc, ShnapLoc.BUILTIN))));
 
 
         ShnapNativeFuncRegistry.register("sys.import", func(
@@ -390,7 +391,7 @@ public class ShnapDefaultNatives {
                 for (String s : names) {
                     ShnapObject field = new ShnapObject(ShnapLoc.BUILTIN, "field");
                     field.set("name", new ShnapStringNative(ShnapLoc.BUILTIN, s));
-                    field.set("resolvedValue", obj.get(s, trc).resolve(trc).mapIfAbnormal(ex -> ex.setState(ShnapExecution.State.NORMAL).setValue(ShnapObject.getVoid())).getValue());
+                    field.set("resolvedValue", obj.get(s, trc).resolve(trc).mapIfAbnormal(ex -> ShnapExecution.normal(ShnapObject.getVoid(), trc, ShnapLoc.BUILTIN)).getValue());
                     field.set("exactValue", obj.getContext().getExactly(s));
                     for (ShnapContext.Flag flag : ShnapContext.Flag.values()) {
                         String name = flag.getRep();
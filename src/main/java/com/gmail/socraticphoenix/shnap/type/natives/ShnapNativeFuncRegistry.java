@@ -26,18 +26,16 @@ import com.gmail.socraticphoenix.shnap.type.object.ShnapFunction;
 import com.gmail.socraticphoenix.shnap.type.object.ShnapObject;
 
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class ShnapNativeFuncRegistry {
-    private static Map<String, ShnapFunction> funcs = new HashMap<>();
+    private static Map<String, ShnapFunction> funcs = new ConcurrentHashMap<>();
 
     public static void register(String name, ShnapFunction function) {
-        if(funcs.containsKey(name)) {
+        if(funcs.putIfAbsent(name, function) != null) {
             throw new IllegalArgumentException("Duplicate native function key: " + name);
         }
-
-        funcs.put(name, function);
     }
 
     public static ShnapFunction get(String name) {
@@ -0,0 +1,161 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 socraticphoenix@gmail.com
+ * Copyright (c) 2017 contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.gmail.socraticphoenix.shnap.type.natives;
+
+import com.gmail.socraticphoenix.shnap.program.ShnapOperators;
+import com.gmail.socraticphoenix.shnap.program.context.ShnapContext;
+import com.gmail.socraticphoenix.shnap.program.context.ShnapExecution;
+import com.gmail.socraticphoenix.shnap.run.env.ShnapEnvironment;
+import com.gmail.socraticphoenix.shnap.type.natives.num.ShnapBooleanNative;
+import com.gmail.socraticphoenix.shnap.type.natives.num.ShnapCharNative;
+import com.gmail.socraticphoenix.shnap.type.natives.num.ShnapNumberNative;
+import com.gmail.socraticphoenix.shnap.type.object.ShnapObject;
+
+public class ShnapNativeOperators {
+
+    public static ShnapExecution operate(ShnapObject left, ShnapOperators operator, ShnapObject right, ShnapEnvironment tracer) {
+        ShnapObject result = tryOperate(left, operator, right);
+        if (result != null) {
+            return ShnapExecution.normal(result, tracer, left.getLocation());
+        }
+        return left.operate(right, operator, tracer);
+    }
+
+    public static ShnapExecution operate(ShnapObject operand, ShnapOperators operator, ShnapEnvironment tracer) {
+        ShnapObject result = tryOperate(operand, operator);
+        if (result != null) {
+            return ShnapExecution.normal(result, tracer, operand.getLocation());
+        }
+        return operand.operate(operator, tracer);
+    }
+
+    public static ShnapObject tryOperate(ShnapObject operand, ShnapOperators operator) {
+        if (operator == ShnapOperators.NOT && operand instanceof ShnapBooleanNative && isBuiltin(operand, operator.getFunc())) {
+            return ShnapBooleanNative.of(!((ShnapBooleanNative) operand).getValue());
+        } else if (operand instanceof ShnapNumberNative && isBuiltin(operand, operator.getFunc())) {
+            ShnapNumberNative num = (ShnapNumberNative) operand;
+            try {
+                switch (operator) {
+                    case NEGATIVE:
+                        return ShnapNumberNative.negate(num);
+                    case BITWISE_NOT:
+                        return num.copyWith(ShnapNumberNative.bitwiseNot(num.getNumber()));
+                }
+            } catch (RuntimeException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    public static ShnapObject tryOperate(ShnapObject left, ShnapOperators operator, ShnapObject right) {
+        if (left instanceof ShnapBooleanNative && right instanceof ShnapBooleanNative && (operator == ShnapOperators.LOGICAL_AND || operator == ShnapOperators.LOGICAL_OR) && isBuiltin(left, operator.getFunc())) {
+            if (operator == ShnapOperators.LOGICAL_AND) {
+                return ShnapBooleanNative.of(((ShnapBooleanNative) left).getValue() && ((ShnapBooleanNative) right).getValue());
+            } else if (operator == ShnapOperators.LOGICAL_OR) {
+                return ShnapBooleanNative.of(((ShnapBooleanNative) left).getValue() || ((ShnapBooleanNative) right).getValue());
+            }
+        }
+
+        if (left instanceof ShnapNumberNative && right instanceof ShnapNumberNative) {
+            try {
+                return numeric((ShnapNumberNative) left, operator, (ShnapNumberNative) right);
+            } catch (RuntimeException e) {
+                return null;
+            }
+        } else if (operator == ShnapOperators.ADD) {
+            return concat(left, right);
+        }
+        return null;
+    }
+
+    private static ShnapObject numeric(ShnapNumberNative left, ShnapOperators operator, ShnapNumberNative right) {
+        String func = operator.getFunc();
+        switch (operator) {
+            case RAISE:
+            case MULTIPLY:
+            case DIVIDE:
+            case REMAINDER:
+            case ADD:
+            case SUBTRACT:
+            case LEFT_SHIFT:
+            case RIGHT_SHIFT:
+            case BITWISE_AND:
+            case BITIWSE_XOR:
+            case BITWISE_OR:
+            case COMPARE_TO:
+                return isBuiltin(left, func) ? ShnapNumberNative.arithmetic(left, operator, right) : null;
+            case LESS_THAN:
+            case GREATER_THAN:
+                return isBuiltin(left, func) ? ShnapBooleanNative.of(compare(left, operator, right)) : null;
+            case LESS_THAN_EQUAL_TO:
+                return isBuiltin(left, func) && isBuiltin(left, "equals") ? ShnapBooleanNative.of(compare(left, ShnapOperators.LESS_THAN, right) || equal(left, right)) : null;
+            case GREATER_THAN_EQUAL_TO:
+                return isBuiltin(left, func) && isBuiltin(left, "equals") ? ShnapBooleanNative.of(compare(left, ShnapOperators.GREATER_THAN, right) || equal(left, right)) : null;
+            case EQUAL:
+                return isBuiltin(left, func) ? ShnapBooleanNative.of(equal(left, right)) : null;
+            case NOT_EQUAL:
+                return isBuiltin(left, func) ? ShnapBooleanNative.of(!equal(left, right)) : null;
+        }
+        return null;
+    }
+
+    private static boolean compare(ShnapNumberNative left, ShnapOperators operator, ShnapNumberNative right) {
+        int sign = ShnapNumberNative.signum((ShnapNumberNative) ShnapNumberNative.arithmetic(left, ShnapOperators.COMPARE_TO, right));
+        return operator == ShnapOperators.LESS_THAN ? sign < 0 : sign > 0;
+    }
+
+    private static boolean equal(ShnapNumberNative left, ShnapNumberNative right) {
+        return ShnapNumberNative.equals(left, right);
+    }
+
+    private static ShnapObject concat(ShnapObject left, ShnapObject right) {
+        if (left instanceof ShnapStringNative && isBuiltin(left, "add")) {
+            String comp = stringOf(right);
+            return comp == null ? null : new ShnapStringNative(left.getLocation(), ((ShnapStringNative) left).getValue() + comp);
+        } else if (right instanceof ShnapStringNative && left instanceof ShnapNumberNative && isBuiltin(left, "add") && isBuiltin(right, "add")) {
+            String comp = stringOf(left);
+            return comp == null ? null : new ShnapStringNative(right.getLocation(), comp + ((ShnapStringNative) right).getValue());
+        }
+        return null;
+    }
+
+    private static String stringOf(ShnapObject obj) {
+        if (obj instanceof ShnapStringNative) {
+            return ((ShnapStringNative) obj).getValue();
+        } else if (obj instanceof ShnapNumberNative && isBuiltin(obj, ShnapObject.AS_STRING)) {
+            if (obj instanceof ShnapBooleanNative) {
+                return String.valueOf(((ShnapBooleanNative) obj).getValue());
+            } else if (obj instanceof ShnapCharNative) {
+                return new String(new int[]{((ShnapCharNative) obj).getNumber()}, 0, 1);
+            }
+            return String.valueOf(((ShnapNumberNative) obj).getNumber());
+        }
+        return null;
+    }
+
+    private static boolean isBuiltin(Object obj, String name) {
+        ShnapContext context = ((ShnapObject) obj).getContext();
+        return context.getPrototype() instanceof ShnapNativeTypeDescriptor && ((ShnapNativeTypeDescriptor) context.getPrototype()).isBuiltin(name) && context.inheritsFromPrototype(name);
+    }
+
+}
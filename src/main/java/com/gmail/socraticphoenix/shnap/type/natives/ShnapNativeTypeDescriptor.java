@@ -22,18 +22,26 @@
 
 package com.gmail.socraticphoenix.shnap.type.natives;
 
+import com.gmail.socraticphoenix.shnap.program.context.ShnapContext;
+import com.gmail.socraticphoenix.shnap.program.context.ShnapPrototype;
 import com.gmail.socraticphoenix.shnap.type.object.ShnapObject;
 
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Set;
 
-public class ShnapNativeTypeDescriptor {
+public class ShnapNativeTypeDescriptor implements ShnapPrototype {
     private Class type;
     private Map<String, ShnapObject> registry;
+    private Map<String, ShnapObject> methods;
 
     public ShnapNativeTypeDescriptor(Class type) {
         this.type = type;
         this.registry = new HashMap<>();
+        this.methods = new LinkedHashMap<>();
     }
 
     public Class getType() {
@@ -44,9 +52,39 @@ public class ShnapNativeTypeDescriptor {
         return this.registry;
     }
 
-    public void applyTo(ShnapObject object) {
-        Map<String, ShnapObject> variables = object.getContext().getVariables();
-        this.registry.forEach((k, v) -> variables.put(k, v.copyWith(object.getContext())));
+    public ShnapNativeTypeDescriptor define(String name, ShnapObject method) {
+        this.methods.put(name, method);
+        return this;
+    }
+
+    public boolean isBuiltin(String name) {
+        return !this.registry.containsKey(name) && this.methods.containsKey(name);
+    }
+
+    @Override
+    public boolean has(String name) {
+        return this.registry.containsKey(name) || this.methods.containsKey(name);
+    }
+
+    @Override
+    public ShnapObject bind(String name, ShnapContext receiver) {
+        ShnapObject method = this.registry.get(name);
+        if (method == null) {
+            method = this.methods.get(name);
+        }
+        return method == null ? null : method.copyWith(receiver);
+    }
+
+    @Override
+    public Collection<String> names() {
+        Set<String> names = new LinkedHashSet<>(this.methods.keySet());
+        names.addAll(this.registry.keySet());
+        return names;
+    }
+
+    @Override
+    public int flags(String name) {
+        return "this".equals(name) ? ShnapContext.Flag.DONT_IMPORT.mask() : 0;
     }
 
 }
@@ -30,11 +30,11 @@ import com.gmail.socraticphoenix.shnap.type.natives.num.ShnapDoubleNative;
 import com.gmail.socraticphoenix.shnap.type.natives.num.ShnapIntNative;
 import com.gmail.socraticphoenix.shnap.type.natives.num.ShnapLongNative;
 
-import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class ShnapNativeTypeRegistry {
 
@@ -52,7 +52,7 @@ public class ShnapNativeTypeRegistry {
         ShnapNativeTypeDescriptor STRING = new ShnapNativeTypeDescriptor(ShnapStringNative.class);
     }
 
-    private static Map<String, List<ShnapNativeTypeDescriptor>> types = new HashMap<>();
+    private static Map<String, List<ShnapNativeTypeDescriptor>> types = new ConcurrentHashMap<>();
 
     static {
         register("all", Descriptor.BIG_DECIMAL, Descriptor.BIG_INTEGER, Descriptor.BOOLEAN, Descriptor.CHAR, Descriptor.DOUBLE, Descriptor.INT, Descriptor.LONG, Descriptor.ABSENT, Descriptor.ARRAY, Descriptor.STRING);
@@ -76,7 +76,7 @@ public class ShnapNativeTypeRegistry {
     }
 
     public static void register(String name, ShnapNativeTypeDescriptor... objects) {
-        Collections.addAll(types.computeIfAbsent(name, k -> new ArrayList<>()), objects);
+        Collections.addAll(types.computeIfAbsent(name, k -> new CopyOnWriteArrayList<>()), objects);
     }
 
 }
@@ -24,7 +24,9 @@ package com.gmail.socraticphoenix.shnap.type.natives;
 import com.gmail.socraticphoenix.collect.Items;
 import com.gmail.socraticphoenix.parse.Strings;
 import com.gmail.socraticphoenix.shnap.parse.ShnapLoc;
+import com.gmail.socraticphoenix.shnap.program.context.ShnapContext;
 import com.gmail.socraticphoenix.shnap.program.context.ShnapExecution;
+import com.gmail.socraticphoenix.shnap.program.context.ShnapPrototype;
 import com.gmail.socraticphoenix.shnap.run.env.ShnapEnvironment;
 import com.gmail.socraticphoenix.shnap.type.natives.num.ShnapBigDecimalNative;
 import com.gmail.socraticphoenix.shnap.type.natives.num.ShnapBigIntegerNative;
@@ -39,54 +41,52 @@ import java.math.BigInteger;
 
 import static com.gmail.socraticphoenix.shnap.util.ShnapFactory.func;
 import static com.gmail.socraticphoenix.shnap.util.ShnapFactory.inst;
-import static com.gmail.socraticphoenix.shnap.util.ShnapFactory.instSimple;
 import static com.gmail.socraticphoenix.shnap.util.ShnapFactory.mimicJavaException;
 import static com.gmail.socraticphoenix.shnap.util.ShnapFactory.noArg;
 import static com.gmail.socraticphoenix.shnap.util.ShnapFactory.oneArg;
 import static com.gmail.socraticphoenix.shnap.util.ShnapFactory.param;
 
 public class ShnapStringNative extends ShnapObject implements ShnapJavaBackedNative, ShnapNativeType {
-    private String value;
-    private int[] pts;
+    static {
+        ShnapNativeTypeDescriptor descriptor = ShnapNativeTypeRegistry.Descriptor.STRING;
 
-    public ShnapStringNative(ShnapLoc loc, String value) {
-        super(loc, "str");
-        this.pts = value.codePoints().toArray();
-        this.value = value.intern();
         //Conversion functions
-        this.set(ShnapObject.AS_BOOLEAN, noArg(instSimple(() -> ShnapBooleanNative.of(this.value.equalsIgnoreCase("true")))));
-        this.set(ShnapObject.AS_ARRAY, noArg(instSimple(() -> {
-            ShnapObject[] arr = new ShnapObject[this.pts.length];
-            for (int i = 0; i < this.pts.length; i++) {
-                arr[i] = new ShnapCharNative(this.getLocation(), this.pts[i]);
+        descriptor.define(ShnapObject.AS_BOOLEAN, noArg(inst((ctx, trc) -> ShnapExecution.normal(ShnapBooleanNative.of(receiver(ctx).value.equalsIgnoreCase("true")), trc, ShnapLoc.BUILTIN))));
+        descriptor.define(ShnapObject.AS_ARRAY, noArg(inst((ctx, trc) -> {
+            ShnapStringNative self = receiver(ctx);
+            ShnapObject[] arr = new ShnapObject[self.pts.length];
+            for (int i = 0; i < self.pts.length; i++) {
+                arr[i] = new ShnapCharNative(self.getLocation(), self.pts[i]);
             }
-            return new ShnapArrayNative(this.getLocation(), arr);
+            return ShnapExecution.normal(new ShnapArrayNative(self.getLocation(), arr), trc, ShnapLoc.BUILTIN);
         })));
-        this.set(ShnapObject.AS_NUMBER, noArg(inst((ctx, trc) -> {
-            String toTest = this.value;
+        descriptor.define(ShnapObject.AS_NUMBER, noArg(inst((ctx, trc) -> {
+            ShnapStringNative self = receiver(ctx);
+            String toTest = self.value;
             NumberFormatException ex = null;
             try {
                 if (toTest.endsWith("i")) {
-                    return ShnapExecution.normal(new ShnapBigIntegerNative(this.getLocation(), new BigInteger(Strings.cutLast(toTest))), trc, this.getLocation());
+                    return ShnapExecution.normal(new ShnapBigIntegerNative(self.getLocation(), new BigInteger(Strings.cutLast(toTest))), trc, self.getLocation());
                 } else if (toTest.endsWith("d")) {
-                    return ShnapExecution.normal(new ShnapBigDecimalNative(this.getLocation(), new BigDecimal(Strings.cutLast(toTest))), trc, this.getLocation());
+                    return ShnapExecution.normal(new ShnapBigDecimalNative(self.getLocation(), new BigDecimal(Strings.cutLast(toTest))), trc, self.getLocation());
                 } else {
                     try {
-                        return ShnapExecution.normal(new ShnapBigIntegerNative(this.getLocation(), new BigInteger(toTest)), trc, this.getLocation());
+                        return ShnapExecution.normal(new ShnapBigIntegerNative(self.getLocation(), new BigInteger(toTest)), trc, self.getLocation());
                     } catch (NumberFormatException e) {
-                        return ShnapExecution.normal(new ShnapBigDecimalNative(this.getLocation(), new BigDecimal(toTest)), trc, this.getLocation());
+                        return ShnapExecution.normal(new ShnapBigDecimalNative(self.getLocation(), new BigDecimal(toTest)), trc, self.getLocation());
                     }
                 }
             } catch (NumberFormatException ignore) {
                 ex = ignore;
             }
-            return ShnapExecution.throwing(mimicJavaException("shnap.TypeError", "cannot convert type to number", ex), trc, this.getLocation());
+            return ShnapExecution.throwing(mimicJavaException("shnap.TypeError", "cannot convert type to number", ex), trc, self.getLocation());
         })));
 
         //Other functions
-        this.set("compareTo", func(
+        descriptor.define("compareTo", func(
                 Items.buildList(param("arg"), param("order", ShnapNumberNative.valueOf(1))),
                 inst((ctx, trc) -> {
+                    ShnapStringNative self = receiver(ctx);
                     int order = 1;
                     ShnapExecution num = ctx.get("order", trc).mapIfNormal(e -> e.getValue().asNum(trc));
                     if (num.isAbnormal()) {
@@ -102,12 +102,13 @@ public class ShnapStringNative extends ShnapObject implements ShnapJavaBackedNat
                             return otherAsString;
                         }
                         String comp = ((ShnapStringNative) otherAsString.getValue()).getValue();
-                        return ShnapExecution.normal(ShnapNumberNative.valueOf(finalOrder == 1 ? this.getValue().compareTo(comp) : comp.compareTo(this.getValue())), trc, this.getLocation());
+                        return ShnapExecution.normal(ShnapNumberNative.valueOf(finalOrder == 1 ? self.getValue().compareTo(comp) : comp.compareTo(self.getValue())), trc, self.getLocation());
                     });
                 })));
-        this.set("equals", func(
+        descriptor.define("equals", func(
                 Items.buildList(param("arg"), param("order", ShnapNumberNative.valueOf(1))),
                 inst((ctx, trc) -> {
+                    ShnapStringNative self = receiver(ctx);
                     int order = 1;
                     ShnapExecution num = ctx.get("order", trc).mapIfNormal(e -> e.getValue().asNum(trc));
                     if (num.isAbnormal()) {
@@ -123,12 +124,13 @@ public class ShnapStringNative extends ShnapObject implements ShnapJavaBackedNat
                             return otherAsString;
                         }
                         String comp = ((ShnapStringNative) otherAsString.getValue()).getValue();
-                        return ShnapExecution.normal(ShnapBooleanNative.of(this.equals(comp)), trc, this.getLocation());
+                        return ShnapExecution.normal(ShnapBooleanNative.of(self.equals(comp)), trc, self.getLocation());
                     });
                 })));
-        this.set("add", func(
+        descriptor.define("add", func(
                 Items.buildList(param("arg"), param("order", ShnapNumberNative.valueOf(1))),
                 inst((ctx, trc) -> {
+                    ShnapStringNative self = receiver(ctx);
                     int order = 1;
                     ShnapExecution num = ctx.get("order", trc).mapIfNormal(e -> e.getValue().asNum(trc));
                     if (num.isAbnormal()) {
@@ -148,33 +150,35 @@ public class ShnapStringNative extends ShnapObject implements ShnapJavaBackedNat
                         String comp = ((ShnapStringNative) otherAsString.getValue()).getValue();
 
                         if (finalOrder == 1) {
-                            return ShnapExecution.normal(new ShnapStringNative(this.getLocation(), this.value + comp), trc, this.getLocation());
+                            return ShnapExecution.normal(new ShnapStringNative(self.getLocation(), self.value + comp), trc, self.getLocation());
                         } else {
-                            return ShnapExecution.normal(new ShnapStringNative(this.getLocation(), comp + this.value), trc, this.getLocation());
+                            return ShnapExecution.normal(new ShnapStringNative(self.getLocation(), comp + self.value), trc, self.getLocation());
                         }
                     });
                 })));
-        this.set("multiply", func(
+        descriptor.define("multiply", func(
                 Items.buildList(param("arg"), param("order", ShnapNumberNative.valueOf(1))),
                 inst((ctx, trc) -> ctx.get("arg", trc).mapIfNormal(e -> e.getValue().asNum(trc).mapIfNormal(en -> {
+                    ShnapStringNative self = receiver(ctx);
                     BigDecimal target = ShnapNumberNative.asDec(((ShnapNumberNative) en.getValue()).getNumber());
                     BigInteger intPart = target.toBigInteger();
                     BigDecimal decPart = target.subtract(new BigDecimal(intPart));
                     StringBuilder res = new StringBuilder();
                     while ((intPart = intPart.subtract(BigInteger.ONE)).compareTo(BigInteger.ZERO) >= 0) {
-                        res.append(this.value);
+                        res.append(self.value);
                     }
 
-                    int index = decPart.multiply(new BigDecimal(this.pts.length)).intValue();
+                    int index = decPart.multiply(new BigDecimal(self.pts.length)).intValue();
                     for (int i = 0; i < index; i++) {
-                        res.appendCodePoint(this.pts[i]);
+                        res.appendCodePoint(self.pts[i]);
                     }
 
-                    return ShnapExecution.normal(new ShnapStringNative(this.getLocation(), res.toString()), trc, this.getLocation());
+                    return ShnapExecution.normal(new ShnapStringNative(self.getLocation(), res.toString()), trc, self.getLocation());
                 })))
         ));
-        this.set("len", noArg(instSimple(() -> ShnapNumberNative.valueOf(this.pts.length))));
-        this.set("get", oneArg(inst((ctx, trc) -> {
+        descriptor.define("len", noArg(inst((ctx, trc) -> ShnapExecution.normal(ShnapNumberNative.valueOf(receiver(ctx).pts.length), trc, ShnapLoc.BUILTIN))));
+        descriptor.define("get", oneArg(inst((ctx, trc) -> {
+            ShnapStringNative self = receiver(ctx);
             int order = 1;
             ShnapExecution num = ctx.get("arg", trc).mapIfNormal(e -> e.getValue().asNum(trc));
             if (num.isAbnormal()) {
@@ -183,22 +187,24 @@ public class ShnapStringNative extends ShnapObject implements ShnapJavaBackedNat
                 order = ((ShnapNumberNative) num.getValue()).getNumber().intValue();
             }
 
-            if (order < 0 || order >= this.pts.length) {
-                return ShnapExecution.throwing(ShnapFactory.makeExceptionObj("shnap.IndexError", "Index out of bounds: " + order, null), trc, this.getLocation());
+            if (order < 0 || order >= self.pts.length) {
+                return ShnapExecution.throwing(ShnapFactory.makeExceptionObj("shnap.IndexError", "Index out of bounds: " + order, null), trc, self.getLocation());
             } else {
-                return ShnapExecution.normal(new ShnapCharNative(this.getLocation(), this.pts[order]), trc, this.getLocation());
+                return ShnapExecution.normal(new ShnapCharNative(self.getLocation(), self.pts[order]), trc, self.getLocation());
             }
         })));
-        this.set("contains", oneArg(inst((ctx, trc) -> {
+        descriptor.define("contains", oneArg(inst((ctx, trc) -> {
+            ShnapStringNative self = receiver(ctx);
             ShnapExecution arg = ctx.get("arg", trc).mapIfNormal(e -> e.getValue().asString(trc));
             if (arg.isAbnormal()) {
                 return arg;
             }
 
-            return ShnapExecution.normal(ShnapBooleanNative.of(this.value.contains(((ShnapStringNative) arg.getValue()).getValue())), trc, this.getLocation());
+            return ShnapExecution.normal(ShnapBooleanNative.of(self.value.contains(((ShnapStringNative) arg.getValue()).getValue())), trc, self.getLocation());
         })));
-        this.set("iterator", noArg(inst((ctx, trc) -> {
-            ShnapObject iterator = new ShnapObject(this.getLocation(), "iterator");
+        descriptor.define("iterator", noArg(inst((ctx, trc) -> {
+            ShnapStringNative self = receiver(ctx);
+            ShnapObject iterator = new ShnapObject(self.getLocation(), "iterator");
             iterator.init(ctx);
             iterator.set("index", ShnapNumberNative.valueOf(0));
             iterator.set("hasNext", noArg(inst((con, tra) -> {
@@ -208,7 +214,7 @@ public class ShnapStringNative extends ShnapObject implements ShnapJavaBackedNat
                 }
 
                 int index = ((ShnapNumberNative) num.getValue()).getNumber().intValue();
-                return ShnapExecution.normal(ShnapBooleanNative.of(index < this.pts.length), tra, this.getLocation());
+                return ShnapExecution.normal(ShnapBooleanNative.of(index < self.pts.length), tra, self.getLocation());
             })));
             iterator.set("next", noArg(inst((con, tra) -> {
                 ShnapExecution num = iterator.get("index", trc).mapIfNormal(e -> e.getValue().asNum(trc));
@@ -217,39 +223,53 @@ public class ShnapStringNative extends ShnapObject implements ShnapJavaBackedNat
                 }
 
                 int index = ((ShnapNumberNative) num.getValue()).getNumber().intValue();
-                if (index < 0 || index >= this.pts.length) {
-                    return ShnapExecution.normal(ShnapObject.getVoid(), tra, this.getLocation());
+                if (index < 0 || index >= self.pts.length) {
+                    return ShnapExecution.normal(ShnapObject.getVoid(), tra, self.getLocation());
                 }
                 iterator.set("index", ShnapNumberNative.valueOf(index + 1));
-                return ShnapExecution.normal(new ShnapCharNative(this.getLocation(), this.pts[index]), tra, this.getLocation());
+                return ShnapExecution.normal(new ShnapCharNative(self.getLocation(), self.pts[index]), tra, self.getLocation());
             })));
-            return ShnapExecution.normal(iterator, trc, this.getLocation());
+            return ShnapExecution.normal(iterator, trc, self.getLocation());
         })));
-        this.set("isEmpty", noArg(instSimple(() -> ShnapBooleanNative.of(this.pts.length == 0))));
-        this.set("equalsIgnoreCase", oneArg(inst((ctx, trc) -> ctx.get("arg", trc).mapIfNormal(e -> e.getValue().asString(trc).mapIfNormal(strE -> {
+        descriptor.define("isEmpty", noArg(inst((ctx, trc) -> ShnapExecution.normal(ShnapBooleanNative.of(receiver(ctx).pts.length == 0), trc, ShnapLoc.BUILTIN))));
+        descriptor.define("equalsIgnoreCase", oneArg(inst((ctx, trc) -> ctx.get("arg", trc).mapIfNormal(e -> e.getValue().asString(trc).mapIfNormal(strE -> {
+            ShnapStringNative self = receiver(ctx);
             String comp = ((ShnapStringNative) strE.getValue()).getValue();
-            return ShnapExecution.normal(ShnapBooleanNative.of(this.value.equalsIgnoreCase(comp)), trc, this.getLocation());
+            return ShnapExecution.normal(ShnapBooleanNative.of(self.value.equalsIgnoreCase(comp)), trc, self.getLocation());
         })))));
-        this.set("getSlice", func(
+        descriptor.define("getSlice", func(
                 Items.buildList(param("start"), param("end")),
                 inst((ctx, trc) -> ctx.get("start", trc).mapIfNormal(se -> se.getValue().asNum(trc).mapIfNormal(sne -> ctx.get("end", trc).mapIfNormal(ee -> ee.getValue().asNum(trc).mapIfNormal(ene -> {
+                    ShnapStringNative self = receiver(ctx);
                     int start = ((ShnapNumberNative) sne.getValue()).getNumber().intValue();
                     int end = ((ShnapNumberNative) ene.getValue()).getNumber().intValue();
                     if (end < start) {
-                        return ShnapExecution.throwing(ShnapFactory.makeExceptionObj("shnap.RangeError", start + ".." + end, null), trc, this.getLocation());
+                        return ShnapExecution.throwing(ShnapFactory.makeExceptionObj("shnap.RangeError", start + ".." + end, null), trc, self.getLocation());
                     } else if (start < 0) {
-                        return ShnapExecution.throwing(ShnapFactory.makeExceptionObj("shnap.IndexError", String.valueOf(start), null), trc, this.getLocation());
-                    } else if (end > this.pts.length) {
-                        return ShnapExecution.throwing(ShnapFactory.makeExceptionObj("shnap.IndexError", String.valueOf(end), null), trc, this.getLocation());
+                        return ShnapExecution.throwing(ShnapFactory.makeExceptionObj("shnap.IndexError", String.valueOf(start), null), trc, self.getLocation());
+                    } else if (end > self.pts.length) {
+                        return ShnapExecution.throwing(ShnapFactory.makeExceptionObj("shnap.IndexError", String.valueOf(end), null), trc, self.getLocation());
                     } else {
                         int len = end - start;
                         int[] pts = new int[len];
-                        System.arraycopy(this.pts, start, pts, 0, len);
-                        return ShnapExecution.normal(new ShnapStringNative(this.getLocation(), new String(pts, 0, len)));
+                        System.arraycopy(self.pts, start, pts, 0, len);
+                        return ShnapExecution.normal(new ShnapStringNative(self.getLocation(), new String(pts, 0, len)));
                     }
                 })))))
         ));
-        this.descriptor().applyTo(this);
+    }
+
+    private String value;
+    private int[] pts;
+
+    public ShnapStringNative(ShnapLoc loc, String value) {
+        super(loc, "str", ShnapNativeTypeRegistry.Descriptor.STRING);
+        this.pts = value.codePoints().toArray();
+        this.value = value.intern();
+    }
+
+    private static ShnapStringNative receiver(ShnapContext context) {
+        return (ShnapStringNative) ShnapPrototype.receiver(context);
     }
 
     @Override
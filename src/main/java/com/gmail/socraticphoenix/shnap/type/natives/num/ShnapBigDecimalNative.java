@@ -51,12 +51,15 @@ import com.gmail.socraticphoenix.shnap.type.object.ShnapObject;
 import java.math.BigDecimal;
 
 public class ShnapBigDecimalNative extends ShnapObject implements ShnapNumberNative {
+    static {
+        ShnapNumberNative.implementFunctions(ShnapNativeTypeRegistry.Descriptor.BIG_DECIMAL);
+    }
+
     private BigDecimal value;
 
     public ShnapBigDecimalNative(ShnapLoc loc, BigDecimal value) {
-        super(loc, "dec");
+        super(loc, "dec", ShnapNativeTypeRegistry.Descriptor.BIG_DECIMAL);
         this.value = value;
-        ShnapNumberNative.implementFunctions(this, this);
     }
 
     @Override
@@ -51,19 +51,43 @@ import com.gmail.socraticphoenix.shnap.type.object.ShnapObject;
 import java.math.BigInteger;
 
 public class ShnapBigIntegerNative extends ShnapObject implements ShnapNumberNative {
+    static {
+        ShnapNumberNative.implementFunctions(ShnapNativeTypeRegistry.Descriptor.BIG_INTEGER);
+    }
+
     private BigInteger value;
+    private long small;
+    private boolean fitsLong;
 
     public ShnapBigIntegerNative(ShnapLoc loc, BigInteger value) {
-        super(loc, "int");
+        super(loc, "int", ShnapNativeTypeRegistry.Descriptor.BIG_INTEGER);
         this.value = value;
-        ShnapNumberNative.implementFunctions(this, this);
+        this.small = value.longValue();
+        this.fitsLong = value.bitLength() < 64;
+    }
+
+    public ShnapBigIntegerNative(ShnapLoc loc, long value) {
+        super(loc, "int", ShnapNativeTypeRegistry.Descriptor.BIG_INTEGER);
+        this.small = value;
+        this.fitsLong = true;
     }
 
     @Override
     public BigInteger getNumber() {
+        if (this.value == null) {
+            this.value = BigInteger.valueOf(this.small);
+        }
         return this.value;
     }
 
+    public boolean fitsLong() {
+        return this.fitsLong;
+    }
+
+    public long longValue() {
+        return this.small;
+    }
+
     @Override
     public ShnapObject copyWith(Number n) {
         return ShnapNumberNative.valueOf(n);
@@ -79,7 +103,7 @@ public class ShnapBigIntegerNative extends ShnapObject implements ShnapNumberNat
 
     @Override
     public Object getJavaBacker() {
-        return this.value;
+        return this.getNumber();
     }
 
     @Override
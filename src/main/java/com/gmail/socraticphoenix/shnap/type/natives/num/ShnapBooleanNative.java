@@ -45,7 +45,9 @@ package com.gmail.socraticphoenix.shnap.type.natives.num;
 
 import com.gmail.socraticphoenix.collect.Items;
 import com.gmail.socraticphoenix.shnap.parse.ShnapLoc;
+import com.gmail.socraticphoenix.shnap.program.context.ShnapContext;
 import com.gmail.socraticphoenix.shnap.program.context.ShnapExecution;
+import com.gmail.socraticphoenix.shnap.program.context.ShnapPrototype;
 import com.gmail.socraticphoenix.shnap.type.natives.ShnapNativeTypeDescriptor;
 import com.gmail.socraticphoenix.shnap.type.natives.ShnapNativeTypeRegistry;
 import com.gmail.socraticphoenix.shnap.type.natives.ShnapStringNative;
@@ -55,24 +57,21 @@ import com.gmail.socraticphoenix.shnap.util.ShnapFactory;
 import java.math.BigInteger;
 
 import static com.gmail.socraticphoenix.shnap.util.ShnapFactory.inst;
-import static com.gmail.socraticphoenix.shnap.util.ShnapFactory.instSimple;
 import static com.gmail.socraticphoenix.shnap.util.ShnapFactory.noArg;
 import static com.gmail.socraticphoenix.shnap.util.ShnapFactory.param;
 
 public class ShnapBooleanNative extends ShnapObject implements ShnapNumberNative {
-    public static final ShnapBooleanNative TRUE = new ShnapBooleanNative(ShnapLoc.BUILTIN, true);
-    public static final ShnapBooleanNative FALSE = new ShnapBooleanNative(ShnapLoc.BUILTIN, false);
-
-    private Boolean value;
-
-    private ShnapBooleanNative(ShnapLoc loc, Boolean value) {
-        super(loc, "bool");
-        this.value = value;
-        ShnapNumberNative.implementFunctions(this, this);
-        this.set(ShnapObject.AS_STRING, ShnapFactory.noArg(instSimple(() -> new ShnapStringNative(this.getLocation(), String.valueOf(this.value)))));
-        this.set("and", ShnapFactory.func(
-                Items.buildList(param("arg"), param("order", ShnapNumberNative.ONE)),
+    static {
+        ShnapNativeTypeDescriptor descriptor = ShnapNativeTypeRegistry.Descriptor.BOOLEAN;
+        ShnapNumberNative.implementFunctions(descriptor);
+        descriptor.define(ShnapObject.AS_STRING, ShnapFactory.noArg(inst((ctx, trc) -> {
+            ShnapBooleanNative self = receiver(ctx);
+            return ShnapExecution.normal(new ShnapStringNative(self.getLocation(), String.valueOf(self.value)), trc, ShnapLoc.BUILTIN);
+        })));
+        descriptor.define("and", ShnapFactory.func(
+                Items.buildList(param("arg"), param("order", ShnapNumberNative.valueOf(1))),
                 inst((ctx, trc) -> {
+                    ShnapBooleanNative self = receiver(ctx);
                     int order = 1;
                     if (ctx.directlyContains("order")) {
                         ShnapExecution ord = ctx.get("order", trc).mapIfNormal(e -> e.getValue().asNum(trc));
@@ -85,13 +84,14 @@ public class ShnapBooleanNative extends ShnapObject implements ShnapNumberNative
 
                     return ctx.get("arg", trc).mapIfNormal(e -> e.getValue().asBool(trc).mapIfNormal(be -> {
                         boolean other = ((ShnapBooleanNative) be.getValue()).getValue();
-                        return ShnapExecution.normal(ShnapBooleanNative.of(this.value && other), trc, this.getLocation());
+                        return ShnapExecution.normal(ShnapBooleanNative.of(self.value && other), trc, self.getLocation());
                     }));
                 })
         ));
-        this.set("or", ShnapFactory.func(
-                Items.buildList(param("arg"), param("order", ShnapNumberNative.ONE)),
+        descriptor.define("or", ShnapFactory.func(
+                Items.buildList(param("arg"), param("order", ShnapNumberNative.valueOf(1))),
                 inst((ctx, trc) -> {
+                    ShnapBooleanNative self = receiver(ctx);
                     int order = 1;
                     if (ctx.directlyContains("order")) {
                         ShnapExecution ord = ctx.get("order", trc).mapIfNormal(e -> e.getValue().asNum(trc));
@@ -104,11 +104,25 @@ public class ShnapBooleanNative extends ShnapObject implements ShnapNumberNative
 
                     return ctx.get("arg", trc).mapIfNormal(e -> e.getValue().asBool(trc).mapIfNormal(be -> {
                         boolean other = ((ShnapBooleanNative) be.getValue()).getValue();
-                        return ShnapExecution.normal(ShnapBooleanNative.of(this.value || other), trc, this.getLocation());
+                        return ShnapExecution.normal(ShnapBooleanNative.of(self.value || other), trc, self.getLocation());
                     }));
                 })
         ));
-        this.set("not", noArg(instSimple(() -> ShnapBooleanNative.of(!this.value))));
+        descriptor.define("not", noArg(inst((ctx, trc) -> ShnapExecution.normal(ShnapBooleanNative.of(!receiver(ctx).value), trc, ShnapLoc.BUILTIN))));
+    }
+
+    public static final ShnapBooleanNative TRUE = new ShnapBooleanNative(ShnapLoc.BUILTIN, true);
+    public static final ShnapBooleanNative FALSE = new ShnapBooleanNative(ShnapLoc.BUILTIN, false);
+
+    private Boolean value;
+
+    private ShnapBooleanNative(ShnapLoc loc, Boolean value) {
+        super(loc, "bool", ShnapNativeTypeRegistry.Descriptor.BOOLEAN);
+        this.value = value;
+    }
+
+    private static ShnapBooleanNative receiver(ShnapContext context) {
+        return (ShnapBooleanNative) ShnapPrototype.receiver(context);
     }
 
     @Override
@@ -44,6 +44,8 @@
 package com.gmail.socraticphoenix.shnap.type.natives.num;
 
 import com.gmail.socraticphoenix.shnap.parse.ShnapLoc;
+import com.gmail.socraticphoenix.shnap.program.context.ShnapExecution;
+import com.gmail.socraticphoenix.shnap.program.context.ShnapPrototype;
 import com.gmail.socraticphoenix.shnap.type.natives.ShnapNativeTypeDescriptor;
 import com.gmail.socraticphoenix.shnap.type.natives.ShnapNativeTypeRegistry;
 import com.gmail.socraticphoenix.shnap.type.natives.ShnapStringNative;
@@ -52,16 +54,22 @@ import com.gmail.socraticphoenix.shnap.util.ShnapFactory;
 
 import java.math.BigInteger;
 
-import static com.gmail.socraticphoenix.shnap.util.ShnapFactory.instSimple;
+import static com.gmail.socraticphoenix.shnap.util.ShnapFactory.inst;
 
 public class ShnapCharNative extends ShnapObject implements ShnapNumberNative {
+    static {
+        ShnapNumberNative.implementFunctions(ShnapNativeTypeRegistry.Descriptor.CHAR);
+        ShnapNativeTypeRegistry.Descriptor.CHAR.define(ShnapObject.AS_STRING, ShnapFactory.noArg(inst((ctx, trc) -> {
+            ShnapCharNative self = (ShnapCharNative) ShnapPrototype.receiver(ctx);
+            return ShnapExecution.normal(new ShnapStringNative(self.getLocation(), new String(new int[]{self.value}, 0, 1)), trc, ShnapLoc.BUILTIN);
+        })));
+    }
+
     private Integer value;
 
     public ShnapCharNative(ShnapLoc loc, Integer value) {
-        super(loc, "char");
+        super(loc, "char", ShnapNativeTypeRegistry.Descriptor.CHAR);
         this.value = value;
-        ShnapNumberNative.implementFunctions(this, this);
-        this.set(ShnapObject.AS_STRING, ShnapFactory.noArg(instSimple(() -> new ShnapStringNative(this.getLocation(), new String(new int[]{this.value}, 0, 1)))));
     }
 
     @Override
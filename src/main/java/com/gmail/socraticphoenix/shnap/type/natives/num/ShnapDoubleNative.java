@@ -28,12 +28,15 @@ import com.gmail.socraticphoenix.shnap.type.natives.ShnapNativeTypeRegistry;
 import com.gmail.socraticphoenix.shnap.type.object.ShnapObject;
 
 public class ShnapDoubleNative extends ShnapObject implements ShnapNumberNative {
+    static {
+        ShnapNumberNative.implementFunctions(ShnapNativeTypeRegistry.Descriptor.DOUBLE);
+    }
+
     private Double aDouble;
 
     public ShnapDoubleNative(ShnapLoc loc, Double aDouble) {
-        super(loc, "float64");
+        super(loc, "float64", ShnapNativeTypeRegistry.Descriptor.DOUBLE);
         this.aDouble = aDouble;
-        ShnapNumberNative.implementFunctions(this, this);
     }
 
     @Override
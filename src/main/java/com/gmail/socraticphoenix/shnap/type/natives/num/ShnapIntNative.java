@@ -28,12 +28,15 @@ import com.gmail.socraticphoenix.shnap.type.natives.ShnapNativeTypeRegistry;
 import com.gmail.socraticphoenix.shnap.type.object.ShnapObject;
 
 public class ShnapIntNative extends ShnapObject implements ShnapNumberNative {
+    static {
+        ShnapNumberNative.implementFunctions(ShnapNativeTypeRegistry.Descriptor.INT);
+    }
+
     private Integer integer;
 
     public ShnapIntNative(ShnapLoc loc, Integer integer) {
-        super(loc, "int32");
+        super(loc, "int32", ShnapNativeTypeRegistry.Descriptor.INT);
         this.integer = integer;
-        ShnapNumberNative.implementFunctions(this, this);
     }
 
     @Override
@@ -28,12 +28,15 @@ import com.gmail.socraticphoenix.shnap.type.natives.ShnapNativeTypeRegistry;
 import com.gmail.socraticphoenix.shnap.type.object.ShnapObject;
 
 public class ShnapLongNative extends ShnapObject implements ShnapNumberNative {
+    static {
+        ShnapNumberNative.implementFunctions(ShnapNativeTypeRegistry.Descriptor.LONG);
+    }
+
     private Long aLong;
 
     public ShnapLongNative(ShnapLoc loc, Long aLong) {
-        super(loc, "int64");
+        super(loc, "int64", ShnapNativeTypeRegistry.Descriptor.LONG);
         this.aLong = aLong;
-        ShnapNumberNative.implementFunctions(this, this);
     }
 
     @Override
@@ -47,9 +47,13 @@ import ch.obermuhlner.math.big.BigDecimalMath;
 import com.gmail.socraticphoenix.collect.Items;
 import com.gmail.socraticphoenix.shnap.parse.ShnapLoc;
 import com.gmail.socraticphoenix.shnap.parse.ShnapLocatable;
+import com.gmail.socraticphoenix.shnap.program.ShnapOperators;
+import com.gmail.socraticphoenix.shnap.program.context.ShnapContext;
 import com.gmail.socraticphoenix.shnap.program.context.ShnapExecution;
+import com.gmail.socraticphoenix.shnap.program.context.ShnapPrototype;
 import com.gmail.socraticphoenix.shnap.type.natives.ShnapArrayNative;
 import com.gmail.socraticphoenix.shnap.type.natives.ShnapJavaBackedNative;
+import com.gmail.socraticphoenix.shnap.type.natives.ShnapNativeTypeDescriptor;
 import com.gmail.socraticphoenix.shnap.type.natives.ShnapNativeType;
 import com.gmail.socraticphoenix.shnap.type.natives.ShnapStringNative;
 import com.gmail.socraticphoenix.shnap.type.object.ShnapFunction;
@@ -66,7 +70,6 @@ import java.util.function.BinaryOperator;
 import java.util.function.Function;
 
 import static com.gmail.socraticphoenix.shnap.util.ShnapFactory.inst;
-import static com.gmail.socraticphoenix.shnap.util.ShnapFactory.instSimple;
 import static com.gmail.socraticphoenix.shnap.util.ShnapFactory.noArg;
 import static com.gmail.socraticphoenix.shnap.util.ShnapFactory.obtainBuiltin;
 import static com.gmail.socraticphoenix.shnap.util.ShnapFactory.oneArg;
@@ -105,11 +108,15 @@ public interface ShnapNumberNative extends ShnapJavaBackedNative, ShnapLocatable
             if (number instanceof Float || number instanceof Double) {
                 return new ShnapBigDecimalNative(loc, new BigDecimal(number.doubleValue()));
             } else {
-                return new ShnapBigIntegerNative(loc, BigInteger.valueOf(number.longValue()));
+                return new ShnapBigIntegerNative(loc, number.longValue());
             }
         }
     }
 
+    static ShnapObject valueOf(long number) {
+        return new ShnapBigIntegerNative(ShnapLoc.BUILTIN, number);
+    }
+
     static ShnapObject valueOf(Number number) {
         if (number instanceof BigInteger) {
             return new ShnapBigIntegerNative(ShnapLoc.BUILTIN, (BigInteger) number);
@@ -119,7 +126,7 @@ public interface ShnapNumberNative extends ShnapJavaBackedNative, ShnapLocatable
             if (number instanceof Float || number instanceof Double) {
                 return new ShnapBigDecimalNative(ShnapLoc.BUILTIN, new BigDecimal(number.doubleValue()));
             } else {
-                return new ShnapBigIntegerNative(ShnapLoc.BUILTIN, BigInteger.valueOf(number.longValue()));
+                return new ShnapBigIntegerNative(ShnapLoc.BUILTIN, number.longValue());
             }
         }
     }
@@ -140,34 +147,48 @@ public interface ShnapNumberNative extends ShnapJavaBackedNative, ShnapLocatable
         }
     }
 
-    static void implementFunctions(ShnapObject target, ShnapNumberNative alsoTarget) {
-        target.set(ShnapObject.AS_STRING, noArg(instSimple(() -> {
-            Number num = alsoTarget.getNumber();
-            return new ShnapStringNative(target.getLocation(), String.valueOf(num));
+    static ShnapNumberNative receiver(ShnapContext context) {
+        return (ShnapNumberNative) ShnapPrototype.receiver(context);
+    }
+
+    static void implementFunctions(ShnapNativeTypeDescriptor target) {
+        target.define(ShnapObject.AS_STRING, noArg(inst((ctx, trc) -> {
+            ShnapNumberNative self = receiver(ctx);
+            return ShnapExecution.normal(new ShnapStringNative(self.getLocation(), String.valueOf(self.getNumber())), trc, ShnapLoc.BUILTIN);
         })));
-        target.set(ShnapObject.AS_ARRAY, noArg(instSimple(() -> new ShnapArrayNative(target.getLocation(), target))));
-        target.set(ShnapObject.AS_BOOLEAN, noArg(instSimple(() -> ShnapBooleanNative.of(alsoTarget.getNumber().doubleValue() != 0))));
+        target.define(ShnapObject.AS_ARRAY, noArg(inst((ctx, trc) -> {
+            ShnapNumberNative self = receiver(ctx);
+            return ShnapExecution.normal(new ShnapArrayNative(self.getLocation(), (ShnapObject) self), trc, ShnapLoc.BUILTIN);
+        })));
+        target.define(ShnapObject.AS_BOOLEAN, noArg(inst((ctx, trc) -> ShnapExecution.normal(ShnapBooleanNative.of(receiver(ctx).getNumber().doubleValue() != 0), trc, ShnapLoc.BUILTIN))));
 
         //Other functions
         ShnapFactory.implementOperators(target,
-                noArg(instSimple(() -> alsoTarget.copyWith(negate(alsoTarget.getNumber())))),
-                noArg(instSimple(() -> alsoTarget.copyWith(bitwiseNot(alsoTarget.getNumber())))),
-                func(alsoTarget, ShnapNumberNative::pow),
-                func(alsoTarget, ShnapNumberNative::multiply),
-                func(alsoTarget, ShnapNumberNative::divide),
-                func(alsoTarget, ShnapNumberNative::remainder),
-                func(alsoTarget, ShnapNumberNative::add),
-                func(alsoTarget, ShnapNumberNative::subtract),
-                func(alsoTarget, ShnapNumberNative::leftShift),
-                func(alsoTarget, ShnapNumberNative::rightShift),
-                func(alsoTarget, ShnapNumberNative::compareTo),
-                func2(alsoTarget, (n1, n2) -> ShnapBooleanNative.of(equals(n1, n2)), false),
-                func(alsoTarget, ShnapNumberNative::bitwiseAnd),
-                func(alsoTarget, ShnapNumberNative::bitwiseXor),
-                func(alsoTarget, ShnapNumberNative::bitwiseOr)
+                noArg(inst((ctx, trc) -> {
+                    ShnapNumberNative self = receiver(ctx);
+                    return ShnapExecution.normal(self.copyWith(negate(self.getNumber())), trc, ShnapLoc.BUILTIN);
+                })),
+                noArg(inst((ctx, trc) -> {
+                    ShnapNumberNative self = receiver(ctx);
+                    return ShnapExecution.normal(self.copyWith(bitwiseNot(self.getNumber())), trc, ShnapLoc.BUILTIN);
+                })),
+                func(ShnapNumberNative::pow),
+                func(ShnapNumberNative::multiply),
+                func(ShnapNumberNative::divide),
+                func(ShnapNumberNative::remainder),
+                func(ShnapNumberNative::add),
+                func(ShnapNumberNative::subtract),
+                func(ShnapNumberNative::leftShift),
+                func(ShnapNumberNative::rightShift),
+                func(ShnapNumberNative::compareTo),
+                func2((n1, n2) -> ShnapBooleanNative.of(equals(n1, n2)), false),
+                func(ShnapNumberNative::bitwiseAnd),
+                func(ShnapNumberNative::bitwiseXor),
+                func(ShnapNumberNative::bitwiseOr)
         );
 
-        target.set("round", oneArg(inst((ctx, trc) -> {
+        target.define("round", oneArg(inst((ctx, trc) -> {
+            ShnapNumberNative self = receiver(ctx);
             int order = -1;
             ShnapExecution num = ctx.get("arg", trc).mapIfNormal(e -> e.getValue().asNum(trc));
             if (num.isAbnormal()) {
@@ -176,14 +197,15 @@ public interface ShnapNumberNative extends ShnapJavaBackedNative, ShnapLocatable
                 order = ((ShnapNumberNative) num.getValue()).getNumber().intValue();
             }
 
-            Number number = alsoTarget.getNumber();
+            Number number = self.getNumber();
             BigDecimal dec = number instanceof BigInteger ? new BigDecimal((BigInteger) number) : number instanceof BigDecimal ? (BigDecimal) number : new BigDecimal(number.doubleValue());
-            return ShnapExecution.normal(ShnapNumberNative.valueOf(dec.setScale(order, RoundingMode.HALF_UP)), trc, target.getLocation());
+            return ShnapExecution.normal(ShnapNumberNative.valueOf(dec.setScale(order, RoundingMode.HALF_UP)), trc, self.getLocation());
         })));
 
-        target.set("rangeTo", ShnapFactory.func(
-                Items.buildList(param("arg"), param("order", ONE)),
+        target.define("rangeTo", ShnapFactory.func(
+                Items.buildList(param("arg"), param("order", ShnapNumberNative.valueOf(1))),
                 inst((ctx, trc) -> obtainBuiltin("range", trc).mapIfNormal(e -> ctx.get("arg", trc).mapIfNormal(e2 -> {
+                    ShnapObject self = (ShnapObject) receiver(ctx);
                     ShnapObject rangeObj = e.getValue();
                     int order = 1;
                     if (ctx.directlyContains("order")) {
@@ -196,19 +218,18 @@ public interface ShnapNumberNative extends ShnapJavaBackedNative, ShnapLocatable
                     }
                     if (rangeObj instanceof ShnapFunction) {
                         ShnapFunction range = (ShnapFunction) rangeObj;
-                        return order == 1 ? range.invoke(Items.buildList(target, e2.getValue()), Collections.emptyMap(), trc) : range.invoke(Items.buildList(e2.getValue(), target), Collections.emptyMap(), trc);
+                        return order == 1 ? range.invoke(Items.buildList(self, e2.getValue()), Collections.emptyMap(), trc) : range.invoke(Items.buildList(e2.getValue(), self), Collections.emptyMap(), trc);
                     } else {
-                        return ShnapExecution.normal(ShnapObject.getVoid(), trc, target.getLocation());
+                        return ShnapExecution.normal(ShnapObject.getVoid(), trc, self.getLocation());
                     }
                 })))));
-
-        alsoTarget.descriptor().applyTo(target);
     }
 
-    static ShnapFunction func2(ShnapNumberNative target, BiFunction<Number, Number, ShnapObject> op, boolean doCast) {
+    static ShnapFunction func2(BiFunction<Number, Number, ShnapObject> op, boolean doCast) {
         return ShnapFactory.func(
-                Items.buildList(param("arg"), param("order", ONE)),
+                Items.buildList(param("arg"), param("order", ShnapNumberNative.valueOf(1))),
                 inst((c, t) -> {
+                    ShnapNumberNative target = receiver(c);
                     try {
                         int order = 1;
                         if (c.directlyContains("order")) {
@@ -224,41 +245,7 @@ public interface ShnapNumberNative extends ShnapJavaBackedNative, ShnapLocatable
                         return c.get("arg", t).mapIfNormal(e -> {
                             ShnapObject obj = e.getValue();
                             if (obj instanceof ShnapNumberNative) {
-                                ShnapNumberNative argNative = (ShnapNumberNative) obj;
-                                Number left = target.getNumber();
-                                Number right = ((ShnapNumberNative) obj).getNumber();
-                                if (left instanceof BigDecimal && right instanceof BigDecimal) {
-                                    BigDecimal leftDec = (BigDecimal) left;
-                                    BigDecimal rightDec = (BigDecimal) right;
-                                    int scale = Math.max(leftDec.scale(), rightDec.scale());
-                                    scale = Math.max(scale, 32);
-                                    left = leftDec.setScale(scale, RoundingMode.HALF_UP);
-                                    right = rightDec.setScale(scale, RoundingMode.HALF_UP);
-                                }
-
-                                ShnapObject result;
-                                if (finalOrder == 1) {
-                                    result = op.apply(left, right);
-                                } else {
-                                    result = op.apply(right, left);
-                                }
-
-                                Number resNum = ((ShnapNumberNative) result).getNumber();
-                                if (doCast) {
-                                    if (argNative.castingPrecedence(resNum) > target.castingPrecedence(resNum)) {
-                                        result = argNative.copyWith(resNum);
-                                    } else {
-                                        result = target.copyWith(resNum);
-                                    }
-
-                                    resNum = ((ShnapNumberNative) result).getNumber();
-                                }
-
-                                if (resNum instanceof BigDecimal) {
-                                    result = ShnapNumberNative.valueOf(((BigDecimal) resNum).stripTrailingZeros());
-                                }
-
-                                return ShnapExecution.normal(result, t, target.getLocation());
+                                return ShnapExecution.normal(apply(target, (ShnapNumberNative) obj, finalOrder, op, doCast), t, target.getLocation());
                             }
                             return ShnapExecution.normal(ShnapObject.getVoid(), t, target.getLocation());
                         });
@@ -268,10 +255,96 @@ public interface ShnapNumberNative extends ShnapJavaBackedNative, ShnapLocatable
                 }));
     }
 
+    static ShnapObject arithmetic(ShnapNumberNative left, ShnapOperators operator, ShnapNumberNative right) {
+        ShnapObject primitive = ShnapPrimitiveArithmetic.operate(left, operator, right);
+        if (primitive != null) {
+            return primitive;
+        }
+
+        BinaryOperator<Number> op;
+        switch (operator) {
+            case RAISE:
+                op = ShnapNumberNative::pow;
+                break;
+            case MULTIPLY:
+                op = ShnapNumberNative::multiply;
+                break;
+            case DIVIDE:
+                op = ShnapNumberNative::divide;
+                break;
+            case REMAINDER:
+                op = ShnapNumberNative::remainder;
+                break;
+            case ADD:
+                op = ShnapNumberNative::add;
+                break;
+            case SUBTRACT:
+                op = ShnapNumberNative::subtract;
+                break;
+            case LEFT_SHIFT:
+                op = ShnapNumberNative::leftShift;
+                break;
+            case RIGHT_SHIFT:
+                op = ShnapNumberNative::rightShift;
+                break;
+            case COMPARE_TO:
+                op = ShnapNumberNative::compareTo;
+                break;
+            case BITWISE_AND:
+                op = ShnapNumberNative::bitwiseAnd;
+                break;
+            case BITIWSE_XOR:
+                op = ShnapNumberNative::bitwiseXor;
+                break;
+            case BITWISE_OR:
+                op = ShnapNumberNative::bitwiseOr;
+                break;
+            default:
+                throw new IllegalArgumentException("Not an arithmetic operator: " + operator.getRep());
+        }
+        return apply(left, right, 1, (n1, n2) -> ShnapNumberNative.valueOf(op.apply(n1, n2)), true);
+    }
+
+    static ShnapObject apply(ShnapNumberNative target, ShnapNumberNative argNative, int order, BiFunction<Number, Number, ShnapObject> op, boolean doCast) {
+        Number left = target.getNumber();
+        Number right = argNative.getNumber();
+        if (left instanceof BigDecimal && right instanceof BigDecimal) {
+            BigDecimal leftDec = (BigDecimal) left;
+            BigDecimal rightDec = (BigDecimal) right;
+            int scale = Math.max(leftDec.scale(), rightDec.scale());
+            scale = Math.max(scale, 32);
+            left = leftDec.setScale(scale, RoundingMode.HALF_UP);
+            right = rightDec.setScale(scale, RoundingMode.HALF_UP);
+        }
+
+        ShnapObject result;
+        if (order == 1) {
+            result = op.apply(left, right);
+        } else {
+            result = op.apply(right, left);
+        }
+
+        Number resNum = ((ShnapNumberNative) result).getNumber();
+        if (doCast) {
+            if (argNative.castingPrecedence(resNum) > target.castingPrecedence(resNum)) {
+                result = argNative.copyWith(resNum);
+            } else {
+                result = target.copyWith(resNum);
+            }
+
+            resNum = ((ShnapNumberNative) result).getNumber();
+        }
+
+        if (resNum instanceof BigDecimal) {
+            result = ShnapNumberNative.valueOf(((BigDecimal) resNum).stripTrailingZeros());
+        }
+        return result;
+    }
+
     int castingPrecedence(Number result);
 
-    static ShnapFunction func(ShnapNumberNative target, BinaryOperator<Number> op) {
-        return func2(target, (n1, n2) -> ShnapNumberNative.valueOf(op.apply(n1, n2)), true);
+    static ShnapFunction func(BinaryOperator<Number> op) {
+        return func2((n1, n2) -> ShnapNumberNative.valueOf(op.apply(n1, n2)), true);
     }
 
     static Number negate(Number number) {
@@ -407,6 +480,27 @@ public interface ShnapNumberNative extends ShnapJavaBackedNative, ShnapLocatable
                 d -> operate(b, n -> d.compareTo(new BigDecimal(n)), d::compareTo)).longValue());
     }
 
+    static ShnapObject negate(ShnapNumberNative number) {
+        ShnapObject primitive = ShnapPrimitiveArithmetic.negate(number);
+        return primitive != null ? primitive : number.copyWith(negate(number.getNumber()));
+    }
+
+    static int signum(ShnapNumberNative number) {
+        if (number instanceof ShnapBigIntegerNative && ((ShnapBigIntegerNative) number).fitsLong()) {
+            return Long.signum(((ShnapBigIntegerNative) number).longValue());
+        } else if (number instanceof ShnapDoubleNative && Double.isFinite(number.getNumber().doubleValue())) {
+            return (int) Math.signum(number.getNumber().doubleValue());
+        }
+        return (int) operate(number.getNumber(),
+                n -> n.compareTo(BigInteger.ZERO),
+                d -> d.compareTo(BigDecimal.ZERO));
+    }
+
+    static boolean equals(ShnapNumberNative a, ShnapNumberNative b) {
+        Boolean primitive = ShnapPrimitiveArithmetic.equals(a, b);
+        return primitive != null ? primitive : equals(a.getNumber(), b.getNumber());
+    }
+
     static boolean equals(Number a, Number b) {
         return BigInteger.valueOf(operate(a, n -> operate(b, n::compareTo, d -> new BigDecimal(n).compareTo(d)),
                 d -> operate(b, n -> d.compareTo(new BigDecimal(n)), d::compareTo)).longValue()).compareTo(BigInteger.ZERO) == 0;
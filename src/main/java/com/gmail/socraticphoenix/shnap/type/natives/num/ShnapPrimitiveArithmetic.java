@@ -0,0 +1,143 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 socraticphoenix@gmail.com
+ * Copyright (c) 2017 contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.gmail.socraticphoenix.shnap.type.natives.num;
+
+import com.gmail.socraticphoenix.shnap.program.ShnapOperators;
+import com.gmail.socraticphoenix.shnap.type.object.ShnapObject;
+
+final class ShnapPrimitiveArithmetic {
+
+    private ShnapPrimitiveArithmetic() {
+    }
+
+    static ShnapObject operate(ShnapNumberNative left, ShnapOperators operator, ShnapNumberNative right) {
+        if (left instanceof ShnapBigIntegerNative && right instanceof ShnapBigIntegerNative) {
+            ShnapBigIntegerNative a = (ShnapBigIntegerNative) left;
+            ShnapBigIntegerNative b = (ShnapBigIntegerNative) right;
+            if (a.fitsLong() && b.fitsLong()) {
+                return integral(a.longValue(), operator, b.longValue());
+            }
+        } else if (left instanceof ShnapDoubleNative && right instanceof ShnapDoubleNative) {
+            return floating((ShnapDoubleNative) left, operator, right.getNumber().doubleValue());
+        }
+        return null;
+    }
+
+    static ShnapObject negate(ShnapNumberNative number) {
+        if (number instanceof ShnapBigIntegerNative) {
+            ShnapBigIntegerNative a = (ShnapBigIntegerNative) number;
+            if (a.fitsLong() && a.longValue() != Long.MIN_VALUE) {
+                return ShnapNumberNative.valueOf(-a.longValue());
+            }
+        } else if (number instanceof ShnapDoubleNative) {
+            double a = number.getNumber().doubleValue();
+            return Double.isFinite(a) ? finite((ShnapDoubleNative) number, -a) : null;
+        }
+        return null;
+    }
+
+    static Boolean equals(ShnapNumberNative left, ShnapNumberNative right) {
+        if (left instanceof ShnapBigIntegerNative && right instanceof ShnapBigIntegerNative) {
+            ShnapBigIntegerNative a = (ShnapBigIntegerNative) left;
+            ShnapBigIntegerNative b = (ShnapBigIntegerNative) right;
+            if (a.fitsLong() && b.fitsLong()) {
+                return a.longValue() == b.longValue();
+            }
+        } else if (left instanceof ShnapDoubleNative && right instanceof ShnapDoubleNative) {
+            double a = left.getNumber().doubleValue();
+            double b = right.getNumber().doubleValue();
+            if (Double.isFinite(a) && Double.isFinite(b)) {
+                return a == b;
+            }
+        }
+        return null;
+    }
+
+    private static ShnapObject integral(long a, ShnapOperators operator, long b) {
+        try {
+            switch (operator) {
+                case ADD:
+                    return ShnapNumberNative.valueOf(Math.addExact(a, b));
+                case SUBTRACT:
+                    return ShnapNumberNative.valueOf(Math.subtractExact(a, b));
+                case MULTIPLY:
+                    return ShnapNumberNative.valueOf(Math.multiplyExact(a, b));
+                case DIVIDE:
+                    return b == 0 || (a == Long.MIN_VALUE && b == -1) ? null : ShnapNumberNative.valueOf(a / b);
+                case REMAINDER:
+                    return b == 0 ? null : ShnapNumberNative.valueOf(a % b);
+                case RAISE:
+                    return b < 0 ? null : ShnapNumberNative.valueOf(power(a, b));
+                case COMPARE_TO:
+                    return ShnapNumberNative.valueOf(Long.compare(a, b));
+            }
+        } catch (ArithmeticException ignore) {
+
+        }
+        return null;
+    }
+
+    private static long power(long base, long exponent) {
+        long res = 1;
+        while (exponent != 0) {
+            if ((exponent & 1) == 1) {
+                res = Math.multiplyExact(res, base);
+            }
+            exponent >>= 1;
+            if (exponent != 0) {
+                base = Math.multiplyExact(base, base);
+            }
+        }
+        return res;
+    }
+
+    private static ShnapObject floating(ShnapDoubleNative left, ShnapOperators operator, double b) {
+        double a = left.getNumber().doubleValue();
+        if (!Double.isFinite(a) || !Double.isFinite(b)) {
+            return null;
+        }
+
+        switch (operator) {
+            case ADD:
+                return finite(left, a + b);
+            case SUBTRACT:
+                return finite(left, a - b);
+            case MULTIPLY:
+                return finite(left, a * b);
+            case DIVIDE:
+                return b == 0 ? null : finite(left, a / b);
+            case REMAINDER:
+                return b == 0 ? null : finite(left, a % b);
+            case COMPARE_TO:
+                return left.copyWith(a < b ? -1.0 : a > b ? 1.0 : 0.0);
+        }
+        return null;
+    }
+
+    private static ShnapObject finite(ShnapDoubleNative template, double result) {
+        if (!Double.isFinite(result)) {
+            return null;
+        }
+        return template.copyWith(result == 0 ? 0.0 : result);
+    }
+
+}
@@ -0,0 +1,153 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 socraticphoenix@gmail.com
+ * Copyright (c) 2017 contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.gmail.socraticphoenix.shnap.type.object;
+
+import com.gmail.socraticphoenix.shnap.program.ShnapParameter;
+import com.gmail.socraticphoenix.shnap.program.context.ShnapFrameDescriptor;
+import com.gmail.socraticphoenix.shnap.program.instructions.ShnapLiteral;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public final class ShnapBindingPlan {
+    private final List<ShnapParameter> params;
+    private final List<ShnapParameter> required;
+    private final List<ShnapParameter> def;
+    private final Set<String> names;
+
+    private final String[] positional;
+    private final int[] slots;
+    private final ShnapParameter[] defaults;
+    private final int[] defaultSlots;
+    private final ShnapObject[] constants;
+    private final int varArgs;
+    private final int emptyVarArgs;
+
+    public ShnapBindingPlan(List<ShnapParameter> params, ShnapFrameDescriptor frame) {
+        List<ShnapParameter> required = new ArrayList<>();
+        List<ShnapParameter> def = new ArrayList<>();
+        Set<String> names = new HashSet<>();
+        int varArgs = -1;
+        int emptyVarArgs = -1;
+
+        this.positional = new String[params.size()];
+        this.slots = new int[params.size()];
+        for (int i = 0; i < params.size(); i++) {
+            ShnapParameter parameter = params.get(i);
+            if (parameter.getValue() == null) {
+                required.add(parameter);
+            } else {
+                def.add(parameter);
+            }
+            if (parameter.isVariable() && varArgs == -1) {
+                varArgs = i;
+            }
+            if (parameter.isVariable() && parameter.getValue() == null && emptyVarArgs == -1) {
+                emptyVarArgs = i;
+            }
+            names.add(parameter.getName());
+            this.positional[i] = parameter.getName();
+            this.slots[i] = slotOf(frame, parameter.getName());
+        }
+
+        this.defaults = def.toArray(new ShnapParameter[def.size()]);
+        this.defaultSlots = new int[this.defaults.length];
+        this.constants = new ShnapObject[this.defaults.length];
+        for (int i = 0; i < this.defaults.length; i++) {
+            this.defaultSlots[i] = slotOf(frame, this.defaults[i].getName());
+            if (this.defaults[i].getValue() instanceof ShnapLiteral) {
+                this.constants[i] = ((ShnapLiteral) this.defaults[i].getValue()).getValue();
+            }
+        }
+
+        this.params = params;
+        this.required = Collections.unmodifiableList(required);
+        this.def = Collections.unmodifiableList(def);
+        this.names = Collections.unmodifiableSet(names);
+        this.varArgs = varArgs;
+        this.emptyVarArgs = emptyVarArgs;
+    }
+
+    private static int slotOf(ShnapFrameDescriptor frame, String name) {
+        return frame == null ? -1 : frame.slotOf(name);
+    }
+
+    public List<ShnapParameter> getParams() {
+        return this.params;
+    }
+
+    public List<ShnapParameter> getRequired() {
+        return this.required;
+    }
+
+    public List<ShnapParameter> getDef() {
+        return this.def;
+    }
+
+    public Set<String> getNames() {
+        return this.names;
+    }
+
+    public int size() {
+        return this.positional.length;
+    }
+
+    public String getName(int index) {
+        return this.positional[index];
+    }
+
+    public int getSlot(int index) {
+        return this.slots[index];
+    }
+
+    public int defaultCount() {
+        return this.defaults.length;
+    }
+
+    public ShnapParameter getDefault(int index) {
+        return this.defaults[index];
+    }
+
+    public int getDefaultSlot(int index) {
+        return this.defaultSlots[index];
+    }
+
+    public ShnapObject getConstant(int index) {
+        return this.constants[index];
+    }
+
+    public int getVarArgs() {
+        return this.varArgs;
+    }
+
+    public int getEmptyVarArgs() {
+        return this.emptyVarArgs;
+    }
+
+    public boolean hasVarArgs() {
+        return this.varArgs != -1;
+    }
+
+}
@@ -45,56 +45,67 @@ package com.gmail.socraticphoenix.shnap.type.object;
 
 import com.gmail.socraticphoenix.shnap.parse.ShnapLoc;
 import com.gmail.socraticphoenix.shnap.program.ShnapParameter;
+import com.gmail.socraticphoenix.shnap.program.compiled.ShnapTieredBody;
 import com.gmail.socraticphoenix.shnap.program.context.ShnapContext;
 import com.gmail.socraticphoenix.shnap.program.context.ShnapExecution;
+import com.gmail.socraticphoenix.shnap.program.context.ShnapFrameDescriptor;
 import com.gmail.socraticphoenix.shnap.program.context.ShnapExecution.State;
+import com.gmail.socraticphoenix.shnap.program.context.ShnapTailCall;
 import com.gmail.socraticphoenix.shnap.program.instructions.ShnapInstruction;
+import com.gmail.socraticphoenix.shnap.program.stepper.ShnapFunctionStepper;
+import com.gmail.socraticphoenix.shnap.program.stepper.ShnapStepMachine;
+import com.gmail.socraticphoenix.shnap.program.stepper.ShnapStepper;
 import com.gmail.socraticphoenix.shnap.run.env.ShnapEnvironment;
 import com.gmail.socraticphoenix.shnap.run.env.ShnapTraceback;
 import com.gmail.socraticphoenix.shnap.type.natives.ShnapArrayNative;
 import com.gmail.socraticphoenix.shnap.type.natives.num.ShnapNumberNative;
 import com.gmail.socraticphoenix.shnap.util.ShnapFactory;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import java.util.Set;
 
 public class ShnapFunction extends ShnapObject {
+    protected static final ShnapObject[] NO_ARGS = new ShnapObject[0];
+
     protected List<ShnapParameter> params;
 
     protected List<ShnapParameter> required;
     protected List<ShnapParameter> def;
     protected Set<String> names;
     protected ShnapInstruction body;
+    protected ShnapFrameDescriptor frame;
+    protected ShnapTieredBody tier;
+    protected ShnapBindingPlan plan;
 
     private boolean hasVarArgs;
 
     public ShnapFunction(ShnapLoc loc, List<ShnapParameter> parameters, ShnapInstruction body) {
-        super(loc, new ShnapContext(), "function");
-        this.loc = loc;
-        this.params = parameters;
-        this.names = new HashSet<>();
+        this(loc, parameters, body, null);
+    }
 
-        this.required = new ArrayList<>();
-        this.def = new ArrayList<>();
-        this.body = body;
-        for (ShnapParameter parameter : parameters) {
-            if (parameter.getValue() == null) {
-                this.required.add(parameter);
-            } else {
-                this.def.add(parameter);
-            }
+    public ShnapFunction(ShnapLoc loc, List<ShnapParameter> parameters, ShnapInstruction body, ShnapFrameDescriptor frame) {
+        this(loc, parameters, body, frame, null);
+    }
 
-            if (parameter.isVariable()) {
-                this.hasVarArgs = true;
-            }
+    public ShnapFunction(ShnapLoc loc, List<ShnapParameter> parameters, ShnapInstruction body, ShnapFrameDescriptor frame, ShnapTieredBody tier) {
+        this(loc, body, frame, tier, new ShnapBindingPlan(parameters, frame));
+    }
 
-            this.names.add(parameter.getName());
-        }
+    public ShnapFunction(ShnapLoc loc, ShnapInstruction body, ShnapFrameDescriptor frame, ShnapTieredBody tier, ShnapBindingPlan plan) {
+        super(loc, new ShnapContext(), "function");
+        this.tier = tier;
+        this.frame = frame;
+        this.loc = loc;
+        this.body = body;
+        this.plan = plan;
+        this.params = plan.getParams();
+        this.required = plan.getRequired();
+        this.def = plan.getDef();
+        this.names = plan.getNames();
+        this.hasVarArgs = plan.hasVarArgs();
     }
 
     @Override
@@ -103,7 +114,7 @@ public class ShnapFunction extends ShnapObject {
     }
 
     public ShnapFunction init(ShnapObject parent) {
-        this.init(parent.context);
+        this.init(parent.getContext());
         return this;
     }
 
@@ -114,11 +125,12 @@ public class ShnapFunction extends ShnapObject {
     }
 
     public ShnapFunction copyPreInit() {
-        return new ShnapFunction(this.loc, this.params, this.body);
+        return new ShnapFunction(this.loc, this.body, this.frame, this.tier, this.plan);
     }
 
     public ShnapExecution invoke(ShnapEnvironment tracer) {
-        return this.invoke(Collections.emptyList(), Collections.emptyMap(), tracer);
+        this.trace(tracer);
+        return this.invokePrivate(NO_ARGS, Collections.emptyMap(), tracer);
     }
 
     public void trace(ShnapEnvironment tracer) {
@@ -129,88 +141,121 @@ public class ShnapFunction extends ShnapObject {
         if (order != 0) {
             values.add(ShnapNumberNative.valueOf(order));
         }
-        return this.invokePrivate(values, Collections.emptyMap(), tracer);
+        return this.invokePrivate(values.toArray(NO_ARGS), Collections.emptyMap(), tracer);
     }
 
     public ShnapObject copyWith(ShnapContext context) {
-        ShnapFunction func = new ShnapFunction(this.loc, this.params, this.body);
+        ShnapFunction func = new ShnapFunction(this.loc, this.body, this.frame, this.tier, this.plan);
         func.init(context);
         return func;
     }
 
-    public ShnapExecution invokeWithoutTrace(List<ShnapObject> values, Map<String, ShnapObject> defValues, ShnapEnvironment tracer) {
+    public ShnapExecution invokeWithoutTrace(ShnapObject[] values, Map<String, ShnapObject> defValues, ShnapEnvironment tracer) {
         return this.invokePrivate(values, defValues, tracer);
     }
 
     public ShnapExecution invoke(List<ShnapObject> values, Map<String, ShnapObject> defValues, ShnapEnvironment tracer) {
         this.trace(tracer);
-        return this.invokePrivate(values, defValues, tracer);
+        return this.invokePrivate(values.toArray(NO_ARGS), defValues, tracer);
     }
 
-    protected ShnapExecution invokePrivate(List<ShnapObject> values, Map<String, ShnapObject> defValues, ShnapEnvironment tracer) {
+    protected ShnapExecution invokePrivate(ShnapObject[] values, Map<String, ShnapObject> defValues, ShnapEnvironment tracer) {
         try {
-            ShnapContext functionContext = this.getContext().copy();
-            functionContext.setLocally("thisFunc", this);
-            if (values.size() + defValues.size() > this.paramsSize() && !this.hasVarArgs) {
-                return ShnapExecution.throwing(ShnapFactory.makeExceptionObj("shnap.ParameterSizeError", "Expected at most " + this.paramsSize() + " params, but got " + (values.size() + defValues.size()), null, "shnap.ParameterError", "shnap.InvocationError"), tracer, this.getLocation());
-            } else if (values.size() + defValues.size() + (this.hasVarArgs ? 1 : 0) < this.paramSizeId()) {
-                return ShnapExecution.throwing(ShnapFactory.makeExceptionObj("shnap.ParameterSizeError", "Expected at least " + this.paramsSize() + " params, but got " + (values.size() + defValues.size()), null, "shnap.ParameterError", "shnap.InvocationError"), tracer, this.getLocation());
+            if (tracer.isSteppingEnabled()) {
+                return new ShnapStepMachine(this.asStepper(values, defValues, tracer)).run(tracer);
             }
+            return this.complete(this.enter(values, defValues, tracer), tracer);
+        } catch (StackOverflowError e) {
+            return ShnapExecution.throwing(ShnapFactory.makeExceptionObj("shnap.StackOverflowError", "Recursed too deeply",null), tracer, this.getLocation());
+        } catch (Throwable other) {
+            return ShnapExecution.throwing(ShnapFactory.mimicJavaException(other), tracer, this.getLocation());
+        }
+    }
 
-            for (Map.Entry<String, ShnapObject> def : defValues.entrySet()) {
-                String name = def.getKey();
-                if (this.names.contains(name)) {
-                    functionContext.setLocally(name, def.getValue());
-                } else {
-                    return ShnapExecution.throwing(ShnapFactory.makeExceptionObj("shnap.ParameterMismatchError", "Unexpected parameter for " + name, null, "shnap.ParameterError", "shnap.InvocationError"), tracer, this.getLocation());
-                }
+    public ShnapExecution enter(ShnapObject[] values, Map<String, ShnapObject> defValues, ShnapEnvironment tracer) {
+        ShnapContext functionContext = this.activate();
+        ShnapExecution denied = this.bind(functionContext, values, defValues, tracer);
+        return denied != null ? denied : this.run(functionContext, tracer);
+    }
+
+    public ShnapStepper asStepper(ShnapObject[] values, Map<String, ShnapObject> defValues, ShnapEnvironment tracer) {
+        ShnapContext functionContext = this.activate();
+        ShnapExecution denied = this.bind(functionContext, values, defValues, tracer);
+        return new ShnapFunctionStepper(this, denied == null ? this.body.asStepper(functionContext) : null, denied);
+    }
+
+    private ShnapContext activate() {
+        ShnapContext functionContext = ShnapContext.activationOf(this.getContext(), this.frame);
+        functionContext.setLocally("thisFunc", this);
+        return functionContext;
+    }
+
+    private ShnapExecution bind(ShnapContext functionContext, ShnapObject[] values, Map<String, ShnapObject> defValues, ShnapEnvironment tracer) {
+        if (values.length + defValues.size() > this.paramsSize() && !this.hasVarArgs) {
+            return ShnapExecution.throwing(ShnapFactory.makeExceptionObj("shnap.ParameterSizeError", "Expected at most " + this.paramsSize() + " params, but got " + (values.length + defValues.size()), null, "shnap.ParameterError", "shnap.InvocationError"), tracer, this.getLocation());
+        } else if (values.length + defValues.size() + (this.hasVarArgs ? 1 : 0) < this.paramSizeId()) {
+            return ShnapExecution.throwing(ShnapFactory.makeExceptionObj("shnap.ParameterSizeError", "Expected at least " + this.paramsSize() + " params, but got " + (values.length + defValues.size()), null, "shnap.ParameterError", "shnap.InvocationError"), tracer, this.getLocation());
+        }
+
+        for (Map.Entry<String, ShnapObject> def : defValues.entrySet()) {
+            String name = def.getKey();
+            if (this.names.contains(name)) {
+                functionContext.setLocally(name, def.getValue());
+            } else {
+                return ShnapExecution.throwing(ShnapFactory.makeExceptionObj("shnap.ParameterMismatchError", "Unexpected parameter for " + name, null, "shnap.ParameterError", "shnap.InvocationError"), tracer, this.getLocation());
             }
+        }
 
-            for (ShnapParameter def : this.def) {
-                if (!defValues.containsKey(def.getName())) {
+        ShnapBindingPlan plan = this.plan;
+        for (int i = 0; i < plan.defaultCount(); i++) {
+            ShnapParameter def = plan.getDefault(i);
+            if (!defValues.containsKey(def.getName())) {
+                ShnapObject value = plan.getConstant(i);
+                if (value == null) {
                     ShnapExecution res = def.getValue().exec(context, tracer);
                     if (res.isAbnormal()) {
                         return res;
                     }
-                    functionContext.setLocally(def.getName(), res.getValue());
+                    value = res.getValue();
                 }
+                functionContext.bind(plan.getDefaultSlot(i), def.getName(), value);
             }
+        }
 
-            boolean iter = false;
-            for (int i = 0; i < this.paramsSize() && i < values.size(); i++) {
-                ShnapParameter parameter = this.params.get(i);
-                String name = parameter.getName();
-                if (parameter.isVariable()) {
-                    iter = true;
-                    int len = values.size() - i;
-                    ShnapObject[] arr = new ShnapObject[len];
-                    for (int j = 0; j < len; j++) {
-                        arr[j] = values.get(j + i);
-                    }
-                    functionContext.setLocally(name, new ShnapArrayNative(parameter.getLocation(), arr));
-                    break;
-                } else if (defValues.containsKey(name)) {
-                    return ShnapExecution.throwing(ShnapFactory.makeExceptionObj("shnap.ParameterMismatchError", "Unexpected duplicate parameter for " + name, null, "shnap.ParameterError", "shnap.InvocationError"), tracer, this.getLocation());
-                } else {
-                    functionContext.setLocally(name, values.get(i));
+        int count = Math.min(values.length, plan.size());
+        int varArgs = plan.getVarArgs();
+        int bound = varArgs != -1 && varArgs < count ? varArgs : count;
+        if (!defValues.isEmpty()) {
+            for (int i = 0; i < bound; i++) {
+                if (defValues.containsKey(plan.getName(i))) {
+                    return ShnapExecution.throwing(ShnapFactory.makeExceptionObj("shnap.ParameterMismatchError", "Unexpected duplicate parameter for " + plan.getName(i), null, "shnap.ParameterError", "shnap.InvocationError"), tracer, this.getLocation());
                 }
             }
+        }
+        for (int i = 0; i < bound; i++) {
+            functionContext.bind(plan.getSlot(i), plan.getName(i), values[i]);
+        }
 
-            if (!iter && this.hasVarArgs) {
-                Optional<ShnapParameter> param = this.required.stream().filter(ShnapParameter::isVariable).findFirst();
-                param.ifPresent(shnapParameter -> functionContext.setLocally(shnapParameter.getName(), new ShnapArrayNative(this.getLocation(), 0)));
-            }
+        if (bound < count) {
+            ShnapArrayNative rest = new ShnapArrayNative(this.params.get(varArgs).getLocation(), Arrays.copyOfRange(values, varArgs, values.length));
+            functionContext.bind(plan.getSlot(varArgs), plan.getName(varArgs), rest);
+        } else if (plan.getEmptyVarArgs() != -1) {
+            int empty = plan.getEmptyVarArgs();
+            functionContext.bind(plan.getSlot(empty), plan.getName(empty), new ShnapArrayNative(this.getLocation(), 0));
+        }
+        return null;
+    }
 
-            ShnapExecution e = this.body.exec(functionContext, tracer);
-            if (e.getState() == State.THROWING) {
-                return e;
-            } else if (e.getState() == State.RETURNING) {
-                tracer.popTraceback();
-                return ShnapExecution.normal(e.getValue(), tracer, this.getLocation());
-            } else {
-                tracer.popTraceback();
-                return ShnapExecution.normal(ShnapObject.getVoid(), tracer, this.getLocation());
+    public boolean acceptsExactly(int count) {
+        return this.getClass() == ShnapFunction.class && !this.hasVarArgs && this.def.isEmpty() && this.required.size() == count;
+    }
+
+    public ShnapExecution invokeExact(ShnapObject[] values, ShnapEnvironment tracer) {
+        try {
+            if (tracer.isSteppingEnabled()) {
+                return new ShnapStepMachine(this.asStepper(values, Collections.emptyMap(), tracer)).run(tracer);
             }
+            return this.complete(this.enterExact(values, tracer), tracer);
         } catch (StackOverflowError e) {
             return ShnapExecution.throwing(ShnapFactory.makeExceptionObj("shnap.StackOverflowError", "Recursed too deeply",null), tracer, this.getLocation());
         } catch (Throwable other) {
@@ -218,6 +263,35 @@ public class ShnapFunction extends ShnapObject {
         }
     }
 
+    public ShnapExecution enterExact(ShnapObject[] values, ShnapEnvironment tracer) {
+        ShnapContext functionContext = this.activate();
+        ShnapBindingPlan plan = this.plan;
+        for (int i = 0; i < values.length; i++) {
+            functionContext.bind(plan.getSlot(i), plan.getName(i), values[i]);
+        }
+        return this.run(functionContext, tracer);
+    }
+
+    private ShnapExecution run(ShnapContext functionContext, ShnapEnvironment tracer) {
+        return this.tier == null ? this.body.exec(functionContext, tracer) : this.tier.exec(functionContext, tracer);
+    }
+
+    public ShnapExecution complete(ShnapExecution e, ShnapEnvironment tracer) {
+        while (e instanceof ShnapTailCall) {
+            tracer.popTraceback();
+            e = ((ShnapTailCall) e).enter(tracer);
+        }
+        if (e.getState() == State.THROWING) {
+            return e;
+        } else if (e.getState() == State.RETURNING) {
+            tracer.popTraceback();
+            return ShnapExecution.normal(e.getValue(), tracer, this.getLocation());
+        } else {
+            tracer.popTraceback();
+            return ShnapExecution.normal(ShnapObject.getVoid(), tracer, this.getLocation());
+        }
+    }
+
     private boolean containsParam(int i) {
         return i >= 0 && i < this.paramsSize();
     }
@@ -246,4 +320,9 @@ public class ShnapFunction extends ShnapObject {
     public List<ShnapParameter> getParams() {
         return params;
     }
+
+    public ShnapInstruction getBody() {
+        return this.body;
+    }
+
 }
@@ -27,6 +27,7 @@ import com.gmail.socraticphoenix.shnap.program.AbstractShnapLocatable;
 import com.gmail.socraticphoenix.shnap.program.ShnapOperators;
 import com.gmail.socraticphoenix.shnap.program.context.ShnapContext;
 import com.gmail.socraticphoenix.shnap.program.context.ShnapExecution;
+import com.gmail.socraticphoenix.shnap.program.context.ShnapPrototype;
 import com.gmail.socraticphoenix.shnap.run.env.ShnapEnvironment;
 import com.gmail.socraticphoenix.shnap.run.env.ShnapTraceback;
 import com.gmail.socraticphoenix.shnap.type.java.ShnapJavaInterface;
@@ -50,8 +51,10 @@ public class ShnapObject extends AbstractShnapLocatable {
     public static final String AS_ARRAY = "asArray";
     public static final String AS_JAVA = "asJava";
 
-    protected ShnapContext context;
+    protected volatile ShnapContext context;
+    private ShnapPrototype prototype;
     private String type;
+    private ShnapExecution normal;
 
     public ShnapObject(ShnapLoc loc, String type) {
         super(loc);
@@ -69,6 +72,12 @@ public class ShnapObject extends AbstractShnapLocatable {
         this.context.setFlag("this", ShnapContext.Flag.DONT_IMPORT);
     }
 
+    public ShnapObject(ShnapLoc loc, String type, ShnapPrototype prototype) {
+        super(loc);
+        this.type = type;
+        this.prototype = prototype;
+    }
+
     public String getType() {
         return this.type;
     }
@@ -81,6 +90,15 @@ public class ShnapObject extends AbstractShnapLocatable {
         return new ShnapObject(this.loc, ShnapContext.childOf(context), this.type);
     }
 
+    public ShnapExecution normalExecution() {
+        ShnapExecution normal = this.normal;
+        if (normal == null) {
+            normal = new ShnapExecution(this, ShnapExecution.State.NORMAL, null, null);
+            this.normal = normal;
+        }
+        return normal;
+    }
+
     public ShnapExecution resolve(ShnapEnvironment trc) {
         return ShnapExecution.normal(this, trc, this.getLocation());
     }
@@ -94,21 +112,36 @@ public class ShnapObject extends AbstractShnapLocatable {
     }
 
     public void init(ShnapContext context) {
-        this.context = ShnapContext.childOf(context);
+        this.context = ShnapContext.objectOf(context);
         this.context.setLocally("this", this);
         this.context.setFlag("this", ShnapContext.Flag.DONT_IMPORT);
     }
 
+    /**
+     * Returns this object's context. Prototype backed natives such as numbers and strings only build their context the
+     * first time it is needed, since most of them are never looked into
+     */
     public ShnapContext getContext() {
-        return this.context;
+        ShnapContext context = this.context;
+        if (context == null) {
+            synchronized (this) {
+                context = this.context;
+                if (context == null) {
+                    context = new ShnapContext(this.prototype);
+                    context.setLocally("this", this);
+                    this.context = context;
+                }
+            }
+        }
+        return context;
     }
 
     public ShnapExecution get(String name, ShnapEnvironment trc) {
-        return this.context.get(name, trc);
+        return this.getContext().get(name, trc);
     }
 
     public void set(String name, ShnapObject val) {
-        this.context.set(name, val);
+        this.getContext().set(name, val);
     }
 
     /**
@@ -141,53 +174,60 @@ public class ShnapObject extends AbstractShnapLocatable {
      * Returns an execution which is either abnormal (in case of failure), or has a value that is an instance of ShnapNumberNative
      */
     public ShnapExecution asNum(ShnapEnvironment tracer) {
-        return this.resolve(tracer).mapIfNormal(ex -> {
-            ShnapObject self = ex.getValue();
+        ShnapExecution resolved = this.resolve(tracer);
+        if (resolved.isAbnormal()) {
+            return resolved;
+        }
 
-            if (self instanceof ShnapNumberNative) {
-                return ShnapExecution.normal(self, tracer, self.getLocation());
-            } else {
-                return self.get(AS_NUMBER, tracer).mapIfNormal(func -> {
-                    if (func.getValue() instanceof ShnapFunction) {
-                        ShnapFunction function = (ShnapFunction) func.getValue();
-                        if (function.paramSizeId() == 0) {
-                            ShnapExecution e = function.invoke(tracer);
-                            if (!e.isAbnormal() && !(e.getValue() instanceof ShnapNumberNative)) {
-                                return ShnapExecution.throwing(ShnapFactory.makeExceptionObj("shnap.ReturnTypeError", AS_NUMBER + "() function returned a non-number object (" + e.getValue().getClass().getSimpleName() + ")", null, "shnap.TypeError"), tracer, self.getLocation());
-                            }
-                            return e;
-                        }
-                    }
-                    return ShnapExecution.throwing(ShnapFactory.makeExceptionObj("shnap.TypeError", "object cannot be converted to a number", null), tracer, self.getLocation());
-                });
+        ShnapObject self = resolved.getValue();
+        if (self instanceof ShnapNumberNative) {
+            return self.normalExecution();
+        }
+
+        ShnapExecution func = self.get(AS_NUMBER, tracer);
+        if (func.isAbnormal()) {
+            return func;
+        } else if (func.getValue() instanceof ShnapFunction) {
+            ShnapFunction function = (ShnapFunction) func.getValue();
+            if (function.paramSizeId() == 0) {
+                ShnapExecution e = function.invoke(tracer);
+                if (!e.isAbnormal() && !(e.getValue() instanceof ShnapNumberNative)) {
+                    return ShnapExecution.throwing(ShnapFactory.makeExceptionObj("shnap.ReturnTypeError", AS_NUMBER + "() function returned a non-number object (" + e.getValue().getClass().getSimpleName() + ")", null, "shnap.TypeError"), tracer, self.getLocation());
+                }
+                return e;
             }
-        });
+        }
+        return ShnapExecution.throwing(ShnapFactory.makeExceptionObj("shnap.TypeError", "object cannot be converted to a number", null), tracer, self.getLocation());
     }
 
     /**
      * Returns an execution which is either abnormal (in case of failure), or has a value that is an instance of ShnapStringNative
      */
     public ShnapExecution asString(ShnapEnvironment tracer) {
-        return this.resolve(tracer).mapIfNormal(ex -> {
-            ShnapObject self = ex.getValue();
-            if (self instanceof ShnapStringNative) {
-                return ShnapExecution.normal(self, tracer, self.getLocation());
-            } else {
-                return self.get(AS_STRING, tracer).mapIfNormal(func -> {
-                    if (func.getValue() instanceof ShnapFunction) {
-                        ShnapFunction function = (ShnapFunction) func.getValue();
-                        if (function.paramSizeId() == 0) {
-                            ShnapExecution e = function.invoke(tracer);
-                            if (!e.isAbnormal() && !(e.getValue() instanceof ShnapStringNative)) {
-                                return ShnapExecution.throwing(ShnapFactory.makeExceptionObj("shnap.ReturnTypeError", AS_STRING + "() function returned a non-string object (" + e.getValue().getClass().getSimpleName() + ")", null, "shnap.TypeError"), tracer, self.getLocation());
-                            }
-                            return e;
-                        }
-                    }
-                    return ShnapExecution.normal(new ShnapStringNative(ShnapLoc.BUILTIN, self.defaultToString()), tracer, self.getLocation());
-                });
+        ShnapExecution resolved = this.resolve(tracer);
+        if (resolved.isAbnormal()) {
+            return resolved;
+        }
+
+        ShnapObject self = resolved.getValue();
+        if (self instanceof ShnapStringNative) {
+            return self.normalExecution();
+        }
+
+        ShnapExecution func = self.get(AS_STRING, tracer);
+        if (func.isAbnormal()) {
+            return func;
+        } else if (func.getValue() instanceof ShnapFunction) {
+            ShnapFunction function = (ShnapFunction) func.getValue();
+            if (function.paramSizeId() == 0) {
+                ShnapExecution e = function.invoke(tracer);
+                if (!e.isAbnormal() && !(e.getValue() instanceof ShnapStringNative)) {
+                    return ShnapExecution.throwing(ShnapFactory.makeExceptionObj("shnap.ReturnTypeError", AS_STRING + "() function returned a non-string object (" + e.getValue().getClass().getSimpleName() + ")", null, "shnap.TypeError"), tracer, self.getLocation());
+                }
+                return e;
             }
-        });
+        }
+        return ShnapExecution.normal(new ShnapStringNative(ShnapLoc.BUILTIN, self.defaultToString()), tracer, self.getLocation());
     }
 
     public String defaultToString() {
@@ -202,52 +242,61 @@ public class ShnapObject extends AbstractShnapLocatable {
      * Returns an execution which is either abnormal (in case of failure), or has a value that is an instance of ShnapArrayNative
      */
     public ShnapExecution asArray(ShnapEnvironment tracer) {
-        return this.resolve(tracer).mapIfNormal(exca -> {
-            ShnapObject self = exca.getValue();
-            if (self instanceof ShnapArrayNative) {
-                return ShnapExecution.normal(self, tracer, self.getLocation());
-            } else {
-                return self.get(AS_ARRAY, tracer).mapIfNormal(func -> {
-                    if (func.getValue() instanceof ShnapFunction) {
-                        ShnapFunction function = (ShnapFunction) func.getValue();
-                        if (function.paramSizeId() == 0) {
-                            ShnapExecution e = function.invoke(tracer);
-                            if (!e.isAbnormal() && !(e.getValue() instanceof ShnapArrayNative)) {
-                                return ShnapExecution.throwing(ShnapFactory.makeExceptionObj("shnap.ReturnTypeError", AS_ARRAY + "() function returned a non-array object (" + e.getValue().getClass().getSimpleName() + ")", null, "shnap.TypeError"), tracer, self.getLocation());
-                            }
-                            return e;
-                        }
-                    }
-                    return ShnapExecution.throwing(ShnapFactory.makeExceptionObj("shnap.TypeError", "object cannot be converted to array", null), tracer, self.getLocation());
-                });
+        ShnapExecution resolved = this.resolve(tracer);
+        if (resolved.isAbnormal()) {
+            return resolved;
+        }
+
+        ShnapObject self = resolved.getValue();
+        if (self instanceof ShnapArrayNative) {
+            return self.normalExecution();
+        }
+
+        ShnapExecution func = self.get(AS_ARRAY, tracer);
+        if (func.isAbnormal()) {
+            return func;
+        } else if (func.getValue() instanceof ShnapFunction) {
+            ShnapFunction function = (ShnapFunction) func.getValue();
+            if (function.paramSizeId() == 0) {
+                ShnapExecution e = function.invoke(tracer);
+                if (!e.isAbnormal() && !(e.getValue() instanceof ShnapArrayNative)) {
+                    return ShnapExecution.throwing(ShnapFactory.makeExceptionObj("shnap.ReturnTypeError", AS_ARRAY + "() function returned a non-array object (" + e.getValue().getClass().getSimpleName() + ")", null, "shnap.TypeError"), tracer, self.getLocation());
+                }
+                return e;
             }
-        });
+        }
+        return ShnapExecution.throwing(ShnapFactory.makeExceptionObj("shnap.TypeError", "object cannot be converted to array", null), tracer, self.getLocation());
     }
 
     /**
      * Returns an execution which is either abnormal (in case of failure), or has a value that is an instance of ShnapBooleanNative
      */
     public ShnapExecution asBool(ShnapEnvironment tracer) {
-        return this.resolve(tracer).mapIfNormal(exca -> {
-            ShnapObject self = exca.getValue();
-            if (self instanceof ShnapBooleanNative) {
-                return ShnapExecution.normal(self, tracer, self.getLocation());
-            } else {
-                return self.get(AS_BOOLEAN, tracer).mapIfNormal(func -> {
-                    if (func.getValue() instanceof ShnapFunction) {
-                        ShnapFunction function = (ShnapFunction) func.getValue();
-                        if (function.paramSizeId() == 0) {
-                            ShnapExecution e = function.invoke(tracer);
-                            if (!e.isAbnormal() && !(e.getValue() instanceof ShnapBooleanNative)) {
-                                return ShnapExecution.throwing(ShnapFactory.makeExceptionObj("shnap.ReturnTypeError", AS_BOOLEAN + "() function returned a non-java object (" + e.getValue().getClass().getSimpleName() + ")", null, "shnap.TypeError"), tracer, self.getLocation());
-                            }
-                            return e;
-                        }
-                    }
-                    return self.asNum(tracer).mapIfNormal(e -> e.getValue().asBool(tracer));
-                });
+        ShnapExecution resolved = this.resolve(tracer);
+        if (resolved.isAbnormal()) {
+            return resolved;
+        }
+
+        ShnapObject self = resolved.getValue();
+        if (self instanceof ShnapBooleanNative) {
+            return self.normalExecution();
+        }
+
+        ShnapExecution func = self.get(AS_BOOLEAN, tracer);
+        if (func.isAbnormal()) {
+            return func;
+        } else if (func.getValue() instanceof ShnapFunction) {
+            ShnapFunction function = (ShnapFunction) func.getValue();
+            if (function.paramSizeId() == 0) {
+                ShnapExecution e = function.invoke(tracer);
+                if (!e.isAbnormal() && !(e.getValue() instanceof ShnapBooleanNative)) {
+                    return ShnapExecution.throwing(ShnapFactory.makeExceptionObj("shnap.ReturnTypeError", AS_BOOLEAN + "() function returned a non-java object (" + e.getValue().getClass().getSimpleName() + ")", null, "shnap.TypeError"), tracer, self.getLocation());
+                }
+                return e;
             }
-        });
+        }
+        ShnapExecution num = self.asNum(tracer);
+        return num.isAbnormal() ? num : num.getValue().asBool(tracer);
     }
 
     /**
@@ -50,12 +50,18 @@ import com.gmail.socraticphoenix.shnap.parse.ShnapLoc;
 import com.gmail.socraticphoenix.shnap.program.instructions.ShnapInstruction;
 import com.gmail.socraticphoenix.shnap.run.compiler.DangerousSupplier;
 import com.gmail.socraticphoenix.shnap.run.compiler.ShnapCompilerUtil;
+import com.gmail.socraticphoenix.shnap.run.compiler.ShnapSlotResolver;
 import com.gmail.socraticphoenix.shnap.run.env.ShnapEnvironment;
+import com.gmail.socraticphoenix.shnap.run.env.ShnapScriptCircularInitException;
+import com.gmail.socraticphoenix.shnap.run.env.ShnapScriptLoadingFailedException;
 import com.gmail.socraticphoenix.shnap.run.env.ShnapTraceback;
 import com.gmail.socraticphoenix.shnap.parse.ShnapParser;
 import com.gmail.socraticphoenix.shnap.program.context.ShnapContext;
 import com.gmail.socraticphoenix.shnap.program.context.ShnapExecution;
 import com.gmail.socraticphoenix.shnap.program.instructions.ShnapInstructionSequence;
+import com.gmail.socraticphoenix.shnap.program.stepper.ShnapScriptStepper;
+import com.gmail.socraticphoenix.shnap.program.stepper.ShnapStepMachine;
+import com.gmail.socraticphoenix.shnap.program.stepper.ShnapStepper;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
@@ -64,6 +70,8 @@ import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.regex.Pattern;
 
 public class ShnapScript extends ShnapObject {
@@ -74,8 +82,11 @@ public class ShnapScript extends ShnapObject {
     private String name;
     private String fileName;
     private ShnapInstruction val;
-    private ShnapExecution initExec;
-    public boolean initialized;
+    private volatile ShnapExecution initExec;
+    public volatile boolean initialized;
+    private ShnapEnvironment initializer;
+    private final ReentrantLock initLock = new ReentrantLock();
+    private final Condition initDone = this.initLock.newCondition();
 
     public ShnapScript(String name, String fileName) {
         super(null, "script");
@@ -174,8 +185,26 @@ public class ShnapScript extends ShnapObject {
         return out.toByteArray();
     }
 
+    public static ShnapScript read(ByteBuffer buffer, String name, String fileName, String format) throws IOException {
+        ShnapScript script = new ShnapScript(name, fileName);
+        if (format.equalsIgnoreCase("shnap")) {
+            DangerousSupplier<String> content = () -> StandardCharsets.UTF_8.decode(buffer.duplicate()).toString();
+            script.setContent(content);
+            ShnapParser parser = new ShnapParser(content.get(), script);
+            script.setVal(parser.parseAll());
+        } else if (format.equalsIgnoreCase("cshnap")) {
+            script.setContent(() -> Bytes.readString(ByteStream.of(buffer.duplicate())));
+            ByteBuffer byteBuffer = buffer.duplicate();
+            int contLen = byteBuffer.getInt();
+            byteBuffer.position(byteBuffer.position() + contLen);
+            ShnapScript.readCompiled(ByteStream.of(byteBuffer), script);
+        }
+
+        return script;
+    }
+
     public static ShnapScript readCompiled(ByteStream stream, ShnapScript building) throws IOException {
-        building.setVal(ShnapCompilerUtil.read(stream, building));
+        building.setVal(ShnapSlotResolver.resolve(ShnapCompilerUtil.read(stream, building)));
         return building;
     }
 
@@ -195,17 +224,76 @@ public class ShnapScript extends ShnapObject {
     }
 
     public ShnapExecution initScript(ShnapEnvironment tracer) {
+        if (!this.beginInit(tracer)) {
+            return this.awaitInit(tracer);
+        }
+        ShnapExecution ex = tracer.isSteppingEnabled() ? new ShnapStepMachine(this.val.asStepper(this.context)).run(tracer) : this.val.exec(this.context, tracer);
+        return this.finishInit(ex, tracer);
+    }
+
+    public boolean beginInit(ShnapEnvironment tracer) {
+        this.initLock.lock();
+        try {
+            if (this.initialized || this.initializer != null) {
+                return false;
+            }
+            this.initializer = tracer;
+        } finally {
+            this.initLock.unlock();
+        }
         tracer.applyDefaults(this);
-        this.setInitialized(true);
         tracer.pushTraceback(ShnapTraceback.frame(new ShnapLoc(0, 0, this), "Init " + this.defaultToString()));
-        ShnapExecution ex = this.val.exec(this.context, tracer);
+        return true;
+    }
+
+    public ShnapExecution finishInit(ShnapExecution ex, ShnapEnvironment tracer) {
+        ex.requireSettled();
         if (!ex.isAbnormal()) {
             tracer.popTraceback();
         }
-        this.initExec = ex;
+        this.initLock.lock();
+        try {
+            this.initExec = ex;
+            this.initialized = true;
+            this.initializer = null;
+            this.initDone.signalAll();
+        } finally {
+            this.initLock.unlock();
+        }
         return ex;
     }
 
+    public boolean isInitializingElsewhere(ShnapEnvironment tracer) {
+        this.initLock.lock();
+        try {
+            return !this.initialized && this.initializer != null && this.initializer != tracer;
+        } finally {
+            this.initLock.unlock();
+        }
+    }
+
+    public ShnapExecution awaitInit(ShnapEnvironment tracer) {
+        this.initLock.lock();
+        try {
+            if (!this.initialized && this.initializer == tracer) {
+                throw new ShnapScriptCircularInitException(this.name + "->" + this.name);
+            }
+            while (!this.initialized) {
+                this.initDone.await();
+            }
+            return this.initExec;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ShnapScriptLoadingFailedException(e);
+        } finally {
+            this.initLock.unlock();
+        }
+    }
+
+    public ShnapStepper asStepper() {
+        return new ShnapScriptStepper(this);
+    }
+
     public ShnapExecution runMain(ShnapEnvironment tracer) {
         if (!this.initialized) {
             ShnapExecution e = this.initScript(tracer);
@@ -66,6 +66,7 @@ import com.gmail.socraticphoenix.shnap.program.instructions.block.ShnapIfBlock;
 import com.gmail.socraticphoenix.shnap.program.instructions.block.ShnapScopeBlock;
 import com.gmail.socraticphoenix.shnap.run.env.ShnapEnvironment;
 import com.gmail.socraticphoenix.shnap.type.natives.ShnapArrayNative;
+import com.gmail.socraticphoenix.shnap.type.natives.ShnapNativeTypeDescriptor;
 import com.gmail.socraticphoenix.shnap.type.natives.ShnapStringNative;
 import com.gmail.socraticphoenix.shnap.type.natives.num.ShnapBooleanNative;
 import com.gmail.socraticphoenix.shnap.type.natives.num.ShnapNumberNative;
@@ -330,7 +331,7 @@ public interface ShnapFactory {
         return new ShnapParameter(ShnapLoc.BUILTIN, name, inst);
     }
 
-    static void implementOperators(ShnapObject target,
+    static void implementOperators(ShnapNativeTypeDescriptor target,
                                    ShnapFunction negate,
                                    ShnapFunction bitwiseNot,
                                    ShnapFunction raise,
@@ -364,8 +365,8 @@ public interface ShnapFactory {
         implementOperator(target, BITIWSE_XOR, bitwiseXor);
     }
 
-    static void implementOperator(ShnapObject target, ShnapOperators operator, ShnapFunction function) {
-        target.getContext().set(operator.getFunc(), function);
+    static void implementOperator(ShnapNativeTypeDescriptor target, ShnapOperators operator, ShnapFunction function) {
+        target.define(operator.getFunc(), function);
     }
 
 }